@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# 启动性能基准：对比 default / lazy / cds / cds+lazy 四种启动模式
+# 输出每种模式的首个请求可用时间 (time-to-first-request) 与类加载数量
+#
+# 前置条件: mvn -Pcds -DskipTests package
+# 用法:     scripts/startup-benchmark.sh [轮数]
+#
+# 环境变量:
+#   PORT       监听端口 (默认 18080)
+#   PROBE_PATH 探测路径 (默认 /actuator/info，不依赖数据库)
+#   MODES      要测试的模式，空格分隔 (默认 "default lazy cds cds+lazy")
+set -euo pipefail
+
+ROUNDS="${1:-3}"
+PORT="${PORT:-18080}"
+PROBE_PATH="${PROBE_PATH:-/actuator/info}"
+MODES="${MODES:-default lazy cds cds+lazy}"
+
+PROJECT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+CDS_DIR="${PROJECT_DIR}/target/cds"
+JAR_NAME="webflux-demo-1.0.0.jar"
+OUT_DIR="${PROJECT_DIR}/target/startup-benchmark"
+mkdir -p "${OUT_DIR}"
+
+if [[ ! -f "${CDS_DIR}/${JAR_NAME}" || ! -f "${CDS_DIR}/application.jsa" ]]; then
+  echo "未找到 ${CDS_DIR}/${JAR_NAME} 或 application.jsa，请先执行: mvn -Pcds -DskipTests package" >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+run_once() {
+  local mode="$1" round="$2"
+  local log="${OUT_DIR}/${mode//+/-}-${round}-classload.log"
+  local jvm_args=("-Xlog:class+load=info:file=${log}")
+  local app_args=("--server.port=${PORT}")
+
+  case "${mode}" in
+    default) ;;
+    lazy) app_args+=("--spring.profiles.active=lazy") ;;
+    cds) jvm_args+=("-XX:SharedArchiveFile=application.jsa") ;;
+    cds+lazy)
+      jvm_args+=("-XX:SharedArchiveFile=application.jsa")
+      app_args+=("--spring.profiles.active=lazy")
+      ;;
+    *) echo "未知模式: ${mode}" >&2; exit 1 ;;
+  esac
+
+  local start
+  start="$(now_ms)"
+  (cd "${CDS_DIR}" && exec java "${jvm_args[@]}" -jar "${JAR_NAME}" "${app_args[@]}") \
+    > "${OUT_DIR}/${mode//+/-}-${round}-app.log" 2>&1 &
+  local pid=$!
+
+  until curl -sf -o /dev/null "http://localhost:${PORT}${PROBE_PATH}"; do
+    if ! kill -0 "${pid}" 2>/dev/null; then
+      echo "应用启动失败，日志见 ${OUT_DIR}/${mode//+/-}-${round}-app.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  local ttfr=$(( $(now_ms) - start ))
+
+  kill "${pid}" && wait "${pid}" 2>/dev/null || true
+
+  local loaded shared
+  loaded="$(grep -c 'source:' "${log}" || true)"
+  shared="$(grep -c 'source: shared objects file' "${log}" || true)"
+  echo "${ttfr} ${loaded} ${shared}"
+}
+
+printf '%-10s %6s %14s %14s %14s\n' "mode" "round" "ttfr(ms)" "classes" "from-cds"
+for mode in ${MODES}; do
+  total_ttfr=0
+  for round in $(seq 1 "${ROUNDS}"); do
+    read -r ttfr loaded shared < <(run_once "${mode}" "${round}")
+    printf '%-10s %6s %14s %14s %14s\n' "${mode}" "${round}" "${ttfr}" "${loaded}" "${shared}"
+    total_ttfr=$(( total_ttfr + ttfr ))
+  done
+  printf '%-10s %6s %14s\n' "${mode}" "avg" "$(( total_ttfr / ROUNDS ))"
+done
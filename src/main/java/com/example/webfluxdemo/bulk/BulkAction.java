@@ -0,0 +1,17 @@
+package com.example.webfluxdemo.bulk;
+
+/**
+ * 批量操作类型
+ */
+public enum BulkAction {
+
+    /**
+     * 停用：is_active 置为 false，已停用的用户不计入
+     */
+    DEACTIVATE,
+
+    /**
+     * 删除
+     */
+    DELETE
+}
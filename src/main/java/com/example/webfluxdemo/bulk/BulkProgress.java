@@ -0,0 +1,47 @@
+package com.example.webfluxdemo.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量操作进度，每处理完一批输出一条，最后一条 done 为 true
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProgress {
+
+    private BulkAction action;
+
+    /**
+     * 已执行的批次数
+     */
+    private int chunks;
+
+    /**
+     * 已处理的 ID 数
+     */
+    private long processed;
+
+    /**
+     * 实际修改/删除的行数
+     */
+    private long affected;
+
+    /**
+     * 开始时统计的目标用户数
+     */
+    private long total;
+
+    private boolean done;
+
+    /**
+     * 失败原因，成功时为 null；失败前已提交的批次不会回滚
+     */
+    private String error;
+
+    public static BulkProgress failed(BulkAction action, String error) {
+        return new BulkProgress(action, 0, 0, 0, 0, true, error);
+    }
+}
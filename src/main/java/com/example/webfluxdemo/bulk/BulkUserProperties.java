@@ -0,0 +1,39 @@
+package com.example.webfluxdemo.bulk;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 批量停用/删除配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkUserProperties {
+
+    /**
+     * 每条 UPDATE/DELETE 语句处理的 ID 数
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 相邻两批之间的停顿，把连接让给交互请求
+     */
+    private Duration pauseBetweenChunks = Duration.ofMillis(50);
+
+    /**
+     * 同时执行的批量任务数，超出时直接拒绝
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * 任务数已达上限而拒绝时 Retry-After 响应头的值
+     */
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    /**
+     * 按 ID 列表操作时单次请求最多包含的 ID 数
+     */
+    private int maxIds = 100_000;
+}
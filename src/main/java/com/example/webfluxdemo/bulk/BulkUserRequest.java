@@ -0,0 +1,40 @@
+package com.example.webfluxdemo.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量操作的目标用户：指定 ID 列表，或按条件筛选（条件之间为 AND）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+
+    /**
+     * 用户 ID 列表，指定后忽略筛选条件
+     */
+    private List<Long> ids;
+
+    /**
+     * 邮箱域名，如 example.com
+     */
+    private String emailDomain;
+
+    /**
+     * 只处理在此时间之前创建的用户
+     */
+    private LocalDateTime createdBefore;
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return (emailDomain != null && !emailDomain.isBlank()) || createdBefore != null;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.webfluxdemo.bulk;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 批量停用/删除用户
+ *
+ * 目标 ID 按 chunkSize 分批，每批一条 UPDATE/DELETE ... WHERE id = ANY(:ids) 语句，
+ * 逐批串行执行并在批次之间停顿，一个任务同时只占用一个连接；按条件筛选时以 id 为游标逐批读取目标 ID。
+ * 每批单独提交，失败时已完成的批次不回滚，进度中会给出已处理的数量
+ */
+@Slf4j
+@Service
+public class BulkUserService {
+
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile("^[A-Za-z0-9.-]+$");
+
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id = ANY(:ids)";
+    /**
+     * 内嵌 H2 的 DELETE 不返回生成值，改用数据变更表取回被删除的行
+     */
+    private static final String H2_DELETE_SQL = "SELECT id FROM OLD TABLE (" + DELETE_SQL + ")";
+    public static final String BUSY_MESSAGE = "批量操作并发数已达上限，请稍后重试";
+    private static final String DEACTIVATE_SQL =
+            "UPDATE users SET is_active = FALSE, updated_at = :now WHERE id = ANY(:ids) AND is_active = TRUE";
+
+    private final DatabaseClient databaseClient;
+    private final UserEventBus userEventBus;
+    private final BulkUserProperties properties;
+    private final Semaphore jobs;
+    private final Mono<Boolean> h2;
+
+    public BulkUserService(DatabaseClient databaseClient, UserEventBus userEventBus, BulkUserProperties properties) {
+        this.databaseClient = databaseClient;
+        this.userEventBus = userEventBus;
+        this.properties = properties;
+        this.jobs = new Semaphore(properties.getMaxConcurrentJobs());
+        this.h2 = Mono.defer(() -> databaseClient.inConnection(connection -> Mono.just(
+                        connection.getMetadata().getDatabaseProductName().startsWith("H2"))))
+                .cache();
+    }
+
+    /**
+     * 执行批量操作，每完成一批输出一条进度；同时运行的任务数已达上限时返回 null
+     */
+    public Flux<BulkProgress> tryRun(BulkAction action, BulkUserRequest request) {
+        log.info("批量{}用户 - ID数: {}, 邮箱域名: {}, 创建时间早于: {}", action,
+                request.getIds() != null ? request.getIds().size() : 0,
+                request.getEmailDomain(), request.getCreatedBefore());
+        try {
+            validate(request);
+        } catch (RuntimeException e) {
+            return Flux.error(e);
+        }
+        return withJobSlot(action, () -> {
+            if (request.hasIds()) {
+                List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+                return run(action, Mono.just((long) ids.size()), afterId -> Mono.just(nextIds(ids, afterId)),
+                        chunk -> execute(action, chunk));
+            }
+            Filter filter = Filter.of(action, request);
+            return run(action, count(filter), afterId -> selectIds(filter, afterId), chunk -> execute(action, chunk));
+        });
+    }
+
+    /**
+     * 没有空闲任务名额时返回 null，由调用方在响应开始前拒绝；
+     * 名额在订阅时占用 (创建后未订阅的任务不占名额)，在任务结束、失败或取消时释放。
+     * 检查与订阅之间名额被其他任务占用时，任务只输出一条失败进度
+     */
+    Flux<BulkProgress> withJobSlot(BulkAction action, Supplier<Flux<BulkProgress>> job) {
+        if (jobs.availablePermits() == 0) {
+            log.warn("批量操作并发数已达上限，拒绝批量{}请求", action);
+            return null;
+        }
+        return Flux.using(jobs::tryAcquire,
+                acquired -> acquired ? job.get() : Flux.just(BulkProgress.failed(action, BUSY_MESSAGE)),
+                acquired -> {
+                    if (acquired) {
+                        jobs.release();
+                    }
+                });
+    }
+
+    /**
+     * @param nextChunk 返回大于 afterId 的下一批目标 ID（升序，最多 chunkSize 个）
+     * @param statement 对一批 ID 执行语句，返回影响行数
+     */
+    Flux<BulkProgress> run(BulkAction action, Mono<Long> total, Function<Long, Mono<List<Long>>> nextChunk,
+                           Function<List<Long>, Mono<Long>> statement) {
+        return Flux.defer(() -> {
+            long start = System.currentTimeMillis();
+            BulkProgress progress = new BulkProgress(action, 0, 0, 0, 0, false, null);
+            Function<Long, Mono<Chunk>> chunk = afterId -> nextChunk.apply(afterId)
+                    .filter(ids -> !ids.isEmpty())
+                    .flatMap(ids -> statement.apply(ids)
+                            .map(affected -> new Chunk(ids.get(ids.size() - 1), ids.size(), affected)));
+            return total
+                    .doOnNext(progress::setTotal)
+                    // 上一批执行完才读取并执行下一批，批次之间停顿，交互请求可在间隙获得连接
+                    .thenMany(chunk.apply(Long.MIN_VALUE)
+                            .expand(previous -> previous.size() < properties.getChunkSize()
+                                    ? Mono.empty()
+                                    : chunk.apply(previous.lastId()).delaySubscription(properties.getPauseBetweenChunks())))
+                    .map(executed -> {
+                        progress.setChunks(progress.getChunks() + 1);
+                        progress.setProcessed(progress.getProcessed() + executed.size());
+                        progress.setAffected(progress.getAffected() + executed.affected());
+                        return copy(progress);
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        progress.setDone(true);
+                        log.info("批量{}用户完成: {} 批, 处理 {} 个, 影响 {} 行, 耗时 {} ms", action,
+                                progress.getChunks(), progress.getProcessed(), progress.getAffected(),
+                                System.currentTimeMillis() - start);
+                        return copy(progress);
+                    }))
+                    .onErrorResume(e -> {
+                        log.error("批量{}用户失败: {}", action, e.getMessage());
+                        progress.setDone(true);
+                        progress.setError(e.getMessage());
+                        return Mono.just(copy(progress));
+                    });
+        });
+    }
+
+    private Mono<Long> execute(BulkAction action, List<Long> ids) {
+        Long[] idArray = ids.toArray(new Long[0]);
+        if (action == BulkAction.DELETE) {
+            // 只为确实被删除的行 (PostgreSQL 驱动追加 RETURNING) 发布删除事件
+            return h2.flatMapMany(embedded -> databaseClient.sql(embedded ? H2_DELETE_SQL : DELETE_SQL)
+                            .bind("ids", idArray)
+                            .filter(statement -> embedded ? statement : statement.returnGeneratedValues("id"))
+                            .map(row -> row.get("id", Long.class))
+                            .all())
+                    .concatMap(id -> userEventBus.publish(UserChangeEvent.deleted(id)).onErrorResume(e -> Mono.empty())
+                            .thenReturn(id))
+                    .count();
+        }
+        // 返回确实被停用的行 (PostgreSQL 驱动追加 RETURNING)，逐行发布更新事件
+        return databaseClient.sql(DEACTIVATE_SQL)
+                .bind("ids", idArray)
+                .bind("now", LocalDateTime.now())
+                .filter(statement -> statement.returnGeneratedValues("id", "username", "email"))
+                .map(row -> UserChangeEvent.updated(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("email", String.class)))
+                .all()
+                .concatMap(event -> userEventBus.publish(event).onErrorResume(e -> Mono.empty()).thenReturn(event))
+                .count();
+    }
+
+    private Mono<Long> count(Filter filter) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT COUNT(*) FROM users WHERE " + filter.where());
+        for (Map.Entry<String, Object> parameter : filter.parameters().entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(row -> row.get(0, Long.class)).one();
+    }
+
+    /**
+     * 以 id 为游标读取下一批目标 ID，只在读取时短暂占用连接
+     */
+    private Mono<List<Long>> selectIds(Filter filter, long afterId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("SELECT id FROM users WHERE " + filter.where() + " AND id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", properties.getChunkSize());
+        for (Map.Entry<String, Object> parameter : filter.parameters().entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(row -> row.get("id", Long.class)).all().collectList();
+    }
+
+    List<Long> nextIds(List<Long> sortedIds, long afterId) {
+        int from = Collections.binarySearch(sortedIds, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return sortedIds.subList(from, Math.min(sortedIds.size(), from + properties.getChunkSize()));
+    }
+
+    /**
+     * 校验请求，不合法时抛出 RuntimeException
+     */
+    public void validate(BulkUserRequest request) {
+        if (!request.hasIds() && !request.hasFilter()) {
+            throw new RuntimeException("请指定用户ID列表或筛选条件");
+        }
+        if (request.hasIds() && request.getIds().size() > properties.getMaxIds()) {
+            throw new RuntimeException("单次批量操作最多 " + properties.getMaxIds() + " 个用户");
+        }
+        if (!request.hasIds() && request.getEmailDomain() != null && !request.getEmailDomain().isBlank()
+                && !DOMAIN_PATTERN.matcher(request.getEmailDomain().trim()).matches()) {
+            throw new RuntimeException("邮箱域名格式不正确");
+        }
+    }
+
+    private record Chunk(long lastId, int size, long affected) {
+    }
+
+    private static BulkProgress copy(BulkProgress progress) {
+        return new BulkProgress(progress.getAction(), progress.getChunks(), progress.getProcessed(),
+                progress.getAffected(), progress.getTotal(), progress.isDone(), progress.getError());
+    }
+
+    /**
+     * 筛选条件对应的 WHERE 子句与绑定参数
+     */
+    record Filter(String where, Map<String, Object> parameters) {
+
+        static Filter of(BulkAction action, BulkUserRequest request) {
+            List<String> conditions = new ArrayList<>();
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            if (request.getEmailDomain() != null && !request.getEmailDomain().isBlank()) {
+                conditions.add("LOWER(email) LIKE :emailPattern");
+                parameters.put("emailPattern", "%@" + request.getEmailDomain().trim().toLowerCase());
+            }
+            if (request.getCreatedBefore() != null) {
+                conditions.add("created_at < :createdBefore");
+                parameters.put("createdBefore", request.getCreatedBefore());
+            }
+            if (action == BulkAction.DEACTIVATE) {
+                conditions.add("is_active = TRUE");
+            }
+            return new Filter(String.join(" AND ", conditions), parameters);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.webfluxdemo.cache;
+
+import java.util.regex.Pattern;
+
+/**
+ * SQL LIKE 模式的 Java 实现，用于判断写入的值是否会出现在某个已缓存的搜索结果中
+ *
+ * % 匹配任意字符串，_ 匹配单个字符，\ 转义下一个字符；与 PostgreSQL/H2 的 LIKE 一样区分大小写
+ */
+final class LikePattern {
+
+    private final Pattern pattern;
+
+    private LikePattern(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    static LikePattern compile(String like) {
+        StringBuilder regex = new StringBuilder(like.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '\\' && i + 1 < like.length()) {
+                literal.append(like.charAt(++i));
+            } else if (c == '%' || c == '_') {
+                appendLiteral(regex, literal);
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        appendLiteral(regex, literal);
+        return new LikePattern(Pattern.compile(regex.toString(), Pattern.DOTALL));
+    }
+
+    boolean matches(String value) {
+        return value != null && pattern.matcher(value).matches();
+    }
+
+    private static void appendLiteral(StringBuilder regex, StringBuilder literal) {
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+}
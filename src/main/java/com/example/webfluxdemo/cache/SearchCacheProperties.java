@@ -0,0 +1,31 @@
+package com.example.webfluxdemo.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户名/邮箱搜索结果缓存配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.search-cache")
+public class SearchCacheProperties {
+
+    /**
+     * 关闭后每次搜索都查询数据库，也不合并并发的相同搜索
+     */
+    private boolean enabled = true;
+
+    /**
+     * 结果保存时间；写入会立即失效受影响的结果，ttl 兜底未经事件总线的变更（如批量停用）
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+
+    private int maxEntries = 1000;
+
+    /**
+     * 超过该行数的结果不缓存，只合并并发的相同搜索
+     */
+    private int maxResults = 500;
+}
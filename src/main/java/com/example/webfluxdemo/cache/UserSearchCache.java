@@ -0,0 +1,293 @@
+package com.example.webfluxdemo.cache;
+
+import com.example.webfluxdemo.deadline.Deadlines;
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import com.example.webfluxdemo.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 用户名/邮箱搜索结果缓存
+ *
+ * 以 (字段, 去除首尾空白的关键词, limit) 为键保存结果 ttl；并发的相同搜索共享同一次查询（single-flight）。
+ * 用户写入事件到达时，删除结果中包含该用户、或关键词模式匹配其新用户名/邮箱的缓存；
+ * 查询执行期间发生过写入时，该次结果只返回给等待中的调用方，不写入缓存。
+ * 查询结果先完整读取再回放给各调用方，按需拉取的流式调用方 (RSocket request-stream) 不经过缓存
+ */
+@Slf4j
+@Component
+public class UserSearchCache {
+
+    public enum Field {
+        USERNAME, EMAIL;
+
+        String valueOf(UserChangeEvent event) {
+            return this == USERNAME ? event.getUsername() : event.getEmail();
+        }
+    }
+
+    private final SearchCacheProperties properties;
+    private final LongSupplier clock;
+    private final Disposable subscription;
+
+    /**
+     * 所有结果的 ttl 相同，按写入顺序排列即按过期时间排列
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>();
+    private final Map<Key, Load> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 写入序号，查询开始与结束时不同说明期间有写入
+     */
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong invalidated = new AtomicLong();
+    private final Map<Field, Meters> meters = new EnumMap<>(Field.class);
+
+    @Autowired
+    public UserSearchCache(SearchCacheProperties properties, UserEventBus userEventBus, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime, userEventBus.subscribe());
+    }
+
+    UserSearchCache(SearchCacheProperties properties, MeterRegistry meterRegistry, LongSupplier clock,
+                    Flux<UserChangeEvent> events) {
+        this.properties = properties;
+        this.clock = clock;
+        for (Field field : Field.values()) {
+            meters.put(field, new Meters(field, meterRegistry));
+        }
+        Gauge.builder("user.search.cache.size", this, UserSearchCache::size)
+                .description("缓存的搜索结果数")
+                .register(meterRegistry);
+        Gauge.builder("user.search.cache.hit.ratio", this, UserSearchCache::hitRatio)
+                .description("不需要查询数据库的搜索占比（命中缓存或合并到进行中的查询）")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.search.cache.invalidations", invalidated, AtomicLong::get)
+                .description("因用户写入失效的缓存结果数")
+                .register(meterRegistry);
+        this.subscription = properties.isEnabled() ? events.subscribe(this::invalidate) : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * 搜索，limit 小于等于 0 表示不限制结果数
+     *
+     * @param query 以 LIKE 模式查询数据库
+     */
+    public Flux<User> search(Field field, String keyword, int limit, Function<String, Flux<User>> query) {
+        if (!properties.isEnabled()) {
+            return limit(query.apply(keyword), limit);
+        }
+        Key key = new Key(field, keyword.trim(), Math.max(limit, 0));
+        return Mono.defer(() -> {
+                    requests.incrementAndGet();
+                    Meters fieldMeters = meters.get(field);
+                    Entry cached = lookup(key);
+                    if (cached != null) {
+                        served.incrementAndGet();
+                        fieldMeters.hits.increment();
+                        fieldMeters.saved.increment(cached.loadNanos() / 1e9);
+                        return Mono.just(cached.users());
+                    }
+                    Load created = new Load(key, query);
+                    Load existing = inflight.putIfAbsent(key, created);
+                    if (existing != null) {
+                        served.incrementAndGet();
+                        fieldMeters.coalesced.increment();
+                        return existing.result
+                                .doOnNext(loaded -> fieldMeters.saved.increment(loaded.nanos() / 1e9))
+                                .map(Loaded::users);
+                    }
+                    fieldMeters.misses.increment();
+                    return created.result.map(Loaded::users);
+                })
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * 删除可能受该写入影响的结果
+     */
+    void invalidate(UserChangeEvent event) {
+        writes.incrementAndGet();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().affectedBy(event)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            invalidated.addAndGet(removed);
+            log.debug("用户 {} {} 后失效 {} 条搜索缓存", event.getUserId(), event.getType(), removed);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    double hitRatio() {
+        long total = requests.get();
+        return total == 0 ? 0 : (double) served.get() / total;
+    }
+
+    private Entry lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos() - clock.getAsLong() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void store(Key key, List<User> users, long loadNanos, long writesAtStart) {
+        if (users.size() > properties.getMaxResults()) {
+            return;
+        }
+        Set<Long> ids = users.stream().map(User::getId).collect(Collectors.toSet());
+        long now = clock.getAsLong();
+        Entry entry = new Entry(key, LikePattern.compile(key.keyword()), ids, users, loadNanos,
+                now + properties.getTtl().toNanos());
+        synchronized (entries) {
+            // 在锁内检查，与 invalidate 互斥：检查通过后的写入事件一定能看到这条结果
+            if (writes.get() != writesAtStart) {
+                return;
+            }
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext() && iterator.next().expiresAtNanos() - now <= 0) {
+                iterator.remove();
+            }
+            entries.remove(key);
+            entries.put(key, entry);
+            iterator = entries.values().iterator();
+            while (entries.size() > properties.getMaxEntries() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static Flux<User> limit(Flux<User> users, int limit) {
+        return limit > 0 ? users.take(limit) : users;
+    }
+
+    private record Key(Field field, String keyword, int limit) {
+    }
+
+    private record Entry(Key key, LikePattern pattern, Set<Long> ids, List<User> users, long loadNanos,
+                         long expiresAtNanos) {
+
+        boolean affectedBy(UserChangeEvent event) {
+            if (event.getUserId() != null && ids.contains(event.getUserId())) {
+                return true;
+            }
+            return event.getType() != UserChangeEvent.Type.DELETED
+                    && pattern.matches(key.field().valueOf(event));
+        }
+    }
+
+    private record Loaded(List<User> users, long nanos) {
+    }
+
+    /**
+     * 进行中的查询，完成（并写入缓存）后才移出，之后到达的相同搜索直接命中缓存
+     */
+    private final class Load {
+
+        private final Mono<Loaded> result;
+
+        private Load(Key key, Function<String, Flux<User>> query) {
+            // cache: 调用方取消时查询仍会完成并写入缓存，等待中的其他调用方不受影响；
+            // 查询不使用第一个调用方的截止时间，每个调用方按各自的截止时间停止等待
+            this.result = Mono.defer(() -> {
+                        long writesAtStart = writes.get();
+                        long start = clock.getAsLong();
+                        return limit(query.apply(key.keyword()), key.limit())
+                                .collectList()
+                                .map(users -> {
+                                    long nanos = clock.getAsLong() - start;
+                                    meters.get(key.field()).load.record(nanos, TimeUnit.NANOSECONDS);
+                                    store(key, users, nanos, writesAtStart);
+                                    return new Loaded(users, nanos);
+                                });
+                    })
+                    .contextWrite(Deadlines.detach())
+                    .doFinally(signal -> inflight.remove(key, this))
+                    .cache();
+        }
+    }
+
+    private static final class Meters {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter coalesced;
+        private final Counter saved;
+        private final Timer load;
+
+        private Meters(Field field, MeterRegistry meterRegistry) {
+            String tag = field.name().toLowerCase();
+            this.hits = requests(meterRegistry, tag, "hit");
+            this.misses = requests(meterRegistry, tag, "miss");
+            this.coalesced = requests(meterRegistry, tag, "coalesced");
+            this.saved = Counter.builder("user.search.cache.saved")
+                    .description("命中缓存或合并查询省下的数据库查询时间")
+                    .baseUnit("seconds")
+                    .tag("field", tag)
+                    .register(meterRegistry);
+            this.load = Timer.builder("user.search.cache.load")
+                    .description("缓存未命中时数据库查询的耗时")
+                    .tag("field", tag)
+                    .register(meterRegistry);
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String field, String result) {
+            return Counter.builder("user.search.cache.requests")
+                    .description("用户名/邮箱搜索请求数")
+                    .tag("field", field)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
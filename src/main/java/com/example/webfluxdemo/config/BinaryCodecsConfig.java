@@ -0,0 +1,84 @@
+package com.example.webfluxdemo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑二进制响应格式
+ *
+ * 客户端通过 Accept: application/cbor 或 application/x-jackson-smile 获取与 JSON 结构相同、
+ * 体积更小的响应；ObjectMapper 沿用 Spring Boot 的 Jackson 配置，时间格式等与 JSON 一致
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.codecs", name = "binary-enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryCodecsConfig {
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Bean
+    CodecCustomizer binaryCodecsCustomizer(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        ObjectMapper jsonMapper = jackson2ObjectMapperBuilder.build();
+        ObjectMapper cborMapper = jackson2ObjectMapperBuilder.factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = jackson2ObjectMapperBuilder.factory(new SmileFactory()).build();
+        return configurer -> {
+            // 自定义编码器排在默认编码器之前，未指定 Accept 的请求会按顺序选中第一个；
+            // 先注册 JSON 编码器，保证 JSON 仍是默认格式
+            configurer.customCodecs().register(new DataBufferJsonEncoder(jsonMapper));
+            // 只传 ObjectMapper 时编解码器会声明 JSON 媒体类型，必须显式指定
+            configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            // Smile 属于默认编解码器（位于 JSON 之后），替换为使用应用 Jackson 配置的实例
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+        };
+    }
+
+    /**
+     * Jackson2CborEncoder 不支持流式编码，即使输入是 Mono 也会直接抛出异常；
+     * 这里对单值响应改用 encodeValue，控制器返回的 Mono 响应即可按 CBOR 输出。
+     * canEncode 只能看到元素类型，区分不了 Mono 与 Flux，Flux 响应收集后整体编码为 CBOR 数组，
+     * 与 JSON 编码器对非流式媒体类型输出 JSON 数组一致
+     */
+    static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, @Nullable MimeType mimeType,
+                                       @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream)
+                    .collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
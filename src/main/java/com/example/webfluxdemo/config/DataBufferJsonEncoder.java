@@ -0,0 +1,78 @@
+package com.example.webfluxdemo.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * 单值 JSON 响应直接写入响应的 DataBuffer（Netty 池化 ByteBuf）
+ *
+ * 默认实现先写入堆上的 ByteArrayBuilder，再复制为 byte[] 并写入新分配的 DataBuffer；
+ * 这里让 JsonGenerator 直接写入 DataBuffer 的输出流，省去两次整段复制。
+ * 带 JsonView、MappingJacksonValue 或非 UTF-8 编码时交给默认实现；流式响应 (NDJSON/SSE) 不经过这里
+ */
+public class DataBufferJsonEncoder extends Jackson2JsonEncoder {
+
+    /**
+     * 首次分配的缓冲区大小，不足时 DataBuffer 自动扩容
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public DataBufferJsonEncoder(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (value instanceof MappingJacksonValue
+                || (hints != null && hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT))
+                || getJsonEncoding(mimeType) != JsonEncoding.UTF8) {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+        ObjectMapper mapper = selectObjectMapper(valueType, mimeType);
+        if (mapper == null) {
+            throw new IllegalStateException("No ObjectMapper for " + valueType);
+        }
+        ObjectWriter writer = mapper.writer();
+        JavaType javaType = getJavaType(valueType.getType(), null);
+        if (javaType.isContainerType()) {
+            writer = writer.forType(javaType);
+        }
+        writer = customizeWriter(writer, mimeType, valueType, hints);
+
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_CAPACITY);
+        boolean release = true;
+        try (OutputStream out = buffer.asOutputStream();
+             JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            writer.writeValue(generator, value);
+            generator.flush();
+            release = false;
+        } catch (IOException e) {
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+        Hints.touchDataBuffer(buffer, hints, logger);
+        return buffer;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.webfluxdemo.config;
+
+import com.example.webfluxdemo.json.FastLocalDateTimeSerializer;
+import com.example.webfluxdemo.json.UserJsonSerializer;
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+
+/**
+ * JSON 序列化快速路径 (app.codecs.fast-json)
+ *
+ * Module Bean 由 Spring Boot 注册到应用的 ObjectMapper（排在 JavaTimeModule 之后，优先生效）：
+ * User 使用手写序列化器，LocalDateTime 使用 IsoDateTimeWriter，其余 Bean 由 Blackbird 生成的访问器读写属性。
+ * 单值 JSON 响应由 DataBufferJsonEncoder 直接写入 DataBuffer；关闭后全部回到 Spring Boot 的默认配置
+ */
+@Configuration(proxyBeanMethods = false)
+public class JsonCodecsConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.codecs", name = "fast-json", havingValue = "true", matchIfMissing = true)
+    CodecCustomizer dataBufferJsonEncoderCustomizer(ObjectMapper objectMapper) {
+        // 未指定顺序，在 Spring Boot 的 Jackson 编解码器配置 (@Order(0)) 之后执行并替换默认编码器
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new DataBufferJsonEncoder(objectMapper));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.codecs", name = "fast-json", havingValue = "true", matchIfMissing = true)
+    Module fastJsonModule() {
+        return new SimpleModule("fast-json")
+                .addSerializer(User.class, new UserJsonSerializer())
+                .addSerializer(LocalDateTime.class, FastLocalDateTimeSerializer.INSTANCE);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.codecs", name = "fast-json", havingValue = "true", matchIfMissing = true)
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.webfluxdemo.config;
+
+import com.example.webfluxdemo.repository.UserRowReader;
+import com.example.webfluxdemo.repository.UserRowWriter;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+import java.util.List;
+
+/**
+ * 注册 User 的行读写转换器，替换 Spring Boot 默认的 R2dbcCustomConversions（默认只包含方言转换器）
+ *
+ * UserRepository、R2dbcEntityTemplate 读写 User 时都会优先使用这里的转换器
+ */
+@Configuration(proxyBeanMethods = false)
+public class R2dbcConversionsConfig {
+
+    @Bean
+    R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                List.of(new UserRowReader(), new UserRowWriter()));
+    }
+}
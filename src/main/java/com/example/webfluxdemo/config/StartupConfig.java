@@ -0,0 +1,29 @@
+package com.example.webfluxdemo.config;
+
+import com.example.webfluxdemo.controller.UserController;
+import com.example.webfluxdemo.repository.UserRepository;
+import com.example.webfluxdemo.security.PasswordUtils;
+import com.example.webfluxdemo.service.UserService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 启动模式配置
+ *
+ * 启用 lazy profile (spring.main.lazy-initialization=true) 时，
+ * 用户请求热点路径上的 Bean 仍然在启动阶段初始化，避免首个请求承担初始化开销
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                UserController.class,
+                UserService.class,
+                UserRepository.class,
+                PasswordUtils.class
+        );
+    }
+}
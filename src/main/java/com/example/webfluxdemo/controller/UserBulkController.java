@@ -0,0 +1,69 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.bulk.BulkAction;
+import com.example.webfluxdemo.bulk.BulkProgress;
+import com.example.webfluxdemo.bulk.BulkUserProperties;
+import com.example.webfluxdemo.bulk.BulkUserRequest;
+import com.example.webfluxdemo.bulk.BulkUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users/bulk")
+@RequiredArgsConstructor
+@Tag(name = "批量操作", description = "按ID列表或条件批量停用/删除用户")
+public class UserBulkController {
+
+    private final BulkUserService bulkUserService;
+    private final BulkUserProperties bulkUserProperties;
+
+    @Operation(
+            summary = "批量停用用户",
+            description = "按ID列表，或按邮箱域名/创建时间筛选停用用户，以NDJSON逐批输出进度"
+    )
+    @PostMapping(value = "/deactivate", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BulkProgress>> deactivateUsers(@RequestBody BulkUserRequest request) {
+        log.info("接收到批量停用用户请求");
+        return run(BulkAction.DEACTIVATE, request);
+    }
+
+    @Operation(
+            summary = "批量删除用户",
+            description = "按ID列表，或按邮箱域名/创建时间筛选删除用户，以NDJSON逐批输出进度"
+    )
+    @PostMapping(value = "/delete", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BulkProgress>> deleteUsers(@RequestBody BulkUserRequest request) {
+        log.info("接收到批量删除用户请求");
+        return run(BulkAction.DELETE, request);
+    }
+
+    private ResponseEntity<Flux<BulkProgress>> run(BulkAction action, BulkUserRequest request) {
+        try {
+            bulkUserService.validate(request);
+        } catch (RuntimeException e) {
+            log.error("批量操作请求无效: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Flux.just(BulkProgress.failed(action, e.getMessage())));
+        }
+        Flux<BulkProgress> progress = bulkUserService.tryRun(action, request);
+        if (progress == null) {
+            // 在开始输出进度之前拒绝，调用方按状态码与 Retry-After 重试
+            long retryAfter = Math.max(1, (bulkUserProperties.getRetryAfter().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(Flux.just(BulkProgress.failed(action, BulkUserService.BUSY_MESSAGE)));
+        }
+        return ResponseEntity.ok(progress);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.webfluxdemo.controller;
 
+import com.example.webfluxdemo.deadline.DeadlineExceededException;
+import com.example.webfluxdemo.idempotency.IdempotentRequests;
 import com.example.webfluxdemo.model.User;
 import com.example.webfluxdemo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -28,6 +32,7 @@ import java.util.HashMap;
 public class UserController {
 
     private final UserService userService;
+    private final IdempotentRequests idempotentRequests;
 
     @Operation(
             summary = "创建用户",
@@ -43,13 +48,21 @@ public class UserController {
                     responseCode = "400",
                     description = "请求参数错误或用户名/邮箱已存在",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key 已用于其他请求",
+                    content = @Content
             )
     })
     @PostMapping
-    public Mono<ResponseEntity<Map<String, Object>>> createUser(@Valid @RequestBody User user) {
+    public Mono<ResponseEntity<Map<String, Object>>> createUser(
+            @Valid @RequestBody User user,
+            @Parameter(description = "幂等键，重试时携带相同的值，已创建成功时直接返回之前的结果")
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
         log.info("接收到创建用户请求: {}", user.getUsername());
 
-        return userService.createUser(user)
+        Mono<ResponseEntity<Map<String, Object>>> create = Mono.defer(() -> userService.createUser(user))
                 .map(createdUser -> {
                     Map<String, Object> response = new HashMap<>();
                     response.put("success", true);
@@ -57,13 +70,19 @@ public class UserController {
                     response.put("data", createdUser);
                     return ResponseEntity.ok(response);
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(UserController::isBadRequest, e -> {
                     log.error("创建用户失败: {}", e.getMessage());
                     Map<String, Object> response = new HashMap<>();
                     response.put("success", false);
                     response.put("message", e.getMessage());
                     return Mono.just(ResponseEntity.badRequest().body(response));
                 });
+        if (idempotencyKey == null) {
+            return create;
+        }
+        // 密码不参与指纹，指纹会随结果一起保存
+        return idempotentRequests.execute(idempotencyKey,
+                IdempotentRequests.fingerprint(user.getUsername(), user.getEmail(), user.getBio()), create);
     }
 
     @Operation(
@@ -143,10 +162,12 @@ public class UserController {
     @GetMapping("/search/username")
     public Mono<ResponseEntity<Map<String, Object>>> searchUsersByUsername(
             @Parameter(description = "搜索关键词")
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            @Parameter(description = "最多返回的用户数，0表示不限制")
+            @RequestParam(defaultValue = "0") int limit) {
         log.info("接收到用户名搜索请求: {}", keyword);
 
-        return userService.searchUsersByUsername(keyword)
+        return userService.searchUsersByUsername(keyword, limit)
                 .collectList()
                 .map(users -> {
                     Map<String, Object> response = new HashMap<>();
@@ -171,10 +192,12 @@ public class UserController {
     @GetMapping("/search/email")
     public Mono<ResponseEntity<Map<String, Object>>> searchUsersByEmail(
             @Parameter(description = "搜索关键词")
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            @Parameter(description = "最多返回的用户数，0表示不限制")
+            @RequestParam(defaultValue = "0") int limit) {
         log.info("接收到邮箱搜索请求: {}", keyword);
 
-        return userService.searchUsersByEmail(keyword)
+        return userService.searchUsersByEmail(keyword, limit)
                 .collectList()
                 .map(users -> {
                     Map<String, Object> response = new HashMap<>();
@@ -241,7 +264,7 @@ public class UserController {
                     response.put("data", updatedUser);
                     return ResponseEntity.ok(response);
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(UserController::isBadRequest, e -> {
                     log.error("更新用户失败: {}", e.getMessage());
                     Map<String, Object> response = new HashMap<>();
                     response.put("success", false);
@@ -264,7 +287,7 @@ public class UserController {
                     response.put("message", "用户删除成功");
                     return ResponseEntity.ok(response);
                 }))
-                .onErrorResume(e -> {
+                .onErrorResume(UserController::isBadRequest, e -> {
                     log.error("删除用户失败: {}", e.getMessage());
                     Map<String, Object> response = new HashMap<>();
                     response.put("success", false);
@@ -290,4 +313,13 @@ public class UserController {
                 });
     }
 
-    }
\ No newline at end of file
+    /**
+     * 业务失败 (用户不存在、用户名已存在等) 返回 400；超过截止时间 (504) 与数据库暂时不可用 (503)
+     * 交给 GlobalExceptionHandler，调用方可以据此重试
+     */
+    private static boolean isBadRequest(Throwable e) {
+        return !(e instanceof DeadlineExceededException
+                || e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import com.example.webfluxdemo.event.UserEventProperties;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users/events")
+@RequiredArgsConstructor
+@Tag(name = "用户变更事件", description = "用户创建/更新/删除事件的实时推送")
+public class UserEventController {
+
+    private final UserEventBus userEventBus;
+    private final UserEventProperties userEventProperties;
+
+    @Operation(
+            summary = "订阅用户变更事件",
+            description = "通过SSE推送用户创建、更新、删除事件，替代轮询用户列表"
+    )
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<UserChangeEvent>> streamUserEvents() {
+        log.info("接收到用户事件订阅请求");
+
+        Flux<ServerSentEvent<UserChangeEvent>> events = userEventBus.subscribe()
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType().name())
+                        .build());
+        Flux<ServerSentEvent<UserChangeEvent>> heartbeats = Flux.interval(userEventProperties.getHeartbeatInterval())
+                .map(tick -> ServerSentEvent.<UserChangeEvent>builder()
+                        .comment("heartbeat")
+                        .build());
+
+        return Flux.merge(events, heartbeats)
+                .doOnCancel(() -> log.info("用户事件订阅已断开"));
+    }
+}
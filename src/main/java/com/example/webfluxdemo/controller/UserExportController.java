@@ -0,0 +1,92 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.export.UserExportFormat;
+import com.example.webfluxdemo.export.UserExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users/export")
+@RequiredArgsConstructor
+@Tag(name = "用户导出", description = "全量用户数据的流式导出")
+public class UserExportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final UserExportService userExportService;
+
+    @Operation(
+            summary = "导出全部用户",
+            description = "以CSV或NDJSON格式流式导出全部用户（不含密码），默认使用gzip压缩；"
+                    + "请求头 Accept-Encoding 包含 gzip 时以 Content-Encoding: gzip 返回，否则作为 application/gzip 附件 (.gz) 返回"
+    )
+    @GetMapping
+    public ResponseEntity<Flux<DataBuffer>> exportUsers(
+            @Parameter(description = "导出格式: csv 或 ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "是否使用gzip压缩")
+            @RequestParam(defaultValue = "true") boolean gzip,
+            ServerWebExchange exchange) {
+        log.info("接收到导出用户请求 - 格式: {}, 压缩: {}", format, gzip);
+
+        UserExportFormat exportFormat = UserExportFormat.fromValue(format);
+        // 客户端未声明支持 gzip 时不能使用 Content-Encoding，改为下载 .gz 文件
+        boolean contentEncoding = gzip && acceptsGzip(exchange.getRequest().getHeaders());
+        boolean gzipFile = gzip && !contentEncoding;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(gzipFile ? GZIP : exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.getExtension() + (gzipFile ? ".gz" : ""))
+                        .build()
+                        .toString());
+        if (contentEncoding) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(userExportService.exportUsers(exportFormat, gzip, exchange.getResponse().bufferFactory()));
+    }
+
+    /**
+     * Accept-Encoding 中包含 gzip (或 *) 且 q 不为 0
+     */
+    static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (quality > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
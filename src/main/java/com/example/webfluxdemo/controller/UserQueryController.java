@@ -0,0 +1,64 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.query.UserQuery;
+import com.example.webfluxdemo.query.UserQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users/query")
+@RequiredArgsConstructor
+@Tag(name = "用户查询", description = "按状态、时间范围、邮箱域名筛选并排序")
+public class UserQueryController {
+
+    private final UserQueryService userQueryService;
+
+    @Operation(
+            summary = "条件查询用户",
+            description = "按 isActive、创建/更新时间范围、邮箱域名筛选，sort 为逗号分隔的字段（前缀 - 表示降序），"
+                    + "没有索引覆盖的组合会在 warnings 中提示"
+    )
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> queryUsers(@ModelAttribute UserQuery query) {
+        log.info("接收到条件查询用户请求: {}", query);
+
+        return userQueryService.query(query)
+                .map(result -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "查询用户成功");
+                    response.put("data", result.getUsers());
+                    response.put("pagination", Map.of(
+                            "page", query.getPage(),
+                            "size", query.getSize(),
+                            "hasNext", result.isHasNext()
+                    ));
+                    if (result.getIndex() != null) {
+                        response.put("index", result.getIndex());
+                    }
+                    if (!result.getWarnings().isEmpty()) {
+                        response.put("warnings", result.getWarnings());
+                    }
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    log.error("条件查询用户失败: {}", e.getMessage());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(response));
+                });
+    }
+}
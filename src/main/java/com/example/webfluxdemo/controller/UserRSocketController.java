@@ -0,0 +1,65 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.rsocket.UserRSocketProperties;
+import com.example.webfluxdemo.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 供内部服务调用的 RSocket 用户接口，与 UserController 共用 UserService
+ *
+ * 负载默认以 CBOR 编码（客户端在 SETUP 中声明 dataMimeType，也可使用 JSON），不包含 REST 响应的 success/message 外层结构：
+ * - users.get.{id}: request-response，用户不存在时返回空负载
+ * - users.list / users.search.username.{keyword} / users.search.email.{keyword}: request-stream，
+ *   客户端的 request(n) 一直传递到数据库查询，消费多少读取多少
+ * - users.resolve: request-channel，客户端持续发送 ID，服务端凑批后以一条查询解析并按批返回，不存在的 ID 被跳过
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class UserRSocketController {
+
+    private final UserService userService;
+    private final UserRSocketProperties properties;
+
+    @MessageMapping("users.get.{id}")
+    public Mono<User> getUser(@DestinationVariable Long id) {
+        return userService.getUserById(id);
+    }
+
+    @MessageMapping("users.list")
+    public Flux<User> listUsers() {
+        return userService.getAllUsers();
+    }
+
+    @MessageMapping("users.search.username.{keyword}")
+    public Flux<User> searchByUsername(@DestinationVariable String keyword) {
+        return userService.searchUsersByUsername(keyword);
+    }
+
+    @MessageMapping("users.search.email.{keyword}")
+    public Flux<User> searchByEmail(@DestinationVariable String keyword) {
+        return userService.searchUsersByEmail(keyword);
+    }
+
+    @MessageMapping("users.resolve")
+    public Flux<User> resolveUsers(Flux<Long> ids) {
+        // fairBackpressure: 下游未请求时暂停凑批，不会无限缓冲客户端发来的 ID
+        return ids
+                .bufferTimeout(properties.getResolveBatchSize(), properties.getResolveMaxDelay(), true)
+                .concatMap(userService::getUsersByIds);
+    }
+
+    @MessageExceptionHandler
+    public Mono<Void> handleException(RuntimeException e) {
+        log.error("RSocket 请求处理失败: {}", e.getMessage());
+        return Mono.error(e);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.search.BioSearchEngine;
+import com.example.webfluxdemo.typeahead.UsernameTypeahead;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users/search")
+@RequiredArgsConstructor
+@Tag(name = "用户检索", description = "个人简介全文检索与用户名前缀补全")
+public class UserSearchController {
+
+    private final BioSearchEngine bioSearchEngine;
+    private final UsernameTypeahead usernameTypeahead;
+
+    @Operation(
+            summary = "检索个人简介",
+            description = "q 为空格分隔的关键词（前缀 - 表示排除），按相关度降序返回；"
+                    + "下一页传入上一页返回的 nextCursor。摘要中的简介原文已做 HTML 转义，"
+                    + "命中词由 highlight-start/highlight-stop 标记 (默认 <mark>) 包裹，可直接作为 HTML 输出"
+    )
+    @GetMapping("/bio")
+    public Mono<ResponseEntity<Map<String, Object>>> searchBio(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        log.info("接收到检索个人简介请求 - 关键词: {}, 条数: {}, 游标: {}", q, limit, cursor);
+
+        return bioSearchEngine.search(q, cursor, limit)
+                .map(page -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "检索成功");
+                    response.put("data", page.getHits());
+                    response.put("nextCursor", page.getNextCursor());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    log.error("检索个人简介失败: {}", e.getMessage());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", e.getMessage());
+                    // 内存索引尚未构建完成
+                    HttpStatus status = e instanceof IllegalStateException
+                            ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+                    return Mono.just(ResponseEntity.status(status).body(response));
+                });
+    }
+
+    @Operation(
+            summary = "用户名前缀补全",
+            description = "返回用户名以 prefix 开头（忽略大小写）的用户，按用户名排序；由内存索引提供，不查询数据库"
+    )
+    @GetMapping("/typeahead")
+    public Mono<ResponseEntity<Map<String, Object>>> typeahead(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("接收到用户名前缀补全请求 - 前缀: {}, 条数: {}", prefix, limit);
+
+        return usernameTypeahead.complete(prefix, limit)
+                .map(completions -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "补全成功");
+                    response.put("data", completions);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    log.warn("用户名前缀补全失败: {}", e.getMessage());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", e.getMessage());
+                    // 内存索引尚未构建完成
+                    HttpStatus status = e instanceof IllegalStateException
+                            ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+                    return Mono.just(ResponseEntity.status(status).body(response));
+                });
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.webfluxdemo.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一类工作的预计耗时：最近执行时间的指数加权平均，配合 {@link Deadlines#require} 判断剩余时间是否足够
+ *
+ * 还没有测量过时预计耗时为 0
+ */
+public class CostEstimate {
+
+    private static final double ALPHA = 0.2;
+
+    private final AtomicLong expectedNanos = new AtomicLong();
+
+    public Duration expected() {
+        return Duration.ofNanos(expectedNanos.get());
+    }
+
+    /**
+     * 同步执行 action 并计入耗时，异常时不计入
+     */
+    public void measure(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        record(System.nanoTime() - start);
+    }
+
+    void record(long nanos) {
+        expectedNanos.updateAndGet(previous -> previous == 0 ? nanos : (long) (previous + ALPHA * (nanos - previous)));
+    }
+}
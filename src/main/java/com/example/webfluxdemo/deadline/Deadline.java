@@ -0,0 +1,40 @@
+package com.example.webfluxdemo.deadline;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * 请求的截止时间 (System.nanoTime)，由 {@link DeadlineFilter} 放入 Reactor Context
+ */
+public record Deadline(long expiresAtNanos) {
+
+    static final String KEY = Deadline.class.getName();
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Context 中的截止时间，没有时返回 null
+     */
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    public Context context() {
+        return Context.of(KEY, this);
+    }
+
+    /**
+     * 剩余时间，已过期时为 0
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.webfluxdemo.deadline;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.r2dbc.ConnectionFactoryDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用 {@link StatementTimeoutConnectionFactory} 包装 Spring Boot 创建的 ConnectionFactory (连接池内层)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.deadline", name = {"enabled", "statement-timeout"}, havingValue = "true",
+        matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    ConnectionFactoryDecorator statementTimeoutConnectionFactoryDecorator(DeadlineProperties properties) {
+        return connectionFactory -> new StatementTimeoutConnectionFactory(connectionFactory,
+                properties.getStatementTimeoutSlack());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.webfluxdemo.deadline;
+
+/**
+ * 请求在截止时间前无法完成，调用方已经不再等待结果
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
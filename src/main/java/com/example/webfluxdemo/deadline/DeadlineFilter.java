@@ -0,0 +1,64 @@
+package com.example.webfluxdemo.deadline;
+
+import com.example.webfluxdemo.limit.AdaptiveConcurrencyFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 读取调用方的超时时间 (默认请求头 X-Request-Timeout)，把截止时间放入 Reactor Context
+ *
+ * 在限流之前执行，排队等待的时间同样计入；超时时间不超过 maxTimeout，无法解析时按未携带处理
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadlineFilter implements WebFilter, Ordered {
+
+    private final DeadlineProperties properties;
+
+    @Override
+    public int getOrder() {
+        return AdaptiveConcurrencyFilter.ORDER - 20;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Duration timeout = timeout(exchange.getRequest().getHeaders().getFirst(properties.getHeader()));
+        if (timeout == null) {
+            return chain.filter(exchange);
+        }
+        Deadline deadline = Deadline.after(timeout);
+        return chain.filter(exchange).contextWrite(deadline.context());
+    }
+
+    Duration timeout(String header) {
+        Duration timeout = properties.getDefaultTimeout();
+        if (header != null && !header.isBlank()) {
+            try {
+                timeout = DurationStyle.detectAndParse(header.trim(), ChronoUnit.MILLIS);
+            } catch (IllegalArgumentException e) {
+                log.debug("无法解析 {}: {}", properties.getHeader(), header);
+            }
+        }
+        if (timeout == null) {
+            return null;
+        }
+        if (timeout.isNegative()) {
+            return Duration.ZERO;
+        }
+        return timeout.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : timeout;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.webfluxdemo.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 请求截止时间配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 调用方的超时时间，如 1500、1500ms、2s（不带单位时为毫秒）
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * 请求未携带超时时间时使用，为空表示不设截止时间
+     */
+    private Duration defaultTimeout;
+
+    /**
+     * 调用方超时时间的上限
+     */
+    private Duration maxTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 按剩余时间为每条语句设置 statement_timeout (PostgreSQL)
+     */
+    private boolean statementTimeout = true;
+
+    /**
+     * 连接上已设置的 statement_timeout 比剩余时间长不超过该值时直接复用，不再发送 SET
+     */
+    private Duration statementTimeoutSlack = Duration.ofMillis(100);
+}
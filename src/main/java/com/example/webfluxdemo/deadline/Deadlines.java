@@ -0,0 +1,79 @@
+package com.example.webfluxdemo.deadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 按 Reactor Context 中的 {@link Deadline} 限制各步骤的执行时间
+ *
+ * Context 中没有截止时间时直接返回原 Publisher；已过期时不订阅原 Publisher，超时后取消订阅。
+ * 两种情况都以 {@link DeadlineExceededException} 结束
+ */
+public final class Deadlines {
+
+    private Deadlines() {
+    }
+
+    public static <T> Mono<T> bound(Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return source;
+            }
+            if (deadline.isExpired()) {
+                return Mono.error(exceeded());
+            }
+            return source.timeout(deadline.remaining(), Mono.error(Deadlines::exceeded));
+        });
+    }
+
+    /**
+     * 截止时间限制整个 Flux，而不是相邻两个元素的间隔
+     */
+    public static <T> Flux<T> bound(Flux<T> source) {
+        return Flux.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return source;
+            }
+            if (deadline.isExpired()) {
+                return Flux.error(exceeded());
+            }
+            return source.timeout(Mono.delay(deadline.remaining()), item -> Mono.delay(deadline.remaining()),
+                    Flux.error(Deadlines::exceeded));
+        });
+    }
+
+    /**
+     * 剩余时间不足 expected 时以错误结束，用于开始昂贵且无法中途取消的工作 (如密码哈希) 之前
+     */
+    public static Mono<Void> require(String work, Duration expected) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return Mono.empty();
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isZero() || remaining.compareTo(expected) < 0) {
+                return Mono.error(new DeadlineExceededException(String.format("剩余 %dms 不足以完成%s (预计 %dms)",
+                        remaining.toMillis(), work, expected.toMillis())));
+            }
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 移除截止时间，用于多个请求共享的工作 (合并的查询、幂等请求)，避免第一个调用方的截止时间中止其他调用方的结果
+     */
+    public static Function<Context, Context> detach() {
+        return context -> context.delete(Deadline.KEY);
+    }
+
+    private static DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("请求已超过截止时间");
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.webfluxdemo.deadline;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 按订阅方 Context 中的 {@link Deadline} 在每条语句执行前设置连接的 statement_timeout
+ *
+ * 位于连接池内层，每个物理连接记录当前的 statement_timeout：已设置的值不短于剩余时间且多出的部分不超过 slack
+ * 时直接复用，没有截止时间的语句执行前恢复为 0 (不限制)。截止时间到期后语句的数据库错误转换为
+ * {@link DeadlineExceededException}。驱动不支持时 (如 H2) setStatementTimeout 不做任何事
+ *
+ * 事务内的 SET 会随回滚撤销，回滚 (含回滚到保存点) 后记录的值视为未知，下一条语句一定重新设置。
+ * 代价：剩余时间比已设置的值长的语句 (通常是每个新请求的第一条语句) 多一次 SET 往返
+ */
+class StatementTimeoutConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final long slackNanos;
+
+    StatementTimeoutConnectionFactory(ConnectionFactory delegate, Duration slack) {
+        this.delegate = delegate;
+        this.slackNanos = slack.toNanos();
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.from(delegate.create()).map(StatementTimeoutConnection::new);
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    final class StatementTimeoutConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+
+        /**
+         * 连接上当前的 statement_timeout，0 表示不限制，null 表示未知 (回滚之后)
+         */
+        private volatile Duration statementTimeout = Duration.ZERO;
+
+        StatementTimeoutConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        Mono<Void> applyTimeout(Deadline deadline) {
+            Duration target = deadline == null ? Duration.ZERO : roundUp(deadline.remaining());
+            Duration current = statementTimeout;
+            if (current != null && (target.isZero() ? current.isZero() : reusable(current, target))) {
+                return Mono.empty();
+            }
+            return Mono.from(delegate.setStatementTimeout(target)).doOnSuccess(done -> statementTimeout = target);
+        }
+
+        private boolean reusable(Duration current, Duration target) {
+            long extra = current.toNanos() - target.toNanos();
+            return !current.isZero() && extra >= 0 && extra <= slackNanos;
+        }
+
+        Duration statementTimeout() {
+            return statementTimeout;
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new StatementTimeoutStatement(delegate.createStatement(sql), this);
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return delegate.beginTransaction();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return delegate.beginTransaction(definition);
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return delegate.close();
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return delegate.commitTransaction();
+        }
+
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return Mono.from(delegate.rollbackTransaction()).doOnSubscribe(subscription -> statementTimeout = null);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return Mono.from(delegate.rollbackTransactionToSavepoint(name))
+                    .doOnSubscribe(subscription -> statementTimeout = null);
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return Mono.from(delegate.setStatementTimeout(timeout)).doOnSuccess(done -> statementTimeout = timeout);
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+    }
+
+    static final class StatementTimeoutStatement implements Statement {
+
+        private final Statement delegate;
+        private final StatementTimeoutConnection connection;
+
+        StatementTimeoutStatement(Statement delegate, StatementTimeoutConnection connection) {
+            this.delegate = delegate;
+            this.connection = connection;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            return Flux.deferContextual(context -> {
+                Deadline deadline = Deadline.from(context);
+                if (deadline != null && deadline.isExpired()) {
+                    return Flux.error(new DeadlineExceededException("请求已超过截止时间，不再执行语句"));
+                }
+                Flux<Result> results = connection.applyTimeout(deadline)
+                        .thenMany(Flux.defer(() -> Flux.<Result>from(delegate.execute())));
+                if (deadline == null) {
+                    return results;
+                }
+                return results.onErrorMap(e -> e instanceof R2dbcException && deadline.isExpired(),
+                        e -> new DeadlineExceededException("语句执行超过截止时间", e));
+            });
+        }
+
+        @Override
+        public Statement add() {
+            delegate.add();
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            delegate.bind(index, value);
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            delegate.bind(name, value);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            delegate.bindNull(index, type);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            delegate.bindNull(name, type);
+            return this;
+        }
+
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            delegate.returnGeneratedValues(columns);
+            return this;
+        }
+
+        @Override
+        public Statement fetchSize(int rows) {
+            delegate.fetchSize(rows);
+            return this;
+        }
+    }
+
+    /**
+     * statement_timeout 以毫秒为单位，至少 1ms (0 表示不限制)
+     */
+    private static Duration roundUp(Duration remaining) {
+        return Duration.ofMillis(Math.max(1, (remaining.toNanos() + 999_999) / 1_000_000));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.webfluxdemo.event;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 基于热多播 {@link Sinks.Many} 的本地分发，子类决定事件从哪里来
+ */
+@Slf4j
+public abstract class AbstractUserEventBus implements UserEventBus {
+
+    private final Sinks.Many<UserChangeEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    private final UserEventProperties properties;
+
+    protected AbstractUserEventBus(UserEventProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 将事件分发给本节点的所有订阅者
+     *
+     * 多个线程可能同时分发 (提交回调、LISTEN 连接)，加锁串行化后 tryEmitNext 不会因并发失败，
+     * 不在事件循环线程上自旋重试；其余失败只记录日志
+     */
+    protected void emitLocal(UserChangeEvent event) {
+        Sinks.EmitResult result;
+        synchronized (sink) {
+            result = sink.tryEmitNext(event);
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("分发用户事件失败: {} - {}", event.getUserId(), result);
+        }
+    }
+
+    @Override
+    public Flux<UserChangeEvent> subscribe() {
+        Flux<UserChangeEvent> events = sink.asFlux();
+        int bufferSize = properties.getSubscriberBufferSize();
+        return switch (properties.getOverflow()) {
+            case DROP_OLDEST -> events.onBackpressureBuffer(bufferSize,
+                    dropped -> log.debug("订阅者处理过慢，丢弃最旧事件: {}", dropped.getUserId()),
+                    BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_LATEST -> events.onBackpressureBuffer(bufferSize,
+                    dropped -> log.debug("订阅者处理过慢，丢弃最新事件: {}", dropped.getUserId()),
+                    BufferOverflowStrategy.DROP_LATEST);
+            case LATEST -> events.onBackpressureLatest();
+        };
+    }
+
+    protected UserEventProperties getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.webfluxdemo.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * 进程内事件总线，单节点部署和测试使用
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.user-events", name = "bus", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserEventBus extends AbstractUserEventBus {
+
+    public InMemoryUserEventBus(UserEventProperties properties) {
+        super(properties);
+    }
+
+    /**
+     * 事务内发布时登记到提交之后再分发
+     */
+    @Override
+    public Mono<Void> publish(UserChangeEvent event) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(manager -> manager.isSynchronizationActive() && manager.isActualTransactionActive())
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(() -> emitLocal(event));
+                    }
+                }))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.fromRunnable(() -> emitLocal(event)))
+                .then();
+    }
+}
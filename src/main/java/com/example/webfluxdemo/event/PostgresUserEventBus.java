@@ -0,0 +1,137 @@
+package com.example.webfluxdemo.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * 基于 PostgreSQL LISTEN/NOTIFY 的事件总线
+ *
+ * 发布时执行 pg_notify，所有节点（包括自身）通过 LISTEN 收到后再进行本地分发。
+ * 监听使用一条独立的非池化连接，断开后自动重连
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.user-events", name = "bus", havingValue = "postgres")
+public class PostgresUserEventBus extends AbstractUserEventBus implements SmartLifecycle {
+
+    /**
+     * LISTEN 的通道名是标识符，不能作为参数绑定，只接受普通标识符并加引号拼接
+     */
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]{0,62}$");
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    private volatile Disposable listener;
+
+    public PostgresUserEventBus(UserEventProperties properties,
+                                ConnectionFactory connectionFactory,
+                                DatabaseClient databaseClient,
+                                ObjectMapper objectMapper) {
+        super(properties);
+        if (!CHANNEL_PATTERN.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("用户事件通道名不合法: " + properties.getChannel());
+        }
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * pg_notify 与调用方使用同一个事务连接，PostgreSQL 在事务提交时才投递通知，回滚则丢弃
+     */
+    @Override
+    public Mono<Void> publish(UserChangeEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("用户事件序列化失败: {}", e.getMessage());
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", getProperties().getChannel())
+                .bind("payload", payload)
+                .fetch()
+                .rowsUpdated()
+                .doOnError(e -> log.error("发布用户事件失败: {}", e.getMessage()))
+                .then();
+    }
+
+    @Override
+    public void start() {
+        listener = Mono.from(unwrap(connectionFactory).create())
+                .flatMapMany(connection -> listen(connection)
+                        .doFinally(signal -> Mono.from(connection.close()).subscribe()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("LISTEN 连接中断，准备重连: {}", signal.failure().getMessage())))
+                .subscribe(this::onNotification);
+        log.info("开始监听用户事件通道: {}", getProperties().getChannel());
+    }
+
+    private Flux<Notification> listen(Connection connection) {
+        if (!(connection instanceof PostgresqlConnection postgresqlConnection)) {
+            return Flux.error(new IllegalStateException("LISTEN/NOTIFY 需要 PostgreSQL 连接"));
+        }
+        return postgresqlConnection.createStatement("LISTEN \"" + getProperties().getChannel() + "\"")
+                .execute()
+                .flatMap(result -> result.getRowsUpdated())
+                .thenMany(postgresqlConnection.getNotifications());
+    }
+
+    private void onNotification(Notification notification) {
+        String payload = notification.getParameter();
+        if (payload == null) {
+            return;
+        }
+        try {
+            emitLocal(objectMapper.readValue(payload, UserChangeEvent.class));
+        } catch (JsonProcessingException e) {
+            log.warn("忽略无法解析的用户事件: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 绕过连接池，避免监听连接长期占用池中的连接
+     */
+    private static ConnectionFactory unwrap(ConnectionFactory connectionFactory) {
+        ConnectionFactory current = connectionFactory;
+        while (current instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof ConnectionFactory target) {
+            current = target;
+        }
+        return current;
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listener != null && !listener.isDisposed();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.webfluxdemo.event;
+
+import com.example.webfluxdemo.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户变更事件
+ *
+ * 只携带标识类字段，不包含密码等敏感信息；删除事件只有 userId
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Type type;
+
+    private Long userId;
+
+    private String username;
+
+    private String email;
+
+    private LocalDateTime occurredAt;
+
+    public static UserChangeEvent created(User user) {
+        return new UserChangeEvent(Type.CREATED, user.getId(), user.getUsername(), user.getEmail(), LocalDateTime.now());
+    }
+
+    public static UserChangeEvent updated(User user) {
+        return updated(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    public static UserChangeEvent updated(Long userId, String username, String email) {
+        return new UserChangeEvent(Type.UPDATED, userId, username, email, LocalDateTime.now());
+    }
+
+    public static UserChangeEvent deleted(Long userId) {
+        return new UserChangeEvent(Type.DELETED, userId, null, null, LocalDateTime.now());
+    }
+}
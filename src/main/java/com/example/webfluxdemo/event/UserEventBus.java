@@ -0,0 +1,24 @@
+package com.example.webfluxdemo.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 用户变更事件总线
+ */
+public interface UserEventBus {
+
+    /**
+     * 发布事件，不阻塞调用方
+     *
+     * 在事务内订阅时，事件随事务提交才投递，回滚后不投递；不在事务内时立即投递
+     */
+    Mono<Void> publish(UserChangeEvent event);
+
+    /**
+     * 订阅事件（热流，只接收订阅之后的事件）
+     *
+     * 每个订阅者拥有独立的有界缓冲区，溢出时按配置的策略丢弃
+     */
+    Flux<UserChangeEvent> subscribe();
+}
@@ -0,0 +1,59 @@
+package com.example.webfluxdemo.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户变更事件配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.user-events")
+public class UserEventProperties {
+
+    public enum Bus {
+        /**
+         * 进程内事件总线，仅本节点可见
+         */
+        MEMORY,
+        /**
+         * 基于 PostgreSQL LISTEN/NOTIFY，跨节点投递
+         */
+        POSTGRES
+    }
+
+    public enum Overflow {
+        /**
+         * 缓冲区满时丢弃最旧的事件
+         */
+        DROP_OLDEST,
+        /**
+         * 缓冲区满时丢弃新到达的事件
+         */
+        DROP_LATEST,
+        /**
+         * 只保留最新的一个事件
+         */
+        LATEST
+    }
+
+    private Bus bus = Bus.MEMORY;
+
+    /**
+     * 每个订阅者的缓冲区大小
+     */
+    private int subscriberBufferSize = 256;
+
+    private Overflow overflow = Overflow.DROP_OLDEST;
+
+    /**
+     * SSE 心跳间隔，避免空闲连接被代理断开
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * LISTEN/NOTIFY 使用的通道名
+     */
+    private String channel = "user_changes";
+}
@@ -1,6 +1,11 @@
 package com.example.webfluxdemo.exception;
 
+import com.example.webfluxdemo.deadline.DeadlineExceededException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -100,6 +105,34 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.badRequest().body(response));
     }
 
+    /**
+     * 处理数据库暂时不可用 (连接中断、获取连接超时、瞬时错误)，返回 503 以便调用方重试，不暴露驱动的错误信息
+     */
+    @ExceptionHandler({TransientDataAccessException.class, DataAccessResourceFailureException.class})
+    public Mono<ResponseEntity<Map<String, Object>>> handleDataAccessUnavailable(DataAccessException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "数据库暂时不可用，请稍后重试");
+        response.put("timestamp", System.currentTimeMillis());
+
+        log.warn("数据库暂时不可用: {}", ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
+    }
+
+    /**
+     * 处理超过请求截止时间，返回 504；调用方通常已经不再等待这个响应
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleDeadlineExceeded(DeadlineExceededException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", ex.getMessage());
+        response.put("timestamp", System.currentTimeMillis());
+
+        log.warn("超过请求截止时间: {}", ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response));
+    }
+
     /**
      * 处理业务异常
      */
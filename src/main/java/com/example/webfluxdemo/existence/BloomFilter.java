@@ -0,0 +1,135 @@
+package com.example.webfluxdemo.existence;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的 Bloom 过滤器
+ *
+ * 位数组基于 AtomicLongArray，写入使用 CAS，查询无锁；k 个哈希位置由两个 64 位哈希组合得到
+ * (Kirsch-Mitzenmacher)。判断为不存在时一定不存在，判断为可能存在时存在误判
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SECOND_SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder bitCount = new LongAdder();
+
+    BloomFilter(long bitSize, int hashFunctions) {
+        long words = Math.max(1, (bitSize + 63) >>> 6);
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom 过滤器过大: " + bitSize + " bits");
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitSize = words << 6;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * 按预期元素数量与目标误判率计算位数组大小与哈希函数个数
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("预期元素数量必须大于 0");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("误判率必须在 (0, 1) 之间");
+        }
+        long bitSize = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2)));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    /**
+     * 加入一个元素，返回是否有新的位被置位
+     */
+    public boolean put(CharSequence value) {
+        long hash1 = hash(value, FNV_OFFSET);
+        long hash2 = hash(value, SECOND_SEED);
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            changed |= setBit(index(hash1 + i * hash2));
+        }
+        return changed;
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash1 = hash(value, FNV_OFFSET);
+        long hash2 = hash(value, SECOND_SEED);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(hash1 + i * hash2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按当前置位比例估算的误判率 (X/m)^k
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount.sum() / bitSize, hashFunctions);
+    }
+
+    /**
+     * 按置位数估算的元素个数 -m/k * ln(1 - X/m)
+     */
+    public long approximateElementCount() {
+        double fractionSet = (double) bitCount.sum() / bitSize;
+        return Math.round(-Math.log1p(-fractionSet) * bitSize / hashFunctions);
+    }
+
+    public long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitCount.increment();
+        return true;
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    /**
+     * FNV-1a 累加字符后经 MurmurHash3 fmix64 混淆
+     */
+    private static long hash(CharSequence value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
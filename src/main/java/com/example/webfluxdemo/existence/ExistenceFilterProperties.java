@@ -0,0 +1,44 @@
+package com.example.webfluxdemo.existence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户名/邮箱存在性过滤器配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.existence-filter")
+public class ExistenceFilterProperties {
+
+    /**
+     * 关闭后始终查询数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 目标误判率
+     */
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * 过滤器容量下限（元素数，每个用户占用户名与邮箱两个元素）
+     */
+    private long minExpectedInsertions = 1_000_000;
+
+    /**
+     * 重建时容量相对当前元素数的倍数，为两次重建之间的新增用户预留空间
+     */
+    private double growthFactor = 2.0;
+
+    /**
+     * 定期重建间隔，清除已删除/已修改的旧值并按新的数据量调整容量；0 表示只在启动时构建
+     */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /**
+     * 构建时服务端游标每次拉取的行数
+     */
+    private int fetchSize = 1000;
+}
@@ -0,0 +1,266 @@
+package com.example.webfluxdemo.existence;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 用户名/邮箱存在性过滤器
+ *
+ * 以 Bloom 过滤器保存所有用户名与邮箱（去除首尾空白并转为小写），判断为一定不存在时
+ * 可以跳过 existsByUsername/existsByEmail 查询。应用就绪后流式读取 users 表构建，
+ * 构建完成前以及关闭时始终返回"可能存在"，由数据库查询兜底。
+ * Bloom 过滤器不支持删除：删除或修改后的旧值只会造成误判（多一次查询），由定期重建清除
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private static final String KEYS_SQL = "SELECT username, email FROM users";
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final DatabaseClient databaseClient;
+    private final UserEventBus userEventBus;
+    private final ExistenceFilterProperties properties;
+
+    private final Counter skippedQueries;
+    private final Counter falsePositives;
+    private final Counter confirmedPresent;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    /**
+     * 当前生效的与重建中的过滤器，放在同一个对象里整体替换，
+     * add 一次读取就拿到一致的两者，不会在切换的间隙漏掉新的过滤器
+     */
+    private volatile Filters filters = Filters.EMPTY;
+
+    public UserExistenceFilter(DatabaseClient databaseClient,
+                               UserEventBus userEventBus,
+                               ExistenceFilterProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.userEventBus = userEventBus;
+        this.properties = properties;
+
+        this.skippedQueries = Counter.builder("user.existence.filter.checks")
+                .description("存在性检查结果")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.existence.filter.checks")
+                .description("存在性检查结果")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        this.confirmedPresent = Counter.builder("user.existence.filter.checks")
+                .description("存在性检查结果")
+                .tag("result", "present")
+                .register(meterRegistry);
+        Gauge.builder("user.existence.filter.fpp", this, UserExistenceFilter::observedFpp)
+                .description("实际误判率：误判次数 / (误判次数 + 跳过查询次数)")
+                .tag("type", "observed")
+                .register(meterRegistry);
+        Gauge.builder("user.existence.filter.fpp", this, filter -> filter.withActive(BloomFilter::expectedFpp))
+                .description("按位数组饱和度估算的误判率")
+                .tag("type", "expected")
+                .register(meterRegistry);
+        Gauge.builder("user.existence.filter.memory", this, filter -> filter.withActive(BloomFilter::memoryBytes))
+                .description("过滤器位数组占用的内存")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.existence.filter.elements", this,
+                        filter -> filter.withActive(BloomFilter::approximateElementCount))
+                .description("过滤器中的估算元素个数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用就绪（测试数据生成等 ApplicationRunner 执行完毕）后开始构建，并按配置定期重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("用户存在性过滤器已关闭");
+            return;
+        }
+        // 其他节点的写入通过事件总线到达（postgres 总线）
+        subscriptions.add(userEventBus.subscribe()
+                .filter(event -> event.getType() != UserChangeEvent.Type.DELETED)
+                .subscribe(event -> add(event.getUsername(), event.getEmail())));
+
+        Duration interval = properties.getRebuildInterval();
+        Flux<Long> ticks = interval == null || interval.isZero() || interval.isNegative()
+                ? Flux.just(0L)
+                : Flux.interval(Duration.ZERO, interval, Schedulers.parallel()).onBackpressureDrop();
+        subscriptions.add(ticks
+                .concatMap(tick -> rebuild()
+                        .onErrorResume(e -> {
+                            log.error("用户存在性过滤器构建失败: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+        filters = Filters.EMPTY;
+    }
+
+    /**
+     * 用户名一定不存在时返回 true；过滤器未就绪时返回 false
+     */
+    public boolean definitelyAbsentUsername(String username) {
+        return definitelyAbsent(USERNAME_PREFIX, username);
+    }
+
+    /**
+     * 邮箱一定不存在时返回 true；过滤器未就绪时返回 false
+     */
+    public boolean definitelyAbsentEmail(String email) {
+        return definitelyAbsent(EMAIL_PREFIX, email);
+    }
+
+    /**
+     * 过滤器判断可能存在并查询数据库后，回报查询结果用于统计实际误判率
+     */
+    public void recordQueryResult(boolean exists) {
+        if (filters.active() == null) {
+            return;
+        }
+        if (exists) {
+            confirmedPresent.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * 记录新写入的用户名与邮箱
+     */
+    public void add(String username, String email) {
+        Filters current = filters;
+        if (current.active() != null) {
+            put(current.active(), username, email);
+        }
+        if (current.building() != null) {
+            put(current.building(), username, email);
+        }
+    }
+
+    public boolean isReady() {
+        return filters.active() != null;
+    }
+
+    /**
+     * 重新读取 users 表构建过滤器，完成后原子替换；已有重建在进行时直接返回
+     */
+    public Mono<Void> rebuild() {
+        Mono<Long> userCount = databaseClient.sql("SELECT COUNT(*) FROM users")
+                .map(row -> row.get(0, Long.class))
+                .one();
+        Flux<String[]> keys = databaseClient.sql(KEYS_SQL)
+                .filter(statement -> statement.fetchSize(properties.getFetchSize()))
+                .map(row -> new String[]{row.get("username", String.class), row.get("email", String.class)})
+                .all();
+        return rebuild(userCount, keys);
+    }
+
+    Mono<Void> rebuild(Mono<Long> userCount, Flux<String[]> keys) {
+        return Mono.defer(() -> {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            long start = System.currentTimeMillis();
+            return userCount
+                    .map(count -> {
+                        long expected = Math.max(properties.getMinExpectedInsertions(),
+                                (long) (count * 2 * properties.getGrowthFactor()));
+                        // 先登记为重建中的过滤器再开始读取，读取快照之后提交的写入通过 add 加入
+                        BloomFilter next = BloomFilter.create(expected, properties.getFalsePositiveProbability());
+                        filters = new Filters(filters.active(), next);
+                        return next;
+                    })
+                    .flatMap(next -> keys
+                            .doOnNext(row -> put(next, row[0], row[1]))
+                            .count()
+                            .doOnNext(rows -> {
+                                filters = new Filters(next, null);
+                                log.info("用户存在性过滤器构建完成: {} 个用户, {} KB, 预估误判率 {}, 耗时 {} ms",
+                                        rows, next.memoryBytes() / 1024,
+                                        String.format("%.5f", next.expectedFpp()),
+                                        System.currentTimeMillis() - start);
+                            }))
+                    .doFinally(signal -> {
+                        if (filters.building() != null) {
+                            filters = new Filters(filters.active(), null);
+                        }
+                        rebuilding.set(false);
+                    })
+                    .then();
+        });
+    }
+
+    private boolean definitelyAbsent(String prefix, String value) {
+        BloomFilter filter = filters.active();
+        if (filter == null || value == null) {
+            return false;
+        }
+        boolean absent = !filter.mightContain(key(prefix, value));
+        if (absent) {
+            skippedQueries.increment();
+        }
+        return absent;
+    }
+
+    private double observedFpp() {
+        double negatives = falsePositives.count() + skippedQueries.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+
+    private double withActive(ToDoubleFunction<BloomFilter> metric) {
+        BloomFilter filter = filters.active();
+        return filter == null ? 0 : metric.applyAsDouble(filter);
+    }
+
+    private static void put(BloomFilter filter, String username, String email) {
+        if (username != null) {
+            filter.put(key(USERNAME_PREFIX, username));
+        }
+        if (email != null) {
+            filter.put(key(EMAIL_PREFIX, email));
+        }
+    }
+
+    private static String key(String prefix, String value) {
+        return prefix + value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param active   当前生效的过滤器，首次构建完成前为 null
+     * @param building 重建中的过滤器，重建期间的写入同时加入其中，避免切换后丢失
+     */
+    private record Filters(BloomFilter active, BloomFilter building) {
+
+        static final Filters EMPTY = new Filters(null, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.webfluxdemo.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 用户导出格式
+ */
+public enum UserExportFormat {
+
+    CSV(new MediaType("text", "csv"), "csv"),
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    UserExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * 解析请求参数中的格式名称，忽略大小写
+     */
+    public static UserExportFormat fromValue(String value) {
+        for (UserExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + value);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
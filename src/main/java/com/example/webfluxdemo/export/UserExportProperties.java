@@ -0,0 +1,27 @@
+package com.example.webfluxdemo.export;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户导出配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class UserExportProperties {
+
+    /**
+     * 服务端游标每次从数据库拉取的行数
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * 每个输出缓冲区包含的行数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 输出缓冲区初始容量（字节）
+     */
+    private int bufferCapacity = 32 * 1024;
+}
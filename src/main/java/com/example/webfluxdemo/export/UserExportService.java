@@ -0,0 +1,69 @@
+package com.example.webfluxdemo.export;
+
+import com.example.webfluxdemo.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户全量导出
+ *
+ * 通过服务端游标 (fetchSize) 逐批读取 users 表并直接编码为输出缓冲区，
+ * 数据流受下游背压控制，导出任意行数都只占用常量内存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT id, username, email, is_active, bio, created_at, updated_at FROM users ORDER BY id";
+
+    private final DatabaseClient databaseClient;
+    private final UserExportProperties properties;
+
+    /**
+     * 导出全部用户
+     */
+    public Flux<DataBuffer> exportUsers(UserExportFormat format, boolean compress, DataBufferFactory bufferFactory) {
+        log.info("导出全部用户 - 格式: {}, 压缩: {}", format, compress);
+        return encode(streamUsers(), format, compress, bufferFactory);
+    }
+
+    /**
+     * 将用户流编码为输出缓冲区流
+     */
+    public Flux<DataBuffer> encode(Flux<User> users, UserExportFormat format, boolean compress,
+                                   DataBufferFactory bufferFactory) {
+        return Flux.using(
+                        () -> new UserExportWriter(format, compress, bufferFactory, properties.getBufferCapacity()),
+                        writer -> users.buffer(properties.getBatchSize())
+                                .map(writer::writeBatch)
+                                .concatWith(Mono.fromCallable(writer::finish)),
+                        UserExportWriter::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private Flux<User> streamUsers() {
+        return databaseClient.sql(EXPORT_SQL)
+                .filter(statement -> statement.fetchSize(properties.getFetchSize()))
+                .map((row, metadata) -> new User(
+                        row.get("id", Long.class),
+                        row.get("username", String.class),
+                        row.get("email", String.class),
+                        null,
+                        row.get("is_active", Boolean.class),
+                        row.get("bio", String.class),
+                        row.get("created_at", LocalDateTime.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .all();
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.webfluxdemo.export;
+
+import com.example.webfluxdemo.model.User;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 将用户行批量编码为 CSV/NDJSON，并可选地以 gzip 流式压缩
+ *
+ * 每个批次写入一个新分配的 DataBuffer（Netty 下来自池化分配器），由写出方负责释放；
+ * gzip 与字符编码器在整个导出过程中复用，内存占用只与批次大小有关，与总行数无关。
+ * 实例非线程安全，一次导出使用一个实例
+ */
+public class UserExportWriter implements AutoCloseable {
+
+    static final String CSV_HEADER = "id,username,email,is_active,bio,created_at,updated_at\n";
+
+    private final UserExportFormat format;
+    private final boolean compress;
+    private final DataBufferFactory bufferFactory;
+    private final int initialBufferCapacity;
+
+    private final BufferOutputStream target = new BufferOutputStream();
+    private final StringBuilder line = new StringBuilder(256);
+
+    private GZIPOutputStream gzip;
+    private Writer writer;
+    private boolean opened;
+
+    public UserExportWriter(UserExportFormat format, boolean compress,
+                            DataBufferFactory bufferFactory, int initialBufferCapacity) {
+        this.format = format;
+        this.compress = compress;
+        this.bufferFactory = bufferFactory;
+        this.initialBufferCapacity = initialBufferCapacity;
+    }
+
+    /**
+     * 编码一批用户，返回包含该批次（压缩后）字节的缓冲区
+     */
+    public DataBuffer writeBatch(List<User> users) {
+        return writeToNewBuffer(() -> {
+            openIfNecessary();
+            for (User user : users) {
+                line.setLength(0);
+                if (format == UserExportFormat.CSV) {
+                    appendCsv(user);
+                } else {
+                    appendJson(user);
+                }
+                writer.append(line);
+            }
+            writer.flush();
+        });
+    }
+
+    /**
+     * 结束导出，写出 gzip 尾部等剩余字节
+     */
+    public DataBuffer finish() {
+        return writeToNewBuffer(() -> {
+            openIfNecessary();
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        });
+    }
+
+    /**
+     * 首次写入时才创建流，gzip 头部与 CSV 表头随第一个缓冲区输出
+     */
+    private void openIfNecessary() throws IOException {
+        if (opened) {
+            return;
+        }
+        if (compress) {
+            gzip = new GZIPOutputStream(target, 8192, true);
+        }
+        writer = new OutputStreamWriter(compress ? gzip : target, StandardCharsets.UTF_8);
+        if (format == UserExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        opened = true;
+    }
+
+    private DataBuffer writeToNewBuffer(IoAction action) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(initialBufferCapacity);
+        target.current = buffer;
+        try {
+            action.run();
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        } finally {
+            target.current = null;
+        }
+    }
+
+    private void appendCsv(User user) {
+        line.append(user.getId()).append(',');
+        appendCsvField(user.getUsername());
+        line.append(',');
+        appendCsvField(user.getEmail());
+        line.append(',').append(Boolean.TRUE.equals(user.getIsActive())).append(',');
+        appendCsvField(user.getBio());
+        line.append(',');
+        appendTimestamp(user.getCreatedAt());
+        line.append(',');
+        appendTimestamp(user.getUpdatedAt());
+        line.append('\n');
+    }
+
+    private void appendCsvField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJson(User user) {
+        line.append("{\"id\":").append(user.getId());
+        line.append(",\"username\":");
+        appendJsonString(user.getUsername());
+        line.append(",\"email\":");
+        appendJsonString(user.getEmail());
+        line.append(",\"isActive\":").append(Boolean.TRUE.equals(user.getIsActive()));
+        line.append(",\"bio\":");
+        appendJsonString(user.getBio());
+        line.append(",\"createdAt\":");
+        appendJsonTimestamp(user.getCreatedAt());
+        line.append(",\"updatedAt\":");
+        appendJsonTimestamp(user.getUpdatedAt());
+        line.append("}\n");
+    }
+
+    private void appendJsonString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private void appendJsonTimestamp(LocalDateTime value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        appendTimestamp(value);
+        line.append('"');
+    }
+
+    private void appendTimestamp(LocalDateTime value) {
+        if (value != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(value, line);
+        }
+    }
+
+    /**
+     * 释放压缩器占用的本地内存，取消或出错时也会调用
+     */
+    @Override
+    public void close() {
+        if (gzip != null) {
+            target.current = null;
+            try {
+                gzip.close();
+            } catch (IOException ignored) {
+                // 导出已终止，剩余字节无需写出
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * 写入当前批次缓冲区的输出流；没有当前缓冲区时丢弃字节
+     */
+    private static final class BufferOutputStream extends OutputStream {
+
+        private DataBuffer current;
+
+        @Override
+        public void write(int b) {
+            if (current != null) {
+                current.ensureWritable(1);
+                current.write((byte) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (current != null) {
+                current.ensureWritable(length);
+                current.write(bytes, offset, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.webfluxdemo.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁 count-min sketch
+ *
+ * depth 行、每行 width 个计数器存放在一个 AtomicLongArray 中，第 i 行的位置由两个 64 位哈希组合得到
+ * (Kirsch-Mitzenmacher)。估计值为各行计数的最小值，只会高估不会低估。
+ * 衰减与并发的计数之间不加锁，可能丢失少量计数，对热点排序没有影响
+ */
+final class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("count-min sketch 的宽度与行数必须大于 0");
+        }
+        // 宽度取 2 的幂，取模改为位与
+        this.width = Math.max(1, Integer.highestOneBit(width - 1) << 1);
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * 计数加一并返回加一后的估计值
+     */
+    long increment(long hash1, long hash2) {
+        long estimate = Long.MAX_VALUE;
+        int mask = width - 1;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((hash1 + row * hash2) >>> 33 & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    long estimate(long hash1, long hash2) {
+        long estimate = Long.MAX_VALUE;
+        int mask = width - 1;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((hash1 + row * hash2) >>> 33 & mask);
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        return estimate;
+    }
+
+    void decay(double factor) {
+        for (int i = 0; i < counters.length(); i++) {
+            long value = counters.get(i);
+            if (value != 0) {
+                counters.set(i, (long) (value * factor));
+            }
+        }
+    }
+
+    int width() {
+        return width;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.webfluxdemo.hotkey;
+
+/**
+ * 一个热点键
+ *
+ * @param count 衰减后的估计请求数（count-min sketch 估计值，可能高估）
+ * @param share 占该操作衰减后总请求数的比例
+ */
+public record HotKey(String key, long count, double share) {
+}
@@ -0,0 +1,45 @@
+package com.example.webfluxdemo.hotkey;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/hotkeys: 各操作的热点键，/actuator/hotkeys/{operation} 查看单个操作，DELETE 清空统计
+ *
+ * 搜索关键词按原文返回 (可能是被搜索的邮箱地址)，因此默认不暴露；通过 ops profile 在只监听本机的管理端口上开放
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final HotKeys hotKeys;
+
+    @ReadOperation
+    public Map<String, HotKeys.Report> hotKeys(@Nullable Integer limit) {
+        return hotKeys.report(limit(limit));
+    }
+
+    @ReadOperation
+    public HotKeys.Report operation(@Selector String operation, @Nullable Integer limit) {
+        return hotKeys.report(operation, limit(limit));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        hotKeys.reset();
+    }
+
+    private static int limit(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+    }
+}
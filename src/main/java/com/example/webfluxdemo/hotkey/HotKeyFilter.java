@@ -0,0 +1,60 @@
+package com.example.webfluxdemo.hotkey;
+
+import com.example.webfluxdemo.limit.AdaptiveConcurrencyFilter;
+import com.example.webfluxdemo.limit.UserOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 从 UserController 的请求路径与参数中取出用户 ID / 搜索关键词计入热点键统计
+ *
+ * 在限流之前执行，被拒绝的请求同样计入，便于判断拒绝是否由少数热点引起
+ */
+@Component
+@RequiredArgsConstructor
+public class HotKeyFilter implements WebFilter, Ordered {
+
+    private final HotKeys hotKeys;
+
+    @Override
+    public int getOrder() {
+        return AdaptiveConcurrencyFilter.ORDER - 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (hotKeys.isEnabled()) {
+            record(hotKeys, exchange.getRequest());
+        }
+        return chain.filter(exchange);
+    }
+
+    static void record(HotKeys hotKeys, ServerHttpRequest request) {
+        UserOperation operation = UserOperation.of(request);
+        if (operation != null && HotKeys.keyed(operation)) {
+            hotKeys.record(operation, key(operation, request));
+        }
+    }
+
+    /**
+     * 按 ID 的操作取路径最后一段，搜索取 keyword 参数（去除首尾空白）
+     */
+    static String key(UserOperation operation, ServerHttpRequest request) {
+        return switch (operation) {
+            case SEARCH_USERNAME, SEARCH_EMAIL -> {
+                String keyword = request.getQueryParams().getFirst("keyword");
+                yield keyword == null ? null : keyword.trim();
+            }
+            default -> {
+                String path = request.getPath().value();
+                yield path.substring(path.lastIndexOf('/') + 1);
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.webfluxdemo.hotkey;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 热点键统计配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.hot-keys")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * count-min sketch 每行的计数器个数，估计值的误差约为 总请求数 * e / width
+     */
+    private int width = 4096;
+
+    /**
+     * count-min sketch 的行数（哈希函数个数），误差超出上述范围的概率约为 e^-depth
+     */
+    private int depth = 4;
+
+    /**
+     * 每个操作保留的候选热点键个数
+     */
+    private int capacity = 64;
+
+    /**
+     * 每隔 decayInterval 把所有计数乘以 decayFactor，越早的请求权重越低
+     */
+    private Duration decayInterval = Duration.ofMinutes(1);
+
+    private double decayFactor = 0.5;
+
+    /**
+     * 超过该长度的键（如搜索关键词）截断后统计
+     */
+    private int maxKeyLength = 64;
+}
@@ -0,0 +1,135 @@
+package com.example.webfluxdemo.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个操作的流式热点键统计：count-min sketch 估计每个键的次数，space-saving 风格的候选表保留其中最大的 capacity 个
+ *
+ * 候选表已满时，新键的估计值超过表中最小值才会替换最小的候选（被替换的键之后再次变热时重新进入）。
+ * 已在表中或估计值不超过最小值的请求只做 sketch 计数与一次哈希表查找，不加锁；只有替换候选时加锁
+ */
+public class HotKeyTracker {
+
+    private static final long SECOND_SEED = 0x9e3779b97f4a7c15L;
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final int maxKeyLength;
+    private final Map<String, AtomicLong> candidates = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * 候选表已满时其中的最小估计值，估计值不超过它的键直接跳过
+     */
+    private volatile long admissionThreshold;
+
+    public HotKeyTracker(int width, int depth, int capacity, int maxKeyLength) {
+        this.sketch = new CountMinSketch(width, depth);
+        this.capacity = capacity;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    public void record(String key) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        if (key.length() > maxKeyLength) {
+            key = key.substring(0, maxKeyLength);
+        }
+        total.increment();
+        long hash1 = mix(key.hashCode());
+        long estimate = sketch.increment(hash1, mix(hash1 ^ SECOND_SEED));
+        AtomicLong candidate = candidates.get(key);
+        if (candidate != null) {
+            candidate.accumulateAndGet(estimate, Math::max);
+        } else if (candidates.size() < capacity || estimate > admissionThreshold) {
+            admit(key, estimate);
+        }
+    }
+
+    /**
+     * 估计值最大的 limit 个键，按估计值降序
+     */
+    public List<HotKey> top(int limit) {
+        double sum = Math.max(1, total.sum());
+        List<HotKey> result = new ArrayList<>(candidates.size());
+        candidates.forEach((key, count) -> result.add(new HotKey(key, count.get(), count.get() / sum)));
+        result.sort(Comparator.comparingLong(HotKey::count).reversed().thenComparing(HotKey::key));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 衰减后的总请求数
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * 所有计数乘以 factor，计数降为 0 的候选移出候选表
+     */
+    public synchronized void decay(double factor) {
+        sketch.decay(factor);
+        long decayedTotal = (long) (total.sumThenReset() * factor);
+        total.add(decayedTotal);
+        candidates.entrySet().removeIf(entry -> entry.getValue().updateAndGet(count -> (long) (count * factor)) == 0);
+        admissionThreshold = candidates.size() < capacity ? 0 : minimum();
+    }
+
+    public synchronized void reset() {
+        sketch.decay(0);
+        total.reset();
+        candidates.clear();
+        admissionThreshold = 0;
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        if (candidates.containsKey(key)) {
+            candidates.get(key).accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        if (candidates.size() >= capacity) {
+            String evicted = null;
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<String, AtomicLong> entry : candidates.entrySet()) {
+                if (entry.getValue().get() < min) {
+                    min = entry.getValue().get();
+                    evicted = entry.getKey();
+                }
+            }
+            if (evicted == null || estimate <= min) {
+                admissionThreshold = min;
+                return;
+            }
+            candidates.remove(evicted);
+        }
+        candidates.put(key, new AtomicLong(estimate));
+        admissionThreshold = candidates.size() < capacity ? 0 : minimum();
+    }
+
+    private long minimum() {
+        long min = Long.MAX_VALUE;
+        for (AtomicLong count : candidates.values()) {
+            min = Math.min(min, count.get());
+        }
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    /**
+     * MurmurHash3 fmix64，String.hashCode 只有 32 位，扩散到 64 位后再组合出各行的位置
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
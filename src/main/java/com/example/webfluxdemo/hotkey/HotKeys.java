@@ -0,0 +1,113 @@
+package com.example.webfluxdemo.hotkey;
+
+import com.example.webfluxdemo.limit.UserOperation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 各操作的热点键统计：按 ID 查询、更新、删除统计用户 ID，用户名/邮箱搜索统计关键词
+ */
+@Slf4j
+@Component
+public class HotKeys {
+
+    private final HotKeyProperties properties;
+    private final Map<UserOperation, HotKeyTracker> trackers = new EnumMap<>(UserOperation.class);
+    private final Disposable decay;
+
+    public HotKeys(HotKeyProperties properties) {
+        this.properties = properties;
+        for (UserOperation operation : UserOperation.values()) {
+            if (keyed(operation)) {
+                trackers.put(operation, new HotKeyTracker(properties.getWidth(), properties.getDepth(),
+                        properties.getCapacity(), properties.getMaxKeyLength()));
+            }
+        }
+        Duration interval = properties.getDecayInterval();
+        this.decay = properties.isEnabled() && interval != null && !interval.isZero() && !interval.isNegative()
+                ? Flux.interval(interval, interval, Schedulers.parallel()).subscribe(tick -> decay())
+                : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (decay != null) {
+            decay.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 统计该操作的键，不统计的操作直接返回
+     */
+    public void record(UserOperation operation, String key) {
+        HotKeyTracker tracker = trackers.get(operation);
+        if (tracker != null) {
+            tracker.record(key);
+        }
+    }
+
+    /**
+     * 各操作的热点键，操作名为小写（如 get_by_id）
+     */
+    public Map<String, Report> report(int limit) {
+        Map<String, Report> report = new LinkedHashMap<>();
+        trackers.forEach((operation, tracker) -> report.put(name(operation), report(tracker, limit)));
+        return report;
+    }
+
+    /**
+     * 单个操作的热点键，操作不存在或不统计时返回 null
+     */
+    public Report report(String operation, int limit) {
+        for (Map.Entry<UserOperation, HotKeyTracker> entry : trackers.entrySet()) {
+            if (name(entry.getKey()).equalsIgnoreCase(operation)) {
+                return report(entry.getValue(), limit);
+            }
+        }
+        return null;
+    }
+
+    public void reset() {
+        trackers.values().forEach(HotKeyTracker::reset);
+        log.info("热点键统计已清空");
+    }
+
+    void decay() {
+        trackers.values().forEach(tracker -> tracker.decay(properties.getDecayFactor()));
+    }
+
+    private Report report(HotKeyTracker tracker, int limit) {
+        return new Report(tracker.total(), properties.getDecayInterval(), properties.getDecayFactor(), tracker.top(limit));
+    }
+
+    static boolean keyed(UserOperation operation) {
+        return switch (operation) {
+            case GET_BY_ID, UPDATE, DELETE, SEARCH_USERNAME, SEARCH_EMAIL -> true;
+            default -> false;
+        };
+    }
+
+    private static String name(UserOperation operation) {
+        return operation.name().toLowerCase();
+    }
+
+    /**
+     * @param total 衰减后的总请求数
+     */
+    public record Report(long total, Duration decayInterval, double decayFactor, List<HotKey> keys) {
+    }
+}
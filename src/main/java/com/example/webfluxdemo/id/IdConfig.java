@@ -0,0 +1,60 @@
+package com.example.webfluxdemo.id;
+
+import com.example.webfluxdemo.event.UserEventProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Snowflake ID 策略 (app.id.strategy=snowflake)
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.id", name = "strategy", havingValue = "snowflake")
+public class IdConfig {
+
+    @Bean
+    SnowflakeIdGenerator snowflakeIdGenerator(IdProperties properties, UserEventProperties eventProperties) {
+        long nodeId = nodeId(properties, eventProperties);
+        log.info("使用 Snowflake 用户 ID, 节点 ID: {}", nodeId);
+        return new SnowflakeIdGenerator(nodeId, properties.getEpoch());
+    }
+
+    @Bean
+    SnowflakeUserIdCallback snowflakeUserIdCallback(SnowflakeIdGenerator snowflakeIdGenerator) {
+        return new SnowflakeUserIdCallback(snowflakeIdGenerator);
+    }
+
+    /**
+     * 多节点部署 (跨节点事件总线) 时必须显式配置节点 ID：推导值只有 10 bit，不同节点可能相同并生成重复 ID
+     */
+    static long nodeId(IdProperties properties, UserEventProperties eventProperties) {
+        if (properties.getNodeId() != null) {
+            return properties.getNodeId();
+        }
+        if (eventProperties.getBus() == UserEventProperties.Bus.POSTGRES) {
+            throw new IllegalStateException("多节点部署 (app.user-events.bus=postgres) 使用 snowflake 时必须为每个节点配置不同的 app.id.node-id");
+        }
+        return deriveNodeId();
+    }
+
+    /**
+     * 由主机名与进程号推导节点 ID
+     */
+    static long deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        int hash = (host + "/" + ManagementFactory.getRuntimeMXBean().getPid()).hashCode();
+        log.warn("未配置 app.id.node-id，由主机名与进程号推导节点 ID；多个实例的推导值可能相同并生成重复 ID，多实例部署时必须显式配置");
+        return (hash ^ (hash >>> 16)) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.webfluxdemo.id;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+
+/**
+ * 用户 ID 生成策略配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.id")
+public class IdProperties {
+
+    public enum Strategy {
+        /**
+         * 数据库序列生成，插入后通过 RETURNING 取回
+         */
+        DATABASE,
+        /**
+         * 应用内生成按时间有序的 Snowflake ID，插入前即可确定
+         */
+        SNOWFLAKE
+    }
+
+    private Strategy strategy = Strategy.DATABASE;
+
+    /**
+     * 节点 ID (0-1023)，多节点部署时每个节点必须不同（如取 StatefulSet 序号）；
+     * 未配置时由主机名与进程号推导，存在冲突的可能；app.user-events.bus=postgres (多节点) 时必须配置
+     */
+    private Integer nodeId;
+
+    /**
+     * 时间戳起点，41 bit 毫秒时间戳可使用约 69 年；上线后不可修改
+     */
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+}
@@ -0,0 +1,97 @@
+package com.example.webfluxdemo.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 无锁、按时间有序的 64 位 ID 生成器（Snowflake 布局）
+ *
+ * <pre>
+ * | 1 bit 符号位 0 | 41 bit 毫秒时间戳（自 epoch 起） | 10 bit 节点 ID | 12 bit 序列号 |
+ * </pre>
+ *
+ * 时间戳与序列号作为一个整体保存在 AtomicLong 中，通过 CAS 推进：同一毫秒内序列号递增，
+ * 序列号用尽时直接借用下一毫秒；时钟回拨时沿用上次的时间戳继续递增，保证单节点内严格递增。
+ * 借用的时间最多领先时钟 {@link #MAX_BORROW_MILLIS} 毫秒，超出后 (时钟大幅回拨或持续超过每毫秒 4096 个)
+ * 抛出 {@link IllegalStateException}，不在调用线程 (通常是事件循环) 上等待时钟追上。
+ * 不同节点只要节点 ID 不同即可保证全局唯一，无需协调
+ */
+public class SnowflakeIdGenerator {
+
+    public static final int NODE_ID_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+
+    /**
+     * 时间戳可领先系统时钟的最大毫秒数（吸收突发流量与小幅时钟回拨）
+     */
+    public static final long MAX_BORROW_MILLIS = 1000;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_ID_BITS + SEQUENCE_BITS;
+
+    private final long epochMillis;
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /**
+     * 高位为相对 epoch 的毫秒数，低 12 位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId, Instant epoch) {
+        this(nodeId, epoch, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, Instant epoch, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点 ID 必须在 0-" + MAX_NODE_ID + " 之间: " + nodeId);
+        }
+        this.epochMillis = epoch.toEpochMilli();
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * @throws IllegalStateException 时间戳领先时钟超过 {@link #MAX_BORROW_MILLIS} 毫秒
+     */
+    public long nextId() {
+        long now = clock.getAsLong() - epochMillis;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            if (now > lastTimestamp) {
+                // 时钟前进，序列号归零
+                next = now << SEQUENCE_BITS;
+            } else if (lastTimestamp - now < MAX_BORROW_MILLIS) {
+                // 同一毫秒或时钟回拨，在上次的基础上递增，序列号溢出即进位到下一毫秒
+                next = current + 1;
+            } else {
+                throw new IllegalStateException("时钟回拨或 ID 生成过快，时间戳已领先时钟 "
+                        + (lastTimestamp - now) + " ms，暂时无法生成 ID");
+            }
+            if (state.compareAndSet(current, next)) {
+                break;
+            }
+        } while (true);
+        return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * 解析 ID 中的生成时间
+     */
+    public Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + epochMillis);
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    public static long sequenceOf(long id) {
+        return id & SEQUENCE_MASK;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.webfluxdemo.id;
+
+import com.example.webfluxdemo.model.User;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import reactor.core.publisher.Mono;
+
+/**
+ * 插入新用户前分配 Snowflake ID
+ *
+ * 仓库以 id 为空判断新实体，回调在判断之后执行，因此仍走 INSERT 且 INSERT 语句携带 id 列
+ */
+public class SnowflakeUserIdCallback implements BeforeConvertCallback<User> {
+
+    private final SnowflakeIdGenerator idGenerator;
+
+    public SnowflakeUserIdCallback(SnowflakeIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Publisher<User> onBeforeConvert(User user, SqlIdentifier table) {
+        // nextId 在时钟大幅回拨时抛出异常，作为保存失败的错误信号传递
+        return Mono.fromSupplier(() -> {
+            if (user.getId() == null) {
+                user.setId(idGenerator.nextId());
+            }
+            return user;
+        });
+    }
+}
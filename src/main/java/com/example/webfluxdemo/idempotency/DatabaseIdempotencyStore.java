@@ -0,0 +1,112 @@
+package com.example.webfluxdemo.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 基于 idempotency_keys 表的存储，多个节点共享已完成的结果
+ *
+ * 响应体以 JSON 保存，重放时读回为 Map；过期记录由后台任务按 purgeInterval 定期删除
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final Disposable purger;
+
+    public DatabaseIdempotencyStore(DatabaseClient databaseClient, ObjectMapper objectMapper,
+                                    IdempotencyProperties properties) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.purger = Flux.interval(properties.getPurgeInterval(), properties.getPurgeInterval(), Schedulers.parallel())
+                .onBackpressureDrop()
+                .concatMap(tick -> purgeExpired()
+                        .onErrorResume(e -> {
+                            log.warn("清理过期的 Idempotency-Key 失败: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        purger.dispose();
+    }
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return databaseClient.sql("SELECT fingerprint, status, body FROM idempotency_keys "
+                        + "WHERE idempotency_key = :key AND expires_at > :now")
+                .bind("key", key)
+                .bind("now", LocalDateTime.now())
+                .map(row -> new IdempotentResponse(row.get("fingerprint", String.class),
+                        row.get("status", Integer.class), readBody(row.get("body", String.class))))
+                .one();
+    }
+
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(response.body()))
+                .flatMap(body -> databaseClient
+                        .sql("DELETE FROM idempotency_keys WHERE idempotency_key = :key AND expires_at <= :now")
+                        .bind("key", key)
+                        .bind("now", now)
+                        .fetch()
+                        .rowsUpdated()
+                        .then(databaseClient.sql("INSERT INTO idempotency_keys "
+                                        + "(idempotency_key, fingerprint, status, body, expires_at) "
+                                        + "VALUES (:key, :fingerprint, :status, :body, :expiresAt)")
+                                .bind("key", key)
+                                .bind("fingerprint", response.fingerprint())
+                                .bind("status", response.status())
+                                .bind("body", body)
+                                .bind("expiresAt", now.plus(ttl))
+                                .fetch()
+                                .rowsUpdated()))
+                // 其他节点已保存同一个 key 的结果
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty())
+                .then();
+    }
+
+    Mono<Long> purgeExpired() {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE expires_at <= :now")
+                .bind("now", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.debug("清理过期的 Idempotency-Key: {} 条", deleted);
+                    }
+                });
+    }
+
+    private Map<String, Object> readBody(String body) {
+        try {
+            return objectMapper.readValue(body, BODY_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("无法解析保存的响应: " + e.getOriginalMessage(), e);
+        }
+    }
+}
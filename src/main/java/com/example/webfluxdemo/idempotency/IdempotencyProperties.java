@@ -0,0 +1,46 @@
+package com.example.webfluxdemo.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key 配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    public enum Store {
+        /**
+         * 进程内保存，仅本节点可见，重启后丢失
+         */
+        MEMORY,
+        /**
+         * 保存在 idempotency_keys 表，多个节点共享
+         */
+        DATABASE
+    }
+
+    private boolean enabled = true;
+
+    private Store store = Store.MEMORY;
+
+    /**
+     * 已完成结果的保存时间，过期后同一个 key 会重新执行
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * 内存存储最多保存的 key 数量，超出时淘汰最早保存的结果
+     */
+    private int maxEntries = 100_000;
+
+    private int maxKeyLength = 255;
+
+    /**
+     * 数据库存储清理过期记录的间隔
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
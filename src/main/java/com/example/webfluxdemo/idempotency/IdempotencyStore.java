@@ -0,0 +1,21 @@
+package com.example.webfluxdemo.idempotency;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 已完成结果的存储
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 查找未过期的结果，不存在时返回空
+     */
+    Mono<IdempotentResponse> find(String key);
+
+    /**
+     * 保存结果，ttl 后过期
+     */
+    Mono<Void> save(String key, IdempotentResponse response, Duration ttl);
+}
@@ -0,0 +1,157 @@
+package com.example.webfluxdemo.idempotency;
+
+import com.example.webfluxdemo.deadline.Deadlines;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 Idempotency-Key 去重的请求执行
+ *
+ * 同一个 key 正在执行时，后到的请求共享同一个 Mono 的结果；已完成的 2xx 结果保存 ttl，期间以相同的状态码与响应体重放，
+ * 不再执行 action。失败的结果不保存，客户端可以用同一个 key 重试。
+ * 执行中的 Mono 先查存储再执行 action，保存完成后才移出，本节点内同一个 key 不会被执行两次
+ */
+@Slf4j
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * 响应头，true 表示结果来自之前的请求
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, InFlight> inflight = new ConcurrentHashMap<>();
+
+    public IdempotentRequests(IdempotencyStore store, IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 以 key 执行 action，fingerprint 用于识别同一个 key 被用于不同的请求
+     */
+    public Mono<ResponseEntity<Map<String, Object>>> execute(String key, String fingerprint,
+                                                             Mono<ResponseEntity<Map<String, Object>>> action) {
+        if (!properties.isEnabled()) {
+            return action;
+        }
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            count("rejected");
+            return Mono.just(failure(HttpStatus.BAD_REQUEST,
+                    HEADER + " 长度必须在1-" + properties.getMaxKeyLength() + "之间"));
+        }
+        return Mono.defer(() -> {
+            InFlight created = new InFlight(key, fingerprint, action);
+            InFlight existing = inflight.putIfAbsent(key, created);
+            boolean owner = existing == null;
+            return Deadlines.bound((owner ? created : existing).result)
+                    .map(outcome -> respond(key, fingerprint, outcome, owner));
+        });
+    }
+
+    int inflight() {
+        return inflight.size();
+    }
+
+    private ResponseEntity<Map<String, Object>> respond(String key, String fingerprint, Outcome outcome,
+                                                        boolean owner) {
+        IdempotentResponse response = outcome.response();
+        if (!response.fingerprint().equals(fingerprint)) {
+            log.warn("{} {} 已用于其他请求", HEADER, key);
+            count("conflict");
+            return failure(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " 已用于其他请求");
+        }
+        boolean replayed = !(owner && outcome.executed());
+        if (replayed) {
+            log.debug("重放 {} {} 的结果", HEADER, key);
+        }
+        count(replayed ? "replayed" : "executed");
+        return ResponseEntity.status(response.status())
+                .header(REPLAYED_HEADER, String.valueOf(replayed))
+                .body(new HashMap<>(response.body()));
+    }
+
+    private void count(String outcome) {
+        Counter.builder("user.idempotency.requests")
+                .description("携带 Idempotency-Key 的请求数")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 请求指纹：各部分的 SHA-256
+     */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> failure(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private record Outcome(IdempotentResponse response, boolean executed) {
+    }
+
+    private final class InFlight {
+
+        private final Mono<Outcome> result;
+
+        private InFlight(String key, String fingerprint, Mono<ResponseEntity<Map<String, Object>>> action) {
+            // cache: 调用方取消时（例如客户端超时断开）仍会执行完并保存，重试时可以重放；
+            // 同样不使用第一个调用方的截止时间，调用方只按各自的截止时间停止等待
+            this.result = store.find(key)
+                    .map(stored -> new Outcome(stored, false))
+                    .switchIfEmpty(Mono.defer(() -> action.flatMap(entity -> {
+                        IdempotentResponse response = new IdempotentResponse(fingerprint,
+                                entity.getStatusCode().value(), entity.getBody());
+                        Outcome outcome = new Outcome(response, true);
+                        if (!entity.getStatusCode().is2xxSuccessful()) {
+                            return Mono.just(outcome);
+                        }
+                        return store.save(key, response, properties.getTtl())
+                                .onErrorResume(e -> {
+                                    log.warn("保存 {} {} 的结果失败: {}", HEADER, key, e.getMessage());
+                                    return Mono.empty();
+                                })
+                                .thenReturn(outcome);
+                    })))
+                    .contextWrite(Deadlines.detach())
+                    .doFinally(signal -> inflight.remove(key, this))
+                    .cache();
+        }
+    }
+}
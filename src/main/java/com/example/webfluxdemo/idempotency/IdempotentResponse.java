@@ -0,0 +1,13 @@
+package com.example.webfluxdemo.idempotency;
+
+import java.util.Map;
+
+/**
+ * 已完成请求的结果
+ *
+ * @param fingerprint 原请求的指纹，同一个 key 携带不同的请求体时拒绝重放
+ * @param status      HTTP 状态码
+ * @param body        响应体
+ */
+public record IdempotentResponse(String fingerprint, int status, Map<String, Object> body) {
+}
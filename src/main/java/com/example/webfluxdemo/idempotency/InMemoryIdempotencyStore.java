@@ -0,0 +1,87 @@
+package com.example.webfluxdemo.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内存储
+ *
+ * 所有结果的 ttl 相同，按保存顺序排列即按过期时间排列：保存时从头部清理过期结果，超出 maxEntries 时淘汰最早的结果
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this(properties.getMaxEntries(), System::nanoTime);
+    }
+
+    InMemoryIdempotencyStore(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return Mono.fromSupplier(() -> {
+            synchronized (entries) {
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAtNanos() - clock.getAsLong() <= 0) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.response();
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            long now = clock.getAsLong();
+            synchronized (entries) {
+                purge(now);
+                // 重新插入到尾部，保持按过期时间排列
+                entries.remove(key);
+                entries.put(key, new Entry(response, now + ttl.toNanos()));
+                Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+                while (entries.size() > maxEntries && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        });
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void purge(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAtNanos() - now <= 0) {
+            iterator.remove();
+        }
+    }
+
+    private record Entry(IdempotentResponse response, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.webfluxdemo.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 按需 JFR 录制配置 (/actuator/jfr)
+ */
+@Data
+@ConfigurationProperties(prefix = "app.jfr")
+public class JfrProperties {
+
+    /**
+     * 未指定时长时的录制时长，到期后自动停止，数据保留到取回
+     */
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    /**
+     * 单次录制时长上限
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * 录制数据上限，超出后丢弃最早的数据
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * 默认的 JFR 配置：default (开销约 1%) 或 profile (更多采样，开销约 2%)
+     */
+    private String settings = "default";
+}
@@ -0,0 +1,119 @@
+package com.example.webfluxdemo.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 按需 JFR 录制，同一时刻最多一个
+ *
+ * 录制时长与数据量都有上限，到期自动停止；停止后把数据写入临时文件交给调用方，随后关闭录制释放磁盘
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JfrRecordings {
+
+    private final JfrProperties properties;
+
+    private Recording recording;
+    private String settings;
+
+    /**
+     * 开始录制
+     *
+     * @param duration 为 null 时使用 defaultDuration，不能超过 maxDuration
+     * @param settings 为 null 时使用配置的 settings
+     * @throws IllegalArgumentException 参数不合法
+     * @throws IllegalStateException    已有录制在进行
+     */
+    public synchronized Status start(Duration duration, String settings) {
+        Duration length = duration != null ? duration : properties.getDefaultDuration();
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("录制时长必须在 0 到 " + properties.getMaxDuration() + " 之间");
+        }
+        String name = settings != null && !settings.isBlank() ? settings.trim() : properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("未知的 JFR 配置: " + name);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("已有录制在进行: " + recording.getName());
+        }
+        close();
+
+        Recording next = new Recording(configuration);
+        next.setName("webfluxdemo-" + Instant.now().toEpochMilli());
+        next.setToDisk(true);
+        next.setMaxSize(properties.getMaxSize().toBytes());
+        next.setDuration(length);
+        next.enable(UserPhaseEvent.class);
+        next.start();
+        this.recording = next;
+        this.settings = name;
+        log.info("JFR 录制已开始: {}, 配置 {}, 时长 {}", next.getName(), name, length);
+        return status();
+    }
+
+    /**
+     * 停止录制（已到期时直接取回）并把数据写入临时文件
+     *
+     * @throws IllegalStateException 没有录制
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new IllegalStateException("没有进行中的录制");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+            recording.dump(file);
+            log.info("JFR 录制已停止: {}, {} KB", recording.getName(), Files.size(file) / 1024);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("写出 JFR 录制失败", e);
+        } finally {
+            close();
+        }
+    }
+
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status(null, "NONE", null, null, null, 0);
+        }
+        return new Status(recording.getName(), recording.getState().name(), settings,
+                recording.getStartTime(), recording.getDuration(), recording.getSize());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            settings = null;
+        }
+    }
+
+    /**
+     * @param size 已写入磁盘的数据量 (bytes)
+     */
+    public record Status(String name, String state, String settings, Instant startTime, Duration duration,
+                         long size) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.webfluxdemo.jfr;
+
+/**
+ * UserService 操作中的耗时阶段
+ */
+public enum UserPhase {
+    /**
+     * 用户名/邮箱是否已存在的查询
+     */
+    EXISTS_CHECK,
+    /**
+     * BCrypt 密码哈希（含等待 boundedElastic 线程的时间）
+     */
+    HASH,
+    /**
+     * 插入或更新
+     */
+    SAVE,
+    /**
+     * 按 ID、分页、全表读取
+     */
+    FIND,
+    COUNT,
+    DELETE
+}
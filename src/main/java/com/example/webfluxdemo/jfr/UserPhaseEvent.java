@@ -0,0 +1,40 @@
+package com.example.webfluxdemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * UserService 一个操作阶段的 JFR 事件，持续时间为订阅到终止信号之间的时间
+ *
+ * 不采集调用栈：响应式链上的栈只有调度器帧，没有定位价值
+ */
+@Name("com.example.webfluxdemo.UserPhase")
+@Label("User Service Phase")
+@Category({"WebFlux Demo", "UserService"})
+@Description("UserService 操作阶段的耗时与结果")
+@StackTrace(false)
+class UserPhaseEvent extends Event {
+
+    @Label("Operation")
+    @Description("UserService 方法名")
+    String operation;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Outcome")
+    @Description("success / error / cancelled")
+    String outcome;
+
+    @Label("Rows")
+    @Description("返回的元素个数，按 ID 查询为 0 表示不存在")
+    long rows;
+
+    @Label("Error")
+    @Description("失败时的异常类名")
+    String error;
+}
@@ -0,0 +1,90 @@
+package com.example.webfluxdemo.jfr;
+
+import jdk.jfr.EventType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 为 UserService 的各阶段记录 {@link UserPhaseEvent}
+ *
+ * 没有进行中的 JFR 录制（或录制未启用该事件）时直接返回原 Publisher，不创建事件对象
+ */
+public final class UserPhases {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(UserPhaseEvent.class);
+
+    private UserPhases() {
+    }
+
+    public static <T> Mono<T> trace(String operation, UserPhase phase, Mono<T> source) {
+        return Mono.defer(() -> {
+            if (!EVENT_TYPE.isEnabled()) {
+                return source;
+            }
+            UserPhaseEvent event = begin(operation, phase);
+            AtomicLong rows = new AtomicLong();
+            return source
+                    .doOnNext(value -> rows.incrementAndGet())
+                    .doOnError(e -> event.error = e.getClass().getName())
+                    .doFinally(signal -> commit(event, signal, rows.get()));
+        });
+    }
+
+    public static <T> Flux<T> trace(String operation, UserPhase phase, Flux<T> source) {
+        return Flux.defer(() -> {
+            if (!EVENT_TYPE.isEnabled()) {
+                return source;
+            }
+            UserPhaseEvent event = begin(operation, phase);
+            AtomicLong rows = new AtomicLong();
+            return source
+                    .doOnNext(value -> rows.incrementAndGet())
+                    .doOnError(e -> event.error = e.getClass().getName())
+                    .doFinally(signal -> commit(event, signal, rows.get()));
+        });
+    }
+
+    /**
+     * 同步执行的阶段（如在事件循环上完成的密码哈希）
+     */
+    public static void trace(String operation, UserPhase phase, Runnable action) {
+        if (!EVENT_TYPE.isEnabled()) {
+            action.run();
+            return;
+        }
+        UserPhaseEvent event = begin(operation, phase);
+        try {
+            action.run();
+            commit(event, SignalType.ON_COMPLETE, 0);
+        } catch (RuntimeException e) {
+            event.error = e.getClass().getName();
+            commit(event, SignalType.ON_ERROR, 0);
+            throw e;
+        }
+    }
+
+    private static UserPhaseEvent begin(String operation, UserPhase phase) {
+        UserPhaseEvent event = new UserPhaseEvent();
+        event.operation = operation;
+        event.phase = phase.name();
+        event.begin();
+        return event;
+    }
+
+    private static void commit(UserPhaseEvent event, SignalType signal, long rows) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.rows = rows;
+        event.outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        event.commit();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.webfluxdemo.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * 以 {@link IsoDateTimeWriter} 输出 LocalDateTime 的序列化器
+ *
+ * 启用 WRITE_DATES_AS_TIMESTAMPS 或属性带有 @JsonFormat 时交给 JavaTimeModule 的 LocalDateTimeSerializer
+ */
+public class FastLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+    public static final FastLocalDateTimeSerializer INSTANCE = new FastLocalDateTimeSerializer();
+
+    private FastLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        IsoDateTimeWriter.write(generator, value);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale() || format.hasTimeZone())) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+}
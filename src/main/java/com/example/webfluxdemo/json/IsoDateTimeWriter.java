@@ -0,0 +1,91 @@
+package com.example.webfluxdemo.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 按 ISO-8601 (DateTimeFormatter.ISO_LOCAL_DATE_TIME) 写出 LocalDateTime
+ *
+ * 直接把各字段写入线程本地的字符缓冲区，不经过 DateTimeFormatter 的格式树与中间字符串；
+ * 输出与 JavaTimeModule 默认格式逐字符一致：始终包含秒，纳秒不为 0 时输出去掉末尾 0 的小数部分
+ */
+public final class IsoDateTimeWriter {
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+     */
+    private static final int MAX_LENGTH = 29;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private IsoDateTimeWriter() {
+    }
+
+    public static void write(JsonGenerator generator, LocalDateTime value) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // 超出四位年份时 ISO 格式带符号，交给 DateTimeFormatter 处理
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = format(value, buffer);
+        generator.writeString(buffer, 0, length);
+    }
+
+    public static String format(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(value, buffer));
+    }
+
+    private static int format(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        buffer[0] = digit(year / 1000);
+        buffer[1] = digit(year / 100 % 10);
+        buffer[2] = digit(year / 10 % 10);
+        buffer[3] = digit(year % 10);
+        buffer[4] = '-';
+        twoDigits(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        twoDigits(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        twoDigits(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        twoDigits(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        twoDigits(buffer, 17, value.getSecond());
+        int length = 19;
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return length;
+        }
+        buffer[length++] = '.';
+        int digits = 9;
+        while (nano % 10 == 0) {
+            nano /= 10;
+            digits--;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = digit(nano % 10);
+            nano /= 10;
+        }
+        return length + digits;
+    }
+
+    private static void twoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = digit(value / 10);
+        buffer[offset + 1] = digit(value % 10);
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
+    }
+}
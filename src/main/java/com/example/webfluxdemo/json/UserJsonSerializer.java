@@ -0,0 +1,74 @@
+package com.example.webfluxdemo.json;
+
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * User 的手写序列化器，字段名预先编码，按 getter 直接写出，不经过 BeanSerializer 的属性遍历与反射
+ *
+ * 输出与默认 BeanSerializer 一致（字段顺序、null 值、isActive 属性名，不含 WRITE_ONLY 的 password）；
+ * User 增删字段或调整 Jackson 注解时需同步修改
+ */
+public class UserJsonSerializer extends StdSerializer<User> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString IS_ACTIVE = new SerializedString("isActive");
+    private static final SerializedString BIO = new SerializedString("bio");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    public UserJsonSerializer() {
+        super(User.class);
+    }
+
+    @Override
+    public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(user);
+        generator.writeFieldName(ID);
+        if (user.getId() != null) {
+            generator.writeNumber(user.getId());
+        } else {
+            generator.writeNull();
+        }
+        writeString(generator, USERNAME, user.getUsername());
+        writeString(generator, EMAIL, user.getEmail());
+        generator.writeFieldName(IS_ACTIVE);
+        if (user.getIsActive() != null) {
+            generator.writeBoolean(user.getIsActive());
+        } else {
+            generator.writeNull();
+        }
+        writeString(generator, BIO, user.getBio());
+        writeDateTime(generator, provider, CREATED_AT, user.getCreatedAt());
+        writeDateTime(generator, provider, UPDATED_AT, user.getUpdatedAt());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator generator, SerializerProvider provider,
+                                      SerializedString name, LocalDateTime value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            FastLocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.webfluxdemo.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 自适应并发限流与分页大小检查
+ *
+ * 每个接口分类 (EndpointClass) 一个 ConcurrencyLimiter，上限由请求延迟自动调整；
+ * 排队过久或队列已满时返回 503 与 Retry-After。size 参数超出 maxPageSize 时返回 400
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyFilter implements WebFilter, Ordered {
+
+    /**
+     * 在其他过滤器之前执行，被拒绝的请求不做任何其他处理
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final AdaptiveLimiterProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<EndpointClass, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    public AdaptiveConcurrencyFilter(AdaptiveLimiterProperties properties, ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, Schedulers.parallel(), System::nanoTime);
+    }
+
+    AdaptiveConcurrencyFilter(AdaptiveLimiterProperties properties, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry, Scheduler timer, LongSupplier clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            if (!endpoint.isLimited()) {
+                continue;
+            }
+            String tag = tag(endpoint);
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(tag, LimitAlgorithm.create(properties),
+                    ConcurrencyLimiter.QueuePolicy.of(properties), timer, clock);
+            limiters.put(endpoint, limiter);
+            Gauge.builder("user.api.limiter.limit", limiter, ConcurrencyLimiter::getLimit)
+                    .description("当前并发上限")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("user.api.limiter.inflight", limiter, ConcurrencyLimiter::getInflight)
+                    .description("正在处理的请求数")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("user.api.limiter.queued", limiter, ConcurrencyLimiter::getQueued)
+                    .description("等待许可的请求数")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+        }
+        log.info("自适应并发限流: {}, 算法: {}, 初始上限: {} ({}-{}), 每页最大条数: {}",
+                properties.isEnabled() ? "开启" : "关闭", properties.getAlgorithm(), properties.getInitialLimit(),
+                properties.getMinLimit(), properties.getMaxLimit(), properties.getMaxPageSize());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        EndpointClass endpoint = EndpointClass.of(exchange.getRequest());
+        if (!endpoint.isLimited()) {
+            return chain.filter(exchange);
+        }
+        String pageError = checkPagination(exchange.getRequest());
+        if (pageError != null) {
+            rejected(endpoint, "page_size").increment();
+            return LimitResponses.reject(exchange.getResponse(), objectMapper, HttpStatus.BAD_REQUEST, pageError, null);
+        }
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        return limiters.get(endpoint).acquire()
+                .flatMap(permit -> chain.filter(exchange)
+                        .doOnSuccess(ignored -> permit.release(isServerError(exchange.getResponse().getStatusCode())))
+                        .doOnError(e -> permit.release(true))
+                        .doOnCancel(permit::cancel))
+                .onErrorResume(LimitExceededException.class, e -> {
+                    log.debug("{} 请求被限流: {} {}", e.getName(), e.getReason(), exchange.getRequest().getPath());
+                    rejected(endpoint, e.getReason().name().toLowerCase()).increment();
+                    return LimitResponses.reject(exchange.getResponse(), objectMapper, HttpStatus.SERVICE_UNAVAILABLE,
+                            e.getMessage(), properties.getRetryAfter());
+                });
+    }
+
+    int limit(EndpointClass endpoint) {
+        return limiters.get(endpoint).getLimit();
+    }
+
+    /**
+     * 检查分页参数，不合法时返回错误信息
+     */
+    String checkPagination(ServerHttpRequest request) {
+        String size = request.getQueryParams().getFirst("size");
+        if (size != null) {
+            try {
+                int value = Integer.parseInt(size.trim());
+                if (value < 1 || value > properties.getMaxPageSize()) {
+                    return "每页大小必须在1-" + properties.getMaxPageSize() + "之间";
+                }
+            } catch (NumberFormatException e) {
+                // 交给参数绑定报告类型错误
+            }
+        }
+        String page = request.getQueryParams().getFirst("page");
+        if (page != null) {
+            try {
+                if (Integer.parseInt(page.trim()) < 0) {
+                    return "页码不能小于0";
+                }
+            } catch (NumberFormatException e) {
+                // 同上
+            }
+        }
+        return null;
+    }
+
+    private Counter rejected(EndpointClass endpoint, String reason) {
+        return Counter.builder("user.api.limiter.rejected")
+                .description("被限流拒绝的请求数")
+                .tag("endpoint", tag(endpoint))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static boolean isServerError(HttpStatusCode status) {
+        return status != null && status.is5xxServerError();
+    }
+
+    private static String tag(EndpointClass endpoint) {
+        return endpoint.name().toLowerCase();
+    }
+}
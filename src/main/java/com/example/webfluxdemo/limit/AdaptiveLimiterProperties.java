@@ -0,0 +1,82 @@
+package com.example.webfluxdemo.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 自适应并发限流配置，每个接口分类 (EndpointClass) 各自维护并发上限与等待队列
+ */
+@Data
+@ConfigurationProperties(prefix = "app.limiter")
+public class AdaptiveLimiterProperties {
+
+    private boolean enabled = true;
+
+    private Algorithm algorithm = Algorithm.GRADIENT;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * gradient: 新上限与当前上限的平滑系数 (0-1]，越大调整越快
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * gradient: 短期延迟超过长期延迟的这个倍数后才开始收缩上限
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * aimd: 延迟超过阈值或请求失败时上限乘以该系数
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * aimd: 延迟阈值
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * 每个分类等待队列的最大长度，超出时直接拒绝
+     */
+    private int maxQueueSize = 100;
+
+    /**
+     * CoDel 目标排队时间：排队时间持续 queueInterval 都高于该值时开始丢弃队首请求
+     */
+    private Duration queueTarget = Duration.ofMillis(20);
+
+    private Duration queueInterval = Duration.ofMillis(100);
+
+    /**
+     * 排队时间上限，超过后无论 CoDel 状态都拒绝
+     */
+    private Duration maxQueueWait = Duration.ofSeconds(1);
+
+    /**
+     * 拒绝时 Retry-After 响应头的值
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * 分页参数 size 的上限，超出时返回 400
+     */
+    private int maxPageSize = 100;
+
+    public enum Algorithm {
+        /**
+         * 按短期延迟与长期延迟之比调整上限（延迟梯度）
+         */
+        GRADIENT,
+        /**
+         * 加性增、乘性减：延迟正常时上限加一，超过阈值或失败时按比例收缩
+         */
+        AIMD
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.webfluxdemo.limit;
+
+/**
+ * 加性增、乘性减：延迟低于阈值且并发接近上限时加一，超过阈值或请求失败时乘以 backoffRatio
+ */
+class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long thresholdNanos;
+    private int limit;
+
+    AimdLimit(AdaptiveLimiterProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.thresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.limit = properties.getInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos > thresholdNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inflight * 2 >= limit) {
+            // 并发远低于上限时说明负载不足，延迟正常不代表还能承受更多
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
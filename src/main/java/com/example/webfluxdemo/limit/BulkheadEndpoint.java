@@ -0,0 +1,46 @@
+package com.example.webfluxdemo.limit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/bulkheads: 查看隔离舱状态，POST /actuator/bulkheads/{lane} 修改上限
+ *
+ * 写操作没有认证，任何人都可以把某个隔离舱调到 1，因此默认不暴露；
+ * 通过 ops profile 在只监听本机的管理端口上开放
+ */
+@Component
+@Endpoint(id = "bulkheads")
+@RequiredArgsConstructor
+public class BulkheadEndpoint {
+
+    private final Bulkheads bulkheads;
+
+    @ReadOperation
+    public Map<String, Bulkheads.LaneStatus> bulkheads() {
+        return bulkheads.status();
+    }
+
+    @ReadOperation
+    public Bulkheads.LaneStatus lane(@Selector String lane) {
+        return bulkheads.status().get(lane);
+    }
+
+    @WriteOperation
+    public Bulkheads.LaneStatus update(@Selector String lane, @Nullable Integer maxConcurrent,
+                                       @Nullable Double connectionShare) {
+        try {
+            return bulkheads.update(lane, maxConcurrent, connectionShare);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
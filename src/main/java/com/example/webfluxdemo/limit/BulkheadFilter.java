@@ -0,0 +1,54 @@
+package com.example.webfluxdemo.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 把 UserController 的请求放入对应的隔离舱，隔离舱已满且排队超时时返回 503
+ *
+ * 在自适应限流之后执行：先按接口分类整体限流，再按操作隔离
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkheadFilter implements WebFilter, Ordered {
+
+    private final Bulkheads bulkheads;
+    private final BulkheadProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public int getOrder() {
+        return AdaptiveConcurrencyFilter.ORDER + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!bulkheads.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        UserOperation operation = UserOperation.of(exchange.getRequest());
+        if (operation == null) {
+            return chain.filter(exchange);
+        }
+        return bulkheads.limiter(operation).acquire()
+                .flatMap(permit -> chain.filter(exchange)
+                        .doOnSuccess(ignored -> permit.release(false))
+                        .doOnError(e -> permit.release(false))
+                        .doOnCancel(permit::cancel))
+                .onErrorResume(LimitExceededException.class, e -> {
+                    log.debug("{} 请求被隔离舱 {} 拒绝: {}", operation, e.getName(), e.getReason());
+                    bulkheads.rejected(operation, e.getReason());
+                    return LimitResponses.reject(exchange.getResponse(), objectMapper, HttpStatus.SERVICE_UNAVAILABLE,
+                            e.getMessage(), properties.getRetryAfter());
+                });
+    }
+}
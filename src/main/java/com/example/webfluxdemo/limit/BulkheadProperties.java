@@ -0,0 +1,53 @@
+package com.example.webfluxdemo.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * UserController 各操作的隔离舱配置，上限可通过 /actuator/bulkheads 在运行时修改
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 拒绝时 Retry-After 响应头的值
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * 隔离舱名 -> 配置，操作引用了未配置的隔离舱时使用 Lane 的默认值
+     */
+    private Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    /**
+     * 操作 -> 隔离舱名，未配置的操作使用 UserOperation 的默认隔离舱
+     */
+    private Map<UserOperation, String> operations = new EnumMap<>(UserOperation.class);
+
+    @Data
+    public static class Lane {
+
+        /**
+         * 同时处理的请求数上限
+         */
+        private int maxConcurrent = 16;
+
+        /**
+         * 可占用的连接池比例 (0-1]，0 表示不按连接数限制。
+         * 每个请求同一时刻最多占用一个连接，实际上限为 min(maxConcurrent, 连接池大小 × connectionShare)
+         */
+        private double connectionShare = 0;
+
+        private int maxQueueSize = 50;
+
+        private Duration maxQueueWait = Duration.ofMillis(500);
+    }
+}
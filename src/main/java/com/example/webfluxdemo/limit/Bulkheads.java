@@ -0,0 +1,206 @@
+package com.example.webfluxdemo.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * UserController 各操作的隔离舱
+ *
+ * 每个隔离舱是一个固定上限的 ConcurrencyLimiter，重量级的列表与模糊搜索即使排满也只占用各自的名额与连接份额，
+ * 按 ID 查询始终有可用的连接
+ */
+@Slf4j
+@Component
+public class Bulkheads {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final int poolSize;
+    private final Scheduler timer;
+    private final LongSupplier clock;
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final Map<UserOperation, Lane> operations = new EnumMap<>(UserOperation.class);
+
+    @Autowired
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry,
+                     ObjectProvider<R2dbcProperties> r2dbcProperties) {
+        this(properties, meterRegistry, poolSize(r2dbcProperties.getIfAvailable()), Schedulers.parallel(),
+                System::nanoTime);
+    }
+
+    Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry, int poolSize, Scheduler timer,
+              LongSupplier clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.poolSize = poolSize;
+        this.timer = timer;
+        this.clock = clock;
+        for (UserOperation operation : UserOperation.values()) {
+            String name = properties.getOperations().getOrDefault(operation, operation.getDefaultLane());
+            operations.put(operation, lanes.computeIfAbsent(name, this::createLane));
+        }
+        lanes.values().forEach(lane -> log.info("隔离舱 {}: 上限 {} (max-concurrent {}, 连接份额 {}/{}), 操作: {}",
+                lane.name, lane.limit.getLimit(), lane.maxConcurrent, lane.connectionShare, poolSize,
+                operationsOf(lane)));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    ConcurrencyLimiter limiter(UserOperation operation) {
+        return operations.get(operation).limiter;
+    }
+
+    void rejected(UserOperation operation, LimitExceededException.Reason reason) {
+        Lane lane = operations.get(operation);
+        Counter.builder("user.api.bulkhead.rejected")
+                .description("隔离舱已满被拒绝的请求数")
+                .tag("lane", lane.name)
+                .tag("reason", reason.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 各隔离舱的配置与当前状态
+     */
+    public synchronized Map<String, LaneStatus> status() {
+        Map<String, LaneStatus> status = new LinkedHashMap<>();
+        lanes.values().forEach(lane -> status.put(lane.name, lane.status()));
+        return status;
+    }
+
+    /**
+     * 运行时修改隔离舱上限，参数为 null 时保持原值；上限调高后立即放行排队的请求
+     */
+    public LaneStatus update(String name, Integer maxConcurrent, Double connectionShare) {
+        Lane lane;
+        synchronized (this) {
+            lane = lanes.get(name);
+            if (lane == null) {
+                throw new IllegalArgumentException("未知的隔离舱: " + name);
+            }
+            if (maxConcurrent != null) {
+                if (maxConcurrent < 1) {
+                    throw new IllegalArgumentException("maxConcurrent 必须大于0");
+                }
+                lane.maxConcurrent = maxConcurrent;
+            }
+            if (connectionShare != null) {
+                if (connectionShare < 0 || connectionShare > 1) {
+                    throw new IllegalArgumentException("connectionShare 必须在0-1之间");
+                }
+                lane.connectionShare = connectionShare;
+            }
+            lane.limit.setLimit(effectiveLimit(lane.maxConcurrent, lane.connectionShare));
+        }
+        log.info("隔离舱 {} 上限调整为 {} (max-concurrent {}, 连接份额 {})", name, lane.limit.getLimit(),
+                lane.maxConcurrent, lane.connectionShare);
+        lane.limiter.drain();
+        return lane.status();
+    }
+
+    int effectiveLimit(int maxConcurrent, double connectionShare) {
+        if (connectionShare <= 0) {
+            return maxConcurrent;
+        }
+        return Math.min(maxConcurrent, Math.max(1, (int) (poolSize * connectionShare)));
+    }
+
+    private Lane createLane(String name) {
+        BulkheadProperties.Lane config = properties.getLanes().getOrDefault(name, new BulkheadProperties.Lane());
+        FixedLimit limit = new FixedLimit(effectiveLimit(config.getMaxConcurrent(), config.getConnectionShare()));
+        // 隔离舱只按排队时间上限丢弃，不做 CoDel
+        ConcurrencyLimiter.QueuePolicy queuePolicy = new ConcurrencyLimiter.QueuePolicy(config.getMaxQueueSize(),
+                config.getMaxQueueWait(), config.getMaxQueueWait(), config.getMaxQueueWait());
+        Lane lane = new Lane(name, new ConcurrencyLimiter(name, limit, queuePolicy, timer, clock), limit,
+                config.getMaxConcurrent(), config.getConnectionShare());
+        Gauge.builder("user.api.bulkhead.limit", lane.limiter, ConcurrencyLimiter::getLimit)
+                .description("隔离舱并发上限")
+                .tag("lane", name)
+                .register(meterRegistry);
+        Gauge.builder("user.api.bulkhead.inflight", lane.limiter, ConcurrencyLimiter::getInflight)
+                .description("隔离舱内正在处理的请求数")
+                .tag("lane", name)
+                .register(meterRegistry);
+        Gauge.builder("user.api.bulkhead.queued", lane.limiter, ConcurrencyLimiter::getQueued)
+                .description("等待进入隔离舱的请求数")
+                .tag("lane", name)
+                .register(meterRegistry);
+        Gauge.builder("user.api.bulkhead.saturation", lane, Lane::saturation)
+                .description("隔离舱饱和度: 正在处理的请求数 / 上限")
+                .tag("lane", name)
+                .register(meterRegistry);
+        return lane;
+    }
+
+    private List<UserOperation> operationsOf(Lane lane) {
+        List<UserOperation> result = new ArrayList<>();
+        operations.forEach((operation, assigned) -> {
+            if (assigned == lane) {
+                result.add(operation);
+            }
+        });
+        return result;
+    }
+
+    private static int poolSize(R2dbcProperties r2dbcProperties) {
+        if (r2dbcProperties == null || r2dbcProperties.getPool().getMaxSize() <= 0) {
+            return DEFAULT_POOL_SIZE;
+        }
+        return r2dbcProperties.getPool().getMaxSize();
+    }
+
+    private final class Lane {
+
+        private final String name;
+        private final ConcurrencyLimiter limiter;
+        private final FixedLimit limit;
+        private volatile int maxConcurrent;
+        private volatile double connectionShare;
+
+        private Lane(String name, ConcurrencyLimiter limiter, FixedLimit limit, int maxConcurrent,
+                     double connectionShare) {
+            this.name = name;
+            this.limiter = limiter;
+            this.limit = limit;
+            this.maxConcurrent = maxConcurrent;
+            this.connectionShare = connectionShare;
+        }
+
+        double saturation() {
+            return (double) limiter.getInflight() / limiter.getLimit();
+        }
+
+        LaneStatus status() {
+            return new LaneStatus(maxConcurrent, connectionShare, limiter.getLimit(), limiter.getInflight(),
+                    limiter.getQueued(), saturation(), operationsOf(this));
+        }
+    }
+
+    /**
+     * @param limit      实际生效的上限
+     * @param saturation 正在处理的请求数 / 上限
+     */
+    public record LaneStatus(int maxConcurrent, double connectionShare, int limit, int inflight, int queued,
+                             double saturation, List<UserOperation> operations) {
+    }
+}
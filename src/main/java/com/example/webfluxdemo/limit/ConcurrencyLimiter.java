@@ -0,0 +1,259 @@
+package com.example.webfluxdemo.limit;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 一个接口分类的并发限流器
+ *
+ * 并发数低于上限时立即放行，否则进入 FIFO 等待队列；每有请求完成，用其延迟样本更新上限并从队首放行。
+ * 出队时按 CoDel 判断：排队时间持续 interval 都高于 target 说明队列是持续积压而不是短暂突发，
+ * 此时丢弃排队时间高于 target 的请求直到出现低于 target 的请求，让客户端尽早收到 503 去重试或降级，
+ * 而不是一起等到超时
+ */
+class ConcurrencyLimiter {
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+    private final QueuePolicy queuePolicy;
+    private final Scheduler timer;
+    private final LongSupplier clock;
+
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private int inflight;
+    /**
+     * 排队时间首次高于 target 后再经过 interval 的时刻，0 表示当前低于 target
+     */
+    private long dropAfter;
+
+    /**
+     * @param name 限流对象的名称（接口分类或隔离舱名），用于拒绝信息与指标
+     */
+    ConcurrencyLimiter(String name, LimitAlgorithm algorithm, QueuePolicy queuePolicy, Scheduler timer,
+                       LongSupplier clock) {
+        this.name = name;
+        this.algorithm = algorithm;
+        this.queuePolicy = queuePolicy;
+        this.timer = timer;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取许可，被拒绝时以 LimitExceededException 结束；请求结束后必须调用 Permit.release
+     */
+    Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (queue.isEmpty() && inflight < algorithm.getLimit()) {
+                    inflight++;
+                    waiter = null;
+                } else if (queue.size() >= queuePolicy.maxQueueSize()) {
+                    sink.error(new LimitExceededException(name, LimitExceededException.Reason.QUEUE_FULL));
+                    return;
+                } else {
+                    waiter = new Waiter(sink, clock.getAsLong());
+                    queue.addLast(waiter);
+                }
+            }
+            if (waiter == null) {
+                Permit permit = newPermit();
+                sink.onCancel(permit::cancel);
+                sink.success(permit);
+                return;
+            }
+            sink.onCancel(() -> {
+                if (waiter.complete()) {
+                    // 客户端在排队时断开
+                    remove(waiter);
+                } else if (waiter.permit().get() != null) {
+                    // 放行与断开同时发生
+                    waiter.permit().get().cancel();
+                }
+            });
+            sink.onDispose(timer.schedule(() -> expire(waiter), queuePolicy.maxWait().toNanos(), TimeUnit.NANOSECONDS));
+        });
+    }
+
+    synchronized int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    synchronized int getInflight() {
+        return inflight;
+    }
+
+    synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private Permit newPermit() {
+        return new Permit(clock.getAsLong(), getInflight());
+    }
+
+    private void expire(Waiter waiter) {
+        if (waiter.complete()) {
+            remove(waiter);
+            waiter.sink().error(new LimitExceededException(name, LimitExceededException.Reason.QUEUE_TIMEOUT));
+        }
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        queue.remove(waiter);
+    }
+
+    /**
+     * 归还名额并从队首放行，permit 为 null 时不产生延迟样本（请求被取消）
+     */
+    private void release(Permit permit, boolean dropped) {
+        long now = clock.getAsLong();
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> shed = new ArrayList<>();
+        synchronized (this) {
+            inflight--;
+            if (permit != null) {
+                algorithm.onSample(now - permit.startNanos(), permit.inflight(), dropped);
+            }
+            dequeue(now, granted, shed);
+        }
+        dispatch(granted, shed);
+    }
+
+    /**
+     * 上限调高后放行排队的请求
+     */
+    void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> shed = new ArrayList<>();
+        synchronized (this) {
+            dequeue(clock.getAsLong(), granted, shed);
+        }
+        dispatch(granted, shed);
+    }
+
+    private void dequeue(long now, List<Waiter> granted, List<Waiter> shed) {
+        while (!queue.isEmpty() && inflight < algorithm.getLimit()) {
+            Waiter waiter = queue.pollFirst();
+            if (shouldDrop(now - waiter.enqueuedNanos(), now)) {
+                shed.add(waiter);
+            } else {
+                inflight++;
+                granted.add(waiter);
+            }
+        }
+    }
+
+    /**
+     * 在锁外通知等待者
+     */
+    private void dispatch(List<Waiter> granted, List<Waiter> shed) {
+        for (Waiter waiter : shed) {
+            if (waiter.complete()) {
+                waiter.sink().error(new LimitExceededException(name, LimitExceededException.Reason.CODEL));
+            }
+        }
+        for (Waiter waiter : granted) {
+            Permit next = newPermit();
+            waiter.permit().set(next);
+            if (waiter.complete()) {
+                waiter.sink().success(next);
+            } else {
+                // 放行前已超时或断开，名额交给下一个
+                release(null, false);
+            }
+        }
+    }
+
+    /**
+     * CoDel：排队时间低于 target 时重置；首次高于 target 时开始计时，持续 interval 后开始丢弃
+     */
+    private boolean shouldDrop(long sojournNanos, long now) {
+        if (sojournNanos < queuePolicy.target().toNanos()) {
+            dropAfter = 0;
+            return false;
+        }
+        if (dropAfter == 0) {
+            dropAfter = now + queuePolicy.interval().toNanos();
+            return false;
+        }
+        return now >= dropAfter;
+    }
+
+    private record Waiter(MonoSink<Permit> sink, long enqueuedNanos, AtomicBoolean done,
+                          AtomicReference<Permit> permit) {
+
+        Waiter(MonoSink<Permit> sink, long enqueuedNanos) {
+            this(sink, enqueuedNanos, new AtomicBoolean(), new AtomicReference<>());
+        }
+
+        /**
+         * 放行、拒绝、超时与取消只有一个生效
+         */
+        boolean complete() {
+            return done.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * 一次请求占用的名额
+     */
+    final class Permit {
+
+        private final long startNanos;
+        private final int inflight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, int inflight) {
+            this.startNanos = startNanos;
+            this.inflight = inflight;
+        }
+
+        long startNanos() {
+            return startNanos;
+        }
+
+        int inflight() {
+            return inflight;
+        }
+
+        /**
+         * @param dropped 请求失败，按拥塞处理
+         */
+        void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(this, dropped);
+            }
+        }
+
+        /**
+         * 请求被取消时只归还名额，不产生延迟样本
+         */
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(null, false);
+            }
+        }
+    }
+
+    /**
+     * 等待队列参数：队列长度上限、CoDel 目标排队时间与观察窗口、排队时间上限
+     */
+    record QueuePolicy(int maxQueueSize, Duration target, Duration interval, Duration maxWait) {
+
+        static QueuePolicy of(AdaptiveLimiterProperties properties) {
+            return new QueuePolicy(properties.getMaxQueueSize(), properties.getQueueTarget(),
+                    properties.getQueueInterval(), properties.getMaxQueueWait());
+        }
+    }
+}
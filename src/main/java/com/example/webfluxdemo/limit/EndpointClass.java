@@ -0,0 +1,75 @@
+package com.example.webfluxdemo.limit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * 接口分类：负载特征相近的接口共用一份限流状态
+ */
+public enum EndpointClass {
+
+    /**
+     * 按 ID 查询、分页列表、计数、用户名前缀补全等轻量读取
+     */
+    READ(true),
+    /**
+     * 用户名/邮箱/简介检索与条件查询
+     */
+    SEARCH(true),
+    /**
+     * 创建、更新、删除，创建与修改密码时包含 BCrypt 计算
+     */
+    WRITE(true),
+    /**
+     * 批量停用/删除
+     */
+    BULK(true),
+    /**
+     * 事件推送与全量导出等长连接，耗时与负载无关，不参与限流
+     */
+    STREAMING(false),
+    /**
+     * 管理端点、接口文档等
+     */
+    OTHER(false);
+
+    private static final String API_PREFIX = "/api/users";
+
+    private final boolean limited;
+
+    EndpointClass(boolean limited) {
+        this.limited = limited;
+    }
+
+    public boolean isLimited() {
+        return limited;
+    }
+
+    public static EndpointClass of(ServerHttpRequest request) {
+        return of(request.getMethod(), request.getPath().pathWithinApplication().value());
+    }
+
+    static EndpointClass of(HttpMethod method, String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return OTHER;
+        }
+        String rest = path.substring(API_PREFIX.length());
+        if (rest.startsWith("/events") || rest.startsWith("/export")) {
+            return STREAMING;
+        }
+        if (rest.startsWith("/bulk")) {
+            return BULK;
+        }
+        // 前缀补全由内存索引提供，与按 ID 查询同级
+        if (rest.startsWith("/search/typeahead")) {
+            return READ;
+        }
+        if (rest.startsWith("/search") || rest.startsWith("/query")) {
+            return SEARCH;
+        }
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
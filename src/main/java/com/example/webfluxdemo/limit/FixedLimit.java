@@ -0,0 +1,26 @@
+package com.example.webfluxdemo.limit;
+
+/**
+ * 固定上限，可在运行时修改
+ */
+class FixedLimit implements LimitAlgorithm {
+
+    private volatile int limit;
+
+    FixedLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.webfluxdemo.limit;
+
+/**
+ * 延迟梯度限流
+ *
+ * 长期延迟 (指数移动平均，约 600 个样本) 作为无排队时的基准，gradient = tolerance × 长期延迟 / 短期延迟，
+ * 取值 [0.5, 1]：短期延迟明显升高说明请求开始排队，上限随之收缩；延迟正常时上限每次增加 sqrt(limit)
+ */
+class GradientLimit implements LimitAlgorithm {
+
+    private static final double LONG_WINDOW_ALPHA = 2.0 / 601;
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / 11;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    GradientLimit(AdaptiveLimiterProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.tolerance = properties.getRttTolerance();
+        this.limit = properties.getInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+        } else {
+            longRtt += (rttNanos - longRtt) * LONG_WINDOW_ALPHA;
+            shortRtt += (rttNanos - shortRtt) * SHORT_WINDOW_ALPHA;
+        }
+        // 持续拥塞时长期均值也会被拉高，短期延迟回落后让它更快地跟上
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        if (!dropped && inflight < limit / 2) {
+            // 负载不足，延迟样本不能说明上限是否合适
+            return;
+        }
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + newLimit * smoothing));
+    }
+}
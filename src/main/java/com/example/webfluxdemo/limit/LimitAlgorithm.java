@@ -0,0 +1,22 @@
+package com.example.webfluxdemo.limit;
+
+/**
+ * 根据请求完成时的延迟样本调整并发上限，由 ConcurrencyLimiter 在持锁状态下调用
+ */
+interface LimitAlgorithm {
+
+    int getLimit();
+
+    /**
+     * @param rttNanos 请求从获得许可到完成的耗时
+     * @param inflight 请求开始时的并发数
+     * @param dropped  请求失败或超时
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+
+    static LimitAlgorithm create(AdaptiveLimiterProperties properties) {
+        return properties.getAlgorithm() == AdaptiveLimiterProperties.Algorithm.AIMD
+                ? new AimdLimit(properties)
+                : new GradientLimit(properties);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.webfluxdemo.limit;
+
+/**
+ * 请求被限流拒绝
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private final String name;
+    private final Reason reason;
+
+    /**
+     * @param name 拒绝请求的限流器名称：接口分类或隔离舱名
+     */
+    public LimitExceededException(String name, Reason reason) {
+        super("服务繁忙，请稍后重试");
+        this.name = name;
+        this.reason = reason;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public enum Reason {
+        /**
+         * 等待队列已满
+         */
+        QUEUE_FULL,
+        /**
+         * 排队时间持续高于目标值，CoDel 丢弃队首请求
+         */
+        CODEL,
+        /**
+         * 排队时间超过 maxQueueWait
+         */
+        QUEUE_TIMEOUT
+    }
+}
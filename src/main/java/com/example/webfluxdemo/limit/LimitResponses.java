@@ -0,0 +1,45 @@
+package com.example.webfluxdemo.limit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 限流过滤器直接写出的错误响应，结构与控制器的 success/message 响应一致
+ */
+final class LimitResponses {
+
+    private LimitResponses() {
+    }
+
+    /**
+     * @param retryAfter 不为 null 时写出 Retry-After 响应头（秒，向上取整）
+     */
+    static Mono<Void> reject(ServerHttpResponse response, ObjectMapper objectMapper, HttpStatus status,
+                             String message, Duration retryAfter) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (retryAfter != null) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(bytes)));
+    }
+}
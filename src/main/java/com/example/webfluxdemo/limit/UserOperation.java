@@ -0,0 +1,53 @@
+package com.example.webfluxdemo.limit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * UserController 的各个操作及其默认隔离舱
+ */
+public enum UserOperation {
+
+    GET_BY_ID(HttpMethod.GET, "/api/users/{id:\\d+}", "lookup"),
+    LIST_ALL(HttpMethod.GET, "/api/users", "listing"),
+    PAGE(HttpMethod.GET, "/api/users/page", "listing"),
+    COUNT(HttpMethod.GET, "/api/users/count", "listing"),
+    SEARCH_USERNAME(HttpMethod.GET, "/api/users/search/username", "search"),
+    SEARCH_EMAIL(HttpMethod.GET, "/api/users/search/email", "search"),
+    CREATE(HttpMethod.POST, "/api/users", "write"),
+    UPDATE(HttpMethod.PUT, "/api/users/{id:\\d+}", "write"),
+    DELETE(HttpMethod.DELETE, "/api/users/{id:\\d+}", "write");
+
+    private final HttpMethod method;
+    private final PathPattern pattern;
+    private final String defaultLane;
+
+    UserOperation(HttpMethod method, String pattern, String defaultLane) {
+        this.method = method;
+        this.pattern = PathPatternParser.defaultInstance.parse(pattern);
+        this.defaultLane = defaultLane;
+    }
+
+    public String getDefaultLane() {
+        return defaultLane;
+    }
+
+    /**
+     * 请求对应的操作，不属于 UserController 时返回 null
+     */
+    public static UserOperation of(ServerHttpRequest request) {
+        return of(request.getMethod(), request.getPath().pathWithinApplication());
+    }
+
+    static UserOperation of(HttpMethod method, PathContainer path) {
+        for (UserOperation operation : values()) {
+            if (operation.method.equals(method) && operation.pattern.matches(path)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.webfluxdemo.query;
+
+/**
+ * users 表上的单列 B-tree 索引
+ *
+ * @param name       索引名，与 schema.sql 一致
+ * @param property   索引列对应的 User 属性
+ * @param activeOnly 部分索引条件：TRUE 为 WHERE is_active，FALSE 为 WHERE NOT is_active，null 为全表索引
+ */
+public record IndexDefinition(String name, String property, Boolean activeOnly) {
+
+    /**
+     * 索引的部分条件是否与查询的 isActive 条件一致；全表索引只用于不按状态筛选的查询，
+     * 按状态筛选时需要对应的部分索引，否则要在索引扫描中逐行过滤
+     */
+    boolean matches(Boolean isActive) {
+        return activeOnly == null ? isActive == null : activeOnly.equals(isActive);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.webfluxdemo.query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * users 表的索引清单（与 schema.sql 保持一致），用于判断筛选/排序组合能否走索引
+ *
+ * 判断规则：索引的部分条件与 isActive 条件一致，且索引列是某个范围条件的列（索引范围扫描），
+ * 或是第一个排序字段（按索引顺序扫描，取满一页即停止）。邮箱域名为后缀匹配，只在扫描结果上过滤
+ */
+public final class UserIndexCatalog {
+
+    /**
+     * 允许排序的字段，均有对应索引
+     */
+    public static final List<String> SORTABLE_PROPERTIES = List.of("id", "username", "email", "createdAt", "updatedAt");
+
+    static final List<IndexDefinition> INDEXES = List.of(
+            new IndexDefinition("users_pkey", "id", null),
+            new IndexDefinition("users_username_key", "username", null),
+            new IndexDefinition("users_email_key", "email", null),
+            new IndexDefinition("idx_users_created_at", "createdAt", null),
+            new IndexDefinition("idx_users_updated_at", "updatedAt", null),
+            new IndexDefinition("idx_users_active_created_at", "createdAt", Boolean.TRUE),
+            new IndexDefinition("idx_users_active_updated_at", "updatedAt", Boolean.TRUE),
+            new IndexDefinition("idx_users_inactive_updated_at", "updatedAt", Boolean.FALSE)
+    );
+
+    private UserIndexCatalog() {
+    }
+
+    /**
+     * 查找可用于该查询的索引，范围条件的索引优先
+     *
+     * @param rangeProperties 有范围条件的属性
+     * @param firstSort       第一个排序字段
+     */
+    public static Optional<IndexDefinition> findIndex(Boolean isActive, Set<String> rangeProperties, String firstSort) {
+        Optional<IndexDefinition> range = INDEXES.stream()
+                .filter(index -> index.matches(isActive) && rangeProperties.contains(index.property()))
+                .findFirst();
+        if (range.isPresent()) {
+            return range;
+        }
+        return INDEXES.stream()
+                .filter(index -> index.matches(isActive) && index.property().equals(firstSort))
+                .findFirst();
+    }
+}
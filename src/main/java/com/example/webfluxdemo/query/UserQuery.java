@@ -0,0 +1,48 @@
+package com.example.webfluxdemo.query;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户条件查询参数，所有条件之间为 AND
+ */
+@Data
+public class UserQuery {
+
+    private Boolean isActive;
+
+    /**
+     * 创建时间范围 [createdFrom, createdTo)
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    /**
+     * 更新时间范围 [updatedFrom, updatedTo)
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    /**
+     * 邮箱域名，如 example.com
+     */
+    private String emailDomain;
+
+    /**
+     * 排序字段，逗号分隔，前缀 - 表示降序，如 -createdAt,username；默认 -createdAt
+     */
+    private List<String> sort;
+
+    private int page = 0;
+
+    private int size = 20;
+}
@@ -0,0 +1,33 @@
+package com.example.webfluxdemo.query;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 条件查询配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.query")
+public class UserQueryProperties {
+
+    /**
+     * 没有索引覆盖的筛选/排序组合的处理方式
+     */
+    private UncoveredPolicy uncoveredPolicy = UncoveredPolicy.WARN;
+
+    /**
+     * 每页最大条数
+     */
+    private int maxPageSize = 100;
+
+    public enum UncoveredPolicy {
+        /**
+         * 照常执行，记录日志并在响应中返回 warnings
+         */
+        WARN,
+        /**
+         * 拒绝执行
+         */
+        REJECT
+    }
+}
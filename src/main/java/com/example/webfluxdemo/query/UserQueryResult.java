@@ -0,0 +1,29 @@
+package com.example.webfluxdemo.query;
+
+import com.example.webfluxdemo.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 条件查询结果
+ */
+@Data
+@AllArgsConstructor
+public class UserQueryResult {
+
+    private List<User> users;
+
+    /**
+     * 是否还有下一页（多查询一行判断，不执行 COUNT）
+     */
+    private boolean hasNext;
+
+    /**
+     * 预计使用的索引，没有索引覆盖时为 null
+     */
+    private String index;
+
+    private List<String> warnings;
+}
@@ -0,0 +1,158 @@
+package com.example.webfluxdemo.query;
+
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.r2dbc.QueryMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 用户条件查询
+ *
+ * 通过 Criteria 构建参数绑定的 SQL，排序字段限定为有索引的列；
+ * 按 UserIndexCatalog 判断筛选/排序组合是否有索引覆盖，没有时按配置告警或拒绝
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserQueryService {
+
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile("^[A-Za-z0-9.-]+$");
+
+    private final R2dbcEntityTemplate template;
+    private final UserQueryProperties properties;
+
+    /**
+     * 按条件分页查询用户
+     */
+    public Mono<UserQueryResult> query(UserQuery userQuery) {
+        log.info("条件查询用户: {}", userQuery);
+        QueryPlan plan;
+        try {
+            plan = plan(userQuery);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        int size = userQuery.getSize();
+        return template.select(User.class)
+                .matching(plan.query())
+                .all()
+                .contextWrite(QueryMethod.of("UserQueryService.query"))
+                .collectList()
+                .map(users -> {
+                    boolean hasNext = users.size() > size;
+                    return new UserQueryResult(hasNext ? users.subList(0, size) : users, hasNext,
+                            plan.index(), plan.warnings());
+                });
+    }
+
+    /**
+     * 校验参数并构建查询，参数不合法或（REJECT 策略下）没有索引覆盖时抛出 RuntimeException
+     */
+    QueryPlan plan(UserQuery userQuery) {
+        if (userQuery.getPage() < 0) {
+            throw new RuntimeException("页码不能小于0");
+        }
+        if (userQuery.getSize() < 1 || userQuery.getSize() > properties.getMaxPageSize()) {
+            throw new RuntimeException("每页大小必须在1-" + properties.getMaxPageSize() + "之间");
+        }
+
+        Criteria criteria = Criteria.empty();
+        Set<String> rangeProperties = new HashSet<>();
+        if (userQuery.getIsActive() != null) {
+            criteria = criteria.and("isActive").is(userQuery.getIsActive());
+        }
+        criteria = range(criteria, "createdAt", userQuery.getCreatedFrom(), userQuery.getCreatedTo(), rangeProperties);
+        criteria = range(criteria, "updatedAt", userQuery.getUpdatedFrom(), userQuery.getUpdatedTo(), rangeProperties);
+        if (userQuery.getEmailDomain() != null && !userQuery.getEmailDomain().isBlank()) {
+            String domain = userQuery.getEmailDomain().trim().toLowerCase(Locale.ROOT);
+            if (!DOMAIN_PATTERN.matcher(domain).matches()) {
+                throw new RuntimeException("邮箱域名格式不正确");
+            }
+            // 邮箱按注册时的大小写存储，两侧都转为大写比较 (与批量操作的 LOWER(email) LIKE 一致)
+            criteria = criteria.and("email").like("%@" + domain).ignoreCase(true);
+        }
+
+        Sort sort = sort(userQuery.getSort());
+        String firstSort = sort.iterator().next().getProperty();
+        Optional<IndexDefinition> index = UserIndexCatalog.findIndex(userQuery.getIsActive(), rangeProperties, firstSort);
+        List<String> warnings = new ArrayList<>();
+        if (index.isEmpty()) {
+            String message = "没有覆盖该筛选与排序组合的索引 (isActive=" + userQuery.getIsActive()
+                    + ", 范围条件=" + rangeProperties + ", 排序=" + firstSort + ")，查询可能需要扫描全表";
+            if (properties.getUncoveredPolicy() == UserQueryProperties.UncoveredPolicy.REJECT) {
+                throw new RuntimeException(message);
+            }
+            log.warn(message);
+            warnings.add(message);
+        }
+
+        Query query = Query.query(criteria)
+                .sort(sort)
+                .limit(userQuery.getSize() + 1)
+                .offset((long) userQuery.getPage() * userQuery.getSize());
+        return new QueryPlan(query, index.map(IndexDefinition::name).orElse(null), warnings);
+    }
+
+    private static Criteria range(Criteria criteria, String property, LocalDateTime from, LocalDateTime to,
+                                  Set<String> rangeProperties) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new RuntimeException(property + " 范围的起始时间必须早于结束时间");
+        }
+        if (from != null) {
+            criteria = criteria.and(property).greaterThanOrEquals(from);
+            rangeProperties.add(property);
+        }
+        if (to != null) {
+            criteria = criteria.and(property).lessThan(to);
+            rangeProperties.add(property);
+        }
+        return criteria;
+    }
+
+    /**
+     * 解析排序字段，末尾补充 id 保证分页顺序稳定
+     */
+    static Sort sort(List<String> fields) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (fields != null) {
+            for (String field : fields) {
+                String trimmed = field.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                boolean descending = trimmed.startsWith("-");
+                String property = descending ? trimmed.substring(1) : trimmed;
+                if (!UserIndexCatalog.SORTABLE_PROPERTIES.contains(property)) {
+                    throw new RuntimeException("不支持按 " + property + " 排序，可选: "
+                            + String.join(", ", UserIndexCatalog.SORTABLE_PROPERTIES));
+                }
+                orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+            }
+        }
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.desc("createdAt"));
+        }
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(new Sort.Order(orders.get(0).getDirection(), "id"));
+        }
+        return Sort.by(orders);
+    }
+
+    record QueryPlan(Query query, String index, List<String> warnings) {
+    }
+}
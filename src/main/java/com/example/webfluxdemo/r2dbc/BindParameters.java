@@ -0,0 +1,112 @@
+package com.example.webfluxdemo.r2dbc;
+
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 慢查询日志中的绑定参数描述: 默认只输出类型，绑定到敏感列 (如 password) 的参数始终输出 ***
+ *
+ * 参数对应的列从 SQL 推断: INSERT 按列清单与 VALUES 中占位符的顺序 (多行 INSERT 按列数取模)，
+ * 其余语句按 "列 = 占位符" 等比较表达式
+ */
+final class BindParameters {
+
+    static final String REDACTED = "***";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\d+|:\\w+|\\?");
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*insert\\s+into\\s+[^(\\s]+\\s*\\(([^)]*)\\)\\s*values(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern COMPARISON = Pattern.compile(
+            "([\\w.\"]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\s(?:not\\s+)?i?like\\s)\\s*(\\$\\d+|:\\w+|\\?)",
+            Pattern.CASE_INSENSITIVE);
+
+    private BindParameters() {
+    }
+
+    /**
+     * 描述第一组绑定，例如 {@code [$1=String, $2=Long, $3=***]}；有多组绑定时附加组数
+     */
+    static String describe(QueryInfo query, Set<String> redactedColumns, boolean withValues) {
+        List<Bindings> bindingsList = query.getBindingsList();
+        if (bindingsList.isEmpty()) {
+            return "[]";
+        }
+        Map<Object, String> columns = columns(query.getQuery());
+        Bindings bindings = bindingsList.get(0);
+        List<String> parts = new ArrayList<>();
+        for (Binding binding : bindings.getIndexBindings()) {
+            parts.add(describe("$" + ((Integer) binding.getKey() + 1), binding, columns, redactedColumns, withValues));
+        }
+        for (Binding binding : bindings.getNamedBindings()) {
+            parts.add(describe(String.valueOf(binding.getKey()), binding, columns, redactedColumns, withValues));
+        }
+        String described = "[" + String.join(", ", parts) + "]";
+        return bindingsList.size() > 1 ? described + " (共 " + bindingsList.size() + " 组)" : described;
+    }
+
+    private static String describe(String label, Binding binding, Map<Object, String> columns,
+                                   Set<String> redactedColumns, boolean withValues) {
+        String column = columns.get(binding.getKey());
+        if (column != null && redactedColumns.contains(column)) {
+            return label + "=" + REDACTED;
+        }
+        BoundValue value = binding.getBoundValue();
+        if (value.isNull()) {
+            return label + "=null(" + value.getNullType().getSimpleName() + ")";
+        }
+        String type = value.getValue().getClass().getSimpleName();
+        return withValues ? label + "=" + type + " '" + value.getValue() + "'" : label + "=" + type;
+    }
+
+    /**
+     * 占位符 -> 小写列名；键与 r2dbc-proxy 的绑定键一致: 索引绑定为从 0 开始的 Integer，命名绑定为名称
+     */
+    static Map<Object, String> columns(String sql) {
+        Map<Object, String> columns = new HashMap<>();
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.matches()) {
+            String[] names = insert.group(1).split(",");
+            Matcher placeholder = PLACEHOLDER.matcher(insert.group(2));
+            int position = 0;
+            while (placeholder.find()) {
+                columns.put(key(placeholder.group(), position), column(names[position % names.length]));
+                position++;
+            }
+            return columns;
+        }
+        Matcher comparison = COMPARISON.matcher(sql);
+        while (comparison.find()) {
+            int questionMarks = (int) sql.substring(0, comparison.start(2)).chars().filter(c -> c == '?').count();
+            columns.put(key(comparison.group(2), questionMarks), column(comparison.group(1)));
+        }
+        return columns;
+    }
+
+    private static Object key(String placeholder, int position) {
+        if (placeholder.startsWith("$")) {
+            return Integer.parseInt(placeholder.substring(1)) - 1;
+        }
+        if (placeholder.startsWith(":")) {
+            return placeholder.substring(1);
+        }
+        return position;
+    }
+
+    private static String column(String expression) {
+        String name = expression.trim().replace("\"", "");
+        int dot = name.lastIndexOf('.');
+        return (dot >= 0 ? name.substring(dot + 1) : name).toLowerCase(Locale.ROOT);
+    }
+}
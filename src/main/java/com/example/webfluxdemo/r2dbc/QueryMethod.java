@@ -0,0 +1,31 @@
+package com.example.webfluxdemo.r2dbc;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * 通过 Reactor Context 标记发出 SQL 的仓库方法，用作语句指标的 method 标签
+ *
+ * UserRepository 的方法由 {@link RepositoryMethodTagger} 自动标记；直接使用 DatabaseClient 的代码可以
+ * {@code .contextWrite(QueryMethod.of("UserInsertCoalescer.insertUsers"))}，未标记的语句归入 {@link #UNATTRIBUTED}
+ */
+public final class QueryMethod {
+
+    public static final String UNATTRIBUTED = "unattributed";
+
+    static final String KEY = QueryMethod.class.getName();
+
+    private QueryMethod() {
+    }
+
+    public static Context of(String method) {
+        return Context.of(KEY, method);
+    }
+
+    static String from(ContextView context) {
+        if (context == null) {
+            return UNATTRIBUTED;
+        }
+        return context.getOrDefault(KEY, UNATTRIBUTED);
+    }
+}
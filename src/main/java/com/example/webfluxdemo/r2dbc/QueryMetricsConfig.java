@@ -0,0 +1,28 @@
+package com.example.webfluxdemo.r2dbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.r2dbc.ConnectionFactoryDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用 r2dbc-proxy 包装 Spring Boot 创建的 ConnectionFactory (连接池内层)，注册 {@link QueryMetricsListener}
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfig {
+
+    @Bean
+    ConnectionFactoryDecorator queryMetricsConnectionFactoryDecorator(QueryMetricsProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        QueryMetricsListener listener = new QueryMetricsListener(properties, meterRegistry);
+        return connectionFactory -> ProxyConnectionFactory.builder(connectionFactory).listener(listener).build();
+    }
+
+    @Bean
+    static RepositoryMethodTagger repositoryMethodTagger() {
+        return new RepositoryMethodTagger();
+    }
+}
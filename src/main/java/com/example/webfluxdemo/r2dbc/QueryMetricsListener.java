@@ -0,0 +1,104 @@
+package com.example.webfluxdemo.r2dbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 按仓库方法记录每条 SQL 语句的执行时间 (直方图) 与返回行数，并输出慢查询日志
+ *
+ * 执行时间由 r2dbc-proxy 统计，从 execute() 被订阅到结果读取完毕；method 标签来自执行时的
+ * Reactor Context (见 {@link QueryMethod})
+ */
+@Slf4j
+public class QueryMetricsListener implements ProxyExecutionListener {
+
+    private final QueryMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> redactedColumns;
+    private final ConcurrentMap<String, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(QueryMetricsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.redactedColumns = properties.getRedactedColumns().stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        String method = QueryMethod.from(execInfo.getValueStore().get(ContextView.class, ContextView.class));
+        Duration elapsed = execInfo.getExecuteDuration();
+        int rows = execInfo.getCurrentResultCount();
+
+        MethodMeters methodMeters = meters.computeIfAbsent(method, this::register);
+        // 失败的语句很少，error 计时器在首次失败时才注册，避免每个方法多导出一组直方图
+        (execInfo.isSuccess() ? methodMeters.success() : timer(method, "error")).record(elapsed);
+        methodMeters.rows().record(rows);
+
+        if (elapsed.compareTo(properties.getSlowThreshold()) >= 0) {
+            methodMeters.slow().increment();
+            if (log.isWarnEnabled()) {
+                log.warn("慢查询: method={}, 耗时={}ms, 行数={}, 成功={}, sql={}, 参数={}", method, elapsed.toMillis(),
+                        rows, execInfo.isSuccess(), sql(execInfo), parameters(execInfo));
+            }
+        }
+    }
+
+    private String sql(QueryExecutionInfo execInfo) {
+        String sql = execInfo.getQueries().stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        int max = properties.getMaxSqlLength();
+        return sql.length() > max ? sql.substring(0, max) + "..." : sql;
+    }
+
+    private String parameters(QueryExecutionInfo execInfo) {
+        return execInfo.getQueries().stream()
+                .map(query -> BindParameters.describe(query, redactedColumns, properties.isLogParameterValues()))
+                .collect(Collectors.joining("; "));
+    }
+
+    private MethodMeters register(String method) {
+        return new MethodMeters(
+                timer(method, "success"),
+                DistributionSummary.builder("user.r2dbc.query.rows")
+                        .description("SQL 语句返回的行数")
+                        .tag("method", method)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(10_000.0)
+                        .register(meterRegistry),
+                Counter.builder("user.r2dbc.query.slow")
+                        .description("执行时间超过 app.query-metrics.slow-threshold 的 SQL 语句数")
+                        .tag("method", method)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return Timer.builder("user.r2dbc.query")
+                .description("SQL 语句执行时间 (含读取结果)")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private record MethodMeters(Timer success, DistributionSummary rows, Counter slow) {
+    }
+}
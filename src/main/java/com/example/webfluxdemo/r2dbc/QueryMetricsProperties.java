@@ -0,0 +1,41 @@
+package com.example.webfluxdemo.r2dbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL 语句指标与慢查询日志配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.query-metrics")
+public class QueryMetricsProperties {
+
+    /**
+     * 是否包装 ConnectionFactory 记录每条语句的耗时与返回行数
+     */
+    private boolean enabled = true;
+
+    /**
+     * 执行时间 (含读取结果) 达到该值的语句记录 WARN 日志
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * 慢查询日志是否输出参数值；默认只输出参数类型
+     */
+    private boolean logParameterValues = false;
+
+    /**
+     * 绑定到这些列的参数在日志中始终以 *** 代替
+     */
+    private List<String> redactedColumns = new ArrayList<>(List.of("password"));
+
+    /**
+     * 慢查询日志中 SQL 的最大长度，超出部分截断
+     */
+    private int maxSqlLength = 1000;
+}
@@ -0,0 +1,65 @@
+package com.example.webfluxdemo.r2dbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在 Spring Data 仓库代理上追加拦截器，把 "仓库接口.方法名" 写入返回的 Mono/Flux 的 Context
+ *
+ * 语句在订阅时执行，{@link QueryMetricsListener} 从执行时的 Context 中读取方法名作为指标标签。
+ * 测试中的 Mock 仓库不是 Spring AOP 代理，保持不变
+ */
+public class RepositoryMethodTagger implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised && !advised.isFrozen()) {
+            Class<?> repositoryInterface = Arrays.stream(advised.getProxiedInterfaces())
+                    .filter(Repository.class::isAssignableFrom)
+                    .filter(type -> !type.getName().startsWith("org.springframework."))
+                    .findFirst()
+                    .orElse(null);
+            if (repositoryInterface != null) {
+                advised.addAdvice(0, new Interceptor(repositoryInterface.getSimpleName()));
+            }
+        }
+        return bean;
+    }
+
+    static final class Interceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+        private final Map<Method, Context> contexts = new ConcurrentHashMap<>();
+
+        Interceptor(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Mono<?> mono) {
+                return mono.contextWrite(context(invocation.getMethod()));
+            }
+            if (result instanceof Flux<?> flux) {
+                return flux.contextWrite(context(invocation.getMethod()));
+            }
+            return result;
+        }
+
+        private Context context(Method method) {
+            return contexts.computeIfAbsent(method, m -> QueryMethod.of(repositoryName + "." + m.getName()));
+        }
+    }
+}
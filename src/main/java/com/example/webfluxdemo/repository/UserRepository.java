@@ -1,6 +1,7 @@
 package com.example.webfluxdemo.repository;
 
 import com.example.webfluxdemo.model.User;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
@@ -48,6 +49,13 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     @Query("SELECT * FROM users ORDER BY created_at DESC LIMIT :limit OFFSET :offset")
     Flux<User> findAllWithPagination(int limit, int offset);
 
+    /**
+     * 根据 ID 删除用户，返回删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :id")
+    Mono<Long> deleteUserById(Long id);
+
     /**
      * 统计用户总数
      */
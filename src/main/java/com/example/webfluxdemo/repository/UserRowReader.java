@@ -0,0 +1,32 @@
+package com.example.webfluxdemo.repository;
+
+import com.example.webfluxdemo.model.User;
+import io.r2dbc.spi.Row;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * users 行到 User 的读取转换器
+ *
+ * 替代 MappingR2dbcConverter 的反射式属性填充：按列名读取后直接调用全参构造器，
+ * 不经过 setter，也就不会因 setBio/setPassword 读取时钟而改写数据库中的 updatedAt。
+ * 要求查询返回 users 表的全部列（SELECT *）
+ */
+@ReadingConverter
+public class UserRowReader implements Converter<Row, User> {
+
+    @Override
+    public User convert(Row row) {
+        return new User(
+                row.get("id", Long.class),
+                row.get("username", String.class),
+                row.get("email", String.class),
+                row.get("password", String.class),
+                row.get("is_active", Boolean.class),
+                row.get("bio", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.webfluxdemo.repository;
+
+import com.example.webfluxdemo.model.User;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.Parameter;
+
+import java.time.LocalDateTime;
+
+/**
+ * User 到 INSERT/UPDATE 参数行的写入转换器，直接读取字段，不经过反射
+ *
+ * id 为空时写入空参数，R2dbcEntityTemplate 插入前会移除该列，由数据库生成 ID
+ */
+@WritingConverter
+public class UserRowWriter implements Converter<User, OutboundRow> {
+
+    private static final SqlIdentifier ID = SqlIdentifier.unquoted("id");
+    private static final SqlIdentifier USERNAME = SqlIdentifier.unquoted("username");
+    private static final SqlIdentifier EMAIL = SqlIdentifier.unquoted("email");
+    private static final SqlIdentifier PASSWORD = SqlIdentifier.unquoted("password");
+    private static final SqlIdentifier IS_ACTIVE = SqlIdentifier.unquoted("is_active");
+    private static final SqlIdentifier BIO = SqlIdentifier.unquoted("bio");
+    private static final SqlIdentifier CREATED_AT = SqlIdentifier.unquoted("created_at");
+    private static final SqlIdentifier UPDATED_AT = SqlIdentifier.unquoted("updated_at");
+
+    // OutboundRow 仍只接受 org.springframework.r2dbc.core.Parameter，没有未弃用的替代类型
+    @SuppressWarnings("deprecation")
+    @Override
+    public OutboundRow convert(User user) {
+        OutboundRow row = new OutboundRow();
+        row.put(ID, Parameter.fromOrEmpty(user.getId(), Long.class));
+        row.put(USERNAME, Parameter.fromOrEmpty(user.getUsername(), String.class));
+        row.put(EMAIL, Parameter.fromOrEmpty(user.getEmail(), String.class));
+        row.put(PASSWORD, Parameter.fromOrEmpty(user.getPassword(), String.class));
+        row.put(IS_ACTIVE, Parameter.fromOrEmpty(user.getIsActive(), Boolean.class));
+        row.put(BIO, Parameter.fromOrEmpty(user.getBio(), String.class));
+        row.put(CREATED_AT, Parameter.fromOrEmpty(user.getCreatedAt(), LocalDateTime.class));
+        row.put(UPDATED_AT, Parameter.fromOrEmpty(user.getUpdatedAt(), LocalDateTime.class));
+        return row;
+    }
+}
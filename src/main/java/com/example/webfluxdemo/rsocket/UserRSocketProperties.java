@@ -0,0 +1,24 @@
+package com.example.webfluxdemo.rsocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RSocket 用户接口配置，服务端口见 spring.rsocket.server.port
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rsocket")
+public class UserRSocketProperties {
+
+    /**
+     * 批量解析 ID 时每条查询最多包含的 ID 数
+     */
+    private int resolveBatchSize = 200;
+
+    /**
+     * 凑批的最长等待时间，ID 到达较慢时不必等满一批
+     */
+    private Duration resolveMaxDelay = Duration.ofMillis(5);
+}
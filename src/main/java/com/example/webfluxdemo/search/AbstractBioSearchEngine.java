@@ -0,0 +1,54 @@
+package com.example.webfluxdemo.search;
+
+import org.springframework.web.util.HtmlUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 参数校验与分页游标解析，子类负责实际检索
+ */
+public abstract class AbstractBioSearchEngine implements BioSearchEngine {
+
+    private final BioSearchProperties properties;
+
+    protected AbstractBioSearchEngine(BioSearchProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<BioSearchPage> search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            return Mono.error(new IllegalArgumentException("检索词不能为空"));
+        }
+        if (query.length() > properties.getMaxQueryLength()) {
+            return Mono.error(new IllegalArgumentException("检索词不能超过" + properties.getMaxQueryLength() + "个字符"));
+        }
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            return Mono.error(new IllegalArgumentException("每页条数必须在1-" + properties.getMaxLimit() + "之间"));
+        }
+        BioSearchCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : BioSearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        return doSearch(query.trim(), after, limit);
+    }
+
+    /**
+     * 返回 after 之后的最多 limit 条结果，需多取一条用于判断是否有下一页（见 {@link BioSearchPage#of}）
+     */
+    protected abstract Mono<BioSearchPage> doSearch(String query, BioSearchCursor after, int limit);
+
+    /**
+     * 只转义 HTML 特殊字符 (&lt; &gt; &amp; 引号)，其余字符原样保留
+     */
+    protected static String escapeHtml(String text) {
+        return HtmlUtils.htmlEscape(text, StandardCharsets.UTF_8.name());
+    }
+
+    protected BioSearchProperties getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.webfluxdemo.search;
+
+/**
+ * 键集分页游标：结果按 (rank DESC, id ASC) 排序，下一页从该位置之后开始
+ */
+public record BioSearchCursor(float rank, long id) {
+
+    /**
+     * 编码为 rank_id；Float.toString 可无损还原，保证与数据库中的 real 值精确比较
+     */
+    public String encode() {
+        return rank + "_" + id;
+    }
+
+    public static BioSearchCursor decode(String value) {
+        int separator = value == null ? -1 : value.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        try {
+            return new BioSearchCursor(Float.parseFloat(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 排在游标之后（相关度更低，或相关度相同且 id 更大）
+     */
+    boolean precedes(float otherRank, long otherId) {
+        return otherRank < rank || (otherRank == rank && otherId > id);
+    }
+}
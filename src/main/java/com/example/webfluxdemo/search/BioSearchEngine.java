@@ -0,0 +1,18 @@
+package com.example.webfluxdemo.search;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 个人简介全文检索
+ */
+public interface BioSearchEngine {
+
+    /**
+     * 检索简介中包含全部关键词的用户，按相关度降序排列
+     *
+     * @param query  关键词，空格分隔；前缀 - 表示排除
+     * @param cursor 上一页返回的游标，第一页为 null
+     * @param limit  每页条数
+     */
+    Mono<BioSearchPage> search(String query, String cursor, int limit);
+}
@@ -0,0 +1,28 @@
+package com.example.webfluxdemo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 检索结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BioSearchHit {
+
+    private Long id;
+
+    private String username;
+
+    /**
+     * 相关度，越大越相关
+     */
+    private float rank;
+
+    /**
+     * 带命中词标记的简介摘要
+     */
+    private String snippet;
+}
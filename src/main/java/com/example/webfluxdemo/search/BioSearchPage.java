@@ -0,0 +1,30 @@
+package com.example.webfluxdemo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 一页检索结果，nextCursor 为 null 表示没有下一页
+ */
+@Data
+@AllArgsConstructor
+public class BioSearchPage {
+
+    private List<BioSearchHit> hits;
+
+    private String nextCursor;
+
+    /**
+     * 多取一条判断是否有下一页，以最后一条结果生成游标
+     */
+    static BioSearchPage of(List<BioSearchHit> hits, int limit) {
+        if (hits.size() <= limit) {
+            return new BioSearchPage(hits, null);
+        }
+        List<BioSearchHit> page = hits.subList(0, limit);
+        BioSearchHit last = page.get(limit - 1);
+        return new BioSearchPage(page, new BioSearchCursor(last.getRank(), last.getId()).encode());
+    }
+}
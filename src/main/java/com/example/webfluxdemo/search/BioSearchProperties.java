@@ -0,0 +1,52 @@
+package com.example.webfluxdemo.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 个人简介全文检索配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class BioSearchProperties {
+
+    public enum Engine {
+        /**
+         * PostgreSQL tsvector 生成列 + GIN 索引
+         */
+        POSTGRES,
+        /**
+         * 进程内倒排索引，供内嵌 H2 (embedded profile) 使用
+         */
+        MEMORY
+    }
+
+    private Engine engine = Engine.POSTGRES;
+
+    /**
+     * 每页最多返回的结果数
+     */
+    private int maxLimit = 50;
+
+    /**
+     * 检索词最大长度
+     */
+    private int maxQueryLength = 200;
+
+    /**
+     * 摘要最多包含的词数
+     */
+    private int snippetMaxWords = 15;
+
+    /**
+     * 内存索引构建时每次读取的行数
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * 摘要中命中词的前后标记，原样输出；简介原文做 HTML 转义
+     */
+    private String highlightStart = "<mark>";
+
+    private String highlightStop = "</mark>";
+}
@@ -0,0 +1,381 @@
+package com.example.webfluxdemo.search;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内倒排索引实现，供没有 tsvector 的内嵌 H2 使用
+ *
+ * 应用就绪后流式读取 users 表构建，之后通过事件总线跟随新增、修改与删除：事件只记录用户 ID，
+ * 后台按批重新读取这些用户，同一用户的多次变更合并为一次读取。
+ * 分词规则与 PostgreSQL 的 simple 配置一致（按非字母数字切分并转为小写，不做词干还原）；
+ * 检索语法只支持空格分隔的多个词（同时包含）与前缀 - 的排除词。
+ * 相关度为各检索词词频之和按简介长度做对数归一，与 ts_rank 的排序趋势一致但数值不同
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "engine", havingValue = "memory")
+public class InMemoryBioSearchEngine extends AbstractBioSearchEngine {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final String DOCUMENTS_SQL = "SELECT id, username, bio FROM users";
+    private static final String CHANGED_DOCUMENTS_SQL = "SELECT id, username, bio FROM users WHERE id = ANY(:ids)";
+
+    /**
+     * 结果顺序：相关度降序，相同时按 id 升序
+     */
+    private static final Comparator<Scored> RESULT_ORDER = Comparator.comparingDouble(Scored::rank).reversed()
+            .thenComparingLong(scored -> scored.document().id());
+
+    private final DatabaseClient databaseClient;
+    private final UserEventBus userEventBus;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * 收到变更事件、尚未重新读取的用户 ID
+     */
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile boolean ready;
+
+    public InMemoryBioSearchEngine(DatabaseClient databaseClient,
+                                   UserEventBus userEventBus,
+                                   BioSearchProperties properties) {
+        super(properties);
+        this.databaseClient = databaseClient;
+        this.userEventBus = userEventBus;
+    }
+
+    /**
+     * 先订阅变更事件再读取全表，构建期间的写入不会丢失
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscriptions.add(follow(userEventBus.subscribe(), this::loadChanged).subscribe());
+
+        Flux<BioRow> rows = databaseClient.sql(DOCUMENTS_SQL)
+                .filter(statement -> statement.fetchSize(getProperties().getFetchSize()))
+                .map(row -> new BioRow(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("bio", String.class)))
+                .all();
+        subscriptions.add(build(rows)
+                .subscribe(null, e -> log.error("全文检索索引构建失败: {}", e.getMessage())));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    Mono<Void> build(Flux<BioRow> rows) {
+        return Mono.defer(() -> {
+            long start = System.currentTimeMillis();
+            return rows
+                    .doOnNext(row -> index(row.id(), row.username(), row.bio()))
+                    .count()
+                    .doOnNext(count -> {
+                        ready = true;
+                        log.info("全文检索索引构建完成: {} 个用户, {} 个词, 耗时 {} ms",
+                                count, postings.size(), System.currentTimeMillis() - start);
+                    })
+                    .then();
+        });
+    }
+
+    @Override
+    protected Mono<BioSearchPage> doSearch(String query, BioSearchCursor after, int limit) {
+        if (!ready) {
+            return Mono.error(new IllegalStateException("全文检索索引构建中，请稍后重试"));
+        }
+        return Mono.fromCallable(() -> search(parse(query), after, limit));
+    }
+
+    private BioSearchPage search(ParsedQuery query, BioSearchCursor after, int limit) {
+        List<PostingList> required = new ArrayList<>();
+        for (String term : query.include()) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return new BioSearchPage(List.of(), null);
+            }
+            required.add(list);
+        }
+        if (required.isEmpty()) {
+            return new BioSearchPage(List.of(), null);
+        }
+        required.sort(Comparator.comparingInt(PostingList::size));
+        List<PostingList> excluded = query.exclude().stream().map(postings::get).filter(list -> list != null).toList();
+
+        // 以最短的倒排表为候选，保留排在游标之后的前 limit + 1 个，堆顶是其中最靠后的一个
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, RESULT_ORDER.reversed());
+        PostingList.Snapshot candidates = required.get(0).snapshot();
+        for (int i = 0; i < candidates.ids().length; i++) {
+            long id = candidates.ids()[i];
+            int frequency = frequency(id, candidates.frequencies()[i], required, excluded);
+            if (frequency == 0) {
+                continue;
+            }
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            float rank = rank(frequency, document.length());
+            if (after != null && !after.precedes(rank, id)) {
+                continue;
+            }
+            Scored scored = new Scored(document, rank);
+            if (top.size() <= limit) {
+                top.add(scored);
+            } else if (RESULT_ORDER.compare(scored, top.peek()) < 0) {
+                top.poll();
+                top.add(scored);
+            }
+        }
+
+        List<Scored> ordered = new ArrayList<>(top);
+        ordered.sort(RESULT_ORDER);
+        BioSearchProperties properties = getProperties();
+        List<BioSearchHit> hits = ordered.stream()
+                .map(scored -> new BioSearchHit(scored.document().id(), scored.document().username(), scored.rank(),
+                        highlight(scored.document().bio(), query.include(), properties.getSnippetMaxWords(),
+                                properties.getHighlightStart(), properties.getHighlightStop())))
+                .toList();
+        return BioSearchPage.of(hits, limit);
+    }
+
+    /**
+     * 同时包含全部检索词且不包含排除词时返回检索词出现次数之和，否则返回 0
+     */
+    private static int frequency(long id, int first, List<PostingList> required, List<PostingList> excluded) {
+        int total = first;
+        for (int i = 1; i < required.size(); i++) {
+            int frequency = required.get(i).frequency(id);
+            if (frequency == 0) {
+                return 0;
+            }
+            total += frequency;
+        }
+        for (PostingList list : excluded) {
+            if (list.frequency(id) > 0) {
+                return 0;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 事件到达时只记录用户 ID 并立即请求下一个，事件总线为订阅者保留的缓冲区不会因读取数据库变慢而溢出丢弃；
+     * 读取期间到达的事件合并为一次触发，读取完成后再处理新记录的 ID
+     */
+    Mono<Void> follow(Flux<UserChangeEvent> events, Function<List<Long>, Flux<BioRow>> loader) {
+        return events
+                .filter(event -> event.getUserId() != null)
+                .doOnNext(event -> changed.add(event.getUserId()))
+                .onBackpressureLatest()
+                .concatMap(event -> refreshChanged(loader), 1)
+                .then();
+    }
+
+    /**
+     * 按批重新读取已变更的用户并更新索引，读取不到的用户 (已删除) 从索引中移除；
+     * 读取失败时放回这些 ID，等下一个事件到达时重试
+     */
+    Mono<Void> refreshChanged(Function<List<Long>, Flux<BioRow>> loader) {
+        return Mono.defer(() -> {
+                    List<Long> ids = takeChanged(getProperties().getFetchSize());
+                    if (ids.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    Set<Long> missing = new HashSet<>(ids);
+                    return loader.apply(ids)
+                            .doOnNext(row -> {
+                                missing.remove(row.id());
+                                index(row.id(), row.username(), row.bio());
+                            })
+                            .then(Mono.fromRunnable(() -> missing.forEach(this::remove)))
+                            .doOnError(e -> changed.addAll(ids))
+                            .then();
+                })
+                .repeat(() -> !changed.isEmpty())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("全文检索索引更新失败 - 待更新用户数: {}, 错误: {}", changed.size(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private List<Long> takeChanged(int max) {
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> iterator = changed.iterator();
+        while (iterator.hasNext() && ids.size() < max) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        return ids;
+    }
+
+    private Flux<BioRow> loadChanged(List<Long> ids) {
+        return databaseClient.sql(CHANGED_DOCUMENTS_SQL)
+                .bind("ids", ids.toArray(new Long[0]))
+                .map(row -> new BioRow(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("bio", String.class)))
+                .all();
+    }
+
+    /**
+     * 写入或替换一个用户的简介；写入之间互斥，检索不加锁
+     */
+    synchronized void index(long id, String username, String bio) {
+        List<String> tokens = tokenize(bio);
+        Document previous = documents.put(id, new Document(id, username, bio, tokens.size()));
+        if (previous != null) {
+            unindex(id, previous.bio());
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new PostingList()).add(id, frequency));
+    }
+
+    synchronized void remove(long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            unindex(id, previous.bio());
+        }
+    }
+
+    private void unindex(long id, String bio) {
+        for (String term : new LinkedHashSet<>(tokenize(bio))) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(term, list);
+            }
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    int documentCount() {
+        return documents.size();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            tokens.add(matcher.group().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    static ParsedQuery parse(String query) {
+        Set<String> include = new LinkedHashSet<>();
+        Set<String> exclude = new LinkedHashSet<>();
+        for (String part : query.trim().split("\\s+")) {
+            if (part.startsWith("-")) {
+                exclude.addAll(tokenize(part.substring(1)));
+            } else {
+                include.addAll(tokenize(part));
+            }
+        }
+        exclude.removeAll(include);
+        return new ParsedQuery(include, exclude);
+    }
+
+    /**
+     * 检索词出现次数之和 / (1 + ln(简介词数))
+     */
+    static float rank(int frequency, int length) {
+        return length == 0 ? 0f : (float) (frequency / (1 + Math.log(length)));
+    }
+
+    /**
+     * 截取首个命中词附近最多 maxWords 个词，并在命中词前后加上标记；原文做 HTML 转义，标记原样输出
+     */
+    static String highlight(String bio, Set<String> terms, int maxWords, String startSel, String stopSel) {
+        if (bio == null) {
+            return "";
+        }
+        List<int[]> spans = new ArrayList<>();
+        int first = -1;
+        Matcher matcher = TOKEN.matcher(bio);
+        while (matcher.find()) {
+            if (first < 0 && terms.contains(matcher.group().toLowerCase(Locale.ROOT))) {
+                first = spans.size();
+            }
+            spans.add(new int[]{matcher.start(), matcher.end()});
+        }
+        if (spans.isEmpty()) {
+            return escapeHtml(bio);
+        }
+        int from = Math.max(0, Math.min(Math.max(first, 0) - maxWords / 3, spans.size() - maxWords));
+        int to = Math.min(spans.size(), from + maxWords);
+
+        StringBuilder snippet = new StringBuilder();
+        int position = spans.get(from)[0];
+        for (int i = from; i < to; i++) {
+            int[] span = spans.get(i);
+            snippet.append(escapeHtml(bio.substring(position, span[0])));
+            String word = bio.substring(span[0], span[1]);
+            if (terms.contains(word.toLowerCase(Locale.ROOT))) {
+                snippet.append(startSel).append(escapeHtml(word)).append(stopSel);
+            } else {
+                snippet.append(escapeHtml(word));
+            }
+            position = span[1];
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * @param length 简介的词数，用于相关度归一
+     */
+    private record Document(long id, String username, String bio, int length) {
+    }
+
+    /**
+     * users 表中的一行
+     */
+    record BioRow(long id, String username, String bio) {
+    }
+
+    record ParsedQuery(Set<String> include, Set<String> exclude) {
+    }
+
+    private record Scored(Document document, float rank) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.webfluxdemo.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 基于 PostgreSQL 全文检索的实现
+ *
+ * users.bio_tsv 为 to_tsvector('simple', bio) 的生成列，由 GIN 索引 idx_users_bio_tsv 定位命中行，
+ * 按 ts_rank 降序、id 升序做键集分页。ts_headline 需要重新解析原文，只对当页结果生成摘要。
+ * 摘要先以私用区字符作为临时标记，HTML 转义后再替换为配置的标记，原文中的 HTML 不会原样输出
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresBioSearchEngine extends AbstractBioSearchEngine {
+
+    private static final String MARK_START = "\uE000";
+    private static final String MARK_STOP = "\uE001";
+
+    /**
+     * 先在子查询中排序取当页，再对当页结果生成摘要
+     */
+    private static final String SEARCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query),
+            page AS (
+                SELECT u.id, u.username, u.bio, ts_rank(u.bio_tsv, q.query) AS rank
+                FROM users u, q
+                WHERE u.bio_tsv @@ q.query%s
+                ORDER BY rank DESC, u.id
+                LIMIT :limit
+            )
+            SELECT page.id, page.username, page.rank,
+                   ts_headline('simple', translate(coalesce(page.bio, ''), :marks, ''), q.query, :options) AS snippet
+            FROM page, q
+            ORDER BY page.rank DESC, page.id
+            """;
+    private static final String FIRST_PAGE_SQL = SEARCH_SQL.formatted("");
+    private static final String NEXT_PAGE_SQL = SEARCH_SQL.formatted("""
+
+                  AND (ts_rank(u.bio_tsv, q.query) < :afterRank
+                       OR (ts_rank(u.bio_tsv, q.query) = :afterRank AND u.id > :afterId))""");
+
+    private final DatabaseClient databaseClient;
+
+    public PostgresBioSearchEngine(DatabaseClient databaseClient, BioSearchProperties properties) {
+        super(properties);
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    protected Mono<BioSearchPage> doSearch(String query, BioSearchCursor after, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(after == null ? FIRST_PAGE_SQL : NEXT_PAGE_SQL)
+                .bind("query", query)
+                .bind("marks", MARK_START + MARK_STOP)
+                .bind("options", headlineOptions(getProperties()))
+                .bind("limit", limit + 1);
+        if (after != null) {
+            spec = spec.bind("afterRank", after.rank()).bind("afterId", after.id());
+        }
+        return spec
+                .map(row -> new BioSearchHit(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("rank", Float.class), renderSnippet(row.get("snippet", String.class))))
+                .all()
+                .collectList()
+                .map(hits -> BioSearchPage.of(hits, limit));
+    }
+
+    /**
+     * 转义 ts_headline 的输出 (原文中的临时标记字符已在 SQL 中删除)，再把临时标记替换为配置的标记
+     */
+    String renderSnippet(String snippet) {
+        if (snippet == null) {
+            return "";
+        }
+        return escapeHtml(snippet)
+                .replace(MARK_START, getProperties().getHighlightStart())
+                .replace(MARK_STOP, getProperties().getHighlightStop());
+    }
+
+    /**
+     * ts_headline 选项，命中词前后使用临时标记
+     */
+    static String headlineOptions(BioSearchProperties properties) {
+        return "StartSel=" + quote(MARK_START)
+                + ", StopSel=" + quote(MARK_STOP)
+                + ", MaxWords=" + properties.getSnippetMaxWords()
+                + ", MinWords=" + Math.max(1, properties.getSnippetMaxWords() / 3);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.webfluxdemo.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表：按升序保存包含某个词的用户 ID 及该词在简介中的出现次数
+ *
+ * 新用户 ID 递增，追加写入为 O(1)；读取时复制快照，写入方不会阻塞正在进行的检索
+ */
+final class PostingList {
+
+    private long[] ids = new long[1];
+    private int[] frequencies = new int[1];
+    private int size;
+
+    synchronized void add(long id, int frequency) {
+        int index = size > 0 && ids[size - 1] >= id ? Arrays.binarySearch(ids, 0, size, id) : -size - 1;
+        if (index >= 0) {
+            frequencies[index] = frequency;
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            int capacity = Math.max(4, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+        ids[index] = id;
+        frequencies[index] = frequency;
+        size++;
+    }
+
+    synchronized boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * 该词在用户简介中的出现次数，不包含时返回 0
+     */
+    synchronized int frequency(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? frequencies[index] : 0;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(ids, size), Arrays.copyOf(frequencies, size));
+    }
+
+    record Snapshot(long[] ids, int[] frequencies) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.webfluxdemo.seed;
+
+import com.example.webfluxdemo.r2dbc.QueryMethod;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * 内嵌数据库测试数据生成器
+ *
+ * 启动时按确定性规则生成用户（同一序号总是得到相同的数据），表非空时跳过。
+ * 密码使用预先计算的 BCrypt 摘要，避免逐行哈希拖慢生成速度
+ */
+@Slf4j
+@Component
+@Profile("embedded")
+@RequiredArgsConstructor
+public class UserDataSeeder implements ApplicationRunner {
+
+    /**
+     * Password123! 的 BCrypt 摘要
+     */
+    static final String SEED_PASSWORD_HASH = "$2a$10$VAr1hIs3NN.GkdlhL0ahm.M8nP76c2b9Md47LPLYguNK546mwnQCm";
+
+    private static final String[] DOMAINS = {
+            "example.com", "example.org", "mail.test", "corp.test", "acme.test"
+    };
+
+    private static final String[] TOPICS = {
+            "java", "spring", "reactive", "postgres", "cloud", "music", "travel", "photography",
+            "running", "cooking", "kotlin", "golang", "design", "security", "data", "mobile"
+    };
+
+    private static final String INSERT_SQL = "INSERT INTO users "
+            + "(username, email, password, is_active, bio, created_at, updated_at) "
+            + "VALUES ($1, $2, $3, $4, $5, $6, $7)";
+
+    private final DatabaseClient databaseClient;
+    private final UserSeedProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getUsers() <= 0) {
+            return;
+        }
+        long existing = databaseClient.sql("SELECT COUNT(*) FROM users")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .blockOptional()
+                .orElse(0L);
+        if (existing > 0) {
+            log.info("users 表已有 {} 条数据，跳过测试数据生成", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int batchSize = properties.getBatchSize();
+        int total = properties.getUsers();
+        Long inserted = Flux.range(0, (total + batchSize - 1) / batchSize)
+                .concatMap(batch -> insertBatch(batch * batchSize, Math.min(batchSize, total - batch * batchSize)))
+                .reduce(0L, Long::sum)
+                .block();
+        log.info("测试数据生成完成: {} 个用户, 耗时 {} ms", inserted, System.currentTimeMillis() - start);
+    }
+
+    private Mono<Long> insertBatch(int from, int count) {
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(INSERT_SQL);
+                    for (int i = 0; i < count; i++) {
+                        int n = from + i + 1;
+                        // 约两年内均匀分布的创建时间
+                        LocalDateTime createdAt = base.plusMinutes(n % 1_051_200L);
+                        statement.bind(0, username(n))
+                                .bind(1, username(n) + "@" + DOMAINS[n % DOMAINS.length])
+                                .bind(2, SEED_PASSWORD_HASH)
+                                .bind(3, n % 10 != 0)
+                                .bind(4, bio(n))
+                                .bind(5, createdAt)
+                                .bind(6, createdAt.plusDays(n % 30));
+                        if (i < count - 1) {
+                            statement.add();
+                        }
+                    }
+                    return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+                })
+                .contextWrite(QueryMethod.of("UserDataSeeder.insertBatch"))
+                .reduce(0L, Long::sum);
+    }
+
+    static String username(int n) {
+        return String.format("user_%07d", n);
+    }
+
+    static String bio(int n) {
+        return "I like " + TOPICS[n % TOPICS.length] + " and " + TOPICS[(n / TOPICS.length) % TOPICS.length]
+                + ", user number " + n;
+    }
+}
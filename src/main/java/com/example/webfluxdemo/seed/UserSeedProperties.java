@@ -0,0 +1,22 @@
+package com.example.webfluxdemo.seed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 测试数据生成配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.seed")
+public class UserSeedProperties {
+
+    /**
+     * 生成的用户数量，0 表示不生成
+     */
+    private int users = 0;
+
+    /**
+     * 每条批量 INSERT 语句包含的行数
+     */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,120 @@
+package com.example.webfluxdemo.server;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * 内嵌 Reactor Netty 服务器的传输、事件循环与内存分配器配置
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class ServerTuningConfig {
+
+    private static final String IO_URING_CLASS = "io.netty.incubator.channel.uring.IOUring";
+    private static final String EPOLL_CLASS = "io.netty.channel.epoll.Epoll";
+    private static final String KQUEUE_CLASS = "io.netty.channel.kqueue.KQueue";
+
+    /**
+     * 配置了线程数时使用独立的事件循环，随应用关闭释放
+     */
+    @Bean(destroyMethod = "dispose")
+    ServerLoopResources serverLoopResources(ServerTuningProperties properties) {
+        if (properties.getWorkerThreads() <= 0) {
+            return new ServerLoopResources(null);
+        }
+        if (properties.getSelectThreads() <= 0) {
+            // accept 与读写共用同一组线程
+            return new ServerLoopResources(LoopResources.create("http-server", properties.getWorkerThreads(), true));
+        }
+        return new ServerLoopResources(LoopResources.create("http-server", properties.getSelectThreads(),
+                properties.getWorkerThreads(), true));
+    }
+
+    @Bean
+    NettyServerCustomizer serverTuningCustomizer(ServerTuningProperties properties,
+                                                 ServerLoopResources serverLoopResources,
+                                                 ObjectProvider<ServerProperties> serverProperties) {
+        boolean preferNative = properties.getTransport() == ServerTuningProperties.Transport.AUTO;
+        ByteBufAllocator allocator = allocator(properties);
+        ServerProperties server = serverProperties.getIfAvailable();
+        boolean http2 = server != null && server.getHttp2() != null && server.getHttp2().isEnabled();
+        log.info("HTTP 服务器传输: {}, I/O 线程: {}, 分配器: {}{}, HTTP/2: {}",
+                transportName(preferNative),
+                properties.getWorkerThreads() > 0 ? properties.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT,
+                properties.getAllocator(), properties.isPreferDirect() ? " (direct)" : " (heap)",
+                http2 ? (server.getSsl() != null && server.getSsl().isEnabled() ? "h2" : "h2c") : "关闭");
+
+        return httpServer -> {
+            LoopResources loops = serverLoopResources.loops() != null ? serverLoopResources.loops() : HttpResources.get();
+            return httpServer
+                    .runOn(loops, preferNative)
+                    .option(ChannelOption.ALLOCATOR, allocator)
+                    .childOption(ChannelOption.ALLOCATOR, allocator);
+        };
+    }
+
+    static ByteBufAllocator allocator(ServerTuningProperties properties) {
+        if (properties.getAllocator() == ServerTuningProperties.Allocator.UNPOOLED) {
+            return new UnpooledByteBufAllocator(properties.isPreferDirect());
+        }
+        return properties.isPreferDirect() == PooledByteBufAllocator.defaultPreferDirect()
+                ? PooledByteBufAllocator.DEFAULT
+                : new PooledByteBufAllocator(properties.isPreferDirect());
+    }
+
+    /**
+     * 与 Reactor Netty 选择原生传输的顺序一致：io_uring、epoll、kqueue，都不可用时为 NIO
+     */
+    static String transportName(boolean preferNative) {
+        if (!preferNative) {
+            return "nio";
+        }
+        if (available(IO_URING_CLASS)) {
+            return "io_uring";
+        }
+        if (available(EPOLL_CLASS)) {
+            return "epoll";
+        }
+        if (available(KQUEUE_CLASS)) {
+            return "kqueue";
+        }
+        return "nio";
+    }
+
+    /**
+     * 原生传输的依赖按平台可选，通过反射调用 isAvailable()
+     */
+    private static boolean available(String className) {
+        if (!ClassUtils.isPresent(className, null)) {
+            return false;
+        }
+        try {
+            return (Boolean) ClassUtils.forName(className, null).getMethod("isAvailable").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 服务器独立事件循环的持有者，loops 为 null 时使用 Reactor Netty 的全局事件循环
+     */
+    record ServerLoopResources(LoopResources loops) {
+
+        void dispose() {
+            if (loops != null) {
+                loops.disposeLater().block();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.webfluxdemo.server;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内嵌 Reactor Netty 服务器的传输层配置
+ *
+ * HTTP/2 由 Spring Boot 的 server.http2.enabled 控制，未配置 SSL 时为 h2c（明文 HTTP/2，同时保留 HTTP/1.1）
+ */
+@Data
+@ConfigurationProperties(prefix = "app.server")
+public class ServerTuningProperties {
+
+    public enum Transport {
+        /**
+         * 有原生传输时使用原生传输：io_uring（需 io_uring profile）优先，其次 epoll (Linux) / kqueue (macOS)
+         */
+        AUTO,
+        /**
+         * 始终使用 JDK NIO
+         */
+        NIO
+    }
+
+    public enum Allocator {
+        /**
+         * 池化 ByteBuf，按线程缓存复用
+         */
+        POOLED,
+        /**
+         * 每次分配新的 ByteBuf，用于排查内存问题或对比
+         */
+        UNPOOLED
+    }
+
+    private Transport transport = Transport.AUTO;
+
+    /**
+     * 接收连接的线程数，0 表示与 I/O 线程共用
+     */
+    private int selectThreads = 0;
+
+    /**
+     * I/O 线程数，0 表示使用 Reactor Netty 默认值（CPU 核数，至少 4）且与 WebClient 共用全局事件循环
+     */
+    private int workerThreads = 0;
+
+    private Allocator allocator = Allocator.POOLED;
+
+    /**
+     * 优先分配堆外 (direct) 内存，写入 socket 时无需再复制
+     */
+    private boolean preferDirect = true;
+}
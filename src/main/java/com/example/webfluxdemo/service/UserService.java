@@ -1,18 +1,39 @@
 package com.example.webfluxdemo.service;
 
+import com.example.webfluxdemo.cache.UserSearchCache;
+import com.example.webfluxdemo.deadline.CostEstimate;
+import com.example.webfluxdemo.deadline.Deadlines;
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import com.example.webfluxdemo.existence.UserExistenceFilter;
+import com.example.webfluxdemo.jfr.UserPhase;
+import com.example.webfluxdemo.jfr.UserPhases;
 import com.example.webfluxdemo.model.User;
 import com.example.webfluxdemo.repository.UserRepository;
 import com.example.webfluxdemo.security.PasswordUtils;
+import com.example.webfluxdemo.typeahead.UsernameTypeahead;
+import com.example.webfluxdemo.write.UserInsertCoalescer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
 
+/**
+ * 用户业务逻辑
+ *
+ * 请求携带截止时间时 (见 DeadlineFilter)，每个数据库步骤按剩余时间超时，剩余时间不足以完成密码加密时不开始加密
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,15 +42,25 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordUtils passwordUtils;
+    private final UserEventBus userEventBus;
+    private final UserExistenceFilter existenceFilter;
+    private final UserInsertCoalescer insertCoalescer;
+    private final UserSearchCache searchCache;
+    private final UsernameTypeahead typeahead;
+    private final TransactionalOperator transactionalOperator;
+    private final CostEstimate passwordHashCost = new CostEstimate();
 
     /**
      * 创建用户
+     *
+     * 插入由合并器在独立连接上完成，不开启事务，避免每个调用方在等待合并期间额外占用一个连接
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<User> createUser(User user) {
         log.info("创建用户: {}", user.getUsername());
         return Mono.zip(
-                        userRepository.existsByUsername(user.getUsername()),
-                        userRepository.existsByEmail(user.getEmail())
+                        usernameExists("createUser", user.getUsername()),
+                        emailExists("createUser", user.getEmail())
                 )
                 .flatMap(tuple -> {
                     if (tuple.getT1() || tuple.getT2()) {
@@ -45,10 +76,11 @@ public class UserService {
                     newUser.setCreatedAt(LocalDateTime.now());
                     newUser.setUpdatedAt(LocalDateTime.now());
 
-                    // 使用 Mono.fromCallable 来处理密码加密过程
-                    return Mono.fromCallable(() -> {
+                    // 使用 Mono.fromCallable 来处理密码加密过程，加密开始后无法中途取消
+                    Mono<User> hashed = UserPhases.trace("createUser", UserPhase.HASH, Mono.fromCallable(() -> {
                                 try {
-                                    newUser.setPasswordEncoded(user.getPassword(), passwordUtils);
+                                    passwordHashCost.measure(
+                                            () -> newUser.setPasswordEncoded(user.getPassword(), passwordUtils));
                                     return newUser;
                                 } catch (IllegalArgumentException e) {
                                     throw e; // 直接抛出业务异常
@@ -56,9 +88,71 @@ public class UserService {
                                     throw new RuntimeException("系统错误：密码加密失败", e);
                                 }
                             })
-                            .subscribeOn(Schedulers.boundedElastic());
+                            .subscribeOn(Schedulers.boundedElastic()));
+                    return requirePasswordHashTime().then(hashed);
                 })
-                .flatMap(userRepository::save);
+                .flatMap(this::insertNewUser)
+                // 过滤器未覆盖其他节点刚写入的值时，由唯一约束兜底
+                .onErrorMap(DataIntegrityViolationException.class, e -> new RuntimeException("用户名或邮箱已存在"))
+                .doOnNext(savedUser -> {
+                    existenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
+                    typeahead.put(savedUser.getId(), savedUser.getUsername());
+                })
+                // 插入已提交，事件发布失败 (已记录日志) 不影响创建结果
+                .flatMap(savedUser -> userEventBus.publish(UserChangeEvent.created(savedUser))
+                        .onErrorResume(e -> Mono.empty())
+                        .thenReturn(savedUser));
+    }
+
+    /**
+     * 合并器开启时与并发的其他新用户合并为一条多行 INSERT
+     *
+     * 截止时间已过时不再写入；写入开始后不按截止时间取消，合并的 INSERT 由多个请求共享
+     */
+    private Mono<User> insertNewUser(User newUser) {
+        Mono<User> insert = Mono.defer(() ->
+                insertCoalescer.isEnabled() ? insertCoalescer.insert(newUser) : userRepository.save(newUser));
+        return Deadlines.require("保存用户", Duration.ZERO).then(UserPhases.trace("createUser", UserPhase.SAVE, insert));
+    }
+
+    /**
+     * 剩余时间不足以完成一次密码加密 (按最近的加密耗时估计) 时以 DeadlineExceededException 结束
+     */
+    private Mono<Void> requirePasswordHashTime() {
+        return Deadlines.require("密码加密", passwordHashCost.expected());
+    }
+
+    /**
+     * 一个数据库步骤：记录 JFR 阶段事件，并按请求的剩余时间超时
+     */
+    private static <T> Mono<T> step(String operation, UserPhase phase, Mono<T> source) {
+        return Deadlines.bound(UserPhases.trace(operation, phase, source));
+    }
+
+    private static <T> Flux<T> step(String operation, UserPhase phase, Flux<T> source) {
+        return Deadlines.bound(UserPhases.trace(operation, phase, source));
+    }
+
+    /**
+     * 用户名是否已存在，过滤器判断一定不存在时跳过查询
+     */
+    private Mono<Boolean> usernameExists(String operation, String username) {
+        if (existenceFilter.definitelyAbsentUsername(username)) {
+            return Mono.just(false);
+        }
+        return step(operation, UserPhase.EXISTS_CHECK, userRepository.existsByUsername(username))
+                .doOnNext(existenceFilter::recordQueryResult);
+    }
+
+    /**
+     * 邮箱是否已存在，过滤器判断一定不存在时跳过查询
+     */
+    private Mono<Boolean> emailExists(String operation, String email) {
+        if (existenceFilter.definitelyAbsentEmail(email)) {
+            return Mono.just(false);
+        }
+        return step(operation, UserPhase.EXISTS_CHECK, userRepository.existsByEmail(email))
+                .doOnNext(existenceFilter::recordQueryResult);
     }
 
     /**
@@ -66,7 +160,15 @@ public class UserService {
      */
     public Mono<User> getUserById(Long id) {
         log.info("根据ID获取用户: {}", id);
-        return userRepository.findById(id);
+        return step("getUserById", UserPhase.FIND, userRepository.findById(id));
+    }
+
+    /**
+     * 根据一批ID获取用户，不存在的ID被跳过，结果顺序不保证与输入一致
+     */
+    public Flux<User> getUsersByIds(Collection<Long> ids) {
+        log.debug("根据ID批量获取用户: {} 个", ids.size());
+        return step("getUsersByIds", UserPhase.FIND, userRepository.findAllById(ids));
     }
 
     /**
@@ -74,7 +176,7 @@ public class UserService {
      */
     public Flux<User> getAllUsers() {
         log.info("获取所有用户");
-        return userRepository.findAll();
+        return step("getAllUsers", UserPhase.FIND, userRepository.findAll());
     }
 
     /**
@@ -83,36 +185,62 @@ public class UserService {
     public Flux<User> getUsersWithPagination(int page, int size) {
         log.info("分页获取用户 - 页码: {}, 每页大小: {}", page, size);
         int offset = page * size;
-        return userRepository.findAllWithPagination(size, offset);
+        return step("getUsersWithPagination", UserPhase.FIND,
+                userRepository.findAllWithPagination(size, offset));
     }
 
     /**
-     * 根据用户名搜索用户
+     * 根据用户名搜索用户，流式返回：不经过搜索缓存 (缓存需要先读取完整结果)，订阅方的 request(n) 传递到数据库查询
      */
     public Flux<User> searchUsersByUsername(String keyword) {
+        log.info("根据用户名流式搜索用户: {}", keyword);
+        return Deadlines.bound(UserPhases.trace("searchUsersByUsername", UserPhase.FIND,
+                userRepository.findByUsernameContainingIgnoreCase(keyword)));
+    }
+
+    /**
+     * 根据用户名搜索用户，最多返回 limit 个（小于等于0表示不限制），结果经过短时缓存
+     */
+    public Flux<User> searchUsersByUsername(String keyword, int limit) {
         log.info("根据用户名搜索用户: {}", keyword);
-        return userRepository.findByUsernameContainingIgnoreCase(keyword);
+        return Deadlines.bound(searchCache.search(UserSearchCache.Field.USERNAME, keyword, limit,
+                pattern -> UserPhases.trace("searchUsersByUsername", UserPhase.FIND,
+                        userRepository.findByUsernameContainingIgnoreCase(pattern))));
     }
 
     /**
-     * 根据邮箱搜索用户
+     * 根据邮箱搜索用户，流式返回：不经过搜索缓存 (缓存需要先读取完整结果)，订阅方的 request(n) 传递到数据库查询
      */
     public Flux<User> searchUsersByEmail(String keyword) {
+        log.info("根据邮箱流式搜索用户: {}", keyword);
+        return Deadlines.bound(UserPhases.trace("searchUsersByEmail", UserPhase.FIND,
+                userRepository.findByEmailContainingIgnoreCase(keyword)));
+    }
+
+    /**
+     * 根据邮箱搜索用户，最多返回 limit 个（小于等于0表示不限制），结果经过短时缓存
+     */
+    public Flux<User> searchUsersByEmail(String keyword, int limit) {
         log.info("根据邮箱搜索用户: {}", keyword);
-        return userRepository.findByEmailContainingIgnoreCase(keyword);
+        return Deadlines.bound(searchCache.search(UserSearchCache.Field.EMAIL, keyword, limit,
+                pattern -> UserPhases.trace("searchUsersByEmail", UserPhase.FIND,
+                        userRepository.findByEmailContainingIgnoreCase(pattern))));
     }
 
     /**
      * 更新用户
+     *
+     * 写入与事件发布在同一个事务内，提交后才更新本地的过滤器和补全索引
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<User> updateUser(Long id, User user) {
         log.info("更新用户: {}", id);
 
-        return userRepository.findById(id)
+        Mono<User> update = step("updateUser", UserPhase.FIND, userRepository.findById(id))
                 .flatMap(existingUser -> {
                     // 检查用户名是否被其他用户使用
                     if (!existingUser.getUsername().equals(user.getUsername())) {
-                        return userRepository.existsByUsername(user.getUsername())
+                        return usernameExists("updateUser", user.getUsername())
                                 .flatMap(exists -> {
                                     if (exists) {
                                         return Mono.error(new RuntimeException("用户名已存在"));
@@ -123,56 +251,86 @@ public class UserService {
                         return updateUserFields(existingUser, user);
                     }
                 })
-                .switchIfEmpty(Mono.error(new RuntimeException("用户不存在")));
+                .switchIfEmpty(Mono.error(new RuntimeException("用户不存在")))
+                .flatMap(updatedUser -> userEventBus.publish(UserChangeEvent.updated(updatedUser))
+                        .thenReturn(updatedUser));
+        return transactionalOperator.transactional(update)
+                // 检查与写入之间其他请求改成了同样的用户名或邮箱时，由唯一约束兜底
+                .onErrorMap(DataIntegrityViolationException.class, UserService::duplicateValue)
+                .doOnNext(updatedUser -> {
+                    existenceFilter.add(updatedUser.getUsername(), updatedUser.getEmail());
+                    typeahead.put(updatedUser.getId(), updatedUser.getUsername());
+                });
+    }
+
+    /**
+     * 按违反的唯一约束 (约束名或列名) 给出用户名或邮箱已存在
+     */
+    private static RuntimeException duplicateValue(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("email")) {
+            return new RuntimeException("邮箱已存在");
+        }
+        if (message.contains("username")) {
+            return new RuntimeException("用户名已存在");
+        }
+        return new RuntimeException("用户名或邮箱已存在");
     }
 
     private Mono<User> updateUserFields(User existingUser, User user) {
         // 检查邮箱是否被其他用户使用
         if (!existingUser.getEmail().equals(user.getEmail())) {
-            return userRepository.existsByEmail(user.getEmail())
+            return emailExists("updateUser", user.getEmail())
                     .flatMap(exists -> {
                         if (exists) {
                             return Mono.error(new RuntimeException("邮箱已存在"));
                         }
-                        existingUser.setUsername(user.getUsername());
-                        existingUser.setEmail(user.getEmail());
-                        existingUser.setBio(user.getBio());
-
-                        // 加密新密码
-                        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-                            try {
-                                existingUser.setPasswordEncoded(user.getPassword(), passwordUtils);
-                            } catch (IllegalArgumentException e) {
-                                return Mono.error(new RuntimeException(e.getMessage()));
-                            }
-                        }
-                        existingUser.setUpdatedAt(LocalDateTime.now());
-                        return userRepository.save(existingUser);
+                        return saveUserFields(existingUser, user);
                     });
-        } else {
-            existingUser.setUsername(user.getUsername());
-            existingUser.setEmail(user.getEmail());
-            existingUser.setBio(user.getBio());
+        }
+        return saveUserFields(existingUser, user);
+    }
+
+    private Mono<User> saveUserFields(User existingUser, User user) {
+        existingUser.setUsername(user.getUsername());
+        existingUser.setEmail(user.getEmail());
+        existingUser.setBio(user.getBio());
 
+        boolean passwordChanged = user.getPassword() != null && !user.getPassword().isEmpty();
+        return (passwordChanged ? requirePasswordHashTime() : Mono.<Void>empty()).then(Mono.defer(() -> {
             // 加密新密码
-            if (user.getPassword() != null && !user.getPassword().isEmpty()) {
+            if (passwordChanged) {
                 try {
-                    existingUser.setPasswordEncoded(user.getPassword(), passwordUtils);
+                    UserPhases.trace("updateUser", UserPhase.HASH, () -> passwordHashCost.measure(
+                            () -> existingUser.setPasswordEncoded(user.getPassword(), passwordUtils)));
                 } catch (IllegalArgumentException e) {
                     return Mono.error(new RuntimeException(e.getMessage()));
                 }
             }
             existingUser.setUpdatedAt(LocalDateTime.now());
-            return userRepository.save(existingUser);
-        }
+            return step("updateUser", UserPhase.SAVE, userRepository.save(existingUser));
+        }));
     }
 
     /**
      * 删除用户
+     *
+     * 只有确实删除了一行时才发布事件，事件随删除一起提交
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<Void> deleteUser(Long id) {
         log.info("删除用户: {}", id);
-        return userRepository.deleteById(id);
+        Mono<Long> delete = step("deleteUser", UserPhase.DELETE, userRepository.deleteUserById(id))
+                .flatMap(deleted -> deleted > 0
+                        ? userEventBus.publish(UserChangeEvent.deleted(id)).thenReturn(deleted)
+                        : Mono.just(deleted));
+        return transactionalOperator.transactional(delete)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        typeahead.remove(id);
+                    }
+                })
+                .then();
     }
 
     /**
@@ -180,6 +338,6 @@ public class UserService {
      */
     public Mono<Long> countAllUsers() {
         log.info("统计用户总数");
-        return userRepository.countAll();
+        return step("countAllUsers", UserPhase.COUNT, userRepository.countAll());
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.example.webfluxdemo.typeahead;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * 按用户名排序的紧凑只读数组
+ *
+ * 所有用户名的 UTF-8 字节首尾相接存放在一个 byte[] 中，offsets[i] 到 offsets[i + 1] 为第 i 个用户名，
+ * ids[i] 为其用户 ID；每个用户约占 用户名长度 + 12 字节，没有逐个对象的开销。
+ * 排序与前缀匹配忽略 ASCII 大小写，用户名相同时按 ID 升序
+ */
+final class SortedUsernames {
+
+    static final SortedUsernames EMPTY = new SortedUsernames(new byte[0], new int[1], new long[0]);
+
+    private final byte[] chars;
+    private final int[] offsets;
+    private final long[] ids;
+
+    private SortedUsernames(byte[] chars, int[] offsets, long[] ids) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.ids = ids;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    String username(int index) {
+        return new String(chars, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 第一个不小于 prefix 的位置，之后连续的条目中以 prefix 开头的即为全部匹配
+     */
+    int lowerBound(byte[] prefix) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(chars, offsets[mid], offsets[mid + 1], prefix, 0, prefix.length) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean startsWith(int index, byte[] prefix) {
+        int from = offsets[index];
+        return offsets[index + 1] - from >= prefix.length
+                && compare(chars, from, from + prefix.length, prefix, 0, prefix.length) == 0;
+    }
+
+    /**
+     * 与增量中的条目比较先后
+     */
+    int compareTo(int index, byte[] name, long id) {
+        int result = compare(chars, offsets[index], offsets[index + 1], name, 0, name.length);
+        return result != 0 ? result : Long.compare(ids[index], id);
+    }
+
+    /**
+     * 紧凑数组占用的内存（不含数组对象头）
+     */
+    long memoryBytes() {
+        return chars.length + (long) offsets.length * Integer.BYTES + (long) ids.length * Long.BYTES;
+    }
+
+    static byte[] encode(String username) {
+        return username.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 忽略 ASCII 大小写的字节序比较，较短者为前缀时排在前面
+     */
+    static int compare(byte[] a, int aFrom, int aTo, byte[] b, int bFrom, int bTo) {
+        int length = Math.min(aTo - aFrom, bTo - bFrom);
+        for (int i = 0; i < length; i++) {
+            int x = fold(a[aFrom + i]);
+            int y = fold(b[bFrom + i]);
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return (aTo - aFrom) - (bTo - bFrom);
+    }
+
+    private static int fold(byte b) {
+        int c = b & 0xff;
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * 逐个追加用户名，build 时排序并压缩数组
+     */
+    static final class Builder {
+
+        private byte[] chars;
+        private int[] offsets;
+        private long[] ids;
+        private int size;
+        private int length;
+
+        Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.chars = new byte[capacity * 12];
+            this.offsets = new int[capacity + 1];
+            this.ids = new long[capacity];
+        }
+
+        Builder add(long id, byte[] name) {
+            return add(id, name, 0, name.length);
+        }
+
+        /**
+         * 复制另一个数组中的条目，不经过 String
+         */
+        Builder add(SortedUsernames source, int index) {
+            return add(source.ids[index], source.chars, source.offsets[index], source.offsets[index + 1]);
+        }
+
+        private Builder add(long id, byte[] name, int from, int to) {
+            int nameLength = to - from;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            if (length + nameLength > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + nameLength));
+            }
+            System.arraycopy(name, from, chars, length, nameLength);
+            length += nameLength;
+            ids[size] = id;
+            offsets[++size] = length;
+            return this;
+        }
+
+        /**
+         * 按追加顺序生成，调用方保证已经有序（合并增量时）
+         */
+        SortedUsernames buildOrdered() {
+            return new SortedUsernames(Arrays.copyOf(chars, length), Arrays.copyOf(offsets, size + 1),
+                    Arrays.copyOf(ids, size));
+        }
+
+        /**
+         * 排序后生成（从数据库读取时），只在构建时装箱一次下标
+         */
+        SortedUsernames build() {
+            Comparator<Integer> order = (x, y) -> {
+                int result = compare(chars, offsets[x], offsets[x + 1], chars, offsets[y], offsets[y + 1]);
+                return result != 0 ? result : Long.compare(ids[x], ids[y]);
+            };
+            int[] sorted = IntStream.range(0, size).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+            Builder result = new Builder(size);
+            for (int index : sorted) {
+                result.add(ids[index], chars, offsets[index], offsets[index + 1]);
+            }
+            return result.buildOrdered();
+        }
+    }
+}
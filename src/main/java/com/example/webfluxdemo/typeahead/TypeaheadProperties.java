@@ -0,0 +1,34 @@
+package com.example.webfluxdemo.typeahead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户名前缀补全配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.typeahead")
+public class TypeaheadProperties {
+
+    /**
+     * 关闭后不构建索引，补全接口返回 503
+     */
+    private boolean enabled = true;
+
+    private int maxLimit = 50;
+
+    /**
+     * 前缀最大长度，与用户名长度上限一致
+     */
+    private int maxPrefixLength = 50;
+
+    /**
+     * 自上次合并以来写入的用户数达到该值时，把增量合并进紧凑数组
+     */
+    private int compactThreshold = 4096;
+
+    /**
+     * 构建时服务端游标每次拉取的行数
+     */
+    private int fetchSize = 1000;
+}
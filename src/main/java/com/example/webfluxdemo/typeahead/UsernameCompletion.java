@@ -0,0 +1,7 @@
+package com.example.webfluxdemo.typeahead;
+
+/**
+ * 一条用户名补全结果
+ */
+public record UsernameCompletion(long id, String username) {
+}
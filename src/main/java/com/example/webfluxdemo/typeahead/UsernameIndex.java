@@ -0,0 +1,234 @@
+package com.example.webfluxdemo.typeahead;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 用户名前缀索引
+ *
+ * 主体是 {@link SortedUsernames} 紧凑数组；上次合并之后的写入放在有序的增量集合中，
+ * 并按用户 ID 记录最新值（删除记为墓碑），查询时跳过数组中被覆盖的旧条目，与增量归并输出。
+ * 增量达到阈值时 {@link #compact()} 在锁外线性归并生成新数组。查询无锁，写入只与复制增量、替换状态互斥
+ */
+public class UsernameIndex {
+
+    private static final Entry DELETED = new Entry(new byte[0], Long.MIN_VALUE);
+
+    private final Object writeLock = new Object();
+
+    private final Object compactLock = new Object();
+
+    private volatile State state = new State(SortedUsernames.EMPTY);
+
+    /**
+     * 新增或修改用户名
+     */
+    public void put(long id, String username) {
+        Entry entry = new Entry(SortedUsernames.encode(username), id);
+        synchronized (writeLock) {
+            State current = state;
+            Entry previous = current.overrides.put(id, entry);
+            // 先删后加：只改大小写时新旧条目按排序规则相等
+            if (previous != null && previous != DELETED) {
+                current.delta.remove(previous);
+            }
+            current.delta.add(entry);
+        }
+    }
+
+    public void remove(long id) {
+        synchronized (writeLock) {
+            State current = state;
+            Entry previous = current.overrides.put(id, DELETED);
+            if (previous != null && previous != DELETED) {
+                current.delta.remove(previous);
+            }
+        }
+    }
+
+    /**
+     * 按用户名排序返回以 prefix 开头（忽略 ASCII 大小写）的前 limit 个用户
+     */
+    public List<UsernameCompletion> complete(String prefix, int limit) {
+        State current = state;
+        byte[] key = SortedUsernames.encode(prefix);
+        SortedUsernames base = current.base;
+        Iterator<Entry> delta = current.delta.tailSet(new Entry(key, Long.MIN_VALUE), true).iterator();
+
+        List<UsernameCompletion> result = new ArrayList<>(Math.min(limit, 16));
+        int index = nextVisible(current, base.lowerBound(key), key);
+        Entry pending = nextMatching(delta, key);
+        while (result.size() < limit && (index >= 0 || pending != null)) {
+            if (pending == null || index >= 0 && base.compareTo(index, pending.name(), pending.id()) < 0) {
+                result.add(new UsernameCompletion(base.id(index), base.username(index)));
+                index = nextVisible(current, index + 1, key);
+            } else {
+                result.add(new UsernameCompletion(pending.id(), pending.username()));
+                pending = nextMatching(delta, key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用新数组替换全部内容，替换前的增量保留（构建期间的写入不会丢失）
+     */
+    void load(SortedUsernames base) {
+        synchronized (writeLock) {
+            State current = state;
+            state = new State(base, current.delta, current.overrides);
+        }
+    }
+
+    /**
+     * 把增量合并进新的紧凑数组
+     *
+     * 持锁只复制增量（与合并阈值同量级），O(n) 的归并在锁外进行，不阻塞事件循环上的写入；
+     * 替换时再次持锁，把归并期间新写入的用户带入新状态。归并期间调用过 {@link #load} 时放弃本次结果
+     */
+    public void compact() {
+        synchronized (compactLock) {
+            State snapshot;
+            List<Entry> delta;
+            Map<Long, Entry> overrides;
+            synchronized (writeLock) {
+                snapshot = state;
+                if (snapshot.overrides.isEmpty()) {
+                    return;
+                }
+                delta = new ArrayList<>(snapshot.delta);
+                overrides = new HashMap<>(snapshot.overrides);
+            }
+            SortedUsernames merged = merge(snapshot.base, delta, overrides);
+            synchronized (writeLock) {
+                State current = state;
+                if (current.base != snapshot.base) {
+                    return;
+                }
+                State next = new State(merged);
+                // 每次写入都生成新的 Entry，引用不同即为归并期间的写入
+                current.overrides.forEach((id, entry) -> {
+                    if (overrides.get(id) != entry) {
+                        next.overrides.put(id, entry);
+                        if (entry != DELETED) {
+                            next.delta.add(entry);
+                        }
+                    }
+                });
+                state = next;
+            }
+        }
+    }
+
+    /**
+     * 上次合并以来写入的用户数
+     */
+    public int pendingWrites() {
+        return state.overrides.size();
+    }
+
+    /**
+     * 条目数，未合并时包含已被覆盖的旧条目
+     */
+    public long size() {
+        State current = state;
+        return current.base.size() + current.delta.size();
+    }
+
+    public long memoryBytes() {
+        return state.base.memoryBytes();
+    }
+
+    private static SortedUsernames merge(SortedUsernames base, List<Entry> delta, Map<Long, Entry> overrides) {
+        SortedUsernames.Builder merged = new SortedUsernames.Builder(base.size() + delta.size());
+        Iterator<Entry> pending = delta.iterator();
+        Entry next = pending.hasNext() ? pending.next() : null;
+        for (int index = 0; index < base.size(); index++) {
+            if (overrides.containsKey(base.id(index))) {
+                continue;
+            }
+            while (next != null && base.compareTo(index, next.name(), next.id()) > 0) {
+                merged.add(next.id(), next.name());
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            merged.add(base, index);
+        }
+        while (next != null) {
+            merged.add(next.id(), next.name());
+            next = pending.hasNext() ? pending.next() : null;
+        }
+        return merged.buildOrdered();
+    }
+
+    /**
+     * 从 start 开始下一个以 prefix 开头且未被增量覆盖的位置，没有时返回 -1
+     */
+    private static int nextVisible(State state, int start, byte[] prefix) {
+        SortedUsernames base = state.base;
+        boolean filter = !state.overrides.isEmpty();
+        for (int index = start; index < base.size() && base.startsWith(index, prefix); index++) {
+            if (!filter || !state.overrides.containsKey(base.id(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry nextMatching(Iterator<Entry> delta, byte[] prefix) {
+        if (!delta.hasNext()) {
+            return null;
+        }
+        Entry entry = delta.next();
+        return entry.name().length >= prefix.length
+                && SortedUsernames.compare(entry.name(), 0, prefix.length, prefix, 0, prefix.length) == 0
+                ? entry : null;
+    }
+
+    private static final class State {
+
+        final SortedUsernames base;
+        final NavigableSet<Entry> delta;
+        final Map<Long, Entry> overrides;
+
+        State(SortedUsernames base) {
+            this(base, new ConcurrentSkipListSet<>(Entry.ORDER), new ConcurrentHashMap<>());
+        }
+
+        State(SortedUsernames base, NavigableSet<Entry> delta, Map<Long, Entry> overrides) {
+            this.base = base;
+            this.delta = delta;
+            this.overrides = overrides;
+        }
+    }
+
+    record Entry(byte[] name, long id) {
+
+        static final Comparator<Entry> ORDER = (x, y) -> {
+            int result = SortedUsernames.compare(x.name, 0, x.name.length, y.name, 0, y.name.length);
+            return result != 0 ? result : Long.compare(x.id, y.id);
+        };
+
+        String username() {
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry entry && id == entry.id && Arrays.equals(name, entry.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(id) + Arrays.hashCode(name);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.webfluxdemo.typeahead;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * 用户名前缀补全
+ *
+ * 应用就绪后先订阅变更事件再流式读取 users 表构建 {@link UsernameIndex}，构建完成前补全返回 503。
+ * 本节点的写入由 UserService 直接更新，其他节点的写入与批量删除通过事件总线到达（重复应用无副作用）；
+ * 增量达到 compactThreshold 时在后台合并
+ */
+@Slf4j
+@Component
+public class UsernameTypeahead {
+
+    private static final String USERNAMES_SQL = "SELECT id, username FROM users";
+    private static final Pattern PREFIX_PATTERN = Pattern.compile("^[A-Za-z0-9_]+$");
+
+    private final DatabaseClient databaseClient;
+    private final UserEventBus userEventBus;
+    private final TypeaheadProperties properties;
+    private final UsernameIndex index = new UsernameIndex();
+    private final Timer lookups;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile boolean ready;
+
+    public UsernameTypeahead(DatabaseClient databaseClient,
+                             UserEventBus userEventBus,
+                             TypeaheadProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.userEventBus = userEventBus;
+        this.properties = properties;
+        this.lookups = Timer.builder("user.typeahead.lookup")
+                .description("前缀补全耗时")
+                .register(meterRegistry);
+        Gauge.builder("user.typeahead.size", index, UsernameIndex::size)
+                .description("索引条目数，未合并时包含已被覆盖的旧条目")
+                .register(meterRegistry);
+        Gauge.builder("user.typeahead.memory", index, UsernameIndex::memoryBytes)
+                .description("紧凑数组占用的内存")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.typeahead.pending", index, UsernameIndex::pendingWrites)
+                .description("尚未合并进紧凑数组的写入数")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("用户名前缀补全已关闭");
+            return;
+        }
+        start(databaseClient.sql(USERNAMES_SQL)
+                .filter(statement -> statement.fetchSize(properties.getFetchSize()))
+                .map(row -> new IdAndUsername(row.get("id", Long.class), row.get("username", String.class)))
+                .all());
+    }
+
+    /**
+     * 先订阅变更事件再读取全表，构建期间的写入不会丢失
+     */
+    void start(Flux<IdAndUsername> rows) {
+        subscriptions.add(userEventBus.subscribe().subscribe(this::apply));
+        subscriptions.add(build(rows)
+                .subscribe(null, e -> log.error("用户名前缀索引构建失败: {}", e.getMessage())));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+        ready = false;
+    }
+
+    Mono<Void> build(Flux<IdAndUsername> rows) {
+        return Mono.defer(() -> {
+            long start = System.currentTimeMillis();
+            SortedUsernames.Builder builder = new SortedUsernames.Builder(1024);
+            return rows
+                    .filter(row -> row.id() != null && row.username() != null)
+                    .doOnNext(row -> builder.add(row.id(), SortedUsernames.encode(row.username())))
+                    .then(Mono.fromRunnable(() -> {
+                        SortedUsernames base = builder.build();
+                        index.load(base);
+                        ready = true;
+                        log.info("用户名前缀索引构建完成: {} 个用户, {} KB, 耗时 {} ms",
+                                base.size(), base.memoryBytes() / 1024, System.currentTimeMillis() - start);
+                    }));
+        });
+    }
+
+    /**
+     * 按用户名排序返回以 prefix 开头（忽略大小写）的前 limit 个用户
+     */
+    public Mono<List<UsernameCompletion>> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Mono.error(new IllegalArgumentException("前缀不能为空"));
+        }
+        String trimmed = prefix.trim();
+        if (trimmed.length() > properties.getMaxPrefixLength() || !PREFIX_PATTERN.matcher(trimmed).matches()) {
+            return Mono.error(new IllegalArgumentException("前缀只能包含字母、数字和下划线，且不超过"
+                    + properties.getMaxPrefixLength() + "个字符"));
+        }
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            return Mono.error(new IllegalArgumentException("返回条数必须在1-" + properties.getMaxLimit() + "之间"));
+        }
+        if (!ready) {
+            return Mono.error(new IllegalStateException("用户名前缀索引构建中，请稍后重试"));
+        }
+        long start = System.nanoTime();
+        List<UsernameCompletion> completions = index.complete(trimmed, limit);
+        lookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Mono.just(completions);
+    }
+
+    /**
+     * 记录新增或修改后的用户名
+     */
+    public void put(Long id, String username) {
+        if (id == null || username == null || !properties.isEnabled()) {
+            return;
+        }
+        index.put(id, username);
+        compactIfNeeded();
+    }
+
+    public void remove(Long id) {
+        if (id == null || !properties.isEnabled()) {
+            return;
+        }
+        index.remove(id);
+        compactIfNeeded();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(UserChangeEvent event) {
+        if (event.getType() == UserChangeEvent.Type.DELETED) {
+            remove(event.getUserId());
+        } else {
+            put(event.getUserId(), event.getUsername());
+        }
+    }
+
+    /**
+     * 合并在后台线程执行，期间的写入与查询都不等待归并
+     */
+    private void compactIfNeeded() {
+        if (!ready || index.pendingWrites() < properties.getCompactThreshold() || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                long start = System.nanoTime();
+                index.compact();
+                log.debug("用户名前缀索引合并完成, 耗时 {} ms", (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    record IdAndUsername(Long id, String username) {
+    }
+}
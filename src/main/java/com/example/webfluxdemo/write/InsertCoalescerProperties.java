@@ -0,0 +1,37 @@
+package com.example.webfluxdemo.write;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 新用户插入合并（group commit）配置
+ */
+@Data
+@ConfigurationProperties(prefix = "app.insert-coalescer")
+public class InsertCoalescerProperties {
+
+    /**
+     * 关闭后每个新用户单独调用 UserRepository.save
+     *
+     * 默认关闭：合并写入自行拼接 INSERT，不经过 Spring Data 的实体回调和 UserRowWriter，
+     * User 新增字段或回调时需要同步修改 UserInsertCoalescer，确有注册高峰时再开启
+     */
+    private boolean enabled = false;
+
+    /**
+     * 单条多行 INSERT 最多包含的行数
+     */
+    private int maxBatchSize = 64;
+
+    /**
+     * 第一行到达后最多等待多久凑批
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * 同时执行的批次数，即合并写入最多占用的连接数
+     */
+    private int maxConcurrentBatches = 4;
+}
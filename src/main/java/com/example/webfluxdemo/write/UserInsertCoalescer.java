@@ -0,0 +1,236 @@
+package com.example.webfluxdemo.write;
+
+import com.example.webfluxdemo.id.SnowflakeIdGenerator;
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.r2dbc.QueryMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.connection.ConnectionFactoryUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 新用户插入合并器（group commit）
+ *
+ * 并发到达的新用户在 maxDelay 窗口内（或凑满 maxBatchSize 行）合并为一条多行 INSERT，
+ * 在一个连接上执行后把生成的 ID 分发回各调用方。批次因唯一约束失败时逐行重试，
+ * 只有冲突的那一行收到错误。合并写入使用独立的自动提交语句，不参与调用方的事务
+ */
+@Slf4j
+@Component
+public class UserInsertCoalescer {
+
+    private static final String COLUMNS = "username, email, password, is_active, bio, created_at, updated_at";
+    private static final int COLUMN_COUNT = 7;
+
+    private final Function<List<User>, Mono<List<User>>> writer;
+    private final Disposable subscription;
+
+    /**
+     * Flux.create 的 FluxSink 可被多个线程同时调用，内部以 MPSC 队列串行化，入队不会失败也不需要自旋
+     */
+    private FluxSink<PendingInsert> queue;
+    private volatile boolean stopped;
+
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    @Autowired
+    public UserInsertCoalescer(DatabaseClient databaseClient,
+                               ObjectProvider<SnowflakeIdGenerator> idGenerator,
+                               InsertCoalescerProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(databaseWriter(databaseClient, idGenerator.getIfAvailable()), properties, meterRegistry);
+    }
+
+    UserInsertCoalescer(Function<List<User>, Mono<List<User>>> writer,
+                        InsertCoalescerProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.batchSizes = DistributionSummary.builder("user.insert.batch.size")
+                .description("每条合并 INSERT 包含的行数")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("user.insert.batch.fallbacks")
+                .description("因唯一约束冲突改为逐行插入的批次数")
+                .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            log.info("新用户插入合并已关闭");
+            this.subscription = null;
+            return;
+        }
+        // fairBackpressure: 下游批次全部占满时暂停凑批，而不是丢弃或报错
+        this.subscription = Flux.<PendingInsert>create(sink -> queue = sink)
+                .bufferTimeout(properties.getMaxBatchSize(), properties.getMaxDelay(), true)
+                .flatMap(this::flush, properties.getMaxConcurrentBatches())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 先结束队列，已缓冲的行仍会写出
+        stopped = true;
+        if (queue != null) {
+            queue.complete();
+        }
+    }
+
+    public boolean isEnabled() {
+        return !stopped && subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * 插入新用户，完成后返回带有 ID 的同一对象
+     */
+    public Mono<User> insert(User user) {
+        return Mono.create(sink -> {
+            if (stopped || queue == null) {
+                sink.error(new IllegalStateException("插入队列已关闭"));
+                return;
+            }
+            PendingInsert pending = new PendingInsert(user, sink, new AtomicBoolean());
+            sink.onCancel(() -> pending.cancelled().set(true));
+            queue.next(pending);
+        });
+    }
+
+    private Mono<Void> flush(List<PendingInsert> pendings) {
+        // 调用方在凑批期间取消 (超时、断开连接) 的行不再写入
+        List<PendingInsert> batch = pendings.stream().filter(pending -> !pending.cancelled().get()).toList();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        batchSizes.record(batch.size());
+        List<User> users = batch.stream().map(PendingInsert::user).toList();
+        return writer.apply(users)
+                .doOnNext(saved -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).sink().success(saved.get(i));
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    if (batch.size() > 1 && e instanceof DataIntegrityViolationException) {
+                        // 无法区分是哪一行冲突，逐行重试以隔离错误
+                        fallbacks.increment();
+                        log.debug("合并插入 {} 行时发生唯一约束冲突，改为逐行插入", batch.size());
+                        return Flux.fromIterable(batch)
+                                .concatMap(this::flushSingle)
+                                .then();
+                    }
+                    batch.forEach(pending -> pending.sink().error(e));
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> flushSingle(PendingInsert pending) {
+        return writer.apply(List.of(pending.user()))
+                .doOnNext(saved -> pending.sink().success(saved.get(0)))
+                .doOnError(e -> pending.sink().error(e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * 多行 INSERT 写入，数据库生成 ID 时按用户名把返回的 ID 对应回各行
+     */
+    static Function<List<User>, Mono<List<User>>> databaseWriter(DatabaseClient databaseClient,
+                                                                  SnowflakeIdGenerator idGenerator) {
+        return users -> {
+            boolean withId = idGenerator != null;
+            if (withId) {
+                users.stream().filter(user -> user.getId() == null).forEach(user -> user.setId(idGenerator.nextId()));
+            }
+            String sql = insertSql(users.size(), withId);
+            Flux<Map.Entry<String, Long>> generatedIds = databaseClient.inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(sql);
+                int index = 0;
+                for (User user : users) {
+                    index = bind(statement, index, user, withId);
+                }
+                if (withId) {
+                    return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated()).thenMany(Flux.empty());
+                }
+                return Flux.from(statement.returnGeneratedValues("id", "username").execute())
+                        .flatMap(result -> result.map((row, metadata) ->
+                                Map.entry(row.get("username", String.class), row.get("id", Long.class))));
+            });
+            return generatedIds
+                    .contextWrite(QueryMethod.of("UserInsertCoalescer.insertUsers"))
+                    .onErrorMap(R2dbcException.class,
+                            e -> ConnectionFactoryUtils.convertR2dbcException("insertUsers", sql, e))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .map(ids -> {
+                        if (!withId) {
+                            for (User user : users) {
+                                Long id = ids.get(user.getUsername());
+                                if (id == null) {
+                                    throw new IllegalStateException("未返回用户 " + user.getUsername() + " 的 ID");
+                                }
+                                user.setId(id);
+                            }
+                        }
+                        return users;
+                    });
+        };
+    }
+
+    private static int bind(Statement statement, int index, User user, boolean withId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (withId) {
+            statement.bind(index++, user.getId());
+        }
+        statement.bind(index++, user.getUsername());
+        statement.bind(index++, user.getEmail());
+        statement.bind(index++, user.getPassword());
+        statement.bind(index++, user.getIsActive() != null ? user.getIsActive() : Boolean.TRUE);
+        if (user.getBio() != null) {
+            statement.bind(index++, user.getBio());
+        } else {
+            statement.bindNull(index++, String.class);
+        }
+        statement.bind(index++, user.getCreatedAt() != null ? user.getCreatedAt() : now);
+        statement.bind(index++, user.getUpdatedAt() != null ? user.getUpdatedAt() : now);
+        return index;
+    }
+
+    static String insertSql(int rows, boolean withId) {
+        int columns = withId ? COLUMN_COUNT + 1 : COLUMN_COUNT;
+        StringBuilder sql = new StringBuilder(64 + rows * columns * 5)
+                .append("INSERT INTO users (")
+                .append(withId ? "id, " : "")
+                .append(COLUMNS)
+                .append(") VALUES ");
+        int parameter = 1;
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < columns; column++) {
+                sql.append(column == 0 ? "$" : ", $").append(parameter++);
+            }
+            sql.append(')');
+        }
+        return sql.toString();
+    }
+
+    private record PendingInsert(User user, MonoSink<User> sink, AtomicBoolean cancelled) {
+    }
+}
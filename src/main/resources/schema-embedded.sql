@@ -0,0 +1,29 @@
+-- 内嵌 H2 (embedded profile) 初始化脚本，表结构与 schema.sql 保持一致
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    email       VARCHAR(100) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    is_active   BOOLEAN      NOT NULL DEFAULT TRUE,
+    bio         VARCHAR(500),
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at DESC);
+
+-- H2 不支持部分索引，以 (is_active, 列) 复合索引代替 schema.sql 中的部分索引
+CREATE INDEX IF NOT EXISTS idx_users_active_created_at ON users (is_active, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_users_active_updated_at ON users (is_active, updated_at DESC);
+
+-- POST /api/users 的 Idempotency-Key (app.idempotency.store=database)，过期记录由应用定期删除
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INTEGER      NOT NULL,
+    body            VARCHAR      NOT NULL,
+    expires_at      TIMESTAMP    NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
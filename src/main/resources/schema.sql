@@ -0,0 +1,44 @@
+-- PostgreSQL 数据库初始化脚本
+-- psql -d webflux_demo -f src/main/resources/schema.sql
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGSERIAL PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    email       VARCHAR(100) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    is_active   BOOLEAN      NOT NULL DEFAULT TRUE,
+    bio         VARCHAR(500),
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at DESC);
+
+-- 条件查询 (/api/users/query) 使用的部分索引，与 UserIndexCatalog 保持一致
+CREATE INDEX IF NOT EXISTS idx_users_active_created_at ON users (created_at DESC) WHERE is_active;
+CREATE INDEX IF NOT EXISTS idx_users_active_updated_at ON users (updated_at DESC) WHERE is_active;
+-- 停用用户按停用时间 (updated_at) 查看
+CREATE INDEX IF NOT EXISTS idx_users_inactive_updated_at ON users (updated_at DESC) WHERE NOT is_active;
+
+-- 个人简介全文检索 (/api/users/search/bio)：生成列随 bio 自动更新，GIN 索引定位命中行
+ALTER TABLE users ADD COLUMN IF NOT EXISTS bio_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(bio, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_users_bio_tsv ON users USING GIN (bio_tsv);
+
+-- POST /api/users 的 Idempotency-Key (app.idempotency.store=database)，过期记录由应用定期删除
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INTEGER      NOT NULL,
+    body            TEXT         NOT NULL,
+    expires_at      TIMESTAMP    NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- 测试数据 (密码均为 Password123!)
+INSERT INTO users (username, email, password, bio) VALUES
+    ('john_doe', 'john@example.com', '$2a$10$VAr1hIs3NN.GkdlhL0ahm.M8nP76c2b9Md47LPLYguNK546mwnQCm', 'Hello, I am John'),
+    ('jane_smith', 'jane@example.com', '$2a$10$VAr1hIs3NN.GkdlhL0ahm.M8nP76c2b9Md47LPLYguNK546mwnQCm', 'Hello, I am Jane'),
+    ('bob_wilson', 'bob@example.com', '$2a$10$VAr1hIs3NN.GkdlhL0ahm.M8nP76c2b9Md47LPLYguNK546mwnQCm', 'Hello, I am Bob')
+ON CONFLICT DO NOTHING;
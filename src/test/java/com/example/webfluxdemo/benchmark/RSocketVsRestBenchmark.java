@@ -0,0 +1,150 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.WebfluxDemoApplication;
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.support.LatencyStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.rsocket.context.RSocketServerInitializedEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * 内部调用路径对比：REST (HTTP/1.1 + JSON 外层结构) 与 RSocket (单个 TCP 连接 + CBOR)
+ *
+ * - 单个查询：GET /api/users/{id} 对比 request-response users.get.{id}，concurrency 个并发请求
+ * - 批量解析：同样数量（不超过用户总数）的不重复 ID 通过一个 users.resolve channel 发送
+ * - 列表：GET /api/users 对比 request-stream users.list，每次读取全部用户
+ * 用法: mvn -Pbenchmark,embedded test-compile exec:exec -Dbenchmark.heap=1g \
+ *         -Dbenchmark.main=com.example.webfluxdemo.benchmark.RSocketVsRestBenchmark \
+ *         -Dbenchmark.args="20000 64"
+ */
+public class RSocketVsRestBenchmark {
+
+    private static final int SEED_USERS = 10_000;
+    private static final int LIST_ROUNDS = 10;
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        AtomicInteger rsocketPort = new AtomicInteger();
+        List<LatencyStats> results = new ArrayList<>();
+        try (ReactiveWebServerApplicationContext context = (ReactiveWebServerApplicationContext)
+                new SpringApplicationBuilder(WebfluxDemoApplication.class)
+                        .profiles("embedded")
+                        .listeners((ApplicationListener<RSocketServerInitializedEvent>) event ->
+                                rsocketPort.set(event.getServer().address().getPort()))
+                        // 命令行参数优先于 application-embedded.yml
+                        .run("--server.port=0",
+                                "--spring.rsocket.server.port=0",
+                                "--app.seed.users=" + SEED_USERS,
+                                "--logging.level.root=warn")) {
+
+            WebClient webClient = WebClient.builder()
+                    .baseUrl("http://localhost:" + context.getWebServer().getPort())
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(64 * 1024 * 1024))
+                    .build();
+            RSocketRequester requester = context.getBean(RSocketRequester.Builder.class)
+                    .dataMimeType(MediaType.APPLICATION_CBOR)
+                    .tcp("localhost", rsocketPort.get());
+
+            LongFunction<Mono<?>> rest = id -> webClient.get().uri("/api/users/{id}", id)
+                    .retrieve().bodyToMono(JsonNode.class);
+            LongFunction<Mono<?>> rsocket = id -> requester.route("users.get.{id}", id)
+                    .retrieveMono(User.class);
+
+            // 预热
+            lookups("warmup", requests / 4, concurrency, rest);
+            lookups("warmup", requests / 4, concurrency, rsocket);
+            resolve("warmup", requests / 4, requester);
+
+            results.add(lookups("REST GET /{id}", requests, concurrency, rest));
+            results.add(lookups("RSocket users.get", requests, concurrency, rsocket));
+            results.add(resolve("RSocket users.resolve", requests, requester));
+            results.add(list("REST GET /api/users", () -> webClient.get().uri("/api/users")
+                    .retrieve().bodyToMono(JsonNode.class).map(body -> body.get("data").size())));
+            results.add(list("RSocket users.list", () -> requester.route("users.list")
+                    .retrieveFlux(User.class).count().map(Long::intValue)));
+            requester.dispose();
+        }
+
+        System.out.printf("%n内部调用路径对比 (requests=%d, concurrency=%d, seed users=%d, cpus=%d)%n",
+                requests, concurrency, SEED_USERS, Runtime.getRuntime().availableProcessors());
+        System.out.println("单个查询与批量解析每行为一次查询；列表每行为一次读取全部用户");
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    private static LatencyStats lookups(String name, int requests, int concurrency, LongFunction<Mono<?>> call) {
+        LatencyStats stats = new LatencyStats(name, requests);
+        stats.start();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return call.apply(randomId())
+                            .doOnSuccess(ignored -> stats.record(System.nanoTime() - start))
+                            .doOnError(e -> stats.recordError())
+                            .onErrorResume(e -> Mono.empty());
+                }, concurrency)
+                .blockLast(TIMEOUT);
+        stats.stop();
+        return stats;
+    }
+
+    /**
+     * 一个 channel 内发送互不重复的 ID（最多 SEED_USERS 个），每个结果的延迟按其 ID 发出到收到的时间计
+     */
+    private static LatencyStats resolve(String name, int requests, RSocketRequester requester) {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, SEED_USERS).boxed().toList());
+        Collections.shuffle(ids);
+        List<Long> batch = ids.subList(0, Math.min(requests, ids.size()));
+        LatencyStats stats = new LatencyStats(name, batch.size());
+        long[] sentAt = new long[SEED_USERS + 1];
+        stats.start();
+        requester.route("users.resolve")
+                .data(Flux.fromIterable(batch).doOnNext(id -> sentAt[id.intValue()] = System.nanoTime()))
+                .retrieveFlux(User.class)
+                .doOnNext(user -> stats.record(System.nanoTime() - sentAt[user.getId().intValue()]))
+                .blockLast(TIMEOUT);
+        stats.stop();
+        return stats;
+    }
+
+    private static LatencyStats list(String name, Supplier<Mono<Integer>> call) {
+        call.get().block(TIMEOUT);
+        LatencyStats stats = new LatencyStats(name, LIST_ROUNDS);
+        stats.start();
+        for (int i = 0; i < LIST_ROUNDS; i++) {
+            long start = System.nanoTime();
+            Integer count = call.get().block(TIMEOUT);
+            if (count != null && count >= SEED_USERS) {
+                stats.record(System.nanoTime() - start);
+            } else {
+                stats.recordError();
+            }
+        }
+        stats.stop();
+        return stats;
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, SEED_USERS + 1L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 响应编码基准：JSON / CBOR / Smile 与 无压缩 / gzip / brotli 的组合
+ *
+ * 以 getAllUsers 相同的响应结构为负载，输出每个组合的线上字节数与单次请求 CPU 时间。
+ * 压缩使用与 Reactor Netty 相同的 Netty 编码器；brotli 需要 -Pbrotli 引入 brotli4j。
+ * 用法: mvn -Pbenchmark,brotli test-compile exec:exec \
+ *         -Dbenchmark.main=com.example.webfluxdemo.benchmark.ResponseEncodingBenchmark \
+ *         -Dbenchmark.args="1000 200"
+ */
+public class ResponseEncodingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Map<String, Object> response = buildResponse(users);
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapperBuilder().build());
+        mappers.put("cbor", mapperBuilder().factory(new CBORFactory()).build());
+        mappers.put("smile", mapperBuilder().factory(new SmileFactory()).build());
+
+        Map<String, Supplier<ChannelHandler>> compressors = new LinkedHashMap<>();
+        compressors.put("identity", null);
+        compressors.put("gzip", () -> ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP));
+        if (Brotli.isAvailable()) {
+            compressors.put("br", BrotliEncoder::new);
+        }
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        System.out.printf("users per response: %d, iterations: %d, brotli available: %s%n",
+                users, iterations, Brotli.isAvailable());
+        System.out.printf("%-8s %-10s %14s %18s%n", "format", "encoding", "bytes", "cpu us/request");
+
+        for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+            for (Map.Entry<String, Supplier<ChannelHandler>> compressor : compressors.entrySet()) {
+                // 预热
+                long bytes = 0;
+                for (int i = 0; i < iterations; i++) {
+                    bytes = encode(response, mapper.getValue(), compressor.getValue());
+                }
+                long cpuStart = threadBean.getCurrentThreadCpuTime();
+                for (int i = 0; i < iterations; i++) {
+                    bytes = encode(response, mapper.getValue(), compressor.getValue());
+                }
+                double cpuMicros = (threadBean.getCurrentThreadCpuTime() - cpuStart) / 1000.0 / iterations;
+                System.out.printf("%-8s %-10s %14d %18.1f%n", mapper.getKey(), compressor.getKey(), bytes, cpuMicros);
+            }
+        }
+    }
+
+    private static long encode(Map<String, Object> response, ObjectMapper mapper,
+                               Supplier<ChannelHandler> compressor) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(response);
+        if (compressor == null) {
+            return body.length;
+        }
+        EmbeddedChannel channel = new EmbeddedChannel(compressor.get());
+        channel.writeOutbound(Unpooled.wrappedBuffer(body));
+        channel.finish();
+        long bytes = 0;
+        ByteBuf chunk;
+        while ((chunk = channel.readOutbound()) != null) {
+            bytes += chunk.readableBytes();
+            chunk.release();
+        }
+        return bytes;
+    }
+
+    private static Jackson2ObjectMapperBuilder mapperBuilder() {
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Map<String, Object> buildResponse(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new User(id, "user_" + id, "user_" + id + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3pF2l3bA2nWpWPpmZnGHEhe", true,
+                    "这是用户 " + id + " 的个人简介", now, now));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "获取用户列表成功");
+        response.put("data", users);
+        return response;
+    }
+}
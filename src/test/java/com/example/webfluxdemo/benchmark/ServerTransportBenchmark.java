@@ -0,0 +1,123 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.WebfluxDemoApplication;
+import com.example.webfluxdemo.support.LatencyStats;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 服务器传输层对比：NIO / 原生传输 (epoll 或 io_uring) × HTTP/1.1 / h2c，负载为 GET /api/users/{id}
+ *
+ * 每个组合启动一次应用（embedded profile，内嵌 H2），由同一进程内的 Reactor Netty HttpClient 施加负载：
+ * HTTP/1.1 使用 concurrency 个连接，h2c 以 prior knowledge 在单个连接上多路复用 concurrency 个并发流。
+ * 负载生成器与服务器共享 CPU，适合比较相对差异。
+ * 用法: mvn -Pbenchmark,embedded test-compile exec:exec -Dbenchmark.heap=1g \
+ *         -Dbenchmark.main=com.example.webfluxdemo.benchmark.ServerTransportBenchmark \
+ *         -Dbenchmark.args="20000 64"
+ * 加上 -Pio_uring 后原生传输为 io_uring（内核需支持）
+ */
+public class ServerTransportBenchmark {
+
+    private static final int SEED_USERS = 10_000;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        List<Scenario> scenarios = List.of(
+                new Scenario("nio http/1.1", "nio", false),
+                new Scenario("native http/1.1", "auto", false),
+                new Scenario("nio h2c", "nio", true),
+                new Scenario("native h2c", "auto", true));
+
+        // 负载生成器固定使用独立的 NIO 线程，只让服务器端的传输层变化；
+        // 全局 HttpResources 会在每个应用上下文关闭时被释放，不能给客户端用
+        LoopResources clientLoops = LoopResources.create("load", 2, true);
+        List<String> rows = new ArrayList<>();
+        try {
+            for (Scenario scenario : scenarios) {
+                try (ReactiveWebServerApplicationContext context = start(scenario)) {
+                    int port = context.getWebServer().getPort();
+                    HttpClient client = client(clientLoops, scenario.h2c(), concurrency, port);
+                    run(client, "warmup", requests / 4, concurrency);
+                    rows.add(run(client, scenario.name(), requests, concurrency).toString());
+                } catch (IllegalStateException e) {
+                    // blockLast 超时：该组合在当前环境下无法完成（如内核不完整支持 io_uring）
+                    rows.add(String.format("%-24s 未在 %d 秒内完成", scenario.name(), TIMEOUT.toSeconds()));
+                }
+            }
+        } finally {
+            clientLoops.disposeLater().block();
+        }
+
+        System.out.printf("%nGET /api/users/{id} (requests=%d, concurrency=%d, cpus=%d)%n",
+                requests, concurrency, Runtime.getRuntime().availableProcessors());
+        System.out.println(LatencyStats.header());
+        rows.forEach(System.out::println);
+    }
+
+    private static ReactiveWebServerApplicationContext start(Scenario scenario) {
+        return (ReactiveWebServerApplicationContext) new SpringApplicationBuilder(WebfluxDemoApplication.class)
+                .profiles("embedded")
+                // 命令行参数优先于 application-embedded.yml
+                .run("--server.port=0",
+                        "--server.http2.enabled=" + scenario.h2c(),
+                        "--app.server.transport=" + scenario.transport(),
+                        // 同一进程内的各次启动共用内存库，首次启动后生成器跳过
+                        "--app.seed.users=" + SEED_USERS,
+                        "--logging.level.root=warn",
+                        "--logging.level.com.example.webfluxdemo.server=info");
+    }
+
+    private static HttpClient client(LoopResources loops, boolean h2c, int concurrency, int port) {
+        ConnectionProvider provider = ConnectionProvider.builder("transport-benchmark")
+                .maxConnections(h2c ? 1 : concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        return HttpClient.create(provider)
+                .runOn(loops, false)
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .baseUrl("http://localhost:" + port);
+    }
+
+    private static LatencyStats run(HttpClient client, String name, int requests, int concurrency) {
+        LatencyStats stats = new LatencyStats(name, requests);
+        stats.start();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get()
+                            .uri("/api/users/" + ThreadLocalRandom.current().nextLong(1, SEED_USERS + 1L))
+                            .responseSingle((response, body) -> body.asByteArray()
+                                    .map(bytes -> response.status()))
+                            .doOnNext(status -> {
+                                if (status.equals(HttpResponseStatus.OK)) {
+                                    stats.record(System.nanoTime() - start);
+                                } else {
+                                    stats.recordError();
+                                }
+                            })
+                            .doOnError(e -> stats.recordError())
+                            .onErrorResume(e -> Mono.empty());
+                }, concurrency)
+                .blockLast(TIMEOUT);
+        stats.stop();
+        return stats;
+    }
+
+    private record Scenario(String name, String transport, boolean h2c) {
+    }
+}
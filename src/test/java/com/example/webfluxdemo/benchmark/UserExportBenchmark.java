@@ -0,0 +1,72 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.export.UserExportFormat;
+import com.example.webfluxdemo.export.UserExportProperties;
+import com.example.webfluxdemo.export.UserExportService;
+import com.example.webfluxdemo.model.User;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导出吞吐与内存基准
+ *
+ * 以合成数据代替数据库游标，测量编码 + gzip 的行/秒以及导出期间的堆内存峰值。
+ * 用法: mvn -Pbenchmark test-compile exec:exec \
+ *         -Dbenchmark.main=com.example.webfluxdemo.benchmark.UserExportBenchmark \
+ *         -Dbenchmark.args="10000000 csv true"
+ */
+public class UserExportBenchmark {
+
+    public static void main(String[] args) {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        UserExportFormat format = args.length > 1 ? UserExportFormat.fromValue(args[1]) : UserExportFormat.CSV;
+        boolean compress = args.length <= 2 || Boolean.parseBoolean(args[2]);
+
+        UserExportService exportService = new UserExportService(null, new UserExportProperties());
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+        Flux<User> users = Flux.<User, Long>generate(() -> 1L, (id, sink) -> {
+            if (id > rows) {
+                sink.complete();
+            } else {
+                sink.next(new User(id, "user_" + id, "user_" + id + "@example.com", null, id % 10 != 0,
+                        "bio of user " + id, timestamp, timestamp));
+            }
+            return id + 1;
+        });
+
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+
+        exportService.encode(users, format, compress, bufferFactory)
+                .doOnNext(buffer -> {
+                    bytes.addAndGet(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+
+        System.out.printf("format=%s gzip=%s rows=%d%n", format, compress, rows);
+        System.out.printf("elapsed: %.2f s, throughput: %.0f rows/s%n", seconds, rows / seconds);
+        System.out.printf("output: %.1f MB, peak heap (sum of pool peaks): %.1f MB, max heap: %.1f MB%n",
+                bytes.get() / 1024.0 / 1024.0,
+                peakHeap / 1024.0 / 1024.0,
+                Runtime.getRuntime().maxMemory() / 1024.0 / 1024.0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.config.DataBufferJsonEncoder;
+import com.example.webfluxdemo.json.FastLocalDateTimeSerializer;
+import com.example.webfluxdemo.json.UserJsonSerializer;
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户列表响应的 JSON 编码吞吐 (JMH)：与 getAllUsers 相同的 Map 响应结构，包含 10k 个用户
+ *
+ * - reflective: Spring Boot 默认配置 + Jackson2JsonEncoder（写入 byte[] 后复制到 DataBuffer）
+ * - blackbird: 只加 Blackbird
+ * - fastSerializers: UserJsonSerializer + FastLocalDateTimeSerializer + Blackbird
+ * - fastDirect: 在 fastSerializers 的基础上由 DataBufferJsonEncoder 直接写入池化 DataBuffer（应用的默认配置）
+ *
+ * 用法: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="UserJsonSerializationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonSerializationBenchmark {
+
+    private static final ResolvableType RESPONSE_TYPE =
+            ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class);
+
+    @Param("10000")
+    public int users;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private Map<String, Object> response;
+    private Jackson2JsonEncoder reflective;
+    private Jackson2JsonEncoder blackbird;
+    private Jackson2JsonEncoder fastSerializers;
+    private Jackson2JsonEncoder fastDirect;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<User> list = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            // 数据库中的时间戳通常带有微秒
+            LocalDateTime createdAt = base.plusSeconds(id).plusNanos(id * 1000 % 1_000_000_000);
+            list.add(new User(id, "user_" + id, "user_" + id + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3pF2l3bA2nWpWPpmZnGHEhe", id % 10 != 0,
+                    "I like java and reactive, user number " + id, createdAt, createdAt.plusDays(1)));
+        }
+        response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "获取用户列表成功");
+        response.put("data", list);
+
+        reflective = new Jackson2JsonEncoder(mapperBuilder().build());
+        blackbird = new Jackson2JsonEncoder(mapperBuilder().modulesToInstall(new BlackbirdModule()).build());
+        ObjectMapper fastMapper = mapperBuilder()
+                .modulesToInstall(new SimpleModule("fast-json")
+                                .addSerializer(User.class, new UserJsonSerializer())
+                                .addSerializer(LocalDateTime.class, FastLocalDateTimeSerializer.INSTANCE),
+                        new BlackbirdModule())
+                .build();
+        fastSerializers = new Jackson2JsonEncoder(fastMapper);
+        fastDirect = new DataBufferJsonEncoder(fastMapper);
+    }
+
+    @Benchmark
+    public int reflective() {
+        return encode(reflective);
+    }
+
+    @Benchmark
+    public int blackbird() {
+        return encode(blackbird);
+    }
+
+    @Benchmark
+    public int fastSerializers() {
+        return encode(fastSerializers);
+    }
+
+    @Benchmark
+    public int fastDirect() {
+        return encode(fastDirect);
+    }
+
+    private int encode(Jackson2JsonEncoder encoder) {
+        DataBuffer buffer = encoder.encodeValue(response, bufferFactory, RESPONSE_TYPE, MediaType.APPLICATION_JSON, null);
+        int bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static Jackson2ObjectMapperBuilder mapperBuilder() {
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
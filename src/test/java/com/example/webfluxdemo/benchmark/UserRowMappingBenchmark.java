@@ -0,0 +1,199 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.repository.UserRowReader;
+import com.example.webfluxdemo.repository.UserRowWriter;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User 物化吞吐 (rows/s, JMH)：findAll 读取 1M 行时 MappingR2dbcConverter 反射填充与 UserRowReader 的对比，
+ * 以及保存时 User 到 OutboundRow 的转换
+ *
+ * 行数据在内存中构造，不包含驱动解码与网络开销，只测量转换本身。
+ * 用法: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="UserRowMappingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserRowMappingBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final List<String> COLUMNS = List.of(
+            "id", "username", "email", "password", "is_active", "bio", "created_at", "updated_at");
+
+    private MappingR2dbcConverter reflective;
+    private MappingR2dbcConverter registered;
+    private UserRowReader reader;
+    private UserRowWriter writer;
+    private ArrayRow[] rows;
+    private User[] users;
+
+    @Setup
+    public void setUp() {
+        R2dbcMappingContext mappingContext = new R2dbcMappingContext();
+        reflective = new MappingR2dbcConverter(mappingContext,
+                R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of()));
+        registered = new MappingR2dbcConverter(mappingContext,
+                R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of(new UserRowReader(), new UserRowWriter())));
+        reader = new UserRowReader();
+        writer = new UserRowWriter();
+
+        ArrayMetadata metadata = new ArrayMetadata();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        rows = new ArrayRow[ROWS];
+        users = new User[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime createdAt = base.plusSeconds(i);
+            rows[i] = new ArrayRow(metadata, new Object[]{
+                    (long) i, "user_" + i, "user_" + i + "@example.com", "$2a$10$encoded", i % 10 != 0,
+                    "I like java and reactive, user number " + i, createdAt, createdAt});
+            users[i] = new User((long) i, "user_" + i, "user_" + i + "@example.com", "$2a$10$encoded", true,
+                    "I like java", createdAt, createdAt);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readReflective(Blackhole blackhole) {
+        for (ArrayRow row : rows) {
+            blackhole.consume(reflective.read(User.class, row, row.getMetadata()));
+        }
+    }
+
+    /**
+     * 仓库实际走的路径：MappingR2dbcConverter 查到自定义转换器后委托给 UserRowReader
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readRegistered(Blackhole blackhole) {
+        for (ArrayRow row : rows) {
+            blackhole.consume(registered.read(User.class, row, row.getMetadata()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readDirect(Blackhole blackhole) {
+        for (ArrayRow row : rows) {
+            blackhole.consume(reader.convert(row));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeReflective(Blackhole blackhole) {
+        for (User user : users) {
+            OutboundRow row = new OutboundRow();
+            reflective.write(user, row);
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRegistered(Blackhole blackhole) {
+        for (User user : users) {
+            OutboundRow row = new OutboundRow();
+            registered.write(user, row);
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeDirect(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(writer.convert(user));
+        }
+    }
+
+    /**
+     * 按列名/下标读取的内存行，列顺序与 users 表一致
+     */
+    static final class ArrayRow implements Row {
+
+        private final ArrayMetadata metadata;
+        private final Object[] values;
+
+        ArrayRow(ArrayMetadata metadata, Object[] values) {
+            this.metadata = metadata;
+            this.values = values;
+        }
+
+        @Override
+        public RowMetadata getMetadata() {
+            return metadata;
+        }
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            return type.cast(values[index]);
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            return get(COLUMNS.indexOf(name), type);
+        }
+    }
+
+    static final class ArrayMetadata implements RowMetadata {
+
+        private final List<Column> columns = COLUMNS.stream().map(Column::new).toList();
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return columns.get(COLUMNS.indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return columns;
+        }
+
+        @Override
+        public boolean contains(String name) {
+            return COLUMNS.contains(name);
+        }
+    }
+
+    record Column(String getName) implements ColumnMetadata {
+
+        @Override
+        public Type getType() {
+            return R2dbcType.VARCHAR;
+        }
+    }
+}
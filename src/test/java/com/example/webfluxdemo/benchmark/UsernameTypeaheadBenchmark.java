@@ -0,0 +1,134 @@
+package com.example.webfluxdemo.benchmark;
+
+import com.example.webfluxdemo.typeahead.UsernameCompletion;
+import com.example.webfluxdemo.typeahead.UsernameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户名前缀补全延迟 (JMH)：紧凑数组索引与 TreeMap&lt;String, Long&gt; 的对比，以及存在未合并写入时的查询
+ *
+ * Setup 中打印每百万用户名的内存占用：索引为数组实际大小，TreeMap 为构建前后的堆占用差（近似值）。
+ * 用法: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="UsernameTypeaheadBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UsernameTypeaheadBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"1000000"})
+    private int users;
+
+    /**
+     * 未合并的写入数，0 表示全部在紧凑数组中
+     */
+    @Param({"0", "4096"})
+    private int pendingWrites;
+
+    private UsernameIndex index;
+    private TreeMap<String, Long> treeMap;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> usernames = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            usernames.add(randomName(random));
+        }
+
+        long heapBefore = usedHeap();
+        treeMap = new TreeMap<>();
+        for (int i = 0; i < users; i++) {
+            treeMap.put(usernames.get(i).toLowerCase(Locale.ROOT) + "\u0000" + i, (long) i);
+        }
+        long treeMapBytes = usedHeap() - heapBefore;
+
+        index = new UsernameIndex();
+        for (int i = 0; i < users; i++) {
+            index.put(i, usernames.get(i));
+        }
+        index.compact();
+        for (int i = 0; i < pendingWrites; i++) {
+            index.put(random.nextInt(users), randomName(random));
+        }
+
+        // 1-4 个字符的前缀，取自已有用户名，覆盖从大量匹配到少量匹配
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String username = usernames.get(random.nextInt(users));
+            prefixes[i] = username.substring(0, 1 + random.nextInt(Math.min(4, username.length())));
+        }
+        double millions = users / 1_000_000.0;
+        System.out.printf("%n每百万用户名内存: 紧凑数组 %.1f MB, TreeMap 约 %.1f MB%n",
+                index.memoryBytes() / millions / 1024 / 1024, treeMapBytes / millions / 1024 / 1024);
+    }
+
+    @Benchmark
+    public List<UsernameCompletion> compactIndex() {
+        return index.complete(nextPrefix(), LIMIT);
+    }
+
+    @Benchmark
+    public List<UsernameCompletion> treeMap() {
+        String prefix = nextPrefix().toLowerCase(Locale.ROOT);
+        List<UsernameCompletion> result = new ArrayList<>(LIMIT);
+        for (Map.Entry<String, Long> entry : treeMap.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || result.size() == LIMIT) {
+                break;
+            }
+            result.add(new UsernameCompletion(entry.getValue(), entry.getKey()));
+        }
+        return result;
+    }
+
+    private String nextPrefix() {
+        next = (next + 1) & (prefixes.length - 1);
+        return prefixes[next];
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 4 + random.nextInt(9);
+        for (int i = 0; i < length; i++) {
+            name.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        if (random.nextBoolean()) {
+            name.append('_').append(random.nextInt(1000));
+        }
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
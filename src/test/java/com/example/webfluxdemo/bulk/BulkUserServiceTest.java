@@ -0,0 +1,206 @@
+package com.example.webfluxdemo.bulk;
+
+import com.example.webfluxdemo.event.UserEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUserServiceTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private UserEventBus userEventBus;
+
+    private BulkUserProperties properties;
+    private BulkUserService bulkUserService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkUserProperties();
+        properties.setChunkSize(2);
+        properties.setPauseBetweenChunks(Duration.ZERO);
+        properties.setMaxConcurrentJobs(1);
+        bulkUserService = new BulkUserService(databaseClient, userEventBus, properties);
+    }
+
+    @Test
+    void run_ShouldExecuteOneStatementPerChunkAndReportProgress() {
+        // Given
+        List<Long> ids = List.of(1L, 3L, 5L, 7L, 9L);
+        List<List<Long>> statements = new ArrayList<>();
+
+        // When & Then
+        StepVerifier.create(bulkUserService.run(BulkAction.DELETE, Mono.just(5L),
+                        afterId -> Mono.just(bulkUserService.nextIds(ids, afterId)),
+                        chunk -> {
+                            statements.add(chunk);
+                            return Mono.just((long) chunk.size());
+                        }))
+                .assertNext(progress -> assertProgress(progress, 1, 2, false))
+                .assertNext(progress -> assertProgress(progress, 2, 4, false))
+                .assertNext(progress -> assertProgress(progress, 3, 5, false))
+                .assertNext(progress -> {
+                    assertProgress(progress, 3, 5, true);
+                    assertEquals(5, progress.getTotal());
+                    assertEquals(5, progress.getAffected());
+                    assertNull(progress.getError());
+                })
+                .verifyComplete();
+        assertEquals(List.of(List.of(1L, 3L), List.of(5L, 7L), List.of(9L)), statements);
+    }
+
+    @Test
+    void run_WhenChunkFails_ShouldReportProcessedCountAndError() {
+        // Given
+        List<Long> ids = List.of(1L, 2L, 3L, 4L);
+
+        // When & Then
+        StepVerifier.create(bulkUserService.run(BulkAction.DEACTIVATE, Mono.just(4L),
+                        afterId -> Mono.just(bulkUserService.nextIds(ids, afterId)),
+                        chunk -> chunk.contains(3L)
+                                ? Mono.error(new RuntimeException("连接已断开"))
+                                : Mono.just(1L)))
+                .assertNext(progress -> assertProgress(progress, 1, 2, false))
+                .assertNext(progress -> {
+                    assertProgress(progress, 1, 2, true);
+                    assertEquals(1, progress.getAffected());
+                    assertEquals("连接已断开", progress.getError());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void run_WhenNoTargets_ShouldOnlyReportDone() {
+        // When & Then
+        StepVerifier.create(bulkUserService.run(BulkAction.DELETE, Mono.just(0L),
+                        afterId -> Mono.just(List.of()),
+                        chunk -> Mono.just(0L)))
+                .assertNext(progress -> assertProgress(progress, 0, 0, true))
+                .verifyComplete();
+    }
+
+    @Test
+    void withJobSlot_WhenTooManyConcurrentJobs_ShouldRejectBeforeStreamingAndReleaseAfterwards() {
+        // Given
+        Disposable running = bulkUserService.withJobSlot(BulkAction.DELETE, () -> bulkUserService.run(
+                        BulkAction.DELETE, Mono.just(1L), afterId -> Mono.just(List.of(1L)), chunk -> Mono.never()))
+                .subscribe();
+
+        // When & Then: 名额已满时不创建任务
+        assertNull(bulkUserService.withJobSlot(BulkAction.DELETE, () -> fail("不应创建任务")));
+
+        running.dispose();
+        StepVerifier.create(bulkUserService.withJobSlot(BulkAction.DELETE, () -> bulkUserService.run(
+                        BulkAction.DELETE, Mono.just(1L),
+                        afterId -> Mono.just(afterId < 1 ? List.of(1L) : List.of()),
+                        chunk -> Mono.just(1L))))
+                .expectNextCount(1)
+                .assertNext(progress -> assertNull(progress.getError()))
+                .verifyComplete();
+    }
+
+    @Test
+    void withJobSlot_WhenNeverSubscribed_ShouldNotHoldSlot() {
+        // Given: 创建后未订阅的任务
+        assertNotNull(bulkUserService.withJobSlot(BulkAction.DELETE, () -> fail("未订阅时不应创建任务")));
+
+        // When & Then
+        StepVerifier.create(bulkUserService.withJobSlot(BulkAction.DELETE, () -> bulkUserService.run(
+                        BulkAction.DELETE, Mono.just(0L), afterId -> Mono.just(List.of()), chunk -> Mono.just(0L))))
+                .assertNext(progress -> {
+                    assertTrue(progress.isDone());
+                    assertNull(progress.getError());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void withJobSlot_WhenSlotTakenBeforeSubscribe_ShouldReportBusy() {
+        // Given: 两个任务都通过了检查，第一个先订阅
+        Flux<BulkProgress> first = bulkUserService.withJobSlot(BulkAction.DELETE, () -> Flux.never());
+        Flux<BulkProgress> second = bulkUserService.withJobSlot(BulkAction.DELETE, () -> fail("不应创建任务"));
+        Disposable running = first.subscribe();
+
+        // When & Then
+        StepVerifier.create(second)
+                .assertNext(progress -> assertEquals(BulkUserService.BUSY_MESSAGE, progress.getError()))
+                .verifyComplete();
+        running.dispose();
+    }
+
+    @Test
+    void nextIds_ShouldContinueAfterCursor() {
+        // Given
+        List<Long> ids = List.of(2L, 4L, 6L, 8L);
+
+        // When & Then
+        assertEquals(List.of(2L, 4L), bulkUserService.nextIds(ids, Long.MIN_VALUE));
+        assertEquals(List.of(6L, 8L), bulkUserService.nextIds(ids, 4L));
+        assertEquals(List.of(6L, 8L), bulkUserService.nextIds(ids, 5L));
+        assertEquals(List.of(), bulkUserService.nextIds(ids, 8L));
+    }
+
+    @Test
+    void validate_WithoutIdsOrFilter_ShouldThrowException() {
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bulkUserService.validate(new BulkUserRequest()));
+        assertEquals("请指定用户ID列表或筛选条件", e.getMessage());
+    }
+
+    @Test
+    void validate_WithInvalidDomain_ShouldThrowException() {
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bulkUserService.validate(new BulkUserRequest(null, "%' OR 1=1", null)));
+        assertEquals("邮箱域名格式不正确", e.getMessage());
+    }
+
+    @Test
+    void validate_WithTooManyIds_ShouldThrowException() {
+        // Given
+        properties.setMaxIds(2);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> bulkUserService.validate(new BulkUserRequest(List.of(1L, 2L, 3L), null, null)));
+    }
+
+    @Test
+    void filter_ShouldCombineConditions() {
+        // Given
+        LocalDateTime before = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // When
+        BulkUserService.Filter filter = BulkUserService.Filter.of(BulkAction.DEACTIVATE,
+                new BulkUserRequest(null, " Example.COM ", before));
+
+        // Then
+        assertEquals("LOWER(email) LIKE :emailPattern AND created_at < :createdBefore AND is_active = TRUE", filter.where());
+        assertEquals("%@example.com", filter.parameters().get("emailPattern"));
+        assertEquals(before, filter.parameters().get("createdBefore"));
+    }
+
+    private static void assertProgress(BulkProgress progress, int chunks, long processed, boolean done) {
+        assertEquals(chunks, progress.getChunks());
+        assertEquals(processed, progress.getProcessed());
+        assertEquals(done, progress.isDone());
+    }
+}
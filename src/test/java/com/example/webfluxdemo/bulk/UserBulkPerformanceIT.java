@@ -0,0 +1,177 @@
+package com.example.webfluxdemo.bulk;
+
+import com.example.webfluxdemo.support.LatencyStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量停用/删除的集成测试：验证分批语句的结果，并对比批量任务执行期间交互请求 (GET /api/users/{id}) 的延迟
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=UserBulkPerformanceIT -Dperf.seed-users=50000
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///bulk_perf;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=${perf.seed-users:50000}",
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserBulkPerformanceIT {
+
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 500);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.seed.users}")
+    private int seedUsers;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * 非阻塞客户端，批量请求与交互请求可在同一线程上并发发出
+     */
+    private WebClient webClient;
+    private WebTestClient webTestClient;
+    private final List<LatencyStats> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        webClient = WebClient.create("http://localhost:" + port);
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+        interactiveLoad("warmup");
+        results.clear();
+    }
+
+    @AfterAll
+    void report() {
+        System.out.printf("%n批量操作期间的交互请求延迟 (seed users=%d, concurrency=%d)%n", seedUsers, CONCURRENCY);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    @Order(1)
+    void interactiveBaseline() {
+        interactiveLoad("GET /{id} (idle)");
+    }
+
+    @Test
+    @Order(2)
+    void deactivateByDomain_WhileServingInteractiveTraffic() {
+        long expected = count("SELECT COUNT(*) FROM users WHERE email LIKE '%@example.org' AND is_active = TRUE");
+
+        long start = System.nanoTime();
+        CompletableFuture<List<BulkProgress>> progress = bulkRequest("/api/users/bulk/deactivate",
+                "{\"emailDomain\":\"example.org\"}");
+        interactiveLoad("GET /{id} (during bulk)");
+        List<BulkProgress> lines = progress.join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        BulkProgress last = lines.get(lines.size() - 1);
+        assertTrue(last.isDone());
+        assertNull(last.getError());
+        assertEquals(expected, last.getTotal());
+        assertEquals(expected, last.getAffected());
+        assertTrue(lines.size() > 2, "应逐批输出进度");
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@example.org' AND is_active = TRUE"));
+        System.out.printf("bulk deactivate: %d 行, %d 批, 耗时 %d ms%n",
+                last.getAffected(), last.getChunks(), elapsedMillis);
+    }
+
+    @Test
+    @Order(3)
+    void deleteByIds() {
+        long before = count("SELECT COUNT(*) FROM users");
+        String ids = LongStream.rangeClosed(1, 1200).mapToObj(Long::toString)
+                .reduce((a, b) -> a + "," + b).orElseThrow();
+
+        List<BulkProgress> lines = bulkRequest("/api/users/bulk/delete", "{\"ids\":[" + ids + "]}").join();
+
+        BulkProgress last = lines.get(lines.size() - 1);
+        assertTrue(last.isDone());
+        assertNull(last.getError());
+        assertEquals(1200, last.getAffected());
+        assertEquals(before - 1200, count("SELECT COUNT(*) FROM users"));
+    }
+
+    @Test
+    @Order(4)
+    void invalidRequest_ShouldBeRejected() {
+        webTestClient.post().uri("/api/users/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private CompletableFuture<List<BulkProgress>> bulkRequest(String uri, String body) {
+        return webClient.post().uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToFlux(BulkProgress.class)
+                .collectList()
+                .toFuture();
+    }
+
+    private void interactiveLoad(String name) {
+        LatencyStats stats = new LatencyStats(name, REQUESTS);
+        stats.start();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return webClient.get()
+                            .uri("/api/users/{id}", ThreadLocalRandom.current().nextLong(1, seedUsers + 1L))
+                            .retrieve()
+                            .bodyToMono(String.class)
+                            .doOnSuccess(ignored -> stats.record(System.nanoTime() - start))
+                            .doOnError(e -> stats.recordError())
+                            .onErrorResume(e -> Mono.empty());
+                }, CONCURRENCY)
+                .blockLast(Duration.ofMinutes(5));
+        stats.stop();
+        results.add(stats);
+        assertEquals(0, stats.getErrors());
+    }
+
+    private long count(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).one().block();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.webfluxdemo.cache;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchCacheTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final long[] now = {0};
+    private final Sinks.Many<UserChangeEvent> events = Sinks.many().multicast().directBestEffort();
+    private SearchCacheProperties properties;
+    private MeterRegistry meterRegistry;
+    private UserSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchCacheProperties();
+        properties.setTtl(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserSearchCache(properties, meterRegistry, () -> now[0], events.asFlux());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.stop();
+    }
+
+    @Test
+    void search_RepeatedKeyword_ShouldHitCache() {
+        // Given
+        search("%john%", 0, database(user(1L, "john_doe")));
+
+        // When
+        List<User> second = search(" %john% ", 0, database(user(1L, "john_doe")));
+
+        // Then: 去除首尾空白后为同一个关键词
+        assertEquals(1, second.size());
+        assertEquals(1, queries.get());
+        assertEquals(1, meterRegistry.get("user.search.cache.requests")
+                .tag("field", "username").tag("result", "hit").counter().count());
+        assertEquals(0.5, meterRegistry.get("user.search.cache.hit.ratio").gauge().value());
+        assertTrue(meterRegistry.get("user.search.cache.saved").tag("field", "username").counter().count() > 0);
+    }
+
+    @Test
+    void search_ConcurrentIdenticalSearches_ShouldShareOneQuery() {
+        // Given: 第一次查询尚未返回
+        Sinks.Many<User> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Function<String, Flux<User>> slowQuery = keyword -> {
+            queries.incrementAndGet();
+            return rows.asFlux();
+        };
+
+        // When
+        StepVerifier.create(Flux.range(0, 5)
+                        .flatMap(i -> cache.search(UserSearchCache.Field.EMAIL, "%@example.com", 0, slowQuery)
+                                .collectList()))
+                .then(() -> {
+                    rows.tryEmitNext(user(1L, "john_doe"));
+                    rows.tryEmitComplete();
+                })
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // Then
+        assertEquals(1, queries.get());
+        assertEquals(4, meterRegistry.get("user.search.cache.requests")
+                .tag("field", "email").tag("result", "coalesced").counter().count());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void search_DifferentLimitOrField_ShouldBeCachedSeparately() {
+        // When
+        List<User> limited = search("%o%", 1, database(user(1L, "john_doe"), user(2L, "bob")));
+        search("%o%", 0, database(user(1L, "john_doe"), user(2L, "bob")));
+        cache.search(UserSearchCache.Field.EMAIL, "%o%", 0, database()).collectList().block();
+
+        // Then
+        assertEquals(1, limited.size());
+        assertEquals(3, queries.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void invalidate_ShouldOnlyDropResultsTheWriteCanChange() {
+        // Given
+        search("%john%", 0, database(user(1L, "john_doe")));
+        search("%jane%", 0, database(user(2L, "jane_smith")));
+        search("bob%", 0, database(user(3L, "bob_wilson")));
+
+        // When: 新建匹配 %john% 的用户；删除 2 号用户；与 bob% 无关的写入
+        events.tryEmitNext(UserChangeEvent.created(user(4L, "johnny")));
+        events.tryEmitNext(UserChangeEvent.deleted(2L));
+        events.tryEmitNext(UserChangeEvent.updated(user(5L, "alice")));
+
+        // Then
+        assertEquals(1, cache.size());
+        search("bob%", 0, database(user(3L, "bob_wilson")));
+        assertEquals(3, queries.get());
+        assertEquals(2.0, meterRegistry.get("user.search.cache.invalidations").functionCounter().count());
+    }
+
+    @Test
+    void invalidate_UpdateRenamingCachedUser_ShouldDropResult() {
+        // Given
+        search("%john%", 0, database(user(1L, "john_doe")));
+
+        // When: 改名后不再匹配 %john%，但旧结果中包含该用户
+        events.tryEmitNext(UserChangeEvent.updated(user(1L, "renamed")));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void search_WhenWriteHappensDuringQuery_ShouldNotCacheResult() {
+        // Given
+        Sinks.Many<User> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Function<String, Flux<User>> slowQuery = keyword -> rows.asFlux();
+
+        // When
+        StepVerifier.create(cache.search(UserSearchCache.Field.USERNAME, "%john%", 0, slowQuery))
+                .then(() -> {
+                    events.tryEmitNext(UserChangeEvent.created(user(9L, "john_new")));
+                    rows.tryEmitNext(user(1L, "john_doe"));
+                    rows.tryEmitComplete();
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void search_AfterTtlOrWithTooManyResults_ShouldQueryAgain() {
+        // Given
+        properties.setMaxResults(1);
+        search("%o%", 0, database(user(1L, "john_doe"), user(2L, "bob")));
+        search("%john%", 0, database(user(1L, "john_doe")));
+
+        // When
+        now[0] += Duration.ofSeconds(5).toNanos();
+        search("%john%", 0, database(user(1L, "john_doe")));
+
+        // Then: 超过 maxResults 的结果未缓存，过期的结果重新查询
+        assertEquals(3, queries.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void search_WhenDisabled_ShouldAlwaysQuery() {
+        // Given
+        properties.setEnabled(false);
+        cache = new UserSearchCache(properties, new SimpleMeterRegistry(), () -> now[0], events.asFlux());
+
+        // When
+        search("%john%", 0, database(user(1L, "john_doe")));
+        search("%john%", 0, database(user(1L, "john_doe")));
+
+        // Then
+        assertEquals(2, queries.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void likePattern_ShouldFollowSqlLikeSemantics() {
+        // When & Then
+        assertTrue(LikePattern.compile("%john%").matches("big_john_doe"));
+        assertTrue(LikePattern.compile("j_hn").matches("john"));
+        assertFalse(LikePattern.compile("john").matches("john_doe"));
+        assertFalse(LikePattern.compile("%John%").matches("john"));
+        assertTrue(LikePattern.compile("a\\_b%").matches("a_bc"));
+        assertFalse(LikePattern.compile("a\\_b%").matches("axbc"));
+        assertTrue(LikePattern.compile("%.com").matches("a@b.com"));
+        assertFalse(LikePattern.compile("%.com").matches("a@bxcom"));
+        assertFalse(LikePattern.compile("%").matches(null));
+    }
+
+    private List<User> search(String keyword, int limit, Function<String, Flux<User>> query) {
+        return cache.search(UserSearchCache.Field.USERNAME, keyword, limit, query).collectList().block();
+    }
+
+    private Function<String, Flux<User>> database(User... users) {
+        return keyword -> Flux.defer(() -> {
+            queries.incrementAndGet();
+            // 模拟查询耗时 10ms
+            now[0] += Duration.ofMillis(10).toNanos();
+            return Flux.just(users);
+        });
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User(username, username + "@example.com", "encoded");
+        user.setId(id);
+        return user;
+    }
+}
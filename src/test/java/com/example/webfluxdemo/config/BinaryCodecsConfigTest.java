@@ -0,0 +1,129 @@
+package com.example.webfluxdemo.config;
+
+import com.example.webfluxdemo.controller.UserController;
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryCodecsConfigTest {
+
+    @Mock
+    private UserService userService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User(1L, "testuser", "test@example.com", "encodedPassword123", true, "Test bio",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        lenient().when(userService.getAllUsers()).thenReturn(Flux.just(testUser));
+
+        // 与 Spring Boot 默认配置一致：时间以 ISO 字符串输出
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        CodecCustomizer customizer = new BinaryCodecsConfig().binaryCodecsCustomizer(builder);
+        webTestClient = WebTestClient.bindToController(new UserController(userService, null))
+                .httpMessageCodecs(customizer::customize)
+                .build();
+    }
+
+    @Test
+    void getAllUsers_WithCborAccept_ShouldReturnCbor() throws IOException {
+        // When
+        byte[] body = webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Then
+        JsonNode response = new CBORMapper().readTree(body);
+        assertTrue(response.get("success").asBoolean());
+        assertEquals("testuser", response.get("data").get(0).get("username").asText());
+        assertEquals("2024-01-02T03:04:05", response.get("data").get(0).get("createdAt").asText());
+    }
+
+    @Test
+    void getAllUsers_WithSmileAccept_ShouldReturnSmile() throws IOException {
+        // When
+        byte[] body = webTestClient.get().uri("/api/users")
+                .accept(BinaryCodecsConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(BinaryCodecsConfig.APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Then
+        JsonNode response = new SmileMapper().readTree(body);
+        assertEquals("test@example.com", response.get("data").get(0).get("email").asText());
+    }
+
+    @Test
+    void getAllUsers_WithJsonAccept_ShouldStillReturnJson() {
+        webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.data[0].username").isEqualTo("testuser");
+    }
+
+    @Test
+    void getAllUsers_WithoutAccept_ShouldDefaultToJson() {
+        // When & Then
+        webTestClient.get().uri("/api/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.data[0].username").isEqualTo("testuser");
+    }
+
+    @Test
+    void cborEncoder_WithFluxBody_ShouldEncodeArrayInsteadOfFailing() throws IOException {
+        // Given
+        BinaryCodecsConfig.SingleValueCborEncoder encoder = new BinaryCodecsConfig.SingleValueCborEncoder(new CBORMapper());
+
+        // When
+        DataBuffer buffer = DataBufferUtils.join(encoder.encode(Flux.just("alice", "bob"),
+                DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(String.class),
+                MediaType.APPLICATION_CBOR, null)).block();
+
+        // Then
+        byte[] body = new byte[buffer.readableByteCount()];
+        buffer.read(body);
+        JsonNode response = new CBORMapper().readTree(body);
+        assertEquals(2, response.size());
+        assertEquals("bob", response.get(1).asText());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.webfluxdemo.config;
+
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataBufferJsonEncoderTest {
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Test
+    void encodeValue_ShouldProduceSameBytesAsDefaultEncoder() {
+        // Given: 超过初始容量，需要扩容
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            users.add(new User(id, "user_" + id, "user_" + id + "@example.com", "encoded", true, "简介 " + id,
+                    LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5)));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", users);
+        ResolvableType type = ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class);
+
+        // When
+        String direct = encode(new DataBufferJsonEncoder(mapper), response, type);
+        String copied = encode(new Jackson2JsonEncoder(mapper), response, type);
+
+        // Then
+        assertTrue(direct.length() > 1024);
+        assertEquals(copied, direct);
+    }
+
+    private String encode(Jackson2JsonEncoder encoder, Object value, ResolvableType type) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, type, MediaType.APPLICATION_JSON, null);
+        try {
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.limit.Bulkheads;
+import com.example.webfluxdemo.support.FaultInjectingConnectionFactory;
+import com.example.webfluxdemo.support.FaultPlan;
+import com.example.webfluxdemo.support.FaultPlan.Faults;
+import com.example.webfluxdemo.support.LatencyDistribution;
+import com.example.webfluxdemo.support.LatencyStats;
+import com.example.webfluxdemo.support.QueryType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.r2dbc.ConnectionFactoryDecorator;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据库故障场景下 UserController / UserService 的表现
+ *
+ * 连接池内层的 {@link FaultInjectingConnectionFactory} 按语句类型注入延迟、错误与连接中断，请求经由真实的
+ * HTTP 栈、限流/隔离舱、连接池与 H2 执行。每个场景输出延迟分布、状态码分布与注入计数。
+ * 连接池固定为 4 个连接，获取连接最多等待 1s。
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=FaultInjectionIT
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///fault_injection;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "spring.r2dbc.pool.initial-size=4",
+                "spring.r2dbc.pool.max-size=4",
+                "spring.r2dbc.pool.min-idle=4",
+                "spring.r2dbc.pool.max-acquire-time=1s",
+                "app.seed.users=1000",
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=error",
+                // 连接中断后回滚失败的 ERROR 日志 (含完整堆栈) 是预期的
+                "logging.level.org.springframework.transaction.interceptor=off"
+        }
+)
+@ActiveProfiles("embedded")
+class FaultInjectionIT {
+
+    private static final int USERS = 1000;
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class FaultInjectionConfig {
+
+        @Bean
+        FaultPlan faultPlan() {
+            return new FaultPlan(42);
+        }
+
+        /**
+         * 最先应用，位于其他装饰器 (语句指标) 内层，注入的延迟计入语句指标
+         */
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        ConnectionFactoryDecorator faultInjectingConnectionFactoryDecorator(FaultPlan faultPlan) {
+            return connectionFactory -> new FaultInjectingConnectionFactory(connectionFactory, faultPlan);
+        }
+    }
+
+    record Outcome(LatencyStats stats, Map<Integer, Integer> statuses) {
+
+        int count(int status) {
+            return statuses.getOrDefault(status, 0);
+        }
+
+        @Override
+        public String toString() {
+            return stats + "  " + statuses;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FaultPlan plan;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        // 关闭 Reactor Netty 对中断连接的自动重试，每次尝试都由测试显式发起
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().disableRetry(true)))
+                .build();
+        plan.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        plan.reset();
+        awaitIdle(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void tailLatency_ShouldPassThroughToClients() {
+        // Given: 5% 的按 ID 查询耗时 100ms
+        plan.inject(QueryType.POINT_SELECT, Faults.latency(LatencyDistribution.bimodal(
+                Duration.ofMillis(1), Duration.ofMillis(100), 0.05)));
+
+        // When
+        Outcome lookups = run("GET /{id} (5% 100ms)", 500, 8, i -> "/api/users/" + randomId(), Duration.ofSeconds(5));
+
+        // Then: 没有缓存或对冲请求，数据库的长尾原样出现在 p99
+        report(lookups);
+        assertEquals(500, lookups.count(200));
+        assertTrue(lookups.stats().percentileMillis(50) < 100, lookups.toString());
+        assertTrue(lookups.stats().percentileMillis(99) >= 100, lookups.toString());
+    }
+
+    @Test
+    void clientTimeout_ShouldCancelStalledStatementsAndReleaseConnections() {
+        // Given: 10% 的按 ID 查询卡住 5s，客户端 300ms 超时后断开
+        plan.inject(QueryType.POINT_SELECT, Faults.latency(LatencyDistribution.bimodal(
+                Duration.ofMillis(1), Duration.ofSeconds(5), 0.1)));
+
+        // When
+        Outcome lookups = run("GET /{id} (10% 5s, timeout 300ms)", 200, 8, i -> "/api/users/" + randomId(),
+                Duration.ofMillis(300));
+
+        // Then: 断开连接取消了服务端的查询，连接在卡住的 5s 结束前回到连接池
+        report(lookups);
+        assertTrue(lookups.count(-1) > 0, lookups.toString());
+        assertTrue(awaitIdle(Duration.ofSeconds(2)), "卡住的语句未被取消: " + plan);
+        // 超时的请求也可能还在排队等待连接，尚未执行语句
+        assertTrue(plan.cancelled() > 0 && plan.cancelled() <= lookups.count(-1), plan.toString());
+
+        plan.reset();
+        Outcome after = run("GET /{id} (恢复后)", 100, 8, i -> "/api/users/" + randomId(), Duration.ofSeconds(5));
+        report(after);
+        assertEquals(100, after.count(200));
+    }
+
+    @Test
+    void poolExhaustion_BulkheadShouldShedListingsAndProtectLookups() {
+        // Given: 分页查询固定耗时 500ms，12 个并发分页请求 (4 个连接需要 3 轮) 与按 ID 查询同时进行
+        plan.inject(QueryType.RANGE_SELECT, Faults.latency(LatencyDistribution.fixed(Duration.ofMillis(500))));
+        Bulkheads.LaneStatus listing = bulkheads.status().get("listing");
+
+        // When: 默认隔离舱 (listing 最多占 1 个连接，排队 2s) 与不限制 listing 各运行一次
+        Outcome[] isolated = mixedLoad("bulkhead");
+        bulkheads.update("listing", 64, 0.0);
+        Outcome[] shared;
+        try {
+            shared = mixedLoad("shared pool");
+        } finally {
+            bulkheads.update("listing", listing.maxConcurrent(), listing.connectionShare());
+        }
+
+        // Then: 隔离舱在排队超时后拒绝多余的分页请求，按 ID 查询不受影响；不限制时分页请求在连接池排队，
+        // 至少需要 3 轮 500ms。两种情况下都没有挂起或 500
+        report(isolated[0], isolated[1], shared[0], shared[1]);
+        for (Outcome outcome : List.of(isolated[0], isolated[1], shared[0], shared[1])) {
+            assertTrue(outcome.statuses().keySet().stream().allMatch(status -> status == 200 || status == 503),
+                    outcome.toString());
+            assertTrue(outcome.stats().percentileMillis(100) < 5000, outcome.toString());
+        }
+        assertTrue(isolated[0].count(503) > 0, isolated[0].toString());
+        assertEquals(200, isolated[1].count(200), isolated[1].toString());
+        assertTrue(shared[0].stats().percentileMillis(100) >= 1500, shared[0].toString());
+    }
+
+    @Test
+    void retryAmplification_ShouldStayBoundedWithTransientErrors() {
+        // Given: 30% 的按 ID 查询返回瞬时错误，客户端对 503 最多尝试 4 次
+        plan.inject(QueryType.POINT_SELECT, Faults.errors(0.3));
+        int requests = 200;
+        int maxAttempts = 4;
+        AtomicInteger attempts = new AtomicInteger();
+        Map<Integer, Integer> statuses = new ConcurrentHashMap<>();
+
+        // When
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                            attempts.incrementAndGet();
+                            return status("/api/users/" + randomId(), Duration.ofSeconds(5), null);
+                        })
+                        .flatMap(status -> status == 503 ? Mono.error(new IllegalStateException("503")) : Mono.just(status))
+                        .retry(maxAttempts - 1)
+                        .onErrorReturn(503)
+                        .doOnNext(status -> statuses.merge(status, 1, Integer::sum)), 4)
+                .blockLast(Duration.ofMinutes(2));
+
+        // Then: 数据库错误返回 503 (可重试)，语句数约为 (1 - 0.3^4) / (1 - 0.3) ≈ 1.42 倍请求数
+        double amplification = (double) plan.statements(QueryType.POINT_SELECT) / requests;
+        System.out.printf("%n重试放大: 请求 %d, 尝试 %d, 语句 %d (%.2fx), 最终状态 %s, %s%n", requests, attempts.get(),
+                plan.statements(QueryType.POINT_SELECT), amplification, new TreeMap<>(statuses), plan);
+        assertEquals(plan.statements(QueryType.POINT_SELECT), attempts.get());
+        assertTrue(amplification > 1.25 && amplification < 1.6, "放大倍数 " + amplification);
+        assertTrue(statuses.keySet().stream().allMatch(status -> status == 200 || status == 503), statuses.toString());
+        assertTrue(statuses.getOrDefault(200, 0) >= requests * 0.97, statuses.toString());
+    }
+
+    @Test
+    void droppedConnections_PoolShouldReplaceThem() {
+        // Given: 10% 的按 ID 查询断开连接，新建连接耗时 100ms
+        plan.inject(QueryType.POINT_SELECT, Faults.drops(0.1))
+                .acquireLatency(LatencyDistribution.fixed(Duration.ofMillis(100)));
+
+        // When
+        Outcome lookups = run("GET /{id} (10% drop)", 200, 4, i -> "/api/users/" + randomId(), Duration.ofSeconds(5));
+        plan.inject(QueryType.POINT_SELECT, Faults.NONE);
+        Outcome after = run("GET /{id} (恢复后)", 100, 4, i -> "/api/users/" + randomId(), Duration.ofSeconds(5));
+
+        // Then: 断开连接的请求返回 503，连接池替换断开的连接后全部恢复
+        report(lookups, after);
+        System.out.println(plan);
+        assertTrue(plan.drops() > 0);
+        assertEquals(200, lookups.count(200) + lookups.count(503), lookups.toString());
+        assertTrue(plan.connectionsCreated() > 0, plan.toString());
+        assertEquals(100, after.count(200), after.toString());
+    }
+
+    @Test
+    void requestDeadline_ServerShouldGiveUpAtClientDeadline() {
+        // Given: 10% 的按 ID 查询卡住 5s，调用方声明只等 300ms (X-Request-Timeout)，但不主动断开连接
+        plan.inject(QueryType.POINT_SELECT, Faults.latency(LatencyDistribution.bimodal(
+                Duration.ofMillis(1), Duration.ofSeconds(5), 0.1)));
+
+        // When
+        Outcome lookups = run("GET /{id} (10% 5s, deadline 300ms)", 200, 8, i -> "/api/users/" + randomId(),
+                Duration.ofSeconds(10), Duration.ofMillis(300));
+
+        // Then: 服务端在截止时间返回 504 并取消卡住的语句，连接在 5s 结束前回到连接池
+        report(lookups);
+        System.out.println(plan);
+        assertTrue(lookups.count(504) > 0, lookups.toString());
+        assertEquals(200, lookups.count(200) + lookups.count(504), lookups.toString());
+        assertTrue(lookups.stats().percentileMillis(100) < 2000, lookups.toString());
+        assertTrue(awaitIdle(Duration.ofSeconds(2)), "卡住的语句未被取消: " + plan);
+        assertTrue(plan.cancelled() > 0, plan.toString());
+    }
+
+    /**
+     * 12 个并发分页请求与 200 个按 ID 查询 (并发 4) 同时进行
+     */
+    private Outcome[] mixedLoad(String label) {
+        Mono<Outcome> pages = Mono.fromCallable(() -> run("GET /page [" + label + "]", 12, 12,
+                i -> "/api/users/page?page=" + i + "&size=20", Duration.ofSeconds(10)));
+        Mono<Outcome> lookups = Mono.fromCallable(() -> run("GET /{id} [" + label + "]", 200, 4,
+                i -> "/api/users/" + randomId(), Duration.ofSeconds(10)));
+        return Mono.zip(pages.subscribeOn(Schedulers.boundedElastic()),
+                        lookups.subscribeOn(Schedulers.boundedElastic()).delaySubscription(Duration.ofMillis(50)))
+                .map(results -> new Outcome[]{results.getT1(), results.getT2()})
+                .block(Duration.ofMinutes(1));
+    }
+
+    private Outcome run(String name, int requests, int concurrency, IntFunction<String> uri, Duration timeout) {
+        return run(name, requests, concurrency, uri, timeout, null);
+    }
+
+    /**
+     * @param deadline 不为 null 时通过 X-Request-Timeout 告知服务端
+     */
+    private Outcome run(String name, int requests, int concurrency, IntFunction<String> uri, Duration timeout,
+                        Duration deadline) {
+        LatencyStats stats = new LatencyStats(name, requests);
+        Map<Integer, Integer> statuses = new ConcurrentHashMap<>();
+        stats.start();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return status(uri.apply(i), timeout, deadline)
+                            .doOnNext(status -> {
+                                stats.record(System.nanoTime() - start);
+                                statuses.merge(status, 1, Integer::sum);
+                                if (status != 200) {
+                                    stats.recordError();
+                                }
+                            });
+                }, concurrency)
+                .blockLast(Duration.ofMinutes(2));
+        stats.stop();
+        return new Outcome(stats, new TreeMap<>(statuses));
+    }
+
+    /**
+     * 响应状态码，超时或连接错误为 -1；超时后关闭连接，与放弃请求的真实客户端一致
+     */
+    private Mono<Integer> status(String uri, Duration timeout, Duration deadline) {
+        return webClient.get().uri(uri)
+                .headers(headers -> {
+                    if (deadline != null) {
+                        headers.set("X-Request-Timeout", deadline.toMillis() + "ms");
+                    }
+                })
+                .httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(timeout))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .onErrorReturn(-1);
+    }
+
+    private boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (plan.active() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+
+    private static void report(Outcome... outcomes) {
+        System.out.println();
+        System.out.println(LatencyStats.header() + "  状态码");
+        for (Outcome outcome : outcomes) {
+            System.out.println(outcome);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.support.LatencyStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserController 集成性能测试
+ *
+ * 基于 embedded profile（H2 + 生成的测试数据），经由真实 HTTP 栈、R2DBC 与 SQL 调用每个接口，
+ * 输出吞吐量与 p50/p95/p99 延迟。只断言请求成功，不对耗时设阈值。
+ * 用法: mvn -Pembedded verify -Dperf.seed-users=20000 -Dperf.requests=500 -Dperf.concurrency=16
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.seed.users=${perf.seed-users:20000}",
+                // 同一 JVM 中缓存的多个上下文各自启动 RSocket 服务器，使用随机端口避免冲突
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserControllerPerformanceIT {
+
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 500);
+    private static final int WRITE_REQUESTS = Integer.getInteger("perf.write-requests", 100);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.seed.users}")
+    private int seedUsers;
+
+    private WebTestClient webTestClient;
+    private final List<LatencyStats> results = new ArrayList<>();
+    /**
+     * 客户端使用独立线程池阻塞等待响应，避免占满服务端（如 BCrypt）使用的 boundedElastic 调度器
+     */
+    private ExecutorService client;
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    void setUp() {
+        // 全量列表响应较大，放宽客户端缓冲上限
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofMinutes(1))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(64 * 1024 * 1024))
+                .build();
+        client = Executors.newFixedThreadPool(CONCURRENCY);
+        // 预热连接与 JIT
+        run("warmup", 200, i -> webTestClient.get().uri("/api/users/{id}", randomSeedId()).exchange());
+        results.clear();
+    }
+
+    @AfterAll
+    void report() {
+        client.shutdownNow();
+        System.out.printf("%nUserController 性能 (seed users=%d, concurrency=%d)%n", seedUsers, CONCURRENCY);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    @Order(1)
+    void getUserById() {
+        run("GET /api/users/{id}", REQUESTS,
+                i -> webTestClient.get().uri("/api/users/{id}", randomSeedId()).exchange());
+    }
+
+    @Test
+    @Order(2)
+    void getUsersByPage() {
+        int pages = Math.max(1, seedUsers / 20);
+        run("GET /api/users/page", REQUESTS, i -> webTestClient.get()
+                .uri("/api/users/page?page={page}&size=20", ThreadLocalRandom.current().nextInt(pages))
+                .exchange());
+    }
+
+    @Test
+    @Order(3)
+    void searchByUsername() {
+        run("GET /search/username", REQUESTS, i -> webTestClient.get()
+                .uri("/api/users/search/username?keyword={keyword}", String.format("user_%05d%%", i % 100))
+                .exchange());
+    }
+
+    @Test
+    @Order(4)
+    void searchByEmail() {
+        run("GET /search/email", REQUESTS, i -> webTestClient.get()
+                .uri("/api/users/search/email?keyword={keyword}", String.format("user_%05d%%@%%", i % 100))
+                .exchange());
+    }
+
+    @Test
+    @Order(5)
+    void countUsers() {
+        run("GET /api/users/count", REQUESTS, i -> webTestClient.get().uri("/api/users/count").exchange());
+    }
+
+    @Test
+    @Order(6)
+    void queryUsers() {
+        run("GET /api/users/query", REQUESTS, i -> webTestClient.get()
+                .uri("/api/users/query?isActive=true&createdFrom={from}&sort=-createdAt&page={page}&size=20",
+                        "2023-0" + (1 + i % 9) + "-01T00:00:00", i % 10)
+                .exchange());
+    }
+
+    @Test
+    @Order(7)
+    void getAllUsers() {
+        // 全表读取，请求数相应减少
+        run("GET /api/users", Math.max(5, REQUESTS / 50), i -> webTestClient.get().uri("/api/users").exchange());
+    }
+
+    @Test
+    @Order(8)
+    void createUser() {
+        run("POST /api/users", WRITE_REQUESTS, i -> webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userJson("perf_" + i, "perf_" + i + "@perf.test"))
+                .exchange(), body -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> data = (Map<String, Object>) body.get("data");
+            createdIds.add(((Number) data.get("id")).longValue());
+        });
+        assertEquals(WRITE_REQUESTS, createdIds.size());
+    }
+
+    @Test
+    @Order(9)
+    void updateUser() {
+        List<Long> ids = new ArrayList<>(createdIds);
+        run("PUT /api/users/{id}", ids.size(), i -> webTestClient.put().uri("/api/users/{id}", ids.get(i))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userJson("perf_upd_" + i, "perf_upd_" + i + "@perf.test"))
+                .exchange());
+    }
+
+    @Test
+    @Order(10)
+    void deleteUser() {
+        List<Long> ids = new ArrayList<>(createdIds);
+        run("DELETE /api/users/{id}", ids.size(),
+                i -> webTestClient.delete().uri("/api/users/{id}", ids.get(i)).exchange());
+    }
+
+    /**
+     * 以固定并发发出 requests 个请求，逐个记录耗时（包含读取完整响应体）
+     */
+    private void run(String name, int requests, IntFunction<WebTestClient.ResponseSpec> call) {
+        run(name, requests, call, body -> {
+        });
+    }
+
+    private void run(String name, int requests, IntFunction<WebTestClient.ResponseSpec> call,
+                     Consumer<Map<String, Object>> bodyConsumer) {
+        LatencyStats stats = new LatencyStats(name, requests);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        stats.start();
+        List<Future<?>> futures = IntStream.range(0, requests)
+                .<Future<?>>mapToObj(i -> client.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        Map<String, Object> body = call.apply(i)
+                                .expectStatus().isOk()
+                                .expectBody(RESPONSE_TYPE)
+                                .returnResult()
+                                .getResponseBody();
+                        assertNotNull(body);
+                        assertEquals(Boolean.TRUE, body.get("success"), () -> String.valueOf(body.get("message")));
+                        stats.record(System.nanoTime() - start);
+                        bodyConsumer.accept(body);
+                    } catch (Throwable e) {
+                        stats.recordError();
+                        errors.add(e);
+                    }
+                }))
+                .toList();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                errors.add(e);
+            }
+        }
+        stats.stop();
+        results.add(stats);
+        assertTrue(errors.isEmpty(),
+                () -> name + " 失败 " + errors.size() + " 次，首个错误: " + errors.peek());
+    }
+
+    private long randomSeedId() {
+        return ThreadLocalRandom.current().nextLong(1, seedUsers + 1L);
+    }
+
+    private static String userJson(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email
+                + "\",\"password\":\"Password123!\",\"isActive\":true,\"bio\":\"performance test\"}";
+    }
+}
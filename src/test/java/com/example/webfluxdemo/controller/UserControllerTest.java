@@ -1,5 +1,6 @@
 package com.example.webfluxdemo.controller;
 
+import com.example.webfluxdemo.idempotency.IdempotentRequests;
 import com.example.webfluxdemo.model.User;
 import com.example.webfluxdemo.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
@@ -30,6 +33,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private IdempotentRequests idempotentRequests;
+
     @InjectMocks
     private UserController userController;
 
@@ -63,7 +69,7 @@ class UserControllerTest {
         given(userService.createUser(any(User.class))).willReturn(Mono.just(testUser));
 
         // When
-        Mono<ResponseEntity<Map<String, Object>>> result = userController.createUser(userRequest);
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.createUser(userRequest, null);
 
         // Then
         StepVerifier.create(result)
@@ -74,7 +80,7 @@ class UserControllerTest {
                     assertEquals("用户创建成功", response.getBody().get("message"));
                     assertEquals(testUser, response.getBody().get("data"));
                 })
-                ;
+                .verifyComplete();
     }
 
     @Test
@@ -89,7 +95,7 @@ class UserControllerTest {
                 .willReturn(Mono.error(new RuntimeException("用户名或邮箱已存在")));
 
         // When
-        Mono<ResponseEntity<Map<String, Object>>> result = userController.createUser(userRequest);
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.createUser(userRequest, null);
 
         // Then
         StepVerifier.create(result)
@@ -98,7 +104,25 @@ class UserControllerTest {
                     assertFalse((Boolean) response.getBody().get("success"));
                     assertEquals("用户名或邮箱已存在", response.getBody().get("message"));
                 })
-                ;
+                .verifyComplete();
+    }
+
+    @Test
+    void createUser_WithIdempotencyKey_ShouldExecuteThroughIdempotentRequests() {
+        // Given
+        User userRequest = new User("newuser", "newuser@example.com", "Password123!");
+        ResponseEntity<Map<String, Object>> replayed = ResponseEntity.ok(expectedResponse);
+        given(idempotentRequests.execute(eq("key-1"), any(String.class), any())).willReturn(Mono.just(replayed));
+
+        // When
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.createUser(userRequest, "key-1");
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(replayed)
+                .verifyComplete();
+        // 创建逻辑延迟到 IdempotentRequests 决定执行时才调用
+        verify(userService, never()).createUser(any(User.class));
     }
 
     @Test
@@ -184,10 +208,10 @@ class UserControllerTest {
     @Test
     void searchUsersByUsername_Success() {
         // Given
-        given(userService.searchUsersByUsername("test")).willReturn(Flux.just(testUser));
+        given(userService.searchUsersByUsername("test", 0)).willReturn(Flux.just(testUser));
 
         // When
-        Mono<ResponseEntity<Map<String, Object>>> result = userController.searchUsersByUsername("test");
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.searchUsersByUsername("test", 0);
 
         // Then
         StepVerifier.create(result)
@@ -203,10 +227,10 @@ class UserControllerTest {
     @Test
     void searchUsersByEmail_Success() {
         // Given
-        given(userService.searchUsersByEmail("test@example.com")).willReturn(Flux.just(testUser));
+        given(userService.searchUsersByEmail("test@example.com", 0)).willReturn(Flux.just(testUser));
 
         // When
-        Mono<ResponseEntity<Map<String, Object>>> result = userController.searchUsersByEmail("test@example.com");
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.searchUsersByEmail("test@example.com", 0);
 
         // Then
         StepVerifier.create(result)
@@ -303,6 +327,36 @@ class UserControllerTest {
                 ;
     }
 
+    @Test
+    void deleteUser_WhenDatabaseUnavailable_ShouldLeaveErrorToGlobalHandler() {
+        // Given
+        given(userService.deleteUser(1L))
+                .willReturn(Mono.error(new DataAccessResourceFailureException("Failed to obtain R2DBC Connection")));
+
+        // When
+        Mono<ResponseEntity<Map<String, Object>>> result = userController.deleteUser(1L);
+
+        // Then: 由 GlobalExceptionHandler 返回 503，而不是 400
+        StepVerifier.create(result)
+                .expectError(DataAccessResourceFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void createAndUpdateUser_WhenTransientDatabaseError_ShouldLeaveErrorToGlobalHandler() {
+        // Given
+        given(userService.createUser(any(User.class))).willReturn(Mono.error(new QueryTimeoutException("timeout")));
+        given(userService.updateUser(eq(1L), any(User.class))).willReturn(Mono.error(new QueryTimeoutException("timeout")));
+
+        // When & Then
+        StepVerifier.create(userController.createUser(testUser, null))
+                .expectError(QueryTimeoutException.class)
+                .verify();
+        StepVerifier.create(userController.updateUser(1L, testUser))
+                .expectError(QueryTimeoutException.class)
+                .verify();
+    }
+
     @Test
     void countUsers_Success() {
         // Given
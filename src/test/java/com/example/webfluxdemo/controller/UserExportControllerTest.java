@@ -0,0 +1,77 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.export.UserExportFormat;
+import com.example.webfluxdemo.export.UserExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportControllerTest {
+
+    @Mock
+    private UserExportService userExportService;
+
+    @InjectMocks
+    private UserExportController userExportController;
+
+    @Test
+    void exportUsers_WhenGzipAccepted_ShouldUseContentEncoding() {
+        // Given
+        given(userExportService.exportUsers(eq(UserExportFormat.CSV), eq(true), any())).willReturn(Flux.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"));
+
+        // When
+        ResponseEntity<Flux<DataBuffer>> response = userExportController.exportUsers("csv", true, exchange);
+
+        // Then
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(UserExportFormat.CSV.getMediaType(), response.getHeaders().getContentType());
+        assertEquals("users.csv", response.getHeaders().getContentDisposition().getFilename());
+    }
+
+    @Test
+    void exportUsers_WhenGzipNotAccepted_ShouldSendGzipFileWithoutContentEncoding() {
+        // Given
+        given(userExportService.exportUsers(eq(UserExportFormat.CSV), eq(true), any())).willReturn(Flux.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"));
+
+        // When
+        ResponseEntity<Flux<DataBuffer>> response = userExportController.exportUsers("csv", true, exchange);
+
+        // Then
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+        assertEquals("users.csv.gz", response.getHeaders().getContentDisposition().getFilename());
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityAndWildcard() {
+        assertFalse(UserExportController.acceptsGzip(new HttpHeaders()));
+        assertTrue(UserExportController.acceptsGzip(headers("GZIP")));
+        assertTrue(UserExportController.acceptsGzip(headers("*")));
+        assertFalse(UserExportController.acceptsGzip(headers("identity, gzip; q=0")));
+        assertFalse(UserExportController.acceptsGzip(headers("br")));
+    }
+
+    private static HttpHeaders headers(String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return headers;
+    }
+}
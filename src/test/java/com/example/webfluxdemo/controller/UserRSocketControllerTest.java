@@ -0,0 +1,159 @@
+package com.example.webfluxdemo.controller;
+
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.rsocket.UserRSocketProperties;
+import com.example.webfluxdemo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserRSocketControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    private CloseableChannel server;
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        RSocketStrategies strategies = RSocketStrategies.builder()
+                .encoders(encoders -> encoders.add(new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR)))
+                .decoders(decoders -> decoders.add(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR)))
+                .build();
+
+        UserRSocketProperties properties = new UserRSocketProperties();
+        properties.setResolveBatchSize(3);
+        properties.setResolveMaxDelay(Duration.ofMillis(200));
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setRSocketStrategies(strategies);
+        handler.setHandlers(List.of(new UserRSocketController(userService, properties)));
+        handler.afterPropertiesSet();
+
+        server = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block(Duration.ofSeconds(5));
+        requester = RSocketRequester.builder()
+                .rsocketStrategies(strategies)
+                .dataMimeType(MediaType.APPLICATION_CBOR)
+                .tcp("localhost", server.address().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        requester.dispose();
+        server.dispose();
+    }
+
+    @Test
+    void getUser_ShouldReturnUserAsCbor() {
+        // Given
+        given(userService.getUserById(1L)).willReturn(Mono.just(user(1L)));
+
+        // When & Then
+        StepVerifier.create(requester.route("users.get.{id}", 1L).retrieveMono(User.class))
+                .assertNext(user -> {
+                    assertEquals(1L, user.getId());
+                    assertEquals("user_1", user.getUsername());
+                    assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), user.getCreatedAt());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getUser_WhenNotFound_ShouldComplete() {
+        // Given
+        given(userService.getUserById(404L)).willReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(requester.route("users.get.{id}", 404L).retrieveMono(User.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void listUsers_ShouldPropagateClientDemand() {
+        // Given
+        AtomicLong requested = new AtomicLong();
+        given(userService.getAllUsers()).willReturn(Flux.range(1, 10_000)
+                .map(i -> user((long) i))
+                .doOnRequest(n -> requested.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b)));
+
+        // When
+        StepVerifier.create(requester.route("users.list").retrieveFlux(User.class).limitRate(10), 0)
+                .thenRequest(20)
+                .expectNextCount(20)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        // Then: 服务端只按客户端的请求量读取，没有一次性拉取全部数据
+        assertTrue(requested.get() < 10_000, "requested = " + requested.get());
+    }
+
+    @Test
+    void searchByUsername_ShouldStreamMatches() {
+        // Given
+        given(userService.searchUsersByUsername("user")).willReturn(Flux.just(user(1L), user(2L)));
+
+        // When & Then
+        StepVerifier.create(requester.route("users.search.username.{keyword}", "user").retrieveFlux(User.class))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void resolveUsers_ShouldBatchIdsAndSkipMissing() {
+        // Given
+        given(userService.getUsersByIds(any())).willAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return Flux.fromIterable(ids).filter(id -> id != 404L).map(UserRSocketControllerTest::user);
+        });
+
+        // When
+        List<Long> resolved = requester.route("users.resolve")
+                .data(Flux.just(1L, 2L, 404L, 4L, 5L, 6L))
+                .retrieveFlux(User.class)
+                .map(User::getId)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), resolved);
+        verify(userService, atMost(3)).getUsersByIds(any());
+    }
+
+    private static User user(Long id) {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        return new User(id, "user_" + id, "user_" + id + "@example.com", "encoded", true, null, time, time);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.webfluxdemo.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+
+    private DeadlineProperties properties;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DeadlineProperties();
+        filter = new DeadlineFilter(properties);
+    }
+
+    @Test
+    void timeout_ShouldParseMillisAndUnitsAndCapAtMaxTimeout() {
+        assertEquals(Duration.ofMillis(1500), filter.timeout("1500"));
+        assertEquals(Duration.ofMillis(250), filter.timeout(" 250ms "));
+        assertEquals(Duration.ofSeconds(2), filter.timeout("2s"));
+        assertEquals(Duration.ZERO, filter.timeout("-5"));
+        assertEquals(Duration.ofSeconds(60), filter.timeout("10m"));
+    }
+
+    @Test
+    void timeout_WhenMissingOrInvalid_ShouldUseDefaultTimeout() {
+        assertNull(filter.timeout(null));
+        assertNull(filter.timeout("soon"));
+
+        // Given
+        properties.setDefaultTimeout(Duration.ofSeconds(10));
+
+        // Then
+        assertEquals(Duration.ofSeconds(10), filter.timeout(""));
+        assertEquals(Duration.ofSeconds(10), filter.timeout("soon"));
+    }
+
+    @Test
+    void filter_ShouldPutDeadlineIntoContext() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/users/1").header("X-Request-Timeout", "500ms"));
+        AtomicReference<Deadline> seen = new AtomicReference<>();
+
+        // When
+        Mono<Void> result = filter.filter(exchange, ex -> Mono.deferContextual(context -> {
+            seen.set(Deadline.from(context));
+            return Mono.empty();
+        }));
+
+        // Then
+        StepVerifier.create(result).verifyComplete();
+        assertNotNull(seen.get());
+        assertTrue(seen.get().remaining().compareTo(Duration.ofMillis(400)) > 0, seen.get().remaining().toString());
+        assertTrue(seen.get().remaining().compareTo(Duration.ofMillis(500)) <= 0, seen.get().remaining().toString());
+    }
+
+    @Test
+    void filter_WhenDisabled_ShouldNotSetDeadline() {
+        // Given
+        properties.setEnabled(false);
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/users/1").header("X-Request-Timeout", "500ms"));
+        AtomicReference<Boolean> present = new AtomicReference<>();
+
+        // When
+        Mono<Void> result = filter.filter(exchange, ex -> Mono.deferContextual(context -> {
+            present.set(Deadline.from(context) != null);
+            return Mono.empty();
+        }));
+
+        // Then
+        StepVerifier.create(result).verifyComplete();
+        assertFalse(present.get());
+    }
+}
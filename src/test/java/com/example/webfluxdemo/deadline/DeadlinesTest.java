@@ -0,0 +1,113 @@
+package com.example.webfluxdemo.deadline;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlinesTest {
+
+    @Test
+    void bound_WithoutDeadline_ShouldReturnSourceResult() {
+        // When
+        Mono<String> result = Deadlines.bound(Mono.delay(Duration.ofMillis(50)).thenReturn("done"));
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext("done")
+                .verifyComplete();
+    }
+
+    @Test
+    void bound_WhenExpired_ShouldNotSubscribeSource() {
+        // Given
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Mono<String> source = Mono.just("done").doOnSubscribe(subscription -> subscribed.set(true));
+
+        // When
+        Mono<String> result = Deadlines.bound(source)
+                .contextWrite(Deadline.after(Duration.ZERO).context());
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertFalse(subscribed.get());
+    }
+
+    @Test
+    void bound_WhenSlowerThanRemaining_ShouldCancelSource() {
+        // Given
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> source = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        // When
+        Mono<String> result = Deadlines.bound(source)
+                .contextWrite(Deadline.after(Duration.ofMillis(50)).context());
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void boundFlux_ShouldLimitWholeStreamRatherThanGapBetweenItems() {
+        // Given: 每 40ms 一个元素，共 10 个，截止时间 150ms
+        Flux<Long> source = Flux.interval(Duration.ofMillis(40)).take(10);
+        AtomicInteger received = new AtomicInteger();
+
+        // When
+        Flux<Long> result = Deadlines.bound(source)
+                .doOnNext(item -> received.incrementAndGet())
+                .contextWrite(Deadline.after(Duration.ofMillis(150)).context());
+
+        // Then: 每个元素的间隔都短于截止时间，整个 Flux 仍在截止时间结束
+        StepVerifier.create(result)
+                .thenConsumeWhile(item -> true)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertTrue(received.get() < 10, "收到 " + received.get());
+    }
+
+    @Test
+    void require_ShouldFailWhenRemainingIsShorterThanExpected() {
+        // Given
+        Context context = Deadline.after(Duration.ofMillis(200)).context();
+
+        // Then
+        StepVerifier.create(Deadlines.require("密码加密", Duration.ofMillis(100)).contextWrite(context))
+                .verifyComplete();
+        StepVerifier.create(Deadlines.require("密码加密", Duration.ofSeconds(1)).contextWrite(context))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(DeadlineExceededException.class, e);
+                    assertTrue(e.getMessage().contains("密码加密"), e.getMessage());
+                })
+                .verify();
+        StepVerifier.create(Deadlines.require("密码加密", Duration.ofDays(1)))
+                .verifyComplete();
+    }
+
+    @Test
+    void detach_ShouldHideDeadlineFromUpstream() {
+        // Given
+        Mono<String> source = Deadlines.bound(Mono.delay(Duration.ofMillis(100)).thenReturn("done"))
+                .contextWrite(Deadlines.detach());
+
+        // When
+        Mono<String> result = source.contextWrite(Deadline.after(Duration.ofMillis(20)).context());
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext("done")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.webfluxdemo.deadline;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementTimeoutConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private Result result;
+
+    private Connection wrapped;
+
+    @BeforeEach
+    void setUp() {
+        willAnswer(invocation -> Mono.just(connection)).given(connectionFactory).create();
+        given(connection.createStatement(any())).willReturn(statement);
+        wrapped = Mono.from(new StatementTimeoutConnectionFactory(connectionFactory, Duration.ofMillis(100)).create())
+                .block();
+    }
+
+    @Test
+    void execute_WithDeadline_ShouldSetStatementTimeoutToRemainingTime() {
+        // Given
+        willAnswer(invocation -> Mono.empty()).given(connection).setStatementTimeout(any());
+        willAnswer(invocation -> Flux.just(result)).given(statement).execute();
+
+        // When
+        Flux<Result> results = execute(Deadline.after(Duration.ofSeconds(2)));
+
+        // Then
+        StepVerifier.create(results)
+                .expectNext(result)
+                .verifyComplete();
+        ArgumentCaptor<Duration> timeout = ArgumentCaptor.forClass(Duration.class);
+        verify(connection).setStatementTimeout(timeout.capture());
+        assertTrue(timeout.getValue().compareTo(Duration.ofMillis(1900)) > 0, timeout.getValue().toString());
+        assertTrue(timeout.getValue().compareTo(Duration.ofSeconds(2)) <= 0, timeout.getValue().toString());
+    }
+
+    @Test
+    void execute_ShouldReuseTimeoutWithinSlackAndResetWithoutDeadline() {
+        // Given
+        willAnswer(invocation -> Mono.empty()).given(connection).setStatementTimeout(any());
+        willAnswer(invocation -> Flux.just(result)).given(statement).execute();
+        Deadline deadline = Deadline.after(Duration.ofSeconds(2));
+
+        // When: 同一个截止时间连续两条语句，之后一条没有截止时间的语句，再一条没有截止时间的语句
+        execute(deadline).blockLast();
+        execute(deadline).blockLast();
+        execute(null).blockLast();
+        execute(null).blockLast();
+
+        // Then
+        verify(connection, times(2)).setStatementTimeout(any());
+        verify(connection).setStatementTimeout(Duration.ZERO);
+        verify(statement, times(4)).execute();
+    }
+
+    @Test
+    void rollback_ShouldForgetStatementTimeoutSetInsideTransaction() {
+        // Given: 事务内设置过 statement_timeout，回滚后数据库恢复为事务前的值
+        willAnswer(invocation -> Mono.empty()).given(connection).setStatementTimeout(any());
+        willAnswer(invocation -> Flux.just(result)).given(statement).execute();
+        willAnswer(invocation -> Mono.empty()).given(connection).rollbackTransaction();
+        willAnswer(invocation -> Mono.empty()).given(connection).rollbackTransactionToSavepoint(any());
+        Deadline deadline = Deadline.after(Duration.ofSeconds(2));
+        execute(deadline).blockLast();
+
+        // When: 回滚后同一截止时间、回滚到保存点后没有截止时间
+        Mono.from(wrapped.rollbackTransaction()).block();
+        execute(deadline).blockLast();
+        Mono.from(wrapped.rollbackTransactionToSavepoint("sp")).block();
+        execute(null).blockLast();
+
+        // Then: 两次回滚后都重新设置
+        verify(connection, times(3)).setStatementTimeout(any());
+        verify(connection).setStatementTimeout(Duration.ZERO);
+    }
+
+    @Test
+    void execute_WithoutDeadline_ShouldNotTouchStatementTimeout() {
+        // Given
+        willAnswer(invocation -> Flux.just(result)).given(statement).execute();
+
+        // When
+        Flux<Result> results = execute(null);
+
+        // Then
+        StepVerifier.create(results)
+                .expectNext(result)
+                .verifyComplete();
+        verify(connection, never()).setStatementTimeout(any());
+    }
+
+    @Test
+    void execute_WhenExpired_ShouldNotExecuteStatement() {
+        // When
+        Flux<Result> results = execute(Deadline.after(Duration.ZERO));
+
+        // Then
+        StepVerifier.create(results)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        verify(statement, never()).execute();
+        verify(connection, never()).setStatementTimeout(any());
+    }
+
+    @Test
+    void execute_WhenDatabaseCancelsAfterDeadline_ShouldFailWithDeadlineExceeded() {
+        // Given: 数据库在 statement_timeout 到期后取消语句
+        willAnswer(invocation -> Mono.empty()).given(connection).setStatementTimeout(any());
+        willAnswer(invocation -> Mono.delay(Duration.ofMillis(80))
+                .then(Mono.error(new R2dbcTimeoutException("canceling statement due to statement timeout"))))
+                .given(statement).execute();
+
+        // When
+        Flux<Result> results = execute(Deadline.after(Duration.ofMillis(50)));
+
+        // Then
+        StepVerifier.create(results)
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(DeadlineExceededException.class, e);
+                    assertInstanceOf(R2dbcTimeoutException.class, e.getCause());
+                })
+                .verify(Duration.ofSeconds(1));
+    }
+
+    private Flux<Result> execute(Deadline deadline) {
+        Flux<Result> results = Flux.from(wrapped.createStatement("SELECT 1").execute());
+        return deadline == null ? results : results.contextWrite(deadline.context());
+    }
+}
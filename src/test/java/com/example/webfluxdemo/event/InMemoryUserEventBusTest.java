@@ -0,0 +1,190 @@
+package com.example.webfluxdemo.event;
+
+import com.example.webfluxdemo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryUserEventBusTest {
+
+    private UserEventProperties properties;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserEventProperties();
+        properties.setSubscriberBufferSize(2);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword123");
+    }
+
+    @Test
+    void publish_ShouldFanOutToAllSubscribers() {
+        // Given
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+
+        // When & Then
+        StepVerifier.create(bus.subscribe().take(1))
+                .then(() -> bus.publish(UserChangeEvent.created(testUser)).block())
+                .assertNext(event -> {
+                    assertEquals(UserChangeEvent.Type.CREATED, event.getType());
+                    assertEquals(1L, event.getUserId());
+                    assertEquals("testuser", event.getUsername());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void publish_WithoutSubscribers_ShouldNotFail() {
+        // Given
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+
+        // When & Then
+        assertDoesNotThrow(() -> bus.publish(UserChangeEvent.deleted(1L)).block());
+    }
+
+    @Test
+    void subscribe_ShouldOnlyReceiveEventsAfterSubscription() {
+        // Given
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+        bus.publish(UserChangeEvent.deleted(1L)).block();
+
+        // When & Then
+        StepVerifier.create(bus.subscribe().take(1))
+                .then(() -> bus.publish(UserChangeEvent.deleted(2L)).block())
+                .assertNext(event -> assertEquals(2L, event.getUserId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void slowSubscriber_WithDropOldest_ShouldKeepNewestEvents() {
+        // Given
+        properties.setOverflow(UserEventProperties.Overflow.DROP_OLDEST);
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+
+        // When & Then
+        StepVerifier.create(bus.subscribe(), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 5; id++) {
+                        bus.publish(UserChangeEvent.deleted(id)).block();
+                    }
+                })
+                .thenRequest(2)
+                .assertNext(event -> assertEquals(4L, event.getUserId()))
+                .assertNext(event -> assertEquals(5L, event.getUserId()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void slowSubscriber_WithDropLatest_ShouldKeepOldestEvents() {
+        // Given
+        properties.setOverflow(UserEventProperties.Overflow.DROP_LATEST);
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+
+        // When & Then
+        StepVerifier.create(bus.subscribe(), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 5; id++) {
+                        bus.publish(UserChangeEvent.deleted(id)).block();
+                    }
+                })
+                .thenRequest(2)
+                .assertNext(event -> assertEquals(1L, event.getUserId()))
+                .assertNext(event -> assertEquals(2L, event.getUserId()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void slowSubscriber_WithLatest_ShouldOnlyKeepLastEvent() {
+        // Given
+        properties.setOverflow(UserEventProperties.Overflow.LATEST);
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+
+        // When & Then
+        StepVerifier.create(bus.subscribe(), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 5; id++) {
+                        bus.publish(UserChangeEvent.deleted(id)).block();
+                    }
+                })
+                .thenRequest(1)
+                .assertNext(event -> assertEquals(5L, event.getUserId()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void publish_InTransaction_ShouldDeliverOnlyAfterCommit() {
+        // Given
+        InMemoryUserEventBus bus = new InMemoryUserEventBus(properties);
+        List<UserChangeEvent> received = new CopyOnWriteArrayList<>();
+        bus.subscribe().subscribe(received::add);
+        TransactionalOperator operator = TransactionalOperator.create(new TestTransactionManager());
+
+        // When
+        Mono<Void> committed = operator.transactional(bus.publish(UserChangeEvent.deleted(1L))
+                .then(Mono.<Void>fromRunnable(() -> assertTrue(received.isEmpty()))));
+        Mono<Void> rolledBack = operator.transactional(bus.publish(UserChangeEvent.deleted(2L))
+                .then(Mono.<Void>error(new IllegalStateException("回滚"))));
+
+        // Then
+        StepVerifier.create(committed).verifyComplete();
+        StepVerifier.create(rolledBack).expectError(IllegalStateException.class).verify();
+        assertEquals(List.of(1L), received.stream().map(UserChangeEvent::getUserId).toList());
+    }
+
+    @Test
+    void createdEvent_ShouldNotCarryPassword() {
+        // When
+        UserChangeEvent event = UserChangeEvent.created(testUser);
+
+        // Then
+        assertFalse(event.toString().contains("encodedPassword123"));
+    }
+
+    /**
+     * 只维护事务状态的事务管理器
+     */
+    private static class TestTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.webfluxdemo.existence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void create_ShouldSizeForExpectedInsertionsAndFpp() {
+        // When
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // Then: 1% 误判率约需 9.6 bit/元素、7 个哈希函数
+        assertEquals(7, filter.hashFunctions());
+        assertTrue(filter.bitSize() >= 9_585_059);
+        assertTrue(filter.memoryBytes() < 1_300_000);
+    }
+
+    @Test
+    void mightContain_ShouldNeverReturnFalseNegatives() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        // When
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user_" + i));
+
+        // Then
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filter.mightContain("user_" + i)));
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositiveRateNearTarget() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user_" + i));
+
+        // When
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other_" + i))
+                .count();
+
+        // Then
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFpp(), 0.005);
+        assertEquals(10_000, filter.approximateElementCount(), 300);
+    }
+
+    @Test
+    void put_ShouldReportWhetherNewBitsWereSet() {
+        // Given
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        // When & Then
+        assertTrue(filter.put("john_doe"));
+        assertFalse(filter.put("john_doe"));
+    }
+
+    @Test
+    void create_WithInvalidArguments_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.webfluxdemo.existence;
+
+import com.example.webfluxdemo.event.UserEventBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceFilterTest {
+
+    @Mock
+    private UserEventBus userEventBus;
+
+    private MeterRegistry meterRegistry;
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ExistenceFilterProperties properties = new ExistenceFilterProperties();
+        properties.setMinExpectedInsertions(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserExistenceFilter(null, userEventBus, properties, meterRegistry);
+    }
+
+    @Test
+    void definitelyAbsent_BeforeBuild_ShouldReturnFalse() {
+        // When & Then
+        assertFalse(filter.isReady());
+        assertFalse(filter.definitelyAbsentUsername("anyone"));
+        assertFalse(filter.definitelyAbsentEmail("anyone@example.com"));
+    }
+
+    @Test
+    void rebuild_ShouldLoadExistingUsernamesAndEmails() {
+        // When
+        StepVerifier.create(filter.rebuild(Mono.just(2L), Flux.just(
+                        new String[]{"john_doe", "john@example.com"},
+                        new String[]{"jane_smith", "jane@example.com"})))
+                .verifyComplete();
+
+        // Then
+        assertTrue(filter.isReady());
+        assertFalse(filter.definitelyAbsentUsername("john_doe"));
+        assertFalse(filter.definitelyAbsentEmail("jane@example.com"));
+        assertTrue(filter.definitelyAbsentUsername("new_user"));
+        assertTrue(filter.definitelyAbsentEmail("new@example.com"));
+    }
+
+    @Test
+    void definitelyAbsent_ShouldNormalizeCaseAndWhitespace() {
+        // Given
+        filter.rebuild(Mono.just(1L), Flux.<String[]>just(new String[]{"John_Doe", "John@Example.com"})).block();
+
+        // When & Then
+        assertFalse(filter.definitelyAbsentUsername(" john_doe "));
+        assertFalse(filter.definitelyAbsentEmail("JOHN@EXAMPLE.COM"));
+    }
+
+    @Test
+    void definitelyAbsent_ShouldSeparateUsernamesFromEmails() {
+        // Given
+        filter.rebuild(Mono.just(1L), Flux.<String[]>just(new String[]{"john_doe", "john@example.com"})).block();
+
+        // When & Then
+        assertTrue(filter.definitelyAbsentEmail("john_doe"));
+        assertTrue(filter.definitelyAbsentUsername("john@example.com"));
+    }
+
+    @Test
+    void add_ShouldMakeNewUserVisible() {
+        // Given
+        filter.rebuild(Mono.just(0L), Flux.empty()).block();
+        assertTrue(filter.definitelyAbsentUsername("new_user"));
+
+        // When
+        filter.add("new_user", "new@example.com");
+
+        // Then
+        assertFalse(filter.definitelyAbsentUsername("new_user"));
+        assertFalse(filter.definitelyAbsentEmail("new@example.com"));
+    }
+
+    @Test
+    void add_DuringRebuild_ShouldBeKeptAfterSwap() {
+        // Given
+        filter.rebuild(Mono.just(0L), Flux.empty()).block();
+        Sinks.Many<String[]> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Mono<Void> rebuild = filter.rebuild(Mono.just(1L), rows.asFlux());
+
+        // When: 重建读取过程中写入新用户
+        StepVerifier.create(rebuild)
+                .then(() -> {
+                    rows.tryEmitNext(new String[]{"john_doe", "john@example.com"});
+                    filter.add("during_rebuild", "during@example.com");
+                    rows.tryEmitComplete();
+                })
+                .verifyComplete();
+
+        // Then
+        assertFalse(filter.definitelyAbsentUsername("john_doe"));
+        assertFalse(filter.definitelyAbsentUsername("during_rebuild"));
+    }
+
+    @Test
+    void add_ConcurrentWithRepeatedSwaps_ShouldNeverLoseValues() throws InterruptedException {
+        // Given
+        filter.rebuild(Mono.just(0L), Flux.empty()).block();
+        int count = 2_000;
+        List<String[]> table = new CopyOnWriteArrayList<>();
+        Flux<String[]> snapshot = Flux.defer(() -> Flux.fromIterable(List.copyOf(table)));
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                // 先提交到表中再加入过滤器，与 UserService 的顺序一致
+                table.add(new String[]{"user_" + i, "user_" + i + "@example.com"});
+                filter.add("user_" + i, "user_" + i + "@example.com");
+            }
+        });
+
+        // When: 写入的同时反复重建并切换
+        writer.start();
+        while (writer.isAlive()) {
+            filter.rebuild(Mono.just((long) count), snapshot).block();
+        }
+        writer.join();
+
+        // Then
+        for (int i = 0; i < count; i++) {
+            assertFalse(filter.definitelyAbsentUsername("user_" + i), "user_" + i);
+        }
+    }
+
+    @Test
+    void rebuild_ShouldDropRemovedValues() {
+        // Given
+        filter.rebuild(Mono.just(1L), Flux.<String[]>just(new String[]{"old_name", "old@example.com"})).block();
+
+        // When
+        filter.rebuild(Mono.just(1L), Flux.<String[]>just(new String[]{"new_name", "new@example.com"})).block();
+
+        // Then
+        assertTrue(filter.definitelyAbsentUsername("old_name"));
+        assertFalse(filter.definitelyAbsentUsername("new_name"));
+    }
+
+    @Test
+    void metrics_ShouldExposeMemoryAndObservedFalsePositiveRate() {
+        // Given
+        filter.rebuild(Mono.just(1L), Flux.<String[]>just(new String[]{"john_doe", "john@example.com"})).block();
+
+        // When: 3 次跳过查询，1 次误判
+        filter.definitelyAbsentUsername("a");
+        filter.definitelyAbsentUsername("b");
+        filter.definitelyAbsentUsername("c");
+        filter.recordQueryResult(false);
+        filter.recordQueryResult(true);
+
+        // Then
+        assertTrue(meterRegistry.get("user.existence.filter.memory").gauge().value() > 0);
+        assertEquals(0.25, meterRegistry.get("user.existence.filter.fpp").tag("type", "observed").gauge().value());
+        assertEquals(1.0, meterRegistry.get("user.existence.filter.checks").tag("result", "present").counter().count());
+    }
+}
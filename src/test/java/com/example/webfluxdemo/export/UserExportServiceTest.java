@@ -0,0 +1,153 @@
+package com.example.webfluxdemo.export;
+
+import com.example.webfluxdemo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    private UserExportService userExportService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        UserExportProperties properties = new UserExportProperties();
+        properties.setBatchSize(2);
+        properties.setBufferCapacity(64);
+        userExportService = new UserExportService(databaseClient, properties);
+
+        testUser = new User(1L, "testuser", "test@example.com", "encodedPassword123", true, "Test bio",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000));
+    }
+
+    @Test
+    void encode_Csv_ShouldWriteHeaderAndRows() {
+        // When
+        String csv = new String(collect(userExportService.encode(Flux.just(testUser), UserExportFormat.CSV,
+                false, DefaultDataBufferFactory.sharedInstance)), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals(UserExportWriter.CSV_HEADER
+                + "1,testuser,test@example.com,true,Test bio,2024-01-02T03:04:05,2024-01-02T03:04:05.12\n", csv);
+        assertFalse(csv.contains("encodedPassword123"));
+    }
+
+    @Test
+    void encode_Csv_ShouldQuoteSpecialCharacters() {
+        // Given
+        User user = new User(1L, "testuser", "test@example.com", null, true, "hello, \"world\"\nbye",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+
+        // When
+        String csv = new String(collect(userExportService.encode(Flux.just(user), UserExportFormat.CSV,
+                false, DefaultDataBufferFactory.sharedInstance)), StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(csv.contains(",\"hello, \"\"world\"\"\nbye\","));
+    }
+
+    @Test
+    void encode_Ndjson_ShouldWriteOneObjectPerLine() {
+        // Given
+        User user = new User(1L, "testuser", "test@example.com", null, true, "简介 \"quoted\"",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000));
+
+        // When
+        String ndjson = new String(collect(userExportService.encode(Flux.just(user, user),
+                UserExportFormat.NDJSON, false, DefaultDataBufferFactory.sharedInstance)), StandardCharsets.UTF_8);
+
+        // Then
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"username\":\"testuser\",\"email\":\"test@example.com\",\"isActive\":true,"
+                + "\"bio\":\"简介 \\\"quoted\\\"\",\"createdAt\":\"2024-01-02T03:04:05\","
+                + "\"updatedAt\":\"2024-01-02T03:04:05.12\"}", lines[0]);
+    }
+
+    @Test
+    void encode_WithGzip_ShouldProduceValidGzipStream() throws IOException {
+        // Given
+        List<User> users = Flux.range(1, 1000)
+                .map(i -> new User((long) i, "user" + i, "user" + i + "@example.com", null, true, null,
+                        LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0)))
+                .collectList()
+                .block();
+
+        // When
+        byte[] compressed = collect(userExportService.encode(Flux.fromIterable(users), UserExportFormat.CSV,
+                true, DefaultDataBufferFactory.sharedInstance));
+
+        // Then
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals(1001, csv.split("\n").length);
+        assertTrue(csv.endsWith("1000,user1000,user1000@example.com,true,,2024-01-01T00:00:00,2024-01-01T00:00:00\n"));
+    }
+
+    @Test
+    void encode_ShouldEmitOneBufferPerBatch() {
+        // When
+        List<DataBuffer> buffers = userExportService.encode(Flux.just(testUser, testUser, testUser),
+                        UserExportFormat.CSV, true, DefaultDataBufferFactory.sharedInstance)
+                .collectList()
+                .block();
+
+        // Then: 2 batches + gzip trailer
+        assertNotNull(buffers);
+        assertEquals(3, buffers.size());
+        buffers.forEach(DataBufferUtils::release);
+    }
+
+    @Test
+    void encode_WithNoUsers_ShouldStillWriteCsvHeader() throws IOException {
+        // When
+        byte[] compressed = collect(userExportService.encode(Flux.empty(), UserExportFormat.CSV,
+                true, DefaultDataBufferFactory.sharedInstance));
+
+        // Then
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals(UserExportWriter.CSV_HEADER, csv);
+    }
+
+    @Test
+    void fromValue_ShouldIgnoreCase() {
+        assertEquals(UserExportFormat.NDJSON, UserExportFormat.fromValue("ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> UserExportFormat.fromValue("xml"));
+    }
+
+    private static byte[] collect(Flux<DataBuffer> buffers) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        buffers.doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    output.writeBytes(bytes);
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.webfluxdemo.hotkey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyFilterTest {
+
+    private HotKeyProperties properties;
+    private HotKeys hotKeys;
+    private HotKeyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HotKeyProperties();
+        properties.setDecayInterval(Duration.ZERO);
+        hotKeys = new HotKeys(properties);
+        filter = new HotKeyFilter(hotKeys);
+    }
+
+    @Test
+    void filter_ShouldRecordIdsAndKeywordsPerOperation() {
+        // When
+        send(MockServerHttpRequest.get("/api/users/42"));
+        send(MockServerHttpRequest.get("/api/users/42"));
+        send(MockServerHttpRequest.get("/api/users/7"));
+        send(MockServerHttpRequest.delete("/api/users/42"));
+        send(MockServerHttpRequest.get("/api/users/search/username").queryParam("keyword", " john "));
+
+        // Then
+        Map<String, HotKeys.Report> report = hotKeys.report(10);
+        assertEquals(List.of(new HotKey("42", 2, 2 / 3.0), new HotKey("7", 1, 1 / 3.0)),
+                report.get("get_by_id").keys());
+        assertEquals("42", report.get("delete").keys().get(0).key());
+        assertEquals("john", report.get("search_username").keys().get(0).key());
+        assertEquals(3, hotKeys.report("GET_BY_ID", 1).total());
+        assertNull(hotKeys.report("count", 1));
+    }
+
+    @Test
+    void filter_OtherRequests_ShouldNotBeRecorded() {
+        // When
+        send(MockServerHttpRequest.get("/api/users/page"));
+        send(MockServerHttpRequest.get("/actuator/health"));
+        send(MockServerHttpRequest.get("/api/users/search/username"));
+
+        // Then
+        assertTrue(hotKeys.report(10).values().stream().allMatch(report -> report.total() == 0));
+    }
+
+    @Test
+    void filter_WhenDisabled_ShouldNotRecord() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        send(MockServerHttpRequest.get("/api/users/42"));
+
+        // Then
+        assertEquals(0, hotKeys.report("get_by_id", 10).total());
+    }
+
+    private void send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        StepVerifier.create(filter.filter(exchange, ignored -> Mono.empty())).verifyComplete();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.webfluxdemo.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void record_SkewedStream_ShouldFindHeavyHitters() {
+        // Given: 3 个热点各占约 10%，其余请求分散在 10 万个键上
+        HotKeyTracker tracker = new HotKeyTracker(2048, 4, 16, 64);
+        Random random = new Random(7);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            int bucket = random.nextInt(10);
+            tracker.record(bucket < 3 ? "hot_" + bucket : Integer.toString(random.nextInt(100_000)));
+        }
+
+        // Then
+        List<HotKey> top = tracker.top(3);
+        assertEquals(3, top.size());
+        assertTrue(top.stream().allMatch(key -> key.key().startsWith("hot_")), top.toString());
+        for (HotKey key : top) {
+            // 真实次数约 20000，sketch 只会高估，误差不超过 总数 * e / width ≈ 265
+            assertTrue(key.count() >= 19_000 && key.count() <= 21_500, key.toString());
+            assertEquals(0.1, key.share(), 0.01);
+        }
+        assertEquals(200_000, tracker.total());
+    }
+
+    @Test
+    void record_WhenFull_ShouldOnlyAdmitKeysAboveMinimum() {
+        // Given
+        HotKeyTracker tracker = new HotKeyTracker(1024, 4, 2, 64);
+        repeat(tracker, "a", 5);
+        repeat(tracker, "b", 3);
+
+        // When: c 只出现一次，不超过最小候选 b；d 超过后替换 b
+        tracker.record("c");
+        repeat(tracker, "d", 4);
+
+        // Then
+        assertEquals(List.of("a", "d"), tracker.top(10).stream().map(HotKey::key).toList());
+    }
+
+    @Test
+    void decay_ShouldScaleCountsAndDropColdKeys() {
+        // Given
+        HotKeyTracker tracker = new HotKeyTracker(1024, 4, 8, 64);
+        repeat(tracker, "hot", 8);
+        tracker.record("cold");
+
+        // When
+        tracker.decay(0.5);
+
+        // Then
+        assertEquals(List.of(new HotKey("hot", 4, 4 / 4.0)), tracker.top(10));
+        assertEquals(4, tracker.total());
+
+        // When: 衰减后的新请求权重更高
+        repeat(tracker, "new", 6);
+
+        // Then
+        assertEquals("new", tracker.top(1).get(0).key());
+    }
+
+    @Test
+    void record_LongOrEmptyKeys_ShouldBeTruncatedOrIgnored() {
+        // Given
+        HotKeyTracker tracker = new HotKeyTracker(1024, 4, 8, 4);
+
+        // When
+        tracker.record("abcdefgh");
+        tracker.record("abcdxyz");
+        tracker.record("");
+        tracker.record(null);
+
+        // Then
+        assertEquals(List.of(new HotKey("abcd", 2, 1.0)), tracker.top(10));
+    }
+
+    @Test
+    void reset_ShouldClearEverything() {
+        // Given
+        HotKeyTracker tracker = new HotKeyTracker(1024, 4, 8, 64);
+        repeat(tracker, "a", 3);
+
+        // When
+        tracker.reset();
+
+        // Then
+        assertTrue(tracker.top(10).isEmpty());
+        assertEquals(0, tracker.total());
+        tracker.record("a");
+        assertEquals(1, tracker.top(1).get(0).count());
+    }
+
+    private static void repeat(HotKeyTracker tracker, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(key);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.webfluxdemo.id;
+
+import com.example.webfluxdemo.event.UserEventProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdConfigTest {
+
+    @Test
+    void nodeId_ShouldPreferConfiguredValue() {
+        // Given
+        IdProperties properties = new IdProperties();
+        properties.setNodeId(7);
+        UserEventProperties eventProperties = new UserEventProperties();
+        eventProperties.setBus(UserEventProperties.Bus.POSTGRES);
+
+        // When & Then
+        assertEquals(7, IdConfig.nodeId(properties, eventProperties));
+    }
+
+    @Test
+    void nodeId_WhenMultiNodeWithoutNodeId_ShouldFail() {
+        // Given
+        UserEventProperties eventProperties = new UserEventProperties();
+        eventProperties.setBus(UserEventProperties.Bus.POSTGRES);
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> IdConfig.nodeId(new IdProperties(), eventProperties));
+        assertTrue(exception.getMessage().contains("app.id.node-id"));
+    }
+
+    @Test
+    void nodeId_WhenSingleNodeWithoutNodeId_ShouldDerive() {
+        // When
+        long nodeId = IdConfig.nodeId(new IdProperties(), new UserEventProperties());
+
+        // Then
+        assertTrue(nodeId >= 0 && nodeId <= SnowflakeIdGenerator.MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.webfluxdemo.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void nextId_ShouldEncodeTimestampNodeAndSequence() {
+        // Given
+        long now = EPOCH.toEpochMilli() + 12_345;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, EPOCH, () -> now);
+
+        // When
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        // Then
+        assertEquals(Instant.ofEpochMilli(now), generator.timestampOf(first));
+        assertEquals(42, SnowflakeIdGenerator.nodeIdOf(first));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(first));
+        assertEquals(1, SnowflakeIdGenerator.sequenceOf(second));
+        assertTrue(first > 0);
+    }
+
+    @Test
+    void nextId_WhenSequenceExhausted_ShouldBorrowNextMillisecond() {
+        // Given
+        long now = EPOCH.toEpochMilli() + 1_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, () -> now);
+
+        // When
+        long last = 0;
+        for (int i = 0; i < 4097; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        // Then
+        assertEquals(Instant.ofEpochMilli(now + 1), generator.timestampOf(last));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(last));
+    }
+
+    @Test
+    void nextId_WhenBorrowLimitReached_ShouldFailInsteadOfWaiting() {
+        // Given: 时钟停在同一毫秒
+        long base = EPOCH.toEpochMilli() + 10_000;
+        long idsWithinLimit = SnowflakeIdGenerator.MAX_BORROW_MILLIS * 4096;
+        AtomicLong clock = new AtomicLong(base);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, clock::get);
+        for (long i = 0; i <= idsWithinLimit; i++) {
+            generator.nextId();
+        }
+
+        // When & Then: 超出借用上限立即失败，时钟前进后恢复
+        assertThrows(IllegalStateException.class, generator::nextId);
+        clock.addAndGet(2_000);
+        assertEquals(Instant.ofEpochMilli(base + 2_000), generator.timestampOf(generator.nextId()));
+    }
+
+    @Test
+    void nextId_WhenClockStepsBackBeyondBorrowLimit_ShouldFail() {
+        // Given
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 5_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, clock::get);
+        long before = generator.nextId();
+
+        // When
+        clock.addAndGet(-SnowflakeIdGenerator.MAX_BORROW_MILLIS - 500);
+
+        // Then
+        assertThrows(IllegalStateException.class, generator::nextId);
+        clock.addAndGet(SnowflakeIdGenerator.MAX_BORROW_MILLIS + 501);
+        assertTrue(generator.nextId() > before);
+    }
+
+    @Test
+    void nextId_WhenClockMovesBackwards_ShouldStayMonotonic() {
+        // Given
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 5_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, clock::get);
+        long before = generator.nextId();
+
+        // When
+        clock.addAndGet(-500);
+        long after = generator.nextId();
+
+        // Then
+        assertTrue(after > before);
+        assertEquals(generator.timestampOf(before), generator.timestampOf(after));
+    }
+
+    @Test
+    void nextId_DifferentNodes_ShouldNotCollide() {
+        // Given
+        long now = EPOCH.toEpochMilli() + 1;
+        SnowflakeIdGenerator node1 = new SnowflakeIdGenerator(1, EPOCH, () -> now);
+        SnowflakeIdGenerator node2 = new SnowflakeIdGenerator(2, EPOCH, () -> now);
+
+        // When & Then
+        assertNotEquals(node1.nextId(), node2.nextId());
+    }
+
+    @Test
+    void nextId_UnderContention_ShouldBeUnique() throws InterruptedException {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, EPOCH);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void constructor_WithInvalidNodeId_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, EPOCH));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024, EPOCH));
+    }
+}
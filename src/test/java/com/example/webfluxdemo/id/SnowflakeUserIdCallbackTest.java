@@ -0,0 +1,43 @@
+package com.example.webfluxdemo.id;
+
+import com.example.webfluxdemo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeUserIdCallbackTest {
+
+    private final SnowflakeUserIdCallback callback =
+            new SnowflakeUserIdCallback(new SnowflakeIdGenerator(3, Instant.parse("2024-01-01T00:00:00Z")));
+
+    @Test
+    void onBeforeConvert_NewUser_ShouldAssignId() {
+        // Given
+        User user = new User("newuser", "newuser@example.com", "encodedPassword123");
+
+        // When & Then
+        StepVerifier.create(Mono.from(callback.onBeforeConvert(user, SqlIdentifier.unquoted("users"))))
+                .assertNext(converted -> {
+                    assertNotNull(converted.getId());
+                    assertEquals(3, SnowflakeIdGenerator.nodeIdOf(converted.getId()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void onBeforeConvert_ExistingUser_ShouldKeepId() {
+        // Given
+        User user = new User("testuser", "test@example.com", "encodedPassword123");
+        user.setId(1L);
+
+        // When & Then
+        StepVerifier.create(Mono.from(callback.onBeforeConvert(user, SqlIdentifier.unquoted("users"))))
+                .assertNext(converted -> assertEquals(1L, converted.getId()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.webfluxdemo.idempotency;
+
+import com.example.webfluxdemo.support.LatencyStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency-Key 集成测试：数据库存储下并发重试只创建一次，之后的重试直接重放，并对比首次创建与重放的延迟
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=IdempotencyIT -Dperf.write-requests=100
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///idempotency;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=0",
+                "app.idempotency.store=database",
+                // 只比较创建与重放本身，不经过限流与隔离舱排队
+                "app.limiter.enabled=false",
+                "app.bulkhead.enabled=false",
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class IdempotencyIT {
+
+    private static final int WRITE_REQUESTS = Integer.getInteger("perf.write-requests", 100);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    private WebClient webClient;
+    private final List<LatencyStats> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        webClient = WebClient.create("http://localhost:" + port);
+    }
+
+    @AfterAll
+    void report() {
+        System.out.printf("%nPOST /api/users 首次创建与 Idempotency-Key 重放 (concurrency=%d)%n", CONCURRENCY);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    @Order(1)
+    void concurrentDuplicates_ShouldCreateOnce() {
+        assertInstanceOf(DatabaseIdempotencyStore.class, store);
+
+        List<ResponseEntity<Map<String, Object>>> responses = Flux.range(0, CONCURRENCY)
+                .flatMap(i -> create("dup-key", "dup_user"))
+                .collectList()
+                .block(Duration.ofMinutes(1));
+
+        assertEquals(CONCURRENCY, responses.size());
+        responses.forEach(response -> assertEquals(HttpStatus.OK, response.getStatusCode()));
+        assertEquals(1, responses.stream().map(IdempotencyIT::userId).distinct().count());
+        assertEquals(1, responses.stream().filter(response -> "false".equals(
+                response.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER))).count());
+        assertEquals(1L, count("SELECT COUNT(*) FROM users WHERE username = 'dup_user'"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = 'dup-key'"));
+    }
+
+    @Test
+    @Order(2)
+    void retries_ShouldReplayWithoutCreating() {
+        LatencyStats created = load("POST (new key)", i -> create("key-" + i, "idem_" + i), "false");
+        LatencyStats replayed = load("POST (retry, replayed)", i -> create("key-" + i, "idem_" + i), "true");
+
+        assertEquals(WRITE_REQUESTS, count("SELECT COUNT(*) FROM users WHERE username LIKE 'idem_%'"));
+        // 重放不经过存在性查询与 BCrypt
+        assertTrue(replayed.percentileMillis(50) < created.percentileMillis(50),
+                "重放的延迟应低于首次创建");
+    }
+
+    @Test
+    @Order(3)
+    void sameKeyDifferentBody_ShouldReturn422() {
+        ResponseEntity<Map<String, Object>> response = create("dup-key", "another_user").block(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(0L, count("SELECT COUNT(*) FROM users WHERE username = 'another_user'"));
+    }
+
+    private LatencyStats load(String name, IntFunction<Mono<ResponseEntity<Map<String, Object>>>> request,
+                              String expectedReplayed) {
+        LatencyStats stats = new LatencyStats(name, WRITE_REQUESTS);
+        stats.start();
+        Flux.range(0, WRITE_REQUESTS)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return request.apply(i)
+                            .doOnNext(response -> {
+                                if (response.getStatusCode().is2xxSuccessful() && expectedReplayed.equals(
+                                        response.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER))) {
+                                    stats.record(System.nanoTime() - start);
+                                } else {
+                                    stats.recordError();
+                                }
+                            });
+                }, CONCURRENCY)
+                .blockLast(Duration.ofMinutes(5));
+        stats.stop();
+        results.add(stats);
+        assertEquals(0, stats.getErrors());
+        return stats;
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> create(String key, String username) {
+        return webClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotentRequests.HEADER, key)
+                .bodyValue(Map.of("username", username, "email", username + "@idem.test", "password", "Password123!"))
+                .exchangeToMono(response -> response.toEntity(RESPONSE_TYPE));
+    }
+
+    private long count(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object userId(ResponseEntity<Map<String, Object>> response) {
+        return ((Map<String, Object>) response.getBody().get("data")).get("id");
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.webfluxdemo.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentRequestsTest {
+
+    private static final String FINGERPRINT = IdempotentRequests.fingerprint("newuser", "newuser@example.com", null);
+
+    private IdempotencyProperties properties;
+    private MeterRegistry meterRegistry;
+    private IdempotentRequests requests;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        requests = new IdempotentRequests(new InMemoryIdempotencyStore(100, System::nanoTime), properties,
+                meterRegistry);
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_ShouldShareOneExecution() {
+        // Given: 第一次执行尚未完成
+        Sinks.One<ResponseEntity<Map<String, Object>>> pending = Sinks.one();
+        Mono<ResponseEntity<Map<String, Object>>> action = Mono.defer(() -> {
+            executions.incrementAndGet();
+            return pending.asMono();
+        });
+
+        // When
+        Mono<List<ResponseEntity<Map<String, Object>>>> responses = Flux.range(0, 5)
+                .flatMap(i -> requests.execute("key-1", FINGERPRINT, action))
+                .collectList();
+        StepVerifier.create(responses)
+                .then(() -> pending.tryEmitValue(created(1L)))
+                .assertNext(list -> {
+                    // Then
+                    assertEquals(5, list.size());
+                    list.forEach(response -> assertEquals(HttpStatus.OK, response.getStatusCode()));
+                    assertEquals(1, list.stream()
+                            .filter(response -> "false".equals(replayedHeader(response))).count());
+                })
+                .verifyComplete();
+        assertEquals(1, executions.get());
+        assertEquals(0, requests.inflight());
+        assertEquals(4, meterRegistry.get("user.idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void execute_AfterCompletion_ShouldReplayWithoutExecuting() {
+        // Given
+        requests.execute("key-1", FINGERPRINT, action(created(1L))).block(Duration.ofSeconds(5));
+
+        // When
+        ResponseEntity<Map<String, Object>> replay = requests.execute("key-1", FINGERPRINT, action(created(2L)))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.OK, replay.getStatusCode());
+        assertEquals("true", replayedHeader(replay));
+        assertEquals(1L, replay.getBody().get("data"));
+    }
+
+    @Test
+    void execute_WhenFailed_ShouldNotStoreResult() {
+        // Given: 第一次因参数错误失败
+        ResponseEntity<Map<String, Object>> failed = requests.execute("key-1", FINGERPRINT,
+                action(ResponseEntity.badRequest().body(Map.of("success", false)))).block(Duration.ofSeconds(5));
+
+        // When
+        ResponseEntity<Map<String, Object>> retried = requests.execute("key-1", FINGERPRINT, action(created(1L)))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, failed.getStatusCode());
+        assertEquals(HttpStatus.OK, retried.getStatusCode());
+        assertEquals("false", replayedHeader(retried));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_ShouldReturn422() {
+        // Given
+        requests.execute("key-1", FINGERPRINT, action(created(1L))).block(Duration.ofSeconds(5));
+        String other = IdempotentRequests.fingerprint("otheruser", "other@example.com", null);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = requests.execute("key-1", other, action(created(2L)))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(false, response.getBody().get("success"));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenCallerCancels_ShouldStillCompleteAndStore() {
+        // Given
+        Sinks.One<ResponseEntity<Map<String, Object>>> pending = Sinks.one();
+        requests.execute("key-1", FINGERPRINT, pending.asMono()).subscribe().dispose();
+
+        // When
+        pending.tryEmitValue(created(1L));
+        ResponseEntity<Map<String, Object>> retried = requests.execute("key-1", FINGERPRINT, action(created(2L)))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals("true", replayedHeader(retried));
+        assertEquals(1L, retried.getBody().get("data"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_WithInvalidKeyOrDisabled_ShouldNotDeduplicate() {
+        // When
+        ResponseEntity<Map<String, Object>> invalid = requests.execute(" ", FINGERPRINT, action(created(1L)))
+                .block(Duration.ofSeconds(5));
+        properties.setEnabled(false);
+        requests.execute("key-1", FINGERPRINT, action(created(1L))).block(Duration.ofSeconds(5));
+        requests.execute("key-1", FINGERPRINT, action(created(1L))).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void inMemoryStore_ShouldExpireAndEvictOldestEntries() {
+        // Given
+        long[] now = {0};
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, () -> now[0]);
+        IdempotentResponse response = new IdempotentResponse(FINGERPRINT, 200, Map.of());
+        Duration ttl = Duration.ofSeconds(10);
+
+        // When
+        store.save("a", response, ttl).block();
+        store.save("b", response, ttl).block();
+        store.save("c", response, ttl).block();
+
+        // Then: 超出容量淘汰最早的 a
+        assertEquals(2, store.size());
+        assertNull(store.find("a").block());
+        assertNotNull(store.find("b").block());
+        now[0] = ttl.toNanos();
+        assertNull(store.find("c").block());
+        store.save("d", response, ttl).block();
+        assertEquals(1, store.size());
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> action(ResponseEntity<Map<String, Object>> response) {
+        return Mono.fromSupplier(() -> {
+            executions.incrementAndGet();
+            return response;
+        });
+    }
+
+    private static ResponseEntity<Map<String, Object>> created(long id) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", true);
+        body.put("message", "用户创建成功");
+        body.put("data", id);
+        return ResponseEntity.ok(body);
+    }
+
+    private static String replayedHeader(ResponseEntity<?> response) {
+        return response.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER);
+    }
+}
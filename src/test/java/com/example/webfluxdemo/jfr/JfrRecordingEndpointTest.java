@@ -0,0 +1,66 @@
+package com.example.webfluxdemo.jfr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecordingEndpointTest {
+
+    private JfrRecordings recordings;
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        recordings = new JfrRecordings(new JfrProperties());
+        endpoint = new JfrRecordingEndpoint(recordings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordings.close();
+    }
+
+    @Test
+    void start_ShouldMapErrorsToStatusCodes() {
+        // When & Then
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.start("abc", null).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.start("2h", null).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_OK, endpoint.start("30s", null).getStatus());
+        assertEquals(409, endpoint.start(null, null).getStatus());
+    }
+
+    @Test
+    void stop_WithoutRecording_ShouldReturnNotFound() {
+        // When & Then
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop().getStatus());
+    }
+
+    @Test
+    void stop_ShouldStreamFileAndDeleteItAfterwards() throws Exception {
+        // Given
+        endpoint.start("30s", null);
+
+        // When
+        WebEndpointResponse<Resource> response = endpoint.stop();
+
+        // Then
+        Resource resource = response.getBody();
+        assertFalse(resource.isFile());
+        Path path = Path.of(resource.getURI());
+        assertTrue(Files.exists(path));
+        try (InputStream in = resource.getInputStream()) {
+            byte[] magic = in.readNBytes(4);
+            assertArrayEquals(new byte[]{'F', 'L', 'R', 0}, magic);
+        }
+        assertFalse(Files.exists(path));
+        assertEquals("NONE", endpoint.status().state());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.webfluxdemo.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * /actuator/jfr 集成测试：录制期间的请求产生 UserService 阶段事件，停止后下载的文件可被 JFR 解析，
+ * 并按 操作/阶段 输出耗时分布
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=JfrRecordingIT
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///jfr_recording;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=1000",
+                "spring.rsocket.server.port=0",
+                "management.endpoints.web.exposure.include=jfr",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+class JfrRecordingIT {
+
+    private static final int REQUESTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void recording_ShouldCaptureUserServicePhases() throws Exception {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+
+        // 开始录制
+        Map<?, ?> started = webClient.post().uri("/actuator/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("duration", "2m"))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .block(Duration.ofSeconds(10));
+        assertEquals("RUNNING", started.get("state"));
+        HttpStatus conflict = webClient.post().uri("/actuator/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of())
+                .exchangeToMono(response -> Mono.just(HttpStatus.valueOf(response.statusCode().value())))
+                .block(Duration.ofSeconds(10));
+        assertEquals(HttpStatus.CONFLICT, conflict);
+
+        // 录制期间的请求
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> webClient.get()
+                        .uri("/api/users/{id}", ThreadLocalRandom.current().nextLong(1, 1001))
+                        .retrieve()
+                        .bodyToMono(String.class), 16)
+                .blockLast(Duration.ofMinutes(2));
+        webClient.get().uri("/api/users/count").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(10));
+
+        // 停止并下载
+        byte[] recording = webClient.delete().uri("/actuator/jfr")
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .block(Duration.ofMinutes(1));
+        Path file = Files.createTempFile("jfr-it-", ".jfr");
+        try {
+            Files.write(file, recording);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.webfluxdemo.UserPhase"))
+                    .toList();
+
+            Map<String, List<Long>> micros = events.stream().collect(Collectors.groupingBy(
+                    event -> event.getString("operation") + "/" + event.getString("phase"),
+                    TreeMap::new,
+                    Collectors.mapping(event -> event.getDuration().toNanos() / 1000, Collectors.toList())));
+            System.out.printf("%nJFR 录制 %d KB, UserService 阶段事件 %d 个%n", recording.length / 1024, events.size());
+            System.out.printf("%-30s %8s %10s %10s%n", "operation/phase", "count", "p50 (us)", "p99 (us)");
+            micros.forEach((key, values) -> {
+                List<Long> sorted = values.stream().sorted().toList();
+                System.out.printf("%-30s %8d %10d %10d%n", key, sorted.size(),
+                        sorted.get(sorted.size() / 2), sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * 0.99)));
+            });
+
+            assertEquals(REQUESTS, micros.get("getUserById/FIND").size());
+            assertEquals(1, micros.get("countAllUsers/COUNT").size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        HttpStatus none = webClient.delete().uri("/actuator/jfr")
+                .exchangeToMono(response -> Mono.just(HttpStatus.valueOf(response.statusCode().value())))
+                .block(Duration.ofSeconds(10));
+        assertEquals(HttpStatus.NOT_FOUND, none);
+    }
+}
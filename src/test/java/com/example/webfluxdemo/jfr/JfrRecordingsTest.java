@@ -0,0 +1,115 @@
+package com.example.webfluxdemo.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecordingsTest {
+
+    private JfrRecordings recordings;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        recordings = new JfrRecordings(new JfrProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        recordings.close();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void stop_ShouldReturnFileWithPhaseEvents() throws IOException {
+        // Given
+        recordings.start(Duration.ofMinutes(1), null);
+        assertEquals("RUNNING", recordings.status().state());
+
+        // When
+        StepVerifier.create(UserPhases.trace("getUserById", UserPhase.FIND, Mono.just("user")))
+                .expectNext("user")
+                .verifyComplete();
+        StepVerifier.create(UserPhases.trace("getAllUsers", UserPhase.FIND, Flux.just(1, 2, 3)))
+                .expectNextCount(3)
+                .verifyComplete();
+        StepVerifier.create(UserPhases.trace("createUser", UserPhase.SAVE,
+                        Mono.error(new IllegalStateException("连接已断开"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertThrows(IllegalArgumentException.class, () -> UserPhases.trace("updateUser", UserPhase.HASH,
+                (Runnable) () -> {
+                    throw new IllegalArgumentException("密码不符合强度要求");
+                }));
+        file = recordings.stop();
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.webfluxdemo.UserPhase"))
+                .toList();
+        assertEquals(4, events.size());
+        RecordedEvent find = find(events, "getAllUsers");
+        assertEquals("FIND", find.getString("phase"));
+        assertEquals("success", find.getString("outcome"));
+        assertEquals(3, find.getLong("rows"));
+        RecordedEvent save = find(events, "createUser");
+        assertEquals("error", save.getString("outcome"));
+        assertEquals(IllegalStateException.class.getName(), save.getString("error"));
+        assertEquals("error", find(events, "updateUser").getString("outcome"));
+        assertEquals("NONE", recordings.status().state());
+    }
+
+    @Test
+    void trace_WithoutRecording_ShouldPassThrough() {
+        // When & Then
+        StepVerifier.create(UserPhases.trace("countAllUsers", UserPhase.COUNT, Mono.just(5L)))
+                .expectNext(5L)
+                .verifyComplete();
+    }
+
+    @Test
+    void start_InvalidArguments_ShouldThrowIllegalArgument() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(Duration.ofHours(1), null));
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(Duration.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(null, "no-such-settings"));
+    }
+
+    @Test
+    void start_WhileRunning_ShouldThrowIllegalState() {
+        // Given
+        recordings.start(null, "profile");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> recordings.start(null, null));
+        assertEquals("profile", recordings.status().settings());
+    }
+
+    @Test
+    void stop_WithoutRecording_ShouldThrowIllegalState() {
+        // When & Then
+        assertThrows(IllegalStateException.class, recordings::stop);
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String operation) {
+        return events.stream()
+                .filter(event -> operation.equals(event.getString("operation")))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.webfluxdemo.json;
+
+import com.example.webfluxdemo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonSerializerTest {
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper fastMapper;
+
+    @BeforeEach
+    void setUp() {
+        // 与 Spring Boot 默认配置一致：时间以 ISO 字符串输出
+        defaultMapper = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        fastMapper = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new SimpleModule("fast-json")
+                        .addSerializer(User.class, new UserJsonSerializer())
+                        .addSerializer(LocalDateTime.class, FastLocalDateTimeSerializer.INSTANCE),
+                        new BlackbirdModule())
+                .build();
+    }
+
+    @Test
+    void serialize_ShouldMatchDefaultBeanSerializer() throws Exception {
+        // Given
+        List<User> users = List.of(
+                new User(1L, "john_doe", "john@example.com", "$2a$10$hash", true, "Hello \"John\"\n",
+                        LocalDateTime.of(2024, 1, 2, 3, 4), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000)),
+                new User(null, "new_user", "new@example.com", null, null, null, null, null),
+                new User(2L, "jane", "jane@example.com", "x", false, "这是个人简介",
+                        LocalDateTime.of(1999, 12, 31, 23, 59, 59, 1), LocalDateTime.of(2024, 6, 1, 0, 0, 0, 999_999_999)));
+        Map<String, Object> response = Map.of("success", true, "data", users);
+
+        // When & Then
+        assertEquals(defaultMapper.writeValueAsString(response), fastMapper.writeValueAsString(response));
+        for (User user : users) {
+            assertEquals(defaultMapper.writeValueAsString(user), fastMapper.writeValueAsString(user));
+        }
+    }
+
+    @Test
+    void serialize_ShouldNeverWritePasswordButStillReadIt() throws Exception {
+        // Given
+        User user = new User(1L, "john_doe", "john@example.com", "$2a$10$hash", true, null, null, null);
+
+        // When
+        String json = fastMapper.writeValueAsString(user);
+        User parsed = fastMapper.readValue(
+                "{\"username\":\"john_doe\",\"email\":\"john@example.com\",\"password\":\"Password123!\"}", User.class);
+
+        // Then
+        assertFalse(json.contains("password"), json);
+        assertFalse(json.contains("$2a$10$hash"), json);
+        assertEquals("Password123!", parsed.getPassword());
+    }
+
+    @Test
+    void serialize_WithTimestampsEnabled_ShouldFallBackToJavaTimeFormat() throws Exception {
+        // Given
+        User user = new User(1L, "john_doe", "john@example.com", "x", true, null,
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        defaultMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        fastMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // When & Then
+        assertEquals(defaultMapper.writeValueAsString(user), fastMapper.writeValueAsString(user));
+    }
+
+    @Test
+    void isoDateTimeWriter_ShouldMatchIsoLocalDateTime() {
+        // Given
+        Random random = new Random(42);
+
+        // When & Then
+        for (int i = 0; i < 10_000; i++) {
+            int nano = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                case 2 -> random.nextInt(1_000_000) * 1000;
+                default -> random.nextInt(1_000_000_000);
+            };
+            LocalDateTime value = LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), nano);
+            assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value), IsoDateTimeWriter.format(value));
+        }
+        LocalDateTime farFuture = LocalDateTime.of(12345, 1, 1, 0, 0);
+        assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(farFuture), IsoDateTimeWriter.format(farFuture));
+    }
+}
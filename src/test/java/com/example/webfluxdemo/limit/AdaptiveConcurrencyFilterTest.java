@@ -0,0 +1,133 @@
+package com.example.webfluxdemo.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private AdaptiveLimiterProperties properties;
+    private MeterRegistry meterRegistry;
+    private AdaptiveConcurrencyFilter filter;
+    private final AtomicInteger passed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveLimiterProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxQueueSize(0);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdaptiveConcurrencyFilter(properties, new ObjectMapper(), meterRegistry,
+                Schedulers.parallel(), System::nanoTime);
+    }
+
+    @Test
+    void filter_WhenLimitReached_ShouldReturn503WithRetryAfter() {
+        // Given: 第一个请求一直未完成
+        Sinks.Empty<Void> pending = Sinks.empty();
+        filter.filter(exchange(HttpMethod.GET, "/api/users/1"), exchange -> pending.asMono()).subscribe();
+        MockServerWebExchange second = exchange(HttpMethod.GET, "/api/users/2");
+
+        // When
+        StepVerifier.create(filter.filter(second, countingChain())).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getResponse().getStatusCode());
+        assertEquals("1", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        StepVerifier.create(second.getResponse().getBodyAsString())
+                .assertNext(body -> assertTrue(body.contains("\"success\":false")))
+                .verifyComplete();
+        assertEquals(0, passed.get());
+        assertEquals(1, meterRegistry.get("user.api.limiter.rejected")
+                .tag("endpoint", "read").tag("reason", "queue_full").counter().count());
+
+        // 完成后名额归还
+        pending.tryEmitEmpty();
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/api/users/3"), countingChain())).verifyComplete();
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void filter_ShouldKeepSeparateLimitsPerEndpointClass() {
+        // Given: 读取分类已满
+        filter.filter(exchange(HttpMethod.GET, "/api/users/1"), exchange -> Sinks.empty().asMono().then()).subscribe();
+
+        // When
+        MockServerWebExchange write = exchange(HttpMethod.DELETE, "/api/users/1");
+        StepVerifier.create(filter.filter(write, countingChain())).verifyComplete();
+
+        // Then
+        assertEquals(1, passed.get());
+        assertNull(write.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("user.api.limiter.inflight").tag("endpoint", "read").gauge().value());
+    }
+
+    @Test
+    void filter_WithPageSizeAboveMaximum_ShouldReturn400() {
+        // Given
+        MockServerWebExchange exchange = exchange(HttpMethod.GET, "/api/users/page?page=0&size=1000000");
+
+        // When
+        StepVerifier.create(filter.filter(exchange, countingChain())).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .assertNext(body -> assertTrue(body.contains("每页大小必须在1-100之间")))
+                .verifyComplete();
+        assertEquals(0, passed.get());
+    }
+
+    @Test
+    void filter_StreamingEndpoints_ShouldBypassLimiter() {
+        // Given
+        filter.filter(exchange(HttpMethod.GET, "/api/users/1"), exchange -> Sinks.empty().asMono().then()).subscribe();
+
+        // When
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/api/users/events"), countingChain()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/actuator/health"), countingChain()))
+                .verifyComplete();
+
+        // Then
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    void endpointClass_ShouldClassifyRequests() {
+        // When & Then
+        assertEquals(EndpointClass.READ, EndpointClass.of(HttpMethod.GET, "/api/users/page"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of(HttpMethod.POST, "/api/users"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(HttpMethod.GET, "/api/users/search/bio"));
+        assertEquals(EndpointClass.READ, EndpointClass.of(HttpMethod.GET, "/api/users/search/typeahead"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(HttpMethod.GET, "/api/users/query"));
+        assertEquals(EndpointClass.BULK, EndpointClass.of(HttpMethod.POST, "/api/users/bulk/delete"));
+        assertEquals(EndpointClass.STREAMING, EndpointClass.of(HttpMethod.GET, "/api/users/export"));
+        assertEquals(EndpointClass.OTHER, EndpointClass.of(HttpMethod.GET, "/swagger-ui.html"));
+    }
+
+    private WebFilterChain countingChain() {
+        return exchange -> Mono.fromRunnable(passed::incrementAndGet);
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, uri));
+    }
+}
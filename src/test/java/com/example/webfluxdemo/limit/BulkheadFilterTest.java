@@ -0,0 +1,166 @@
+package com.example.webfluxdemo.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private static final int POOL_SIZE = 20;
+
+    private BulkheadProperties properties;
+    private MeterRegistry meterRegistry;
+    private Bulkheads bulkheads;
+    private BulkheadFilter filter;
+    private final AtomicInteger passed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkheadProperties();
+        properties.getLanes().put("lookup", lane(64, 0, 0));
+        // 20 × 0.05 = 1 个连接
+        properties.getLanes().put("search", lane(8, 0.05, 0));
+        properties.getLanes().put("listing", lane(8, 0.2, 1));
+        meterRegistry = new SimpleMeterRegistry();
+        createFilter();
+    }
+
+    @Test
+    void filter_WhenSearchLaneFull_ShouldReject503AndKeepServingLookups() {
+        // Given: 一个模糊搜索一直未完成，占满 search 隔离舱
+        filter.filter(exchange(HttpMethod.GET, "/api/users/search/username?keyword=a"), pendingChain()).subscribe();
+        MockServerWebExchange search = exchange(HttpMethod.GET, "/api/users/search/email?keyword=b");
+
+        // When
+        StepVerifier.create(filter.filter(search, countingChain())).verifyComplete();
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/api/users/1"), countingChain())).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, search.getResponse().getStatusCode());
+        assertEquals("1", search.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, passed.get());
+        assertEquals(1, meterRegistry.get("user.api.bulkhead.rejected")
+                .tag("lane", "search").tag("reason", "queue_full").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.api.bulkhead.saturation").tag("lane", "search").gauge().value());
+    }
+
+    @Test
+    void filter_NonUserControllerRequests_ShouldPassThrough() {
+        // Given
+        filter.filter(exchange(HttpMethod.GET, "/api/users/search/username?keyword=a"), pendingChain()).subscribe();
+
+        // When
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/api/users/search/bio?q=a"), countingChain()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange(HttpMethod.GET, "/actuator/health"), countingChain()))
+                .verifyComplete();
+
+        // Then
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    void update_RaisingLimit_ShouldAdmitQueuedRequests() {
+        // Given: listing 上限 4，第 5 个请求排队
+        for (int i = 0; i < 4; i++) {
+            filter.filter(exchange(HttpMethod.GET, "/api/users"), pendingChain()).subscribe();
+        }
+        filter.filter(exchange(HttpMethod.GET, "/api/users/page?page=0&size=10"), countingChain()).subscribe();
+        assertEquals(1, bulkheads.status().get("listing").queued());
+
+        // When
+        Bulkheads.LaneStatus status = bulkheads.update("listing", null, 0.5);
+
+        // Then
+        assertEquals(8, status.limit());
+        assertEquals(0, status.queued());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void update_WithUnknownLaneOrInvalidValue_ShouldThrow() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bulkheads.update("reports", 4, null));
+        assertThrows(IllegalArgumentException.class, () -> bulkheads.update("search", 0, null));
+        assertThrows(IllegalArgumentException.class, () -> bulkheads.update("search", null, 1.5));
+    }
+
+    @Test
+    void status_ShouldReflectConnectionShareAndOperationMapping() {
+        // Given: COUNT 改到 lookup 隔离舱
+        properties.getOperations().put(UserOperation.COUNT, "lookup");
+        createFilter();
+
+        // When
+        var status = bulkheads.status();
+
+        // Then
+        assertEquals(List.of("lookup", "listing", "search", "write"), List.copyOf(status.keySet()));
+        assertEquals(64, status.get("lookup").limit());
+        assertEquals(4, status.get("listing").limit());
+        assertEquals(1, status.get("search").limit());
+        // 未配置的隔离舱使用默认值
+        assertEquals(16, status.get("write").limit());
+        assertTrue(status.get("lookup").operations().contains(UserOperation.COUNT));
+        assertEquals(List.of(UserOperation.LIST_ALL, UserOperation.PAGE), status.get("listing").operations());
+    }
+
+    @Test
+    void userOperation_ShouldMatchControllerRoutes() {
+        // When & Then
+        assertEquals(UserOperation.GET_BY_ID, UserOperation.of(request(HttpMethod.GET, "/api/users/42")));
+        assertEquals(UserOperation.COUNT, UserOperation.of(request(HttpMethod.GET, "/api/users/count")));
+        assertEquals(UserOperation.UPDATE, UserOperation.of(request(HttpMethod.PUT, "/api/users/42")));
+        assertEquals(UserOperation.CREATE, UserOperation.of(request(HttpMethod.POST, "/api/users")));
+        assertNull(UserOperation.of(request(HttpMethod.GET, "/api/users/events")));
+        assertNull(UserOperation.of(request(HttpMethod.POST, "/api/users/bulk/delete")));
+    }
+
+    private void createFilter() {
+        bulkheads = new Bulkheads(properties, meterRegistry, POOL_SIZE, Schedulers.parallel(), System::nanoTime);
+        filter = new BulkheadFilter(bulkheads, properties, new ObjectMapper());
+    }
+
+    private WebFilterChain countingChain() {
+        return exchange -> Mono.fromRunnable(passed::incrementAndGet);
+    }
+
+    private static WebFilterChain pendingChain() {
+        return exchange -> Sinks.empty().asMono().then();
+    }
+
+    private static BulkheadProperties.Lane lane(int maxConcurrent, double connectionShare, int maxQueueSize) {
+        BulkheadProperties.Lane lane = new BulkheadProperties.Lane();
+        lane.setMaxConcurrent(maxConcurrent);
+        lane.setConnectionShare(connectionShare);
+        lane.setMaxQueueSize(maxQueueSize);
+        lane.setMaxQueueWait(Duration.ofSeconds(5));
+        return lane;
+    }
+
+    private static MockServerHttpRequest request(HttpMethod method, String uri) {
+        return MockServerHttpRequest.method(method, uri).build();
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, uri));
+    }
+}
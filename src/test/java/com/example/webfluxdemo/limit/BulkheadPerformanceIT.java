@@ -0,0 +1,181 @@
+package com.example.webfluxdemo.limit;
+
+import com.example.webfluxdemo.support.LatencyStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 隔离舱集成测试：大量全表模糊搜索期间 GET /api/users/{id} 的延迟，对比放开 search 隔离舱与按配置限制两种情况
+ *
+ * 自适应限流关闭，只观察隔离舱的效果。H2 在调用线程上同步执行查询，全表扫描同时占用连接与事件循环，
+ * 因此这里把 search 隔离舱收紧到 2 个并发。
+ * 用法: mvn -Pembedded verify -Dit.test=BulkheadPerformanceIT -Dperf.seed-users=20000 -Dperf.search-concurrency=16
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///bulkhead_perf;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=${perf.seed-users:20000}",
+                "app.limiter.enabled=false",
+                "app.bulkhead.lanes.search.max-concurrent=2",
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BulkheadPerformanceIT {
+
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 500);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 8);
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(5);
+    private static final int SEARCH_CONCURRENCY = Integer.getInteger("perf.search-concurrency", 16);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.seed.users}")
+    private int seedUsers;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    private WebClient webClient;
+    /**
+     * 搜索负载使用独立的连接池，取消搜索时关闭的连接不会影响按 ID 查询
+     */
+    private WebClient searchClient;
+    private final List<LatencyStats> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        webClient = WebClient.create("http://localhost:" + port);
+        searchClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.create("search"))))
+                .build();
+        lookupLoad("warmup");
+        results.clear();
+    }
+
+    @AfterAll
+    void report() {
+        System.out.printf("%n模糊搜索期间的按 ID 查询延迟 (seed users=%d, concurrency=%d, search concurrency=%d)%n",
+                seedUsers, CONCURRENCY, SEARCH_CONCURRENCY);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    @Order(1)
+    void lookupBaseline() {
+        assertEquals(0, lookupLoad("GET /{id} (idle)").getErrors());
+    }
+
+    @Test
+    @Order(2)
+    void lookupsDuringSearches_WithoutBulkhead() {
+        Bulkheads.LaneStatus configured = bulkheads.status().get("search");
+        // 放开 search 隔离舱：搜索可以占满整个连接池，按 ID 查询可能超时
+        bulkheads.update("search", SEARCH_CONCURRENCY * 2, 0.0);
+        try {
+            underSearchLoad("GET /{id} (searches, no bulkhead)");
+        } finally {
+            bulkheads.update("search", configured.maxConcurrent(), configured.connectionShare());
+        }
+    }
+
+    @Test
+    @Order(3)
+    void lookupsDuringSearches_WithBulkhead() {
+        LatencyStats stats = underSearchLoad("GET /{id} (searches, bulkhead)");
+
+        LatencyStats unbounded = results.get(1);
+        System.out.printf("p99: 无隔离 %.1f ms (超时 %d), 隔离 %.1f ms (超时 %d)%n", unbounded.percentileMillis(99),
+                unbounded.getErrors(), stats.percentileMillis(99), stats.getErrors());
+        assertEquals(0, stats.getErrors());
+        assertTrue(unbounded.getErrors() > 0 || stats.percentileMillis(99) < unbounded.percentileMillis(99),
+                "隔离舱生效时按 ID 查询的 p99 应低于无隔离时");
+    }
+
+    /**
+     * 持续发出全表模糊搜索，同时测量按 ID 查询的延迟
+     */
+    private LatencyStats underSearchLoad(String name) {
+        AtomicInteger searches = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Disposable load = Flux.range(0, Integer.MAX_VALUE)
+                .flatMap(i -> searchClient.get()
+                        .uri(builder -> builder.path("/api/users/search/username")
+                                .queryParam("keyword", "{keyword}")
+                                .build("%zz" + i % 10 + "%"))
+                        .retrieve()
+                        .toBodilessEntity()
+                        .then()
+                        .doOnSuccess(ignored -> searches.incrementAndGet())
+                        .doOnError(e -> rejected.incrementAndGet())
+                        // 被拒绝后稍等再重试，与遵守 Retry-After 的客户端类似
+                        .onErrorResume(e -> Mono.delay(Duration.ofMillis(50)).then()), SEARCH_CONCURRENCY)
+                .subscribe();
+        try {
+            // 等待上一轮已取消的搜索执行完，并让本轮搜索负载建立
+            Thread.sleep(2000);
+            LatencyStats stats = lookupLoad(name);
+            System.out.printf("%s: 完成搜索 %d 次, 被拒绝 %d 次, search 隔离舱 %s%n",
+                    name, searches.get(), rejected.get(), bulkheads.status().get("search"));
+            return stats;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            load.dispose();
+        }
+    }
+
+    private LatencyStats lookupLoad(String name) {
+        LatencyStats stats = new LatencyStats(name, REQUESTS);
+        stats.start();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return webClient.get()
+                            .uri("/api/users/{id}", ThreadLocalRandom.current().nextLong(1, seedUsers + 1L))
+                            .retrieve()
+                            .bodyToMono(String.class)
+                            .timeout(LOOKUP_TIMEOUT)
+                            .doOnSuccess(ignored -> stats.record(System.nanoTime() - start))
+                            .doOnError(e -> stats.recordError())
+                            .onErrorResume(e -> Mono.empty());
+                }, CONCURRENCY)
+                .blockLast(Duration.ofMinutes(10));
+        stats.stop();
+        results.add(stats);
+        return stats;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.webfluxdemo.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1);
+    private AdaptiveLimiterProperties properties;
+    private VirtualTimeScheduler timer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveLimiterProperties();
+        properties.setAlgorithm(AdaptiveLimiterProperties.Algorithm.AIMD);
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setMaxQueueSize(2);
+        properties.setQueueTarget(Duration.ofMillis(10));
+        properties.setQueueInterval(Duration.ofMillis(100));
+        properties.setMaxQueueWait(Duration.ofSeconds(1));
+        timer = VirtualTimeScheduler.create();
+    }
+
+    @Test
+    void acquire_BelowLimit_ShouldGrantImmediately() {
+        // Given
+        ConcurrencyLimiter limiter = limiter();
+
+        // When
+        ConcurrencyLimiter.Permit first = limiter.acquire().block();
+        ConcurrencyLimiter.Permit second = limiter.acquire().block();
+
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(2, limiter.getInflight());
+        first.release(false);
+        second.release(false);
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void acquire_AtLimit_ShouldQueueUntilRelease() {
+        // Given
+        ConcurrencyLimiter limiter = limiter();
+        ConcurrencyLimiter.Permit first = limiter.acquire().block();
+        limiter.acquire().block();
+        AtomicReference<ConcurrencyLimiter.Permit> queued = new AtomicReference<>();
+
+        // When
+        limiter.acquire().subscribe(queued::set);
+        assertNull(queued.get());
+        assertEquals(1, limiter.getQueued());
+        advance(5);
+        first.release(false);
+
+        // Then
+        assertNotNull(queued.get());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void acquire_WhenQueueFull_ShouldReject() {
+        // Given
+        ConcurrencyLimiter limiter = limiter();
+        limiter.acquire().block();
+        limiter.acquire().block();
+        limiter.acquire().subscribe();
+        limiter.acquire().subscribe();
+
+        // When & Then
+        StepVerifier.create(limiter.acquire())
+                .expectErrorSatisfies(e -> assertEquals(LimitExceededException.Reason.QUEUE_FULL,
+                        ((LimitExceededException) e).getReason()))
+                .verify();
+    }
+
+    @Test
+    void acquire_WhenQueuedTooLong_ShouldTimeOut() {
+        // Given
+        ConcurrencyLimiter limiter = limiter();
+        limiter.acquire().block();
+        limiter.acquire().block();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        limiter.acquire().subscribe(permit -> { }, error::set);
+
+        // When
+        timer.advanceTimeBy(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(LimitExceededException.Reason.QUEUE_TIMEOUT, ((LimitExceededException) error.get()).getReason());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void release_WhenQueueStaysAboveTarget_ShouldShedWithCoDel() {
+        // Given: 上限固定为 1
+        properties.setInitialLimit(1);
+        properties.setMaxLimit(1);
+        properties.setMaxQueueSize(10);
+        ConcurrencyLimiter limiter = limiter();
+        ConcurrencyLimiter.Permit running = limiter.acquire().block();
+        List<Object> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire().subscribe(results::add, results::add);
+        }
+
+        // When: 第一次高于 target 时只开始计时并照常放行
+        advance(50);
+        running.release(false);
+        ConcurrencyLimiter.Permit second = (ConcurrencyLimiter.Permit) results.get(0);
+        // interval 之后排队时间仍高于 target：丢弃积压的请求，刚到达的请求照常放行
+        advance(200);
+        limiter.acquire().subscribe(results::add, results::add);
+        second.release(false);
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals(LimitExceededException.Reason.CODEL, ((LimitExceededException) results.get(1)).getReason());
+        assertEquals(LimitExceededException.Reason.CODEL, ((LimitExceededException) results.get(2)).getReason());
+        assertInstanceOf(ConcurrencyLimiter.Permit.class, results.get(3));
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void cancelWhileQueued_ShouldLeaveQueue() {
+        // Given
+        ConcurrencyLimiter limiter = limiter();
+        limiter.acquire().block();
+        limiter.acquire().block();
+
+        // When
+        limiter.acquire().subscribe().dispose();
+
+        // Then
+        assertEquals(0, limiter.getQueued());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void release_WithSlowOrFailedRequests_ShouldLowerLimit() {
+        // Given
+        properties.setInitialLimit(10);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        ConcurrencyLimiter limiter = limiter();
+
+        // When
+        ConcurrencyLimiter.Permit slow = limiter.acquire().block();
+        advance(500);
+        slow.release(false);
+        limiter.acquire().block().release(true);
+
+        // Then
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    private ConcurrencyLimiter limiter() {
+        return new ConcurrencyLimiter("read", LimitAlgorithm.create(properties),
+                ConcurrencyLimiter.QueuePolicy.of(properties), timer, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+}
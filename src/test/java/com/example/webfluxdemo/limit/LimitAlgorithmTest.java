@@ -0,0 +1,88 @@
+package com.example.webfluxdemo.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitAlgorithmTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private AdaptiveLimiterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveLimiterProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(100);
+    }
+
+    @Test
+    void gradient_WithStableLatencyUnderLoad_ShouldGrow() {
+        // Given
+        LimitAlgorithm limit = new GradientLimit(properties);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit(), false);
+        }
+
+        // Then
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void gradient_WhenLatencyRises_ShouldShrinkTowardsMinimum() {
+        // Given
+        LimitAlgorithm limit = new GradientLimit(properties);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit(), false);
+        }
+        int before = limit.getLimit();
+
+        // When: 请求开始排队，延迟升到 10 倍
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(100 * MILLIS, limit.getLimit(), false);
+        }
+
+        // Then
+        assertTrue(limit.getLimit() < before / 2, "limit = " + limit.getLimit());
+        assertTrue(limit.getLimit() >= properties.getMinLimit());
+    }
+
+    @Test
+    void gradient_WhenUnderutilized_ShouldNotGrow() {
+        // Given
+        LimitAlgorithm limit = new GradientLimit(properties);
+
+        // When: 并发只有上限的四分之一
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, 5, false);
+        }
+
+        // Then
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void aimd_ShouldIncreaseAdditivelyAndDecreaseMultiplicatively() {
+        // Given
+        properties.setLatencyThreshold(Duration.ofMillis(50));
+        properties.setBackoffRatio(0.5);
+        LimitAlgorithm limit = new AimdLimit(properties);
+
+        // When & Then
+        limit.onSample(10 * MILLIS, 20, false);
+        assertEquals(21, limit.getLimit());
+        limit.onSample(80 * MILLIS, 20, false);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(10 * MILLIS, 10, true);
+        assertEquals(5, limit.getLimit());
+        limit.onSample(10 * MILLIS, 5, true);
+        assertEquals(4, limit.getLimit());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.webfluxdemo.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIndexCatalogTest {
+
+    @Test
+    void findIndex_WithoutFilter_ShouldUseSortIndex() {
+        // When
+        Optional<IndexDefinition> index = UserIndexCatalog.findIndex(null, Set.of(), "username");
+
+        // Then
+        assertEquals("users_username_key", index.map(IndexDefinition::name).orElse(null));
+    }
+
+    @Test
+    void findIndex_WithActiveFilter_ShouldUsePartialIndex() {
+        // When & Then
+        assertEquals("idx_users_active_created_at",
+                UserIndexCatalog.findIndex(true, Set.of(), "createdAt").map(IndexDefinition::name).orElse(null));
+        assertEquals("idx_users_inactive_updated_at",
+                UserIndexCatalog.findIndex(false, Set.of(), "updatedAt").map(IndexDefinition::name).orElse(null));
+    }
+
+    @Test
+    void findIndex_ShouldPreferRangeColumnOverSortColumn() {
+        // When
+        Optional<IndexDefinition> index = UserIndexCatalog.findIndex(null, Set.of("updatedAt"), "createdAt");
+
+        // Then
+        assertEquals("idx_users_updated_at", index.map(IndexDefinition::name).orElse(null));
+    }
+
+    @Test
+    void findIndex_WhenNoPartialIndexMatches_ShouldReturnEmpty() {
+        // When & Then
+        assertTrue(UserIndexCatalog.findIndex(true, Set.of(), "username").isEmpty());
+        assertTrue(UserIndexCatalog.findIndex(false, Set.of(), "createdAt").isEmpty());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.webfluxdemo.query;
+
+import com.example.webfluxdemo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DefaultReactiveDataAccessStrategy;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.PreparedOperation;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class UserQueryServiceTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private R2dbcEntityTemplate template;
+
+    private UserQueryProperties properties;
+    private UserQueryService userQueryService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserQueryProperties();
+        userQueryService = new UserQueryService(template, properties);
+    }
+
+    @Test
+    void plan_ShouldBindFiltersAndUseMatchingIndex() {
+        // Given
+        UserQuery userQuery = new UserQuery();
+        userQuery.setIsActive(true);
+        userQuery.setCreatedFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+        userQuery.setEmailDomain("Example.com");
+        userQuery.setPage(2);
+        userQuery.setSize(10);
+
+        // When
+        UserQueryService.QueryPlan plan = userQueryService.plan(userQuery);
+
+        // Then
+        Query query = plan.query();
+        String criteria = query.getCriteria().orElseThrow().toString();
+        assertEquals("isActive = 'true' AND createdAt >= '2024-01-01T00:00' AND email LIKE '%@example.com'", criteria);
+        assertEquals(11, query.getLimit());
+        assertEquals(20, query.getOffset());
+        assertEquals("idx_users_active_created_at", plan.index());
+        assertTrue(plan.warnings().isEmpty());
+    }
+
+    @Test
+    void plan_WithMixedCaseEmails_ShouldMatchDomainIgnoringCase() {
+        // Given: 库中按注册时的大小写存储 (如 Bob@Example.COM)
+        UserQuery userQuery = new UserQuery();
+        userQuery.setEmailDomain("example.com");
+        StatementMapper mapper = new DefaultReactiveDataAccessStrategy(PostgresDialect.INSTANCE)
+                .getStatementMapper().forType(User.class);
+
+        // When
+        Query query = userQueryService.plan(userQuery).query();
+        PreparedOperation<?> select = mapper.getMappedObject(mapper.createSelect("users")
+                .withProjection("*")
+                .withCriteria(query.getCriteria().orElseThrow()));
+
+        // Then: 两侧都转为大写再比较
+        assertTrue(select.toQuery().contains("UPPER(users.email) LIKE UPPER($1)"), select.toQuery());
+    }
+
+    @Test
+    void plan_WhenUncovered_ShouldWarnByDefault() {
+        // Given
+        UserQuery userQuery = new UserQuery();
+        userQuery.setIsActive(true);
+        userQuery.setSort(List.of("username"));
+
+        // When
+        UserQueryService.QueryPlan plan = userQueryService.plan(userQuery);
+
+        // Then
+        assertNull(plan.index());
+        assertEquals(1, plan.warnings().size());
+    }
+
+    @Test
+    void plan_WhenUncoveredAndRejectPolicy_ShouldThrowException() {
+        // Given
+        properties.setUncoveredPolicy(UserQueryProperties.UncoveredPolicy.REJECT);
+        UserQuery userQuery = new UserQuery();
+        userQuery.setIsActive(false);
+        userQuery.setSort(List.of("-createdAt"));
+
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userQueryService.plan(userQuery));
+        assertTrue(e.getMessage().startsWith("没有覆盖该筛选与排序组合的索引"));
+    }
+
+    @Test
+    void plan_WithUnsupportedSortProperty_ShouldThrowException() {
+        // Given
+        UserQuery userQuery = new UserQuery();
+        userQuery.setSort(List.of("bio"));
+
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userQueryService.plan(userQuery));
+        assertTrue(e.getMessage().startsWith("不支持按 bio 排序"));
+    }
+
+    @Test
+    void plan_WithInvalidRangeOrPageSize_ShouldThrowException() {
+        // Given
+        UserQuery reversedRange = new UserQuery();
+        reversedRange.setUpdatedFrom(LocalDateTime.of(2024, 2, 1, 0, 0));
+        reversedRange.setUpdatedTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        UserQuery tooLarge = new UserQuery();
+        tooLarge.setSize(properties.getMaxPageSize() + 1);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> userQueryService.plan(reversedRange));
+        assertThrows(RuntimeException.class, () -> userQueryService.plan(tooLarge));
+    }
+
+    @Test
+    void sort_ShouldParseDirectionsAndAppendIdTieBreaker() {
+        // When
+        Sort sort = UserQueryService.sort(List.of("-updatedAt", "username"));
+
+        // Then
+        assertEquals(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("username"), Sort.Order.desc("id")), sort);
+        assertEquals(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), UserQueryService.sort(null));
+    }
+
+    @Test
+    void query_ShouldFetchOneExtraRowToDetectNextPage() {
+        // Given
+        UserQuery userQuery = new UserQuery();
+        userQuery.setSize(2);
+        given(template.select(User.class).matching(any(Query.class)).all())
+                .willReturn(Flux.just(user(1L), user(2L), user(3L)));
+
+        // When & Then
+        StepVerifier.create(userQueryService.query(userQuery))
+                .assertNext(result -> {
+                    assertEquals(2, result.getUsers().size());
+                    assertTrue(result.isHasNext());
+                    assertEquals("idx_users_created_at", result.getIndex());
+                })
+                .verifyComplete();
+    }
+
+    private static User user(Long id) {
+        User user = new User("user_" + id, "user_" + id + "@example.com", "encoded");
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.webfluxdemo.r2dbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 语句指标集成测试：请求经 r2dbc-proxy 记录到按仓库方法打标签的直方图，并由 /actuator/prometheus 导出
+ *
+ * 测试默认关闭指标导出，由 @AutoConfigureObservability 打开
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=QueryMetricsIT
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///query_metrics;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=1000",
+                "spring.rsocket.server.port=0",
+                "management.endpoints.web.exposure.include=prometheus",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@AutoConfigureObservability(tracing = false)
+class QueryMetricsIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void prometheus_ShouldExportQueryHistogramsByRepositoryMethod() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+
+        Flux.range(1, 50)
+                .flatMap(id -> webClient.get().uri("/api/users/{id}", id).retrieve().bodyToMono(String.class), 8)
+                .blockLast(Duration.ofMinutes(1));
+        webClient.get().uri("/api/users/page?page=0&size=20").retrieve().bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+
+        String scrape = webClient.get().uri("/actuator/prometheus").retrieve().bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+        List<String> lines = scrape.lines().filter(line -> line.startsWith("user_r2dbc_query")).toList();
+        lines.stream().filter(line -> line.contains("_count") || line.contains("_sum")).forEach(System.out::println);
+
+        assertTrue(lines.contains(
+                "user_r2dbc_query_seconds_count{method=\"UserRepository.findById\",outcome=\"success\"} 50"),
+                String.join("\n", lines));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("user_r2dbc_query_seconds_bucket{")
+                && line.contains("method=\"UserRepository.findById\"")));
+        assertTrue(lines.contains("user_r2dbc_query_rows_sum{method=\"UserRepository.findById\"} 50.0"),
+                String.join("\n", lines));
+        assertTrue(lines.contains("user_r2dbc_query_rows_sum{method=\"UserRepository.findAllWithPagination\"} 20.0"),
+                String.join("\n", lines));
+    }
+}
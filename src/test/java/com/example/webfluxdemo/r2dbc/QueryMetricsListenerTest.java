@@ -0,0 +1,127 @@
+package com.example.webfluxdemo.r2dbc;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.test.MockQueryExecutionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        QueryMetricsProperties properties = new QueryMetricsProperties();
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        listener = new QueryMetricsListener(properties, meterRegistry);
+    }
+
+    @Test
+    void afterQuery_ShouldRecordLatencyAndRowsByRepositoryMethod() {
+        // Given
+        MockQueryExecutionInfo execInfo = execution(QueryMethod.of("UserRepository.findById"), true, 12, 1);
+
+        // When
+        listener.afterQuery(execInfo);
+        listener.afterQuery(execInfo);
+
+        // Then
+        Timer timer = meterRegistry.get("user.r2dbc.query")
+                .tags("method", "UserRepository.findById", "outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertEquals(24, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(2, meterRegistry.get("user.r2dbc.query.rows")
+                .tag("method", "UserRepository.findById").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("user.r2dbc.query.slow").counter().count());
+    }
+
+    @Test
+    void afterQuery_WithoutMethodTag_ShouldUseUnattributed() {
+        // Given
+        MockQueryExecutionInfo execInfo = execution(Context.empty(), false, 5, 0);
+
+        // When
+        listener.afterQuery(execInfo);
+
+        // Then
+        assertEquals(1, meterRegistry.get("user.r2dbc.query")
+                .tags("method", QueryMethod.UNATTRIBUTED, "outcome", "error").timer().count());
+    }
+
+    @Test
+    void afterQuery_WhenSlow_ShouldCountSlowQuery() {
+        // Given
+        MockQueryExecutionInfo execInfo = execution(QueryMethod.of("UserRepository.findAllWithPagination"), true, 150, 20);
+
+        // When
+        listener.afterQuery(execInfo);
+
+        // Then
+        assertEquals(1, meterRegistry.get("user.r2dbc.query.slow")
+                .tag("method", "UserRepository.findAllWithPagination").counter().count());
+    }
+
+    @Test
+    void describe_ShouldRedactPasswordColumnInInsertAndUpdate() {
+        // Given: 多行 INSERT 按列数取模对应列，UPDATE 按 "列 = 占位符"
+        QueryInfo insert = query("INSERT INTO users (username, email, password) VALUES ($1, $2, $3), ($4, $5, $6)",
+                "alice", "alice@example.com", "$2a$10$hash", "bob", "bob@example.com", "$2a$10$hash");
+        QueryInfo update = query("UPDATE users SET username = $1, \"password\" = $2 WHERE users.id = $3",
+                "alice", "$2a$10$hash", 1L);
+
+        // When
+        String insertTypes = BindParameters.describe(insert, Set.of("password"), false);
+        String updateValues = BindParameters.describe(update, Set.of("password"), true);
+
+        // Then
+        assertEquals("[$1=String, $2=String, $3=***, $4=String, $5=String, $6=***]", insertTypes);
+        assertEquals("[$1=String 'alice', $2=***, $3=Long '1']", updateValues);
+        assertFalse(updateValues.contains("$2a$10$hash"));
+    }
+
+    @Test
+    void columns_ShouldMapComparisonsAndNamedPlaceholders() {
+        // When
+        Map<Object, String> columns = BindParameters.columns(
+                "SELECT * FROM users WHERE username LIKE :keyword AND users.is_active = ? AND id > ?");
+
+        // Then
+        assertEquals(Map.of("keyword", "username", 0, "is_active", 1, "id"), columns);
+    }
+
+    private static MockQueryExecutionInfo execution(ContextView context, boolean success, long millis, int rows) {
+        MockQueryExecutionInfo execInfo = MockQueryExecutionInfo.builder()
+                .queryInfo(new QueryInfo("SELECT * FROM users WHERE id = $1"))
+                .isSuccess(success)
+                .executeDuration(Duration.ofMillis(millis))
+                .currentResultCount(rows)
+                .build();
+        execInfo.getValueStore().put(ContextView.class, context);
+        return execInfo;
+    }
+
+    private static QueryInfo query(String sql, Object... values) {
+        QueryInfo query = new QueryInfo(sql);
+        Bindings bindings = new Bindings();
+        for (int i = 0; i < values.length; i++) {
+            bindings.addIndexBinding(Bindings.indexBinding(i, BoundValue.value(values[i])));
+        }
+        query.getBindingsList().add(bindings);
+        return query;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.webfluxdemo.repository;
+
+import com.example.webfluxdemo.model.User;
+import io.r2dbc.spi.Row;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class UserRowConvertersTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 2, 1, 8, 0);
+
+    private MappingR2dbcConverter converter;
+    private Row row;
+
+    @BeforeEach
+    void setUp() {
+        converter = new MappingR2dbcConverter(new R2dbcMappingContext(),
+                R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of(new UserRowReader(), new UserRowWriter())));
+        row = mock(Row.class);
+        given(row.get("id", Long.class)).willReturn(7L);
+        given(row.get("username", String.class)).willReturn("john_doe");
+        given(row.get("email", String.class)).willReturn("john@example.com");
+        given(row.get("password", String.class)).willReturn("encoded");
+        given(row.get("is_active", Boolean.class)).willReturn(false);
+        given(row.get("bio", String.class)).willReturn("Hello");
+        given(row.get("created_at", LocalDateTime.class)).willReturn(CREATED_AT);
+        given(row.get("updated_at", LocalDateTime.class)).willReturn(UPDATED_AT);
+    }
+
+    @Test
+    void read_ShouldUseRowReaderAndKeepStoredUpdatedAt() {
+        // When
+        User user = converter.read(User.class, row, null);
+
+        // Then
+        assertEquals(new User(7L, "john_doe", "john@example.com", "encoded", false, "Hello", CREATED_AT, UPDATED_AT),
+                user);
+    }
+
+    @Test
+    void write_ShouldMapEveryColumn() {
+        // Given
+        User user = new User(7L, "john_doe", "john@example.com", "encoded", true, null, CREATED_AT, UPDATED_AT);
+        OutboundRow outbound = new OutboundRow();
+
+        // When
+        converter.write(user, outbound);
+
+        // Then
+        assertEquals(8, outbound.size());
+        assertEquals(7L, outbound.get(SqlIdentifier.unquoted("id")).getValue());
+        assertEquals(true, outbound.get(SqlIdentifier.unquoted("is_active")).getValue());
+        assertEquals(UPDATED_AT, outbound.get(SqlIdentifier.unquoted("updated_at")).getValue());
+        assertFalse(outbound.get(SqlIdentifier.unquoted("bio")).hasValue());
+        assertEquals(String.class, outbound.get(SqlIdentifier.unquoted("bio")).getType());
+    }
+
+    @Test
+    void write_NewUser_ShouldLeaveIdEmpty() {
+        // Given
+        User user = new User("john_doe", "john@example.com", "encoded");
+
+        // When
+        OutboundRow outbound = new UserRowWriter().convert(user);
+
+        // Then
+        assertFalse(outbound.get(SqlIdentifier.unquoted("id")).hasValue());
+        assertEquals("john_doe", outbound.get(SqlIdentifier.unquoted("username")).getValue());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.webfluxdemo.search;
+
+import com.example.webfluxdemo.support.LatencyStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 个人简介全文检索的集成测试 (embedded profile，进程内倒排索引)：验证键集分页的完整性，
+ * 并按命中行数从少到多统计检索延迟。PostgreSQL tsvector 实现的延迟需在真实数据库上测量
+ *
+ * 用法: mvn -Pembedded verify -Dit.test=BioSearchPerformanceIT -Dperf.seed-users=200000
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///search_perf;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "app.seed.users=${perf.seed-users:100000}",
+                "spring.rsocket.server.port=0",
+                "logging.level.com.example.webfluxdemo=warn"
+        }
+)
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BioSearchPerformanceIT {
+
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 500);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.seed.users}")
+    private int seedUsers;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private InMemoryBioSearchEngine engine;
+
+    private WebClient webClient;
+    private final List<LatencyStats> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() throws InterruptedException {
+        webClient = WebClient.create("http://localhost:" + port);
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (!engine.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(engine.isReady(), "全文检索索引未在限定时间内构建完成");
+        load("warmup", "kotlin reactive", 20);
+        results.clear();
+    }
+
+    @AfterAll
+    void report() {
+        System.out.printf("%n个人简介全文检索 (seed users=%d, concurrency=%d, limit=20)%n", seedUsers, CONCURRENCY);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    @Order(1)
+    void pagingThroughAllMatches_ShouldReturnEachUserOnce() {
+        long expected = count("SELECT COUNT(*) FROM users WHERE bio LIKE '%kotlin%' AND bio LIKE '%reactive%'");
+
+        Set<Long> ids = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode body = page("kotlin reactive", 50, cursor).block(Duration.ofSeconds(30));
+            assertTrue(body.get("success").asBoolean());
+            body.get("data").forEach(hit -> {
+                assertTrue(ids.add(hit.get("id").asLong()), "分页结果重复");
+                assertTrue(hit.get("snippet").asText().contains("<mark>"));
+            });
+            cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, ids.size());
+        System.out.printf("kotlin reactive: %d 个结果, %d 页%n", ids.size(), pages);
+    }
+
+    @Test
+    @Order(2)
+    void latencyBySelectivity() {
+        load("single user (1 hit)", "number " + (seedUsers / 2), 20);
+        load("two topics (~0.8%)", "kotlin reactive", 20);
+        load("one topic (~12%)", "kotlin", 20);
+        load("excluded term", "kotlin -reactive", 20);
+        load("every user (100%)", "like", 20);
+    }
+
+    @Test
+    @Order(3)
+    void invalidCursor_ShouldBeRejected() {
+        Integer status = webClient.get()
+                .uri(uri -> uri.path("/api/users/search/bio").queryParam("q", "kotlin")
+                        .queryParam("cursor", "bogus").build())
+                .exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(400, status);
+    }
+
+    private void load(String name, String query, int limit) {
+        LatencyStats stats = new LatencyStats(name, REQUESTS);
+        stats.start();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return page(query, limit, null)
+                            .doOnSuccess(ignored -> stats.record(System.nanoTime() - start))
+                            .doOnError(e -> stats.recordError())
+                            .onErrorResume(e -> Mono.empty());
+                }, CONCURRENCY)
+                .blockLast(Duration.ofMinutes(5));
+        stats.stop();
+        results.add(stats);
+        assertEquals(0, stats.getErrors());
+    }
+
+    private Mono<JsonNode> page(String query, int limit, String cursor) {
+        return webClient.get()
+                .uri(uri -> uri.path("/api/users/search/bio")
+                        .queryParam("q", query)
+                        .queryParam("limit", limit)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
+
+    private long count(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).one().block();
+    }
+}
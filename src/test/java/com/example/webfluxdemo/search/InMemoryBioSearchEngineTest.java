@@ -0,0 +1,221 @@
+package com.example.webfluxdemo.search;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.search.InMemoryBioSearchEngine.BioRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryBioSearchEngineTest {
+
+    private BioSearchProperties properties;
+    private InMemoryBioSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BioSearchProperties();
+        properties.setMaxLimit(10);
+        engine = new InMemoryBioSearchEngine(null, null, properties);
+    }
+
+    @Test
+    void search_BeforeIndexIsBuilt_ShouldFail() {
+        // When & Then
+        StepVerifier.create(engine.search("kotlin", null, 5))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsAndRankDenserMatchesFirst() {
+        // Given
+        build(new BioRow(1, "a", "I like Kotlin and reactive streams, Kotlin everywhere"),
+                new BioRow(2, "b", "Kotlin developer who also writes a lot of Java and some reactive code at night"),
+                new BioRow(3, "c", "Kotlin only"),
+                new BioRow(4, "d", "Reactive Java"));
+
+        // When & Then
+        StepVerifier.create(engine.search("kotlin REACTIVE", null, 5))
+                .assertNext(page -> {
+                    assertEquals(List.of(1L, 2L), page.getHits().stream().map(BioSearchHit::getId).toList());
+                    assertTrue(page.getHits().get(0).getRank() > page.getHits().get(1).getRank());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void search_WithExcludedTerm_ShouldSkipRowsContainingIt() {
+        // Given
+        build(new BioRow(1, "a", "kotlin and java"),
+                new BioRow(2, "b", "kotlin and go"));
+
+        // When & Then
+        StepVerifier.create(engine.search("kotlin -java", null, 5))
+                .assertNext(page -> assertEquals(List.of(2L),
+                        page.getHits().stream().map(BioSearchHit::getId).toList()))
+                .verifyComplete();
+    }
+
+    @Test
+    void search_FollowingCursors_ShouldReturnEveryMatchOnceInRankOrder() {
+        // Given: 相同相关度的结果按 id 升序
+        List<BioRow> documents = new ArrayList<>();
+        for (int i = 1; i <= 23; i++) {
+            documents.add(new BioRow(i, "user_" + i, i % 3 == 0 ? "rust rust fan" : "rust fan"));
+        }
+        build(documents.toArray(new BioRow[0]));
+
+        // When
+        List<BioSearchHit> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            BioSearchPage page = engine.search("rust", cursor, 5).block();
+            all.addAll(page.getHits());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(5, pages);
+        assertEquals(23, all.size());
+        assertEquals(23, all.stream().map(BioSearchHit::getId).distinct().count());
+        assertTrue(all.subList(0, 7).stream().allMatch(hit -> hit.getId() % 3 == 0));
+        for (int i = 1; i < all.size(); i++) {
+            BioSearchHit previous = all.get(i - 1);
+            BioSearchHit current = all.get(i);
+            assertTrue(previous.getRank() > current.getRank()
+                    || (previous.getRank() == current.getRank() && previous.getId() < current.getId()));
+        }
+    }
+
+    @Test
+    void search_AfterIndexAndRemove_ShouldReflectChanges() {
+        // Given
+        build(new BioRow(1, "a", "golang"));
+
+        // When
+        engine.index(1, "a", "scala");
+        engine.index(2, "b", "scala too");
+        engine.remove(2);
+
+        // Then
+        StepVerifier.create(engine.search("golang", null, 5))
+                .assertNext(page -> assertTrue(page.getHits().isEmpty()))
+                .verifyComplete();
+        StepVerifier.create(engine.search("scala", null, 5))
+                .assertNext(page -> assertEquals(List.of(1L),
+                        page.getHits().stream().map(BioSearchHit::getId).toList()))
+                .verifyComplete();
+        assertEquals(1, engine.documentCount());
+    }
+
+    @Test
+    void search_WithInvalidArguments_ShouldFail() {
+        // Given
+        build(new BioRow(1, "a", "kotlin"));
+
+        // When & Then
+        StepVerifier.create(engine.search(" ", null, 5))
+                .expectErrorMessage("检索词不能为空")
+                .verify();
+        StepVerifier.create(engine.search("kotlin", null, 11))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(engine.search("kotlin", "not-a-cursor", 5))
+                .expectErrorMessage("无效的分页游标")
+                .verify();
+    }
+
+    @Test
+    void highlight_ShouldMarkMatchesWithinWindow() {
+        // Given
+        String bio = "One two three four five six seven eight Kotlin nine ten eleven twelve";
+
+        // When
+        String snippet = InMemoryBioSearchEngine.highlight(bio, Set.of("kotlin"), 6, "[", "]");
+
+        // Then
+        assertEquals("seven eight [Kotlin] nine ten eleven", snippet);
+    }
+
+    @Test
+    void highlight_ShouldEscapeHtmlInBio() {
+        // Given
+        String bio = "Kotlin <script>alert('x')</script> & more";
+
+        // When
+        String snippet = InMemoryBioSearchEngine.highlight(bio, Set.of("kotlin"), 10, "<mark>", "</mark>");
+
+        // Then
+        assertEquals("<mark>Kotlin</mark> &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; more", snippet);
+    }
+
+    @Test
+    void follow_ShouldCoalesceChangesAndRemoveMissingUsers() {
+        // Given: 每次读取耗时 100ms
+        build(new BioRow(1, "a", "kotlin"), new BioRow(2, "b", "kotlin"));
+        Sinks.Many<UserChangeEvent> events = Sinks.many().multicast().onBackpressureBuffer();
+        List<List<Long>> loads = new CopyOnWriteArrayList<>();
+        Function<List<Long>, Flux<BioRow>> loader = ids -> {
+            loads.add(List.copyOf(ids));
+            return Flux.fromIterable(ids)
+                    .filter(id -> id == 1L)
+                    .map(id -> new BioRow(id, "a", "reactive java"))
+                    .delaySubscription(Duration.ofMillis(100));
+        };
+
+        // When: 第一次读取期间，同一用户再次修改、另一个用户被删除
+        StepVerifier.create(engine.follow(events.asFlux(), loader))
+                .then(() -> events.tryEmitNext(UserChangeEvent.updated(1L, "a", "a@example.com")))
+                .then(() -> {
+                    events.tryEmitNext(UserChangeEvent.updated(1L, "a", "a@example.com"));
+                    events.tryEmitNext(UserChangeEvent.deleted(2L));
+                })
+                .thenAwait(Duration.ofMillis(400))
+                .then(events::tryEmitComplete)
+                .verifyComplete();
+
+        // Then: 读取期间的两个事件合并为一次读取
+        assertEquals(2, loads.size(), loads.toString());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(loads.get(1)));
+        StepVerifier.create(engine.search("kotlin", null, 5))
+                .assertNext(page -> assertTrue(page.getHits().isEmpty()))
+                .verifyComplete();
+        StepVerifier.create(engine.search("reactive", null, 5))
+                .assertNext(page -> assertEquals(List.of(1L), page.getHits().stream().map(BioSearchHit::getId).toList()))
+                .verifyComplete();
+    }
+
+    @Test
+    void cursor_ShouldRoundTripRankExactly() {
+        // Given
+        BioSearchCursor cursor = new BioSearchCursor(0.0607927f, 1024L);
+
+        // When
+        BioSearchCursor decoded = BioSearchCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+        assertTrue(decoded.precedes(0.05f, 1L));
+        assertTrue(decoded.precedes(0.0607927f, 1025L));
+        assertFalse(decoded.precedes(0.0607927f, 1024L));
+    }
+
+    private void build(BioRow... documents) {
+        engine.build(Flux.just(documents)).block();
+        assertTrue(engine.isReady());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.webfluxdemo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresBioSearchEngineTest {
+
+    private final PostgresBioSearchEngine engine = new PostgresBioSearchEngine(null, new BioSearchProperties());
+
+    @Test
+    void renderSnippet_ShouldEscapeBioAndKeepOnlyHighlightMarkup() {
+        // Given: ts_headline 以临时标记包裹命中词
+        String headline = "\uE000Kotlin\uE001 <img src=x onerror=alert(1)> & \"reactive\"";
+
+        // When
+        String snippet = engine.renderSnippet(headline);
+
+        // Then
+        assertEquals("<mark>Kotlin</mark> &lt;img src=x onerror=alert(1)&gt; &amp; &quot;reactive&quot;", snippet);
+    }
+
+    @Test
+    void headlineOptions_ShouldUseTemporaryMarkers() {
+        // When
+        String options = PostgresBioSearchEngine.headlineOptions(new BioSearchProperties());
+
+        // Then
+        assertFalse(options.contains("<mark>"), options);
+        assertTrue(options.startsWith("StartSel=\"\uE000\", StopSel=\"\uE001\""), options);
+    }
+}
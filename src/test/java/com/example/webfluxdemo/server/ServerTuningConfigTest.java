@@ -0,0 +1,103 @@
+package com.example.webfluxdemo.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ServerTuningConfigTest {
+
+    private final ServerTuningConfig config = new ServerTuningConfig();
+
+    @Test
+    void allocator_ShouldFollowProperties() {
+        // Given
+        ServerTuningProperties properties = new ServerTuningProperties();
+
+        // When & Then
+        assertSame(PooledByteBufAllocator.DEFAULT, ServerTuningConfig.allocator(properties));
+
+        properties.setPreferDirect(false);
+        ByteBufAllocator heapPooled = ServerTuningConfig.allocator(properties);
+        assertInstanceOf(PooledByteBufAllocator.class, heapPooled);
+        ByteBuf buffer = heapPooled.buffer();
+        try {
+            assertFalse(buffer.isDirect());
+        } finally {
+            buffer.release();
+        }
+
+        properties.setAllocator(ServerTuningProperties.Allocator.UNPOOLED);
+        assertInstanceOf(UnpooledByteBufAllocator.class, ServerTuningConfig.allocator(properties));
+    }
+
+    @Test
+    void transportName_WhenNativeNotPreferred_ShouldBeNio() {
+        // When & Then
+        assertEquals("nio", ServerTuningConfig.transportName(false));
+        assertTrue(ServerTuningConfig.transportName(true)
+                .matches("io_uring|epoll|kqueue|nio"));
+    }
+
+    @Test
+    void customizer_WithDedicatedLoops_ShouldServeHttp11AndH2c() {
+        // Given
+        ServerTuningProperties properties = new ServerTuningProperties();
+        properties.setWorkerThreads(2);
+        properties.setTransport(ServerTuningProperties.Transport.NIO);
+        ServerTuningConfig.ServerLoopResources loops = config.serverLoopResources(properties);
+        NettyServerCustomizer customizer = config.serverTuningCustomizer(properties, loops, serverProperties(true));
+
+        DisposableServer server = customizer.apply(HttpServer.create()
+                        .port(0)
+                        .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                        .handle((request, response) -> response.sendString(
+                                Mono.just(Thread.currentThread().getName()))))
+                .bindNow();
+        try {
+            // When
+            String http11 = get(HttpClient.create().protocol(HttpProtocol.HTTP11), server.port());
+            String h2c = get(HttpClient.create().protocol(HttpProtocol.H2C), server.port());
+
+            // Then: 请求由独立事件循环处理
+            assertTrue(http11.startsWith("http-server"), http11);
+            assertTrue(h2c.startsWith("http-server"), h2c);
+        } finally {
+            server.disposeNow();
+            loops.dispose();
+        }
+    }
+
+    private static String get(HttpClient client, int port) {
+        return client.get()
+                .uri("http://localhost:" + port + "/")
+                .responseContent()
+                .aggregate()
+                .asString()
+                .block(Duration.ofSeconds(10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ServerProperties> serverProperties(boolean http2) {
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getHttp2().setEnabled(http2);
+        ObjectProvider<ServerProperties> provider = mock(ObjectProvider.class);
+        given(provider.getIfAvailable()).willReturn(serverProperties);
+        return provider;
+    }
+}
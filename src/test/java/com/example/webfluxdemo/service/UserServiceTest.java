@@ -1,24 +1,37 @@
 package com.example.webfluxdemo.service;
 
+import com.example.webfluxdemo.cache.UserSearchCache;
+import com.example.webfluxdemo.deadline.Deadline;
+import com.example.webfluxdemo.deadline.DeadlineExceededException;
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import com.example.webfluxdemo.existence.UserExistenceFilter;
 import com.example.webfluxdemo.model.User;
 import com.example.webfluxdemo.repository.UserRepository;
 import com.example.webfluxdemo.security.PasswordUtils;
+import com.example.webfluxdemo.typeahead.UsernameTypeahead;
+import com.example.webfluxdemo.write.UserInsertCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +45,24 @@ class UserServiceTest {
     @Mock
     private PasswordUtils passwordUtils;
 
+    @Mock
+    private UserEventBus userEventBus;
+
+    @Mock
+    private UserExistenceFilter existenceFilter;
+
+    @Mock
+    private UserInsertCoalescer insertCoalescer;
+
+    @Mock
+    private UserSearchCache searchCache;
+
+    @Mock
+    private UsernameTypeahead typeahead;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     @InjectMocks
     private UserService userService;
 
@@ -40,6 +71,10 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(userEventBus.publish(any())).thenReturn(Mono.empty());
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
@@ -83,6 +118,144 @@ class UserServiceTest {
         verify(passwordUtils).encodePassword("Password123!");
     }
 
+    @Test
+    void createUser_ShouldPublishCreatedEvent() {
+        // Given
+        given(userRepository.existsByUsername("newuser")).willReturn(Mono.just(false));
+        given(userRepository.existsByEmail("newuser@example.com")).willReturn(Mono.just(false));
+        given(passwordUtils.encodePassword("Password123!")).willReturn("encodedPassword123");
+        given(passwordUtils.isPasswordStrong("Password123!")).willReturn(true);
+        given(userRepository.save(any(User.class))).willReturn(Mono.just(testUser));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userEventBus).publish(argThat(event ->
+                event.getType() == UserChangeEvent.Type.CREATED && event.getUserId().equals(1L)));
+        verify(typeahead).put(1L, testUser.getUsername());
+    }
+
+    @Test
+    void createUser_WhenFilterSaysAbsent_ShouldSkipExistsQueries() {
+        // Given
+        given(existenceFilter.definitelyAbsentUsername("newuser")).willReturn(true);
+        given(existenceFilter.definitelyAbsentEmail("newuser@example.com")).willReturn(true);
+        given(passwordUtils.encodePassword("Password123!")).willReturn("encodedPassword123");
+        given(passwordUtils.isPasswordStrong("Password123!")).willReturn(true);
+        given(userRepository.save(any(User.class))).willReturn(Mono.just(testUser));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(existenceFilter).add("testuser", "test@example.com");
+    }
+
+    @Test
+    void createUser_WhenFilterMissesConcurrentInsert_ShouldReportDuplicate() {
+        // Given
+        given(existenceFilter.definitelyAbsentUsername("newuser")).willReturn(true);
+        given(existenceFilter.definitelyAbsentEmail("newuser@example.com")).willReturn(true);
+        given(passwordUtils.encodePassword("Password123!")).willReturn("encodedPassword123");
+        given(passwordUtils.isPasswordStrong("Password123!")).willReturn(true);
+        given(userRepository.save(any(User.class)))
+                .willReturn(Mono.error(new DataIntegrityViolationException("duplicate key")));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(e -> e instanceof RuntimeException && e.getMessage().equals("用户名或邮箱已存在"))
+                .verify();
+        verifyNoInteractions(userEventBus);
+    }
+
+    @Test
+    void createUser_WhenCoalescerEnabled_ShouldInsertThroughCoalescer() {
+        // Given
+        given(userRepository.existsByUsername("newuser")).willReturn(Mono.just(false));
+        given(userRepository.existsByEmail("newuser@example.com")).willReturn(Mono.just(false));
+        given(passwordUtils.encodePassword("Password123!")).willReturn("encodedPassword123");
+        given(passwordUtils.isPasswordStrong("Password123!")).willReturn(true);
+        given(insertCoalescer.isEnabled()).willReturn(true);
+        given(insertCoalescer.insert(any(User.class))).willReturn(Mono.just(testUser));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .assertNext(user -> assertEquals(1L, user.getId()))
+                .verifyComplete();
+        verify(insertCoalescer).insert(argThat(user -> user.getUsername().equals("newuser")));
+        verify(userRepository, never()).save(any(User.class));
+        verify(existenceFilter).add("testuser", "test@example.com");
+    }
+
+    @Test
+    void createUser_WhenCoalescedInsertViolatesConstraint_ShouldReportDuplicate() {
+        // Given
+        given(userRepository.existsByUsername("newuser")).willReturn(Mono.just(false));
+        given(userRepository.existsByEmail("newuser@example.com")).willReturn(Mono.just(false));
+        given(passwordUtils.encodePassword("Password123!")).willReturn("encodedPassword123");
+        given(passwordUtils.isPasswordStrong("Password123!")).willReturn(true);
+        given(insertCoalescer.isEnabled()).willReturn(true);
+        given(insertCoalescer.insert(any(User.class)))
+                .willReturn(Mono.error(new DataIntegrityViolationException("duplicate key")));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMessage("用户名或邮箱已存在")
+                .verify();
+        verifyNoInteractions(userEventBus);
+    }
+
+    @Test
+    void createUser_WhenFilterSaysMaybe_ShouldQueryAndRecordResult() {
+        // Given
+        given(userRepository.existsByUsername("newuser")).willReturn(Mono.just(true));
+        given(userRepository.existsByEmail("newuser@example.com")).willReturn(Mono.just(false));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(RuntimeException.class)
+                .verify();
+        verify(existenceFilter).recordQueryResult(true);
+        verify(existenceFilter).recordQueryResult(false);
+    }
+
+    @Test
+    void createUser_WhenUsernameExists_ShouldNotPublishEvent() {
+        // Given
+        given(userRepository.existsByUsername("newuser")).willReturn(Mono.just(true));
+        given(userRepository.existsByEmail("newuser@example.com")).willReturn(Mono.just(false));
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest);
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(RuntimeException.class)
+                .verify();
+        verifyNoInteractions(userEventBus);
+    }
+
     @Test
     void createUser_WhenUsernameExists() {
         // Given
@@ -166,6 +339,39 @@ class UserServiceTest {
                 ;
     }
 
+    @Test
+    void createUser_WhenDeadlineExpired_ShouldNotStartHashing() {
+        // Given
+        given(existenceFilter.definitelyAbsentUsername("newuser")).willReturn(true);
+        given(existenceFilter.definitelyAbsentEmail("newuser@example.com")).willReturn(true);
+
+        // When
+        Mono<User> result = userService.createUser(newUserRequest)
+                .contextWrite(Deadline.after(Duration.ZERO).context());
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        verify(passwordUtils, never()).encodePassword(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void getUserById_WhenSlowerThanDeadline_ShouldFailWithDeadlineExceeded() {
+        // Given
+        given(userRepository.findById(1L)).willReturn(Mono.never());
+
+        // When
+        Mono<User> result = userService.getUserById(1L)
+                .contextWrite(Deadline.after(Duration.ofMillis(50)).context());
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     void getUserById_Success() {
         // Given
@@ -236,9 +442,11 @@ class UserServiceTest {
         // Given
         given(userRepository.findByUsernameContainingIgnoreCase("test"))
                 .willReturn(Flux.just(testUser));
+        given(searchCache.search(eq(UserSearchCache.Field.USERNAME), eq("test"), eq(0), any()))
+                .willAnswer(invocation -> invocation.<Function<String, Flux<User>>>getArgument(3).apply("test"));
 
         // When
-        Flux<User> result = userService.searchUsersByUsername("test");
+        Flux<User> result = userService.searchUsersByUsername("test", 0);
 
         // Then
         StepVerifier.create(result)
@@ -249,14 +457,33 @@ class UserServiceTest {
                 ;
     }
 
+    @Test
+    void searchUsersByUsername_Streaming_ShouldBypassCache() {
+        // Given
+        given(userRepository.findByUsernameContainingIgnoreCase("test"))
+                .willReturn(Flux.just(testUser));
+
+        // When
+        Flux<User> result = userService.searchUsersByUsername("test");
+
+        // Then
+        StepVerifier.create(result, 0)
+                .thenRequest(1)
+                .expectNext(testUser)
+                .verifyComplete();
+        verifyNoInteractions(searchCache);
+    }
+
     @Test
     void searchUsersByEmail_Success() {
         // Given
         given(userRepository.findByEmailContainingIgnoreCase("example"))
                 .willReturn(Flux.just(testUser));
+        given(searchCache.search(eq(UserSearchCache.Field.EMAIL), eq("example"), eq(0), any()))
+                .willAnswer(invocation -> invocation.<Function<String, Flux<User>>>getArgument(3).apply("example"));
 
         // When
-        Flux<User> result = userService.searchUsersByEmail("example");
+        Flux<User> result = userService.searchUsersByEmail("example", 0);
 
         // Then
         StepVerifier.create(result)
@@ -374,7 +601,7 @@ class UserServiceTest {
     @Test
     void deleteUser_Success() {
         // Given
-        given(userRepository.deleteById(1L)).willReturn(Mono.empty());
+        given(userRepository.deleteUserById(1L)).willReturn(Mono.just(1L));
 
         // When
         Mono<Void> result = userService.deleteUser(1L);
@@ -384,6 +611,78 @@ class UserServiceTest {
                 ;
     }
 
+    @Test
+    void deleteUser_ShouldPublishDeletedEvent() {
+        // Given
+        given(userRepository.deleteUserById(1L)).willReturn(Mono.just(1L));
+
+        // When
+        Mono<Void> result = userService.deleteUser(1L);
+
+        // Then
+        StepVerifier.create(result)
+                .verifyComplete();
+        verify(userEventBus).publish(argThat(event ->
+                event.getType() == UserChangeEvent.Type.DELETED && event.getUserId().equals(1L)));
+        verify(typeahead).remove(1L);
+    }
+
+    @Test
+    void deleteUser_WhenNoRowDeleted_ShouldNotPublishEvent() {
+        // Given
+        given(userRepository.deleteUserById(1L)).willReturn(Mono.just(0L));
+
+        // When
+        Mono<Void> result = userService.deleteUser(1L);
+
+        // Then
+        StepVerifier.create(result)
+                .verifyComplete();
+        verify(userEventBus, never()).publish(any());
+        verify(typeahead, never()).remove(any());
+    }
+
+    @Test
+    void updateUser_WhenUniqueConstraintViolated_ShouldReportDuplicateEmail() {
+        // Given: 邮箱检查通过后，其他请求先写入了同一个邮箱
+        given(userRepository.findById(1L)).willReturn(Mono.just(testUser));
+        given(userRepository.existsByEmail("taken@example.com")).willReturn(Mono.just(false));
+        given(userRepository.save(any(User.class))).willReturn(Mono.error(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"users_email_key\"")));
+        User update = new User();
+        update.setUsername("testuser");
+        update.setEmail("taken@example.com");
+
+        // When
+        Mono<User> result = userService.updateUser(1L, update);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMessage("邮箱已存在")
+                .verify();
+    }
+
+    @Test
+    void updateUser_WhenSaveFails_ShouldNotUpdateLocalIndexes() {
+        // Given
+        given(userRepository.findById(1L)).willReturn(Mono.just(testUser));
+        given(userRepository.save(any(User.class))).willReturn(Mono.error(new IllegalStateException("写入失败")));
+        User update = new User();
+        update.setUsername("testuser");
+        update.setEmail("test@example.com");
+        update.setBio("new bio");
+
+        // When
+        Mono<User> result = userService.updateUser(1L, update);
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(userEventBus, never()).publish(any());
+        verifyNoInteractions(typeahead);
+    }
+
     @Test
     void countAllUsers_Success() {
         // Given
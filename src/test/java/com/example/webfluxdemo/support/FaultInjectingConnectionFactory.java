@@ -0,0 +1,270 @@
+package com.example.webfluxdemo.support;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 按 {@link FaultPlan} 向真实数据库 (embedded profile 的 H2) 注入故障的 ConnectionFactory 装饰器
+ *
+ * 作为 ConnectionFactoryDecorator 注册时位于连接池内层: 建立连接前等待 acquireLatency；每条语句执行前
+ * 按类型等待注入的延迟，再返回错误 (R2dbcTransientResourceException) 或关闭底层连接
+ * (R2dbcNonTransientResourceException，之后 validate 返回 false，由连接池替换)。Batch 不注入故障
+ */
+public class FaultInjectingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final FaultPlan plan;
+
+    public FaultInjectingConnectionFactory(ConnectionFactory delegate, FaultPlan plan) {
+        this.delegate = delegate;
+        this.plan = plan;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            Duration latency = plan.sample(plan.acquireLatency());
+            Mono<Connection> connection = Mono.from(delegate.create())
+                    .doOnNext(created -> plan.connectionCreated())
+                    .map(created -> new FaultInjectingConnection(created, plan));
+            return latency.isZero() ? connection : Mono.delay(latency).then(connection);
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    static final class FaultInjectingConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+        private final FaultPlan plan;
+        private volatile boolean dropped;
+
+        FaultInjectingConnection(Connection delegate, FaultPlan plan) {
+            this.delegate = delegate;
+            this.plan = plan;
+        }
+
+        Mono<Void> drop() {
+            return Mono.defer(() -> {
+                dropped = true;
+                return Mono.from(delegate.close()).onErrorResume(e -> Mono.empty());
+            });
+        }
+
+        boolean isDropped() {
+            return dropped;
+        }
+
+        /**
+         * 断开后的事务操作与真实驱动一样以连接错误结束，而不是调用已关闭的底层连接
+         */
+        private Publisher<Void> whenOpen(Supplier<Publisher<Void>> operation) {
+            return Mono.defer(() -> dropped
+                    ? Mono.error(new R2dbcNonTransientResourceException("注入故障: 连接已断开"))
+                    : Mono.from(operation.get()));
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new FaultInjectingStatement(delegate.createStatement(sql), QueryType.of(sql), this, plan);
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return dropped ? Mono.just(false) : delegate.validate(depth);
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return dropped ? Mono.empty() : delegate.close();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return whenOpen(delegate::beginTransaction);
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return whenOpen(() -> delegate.beginTransaction(definition));
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return whenOpen(delegate::commitTransaction);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return whenOpen(delegate::rollbackTransaction);
+        }
+
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+    }
+
+    static final class FaultInjectingStatement implements Statement {
+
+        private final Statement delegate;
+        private final QueryType type;
+        private final FaultInjectingConnection connection;
+        private final FaultPlan plan;
+
+        FaultInjectingStatement(Statement delegate, QueryType type, FaultInjectingConnection connection,
+                                FaultPlan plan) {
+            this.delegate = delegate;
+            this.type = type;
+            this.connection = connection;
+            this.plan = plan;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            return Flux.defer(() -> {
+                if (connection.isDropped()) {
+                    return Flux.error(new R2dbcNonTransientResourceException("注入故障: 连接已断开"));
+                }
+                FaultPlan.Faults faults = plan.faults(type);
+                Duration latency = plan.sample(faults.latency());
+                Flux<Result> results = switch (plan.roll(faults)) {
+                    case DROP -> connection.drop()
+                            .thenMany(Flux.error(new R2dbcNonTransientResourceException("注入故障: 连接中断")));
+                    case ERROR -> Flux.error(new R2dbcTransientResourceException("注入故障: " + type + " 执行失败"));
+                    case EXECUTE -> Flux.defer(() -> Flux.<Result>from(delegate.execute()));
+                };
+                plan.started();
+                // 下游可能在处理 onError 时取消订阅，只把终止前收到的取消计为取消
+                AtomicBoolean terminated = new AtomicBoolean();
+                return (latency.isZero() ? results : Mono.delay(latency).thenMany(results))
+                        .doOnTerminate(() -> terminated.set(true))
+                        .doFinally(signal -> plan.finished(signal == SignalType.CANCEL && !terminated.get()));
+            });
+        }
+
+        @Override
+        public Statement add() {
+            delegate.add();
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            delegate.bind(index, value);
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            delegate.bind(name, value);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            delegate.bindNull(index, type);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            delegate.bindNull(name, type);
+            return this;
+        }
+
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            delegate.returnGeneratedValues(columns);
+            return this;
+        }
+
+        @Override
+        public Statement fetchSize(int rows) {
+            delegate.fetchSize(rows);
+            return this;
+        }
+    }
+}
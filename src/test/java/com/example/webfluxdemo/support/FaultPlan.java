@@ -0,0 +1,168 @@
+package com.example.webfluxdemo.support;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link FaultInjectingConnectionFactory} 的故障配置与计数，测试运行中可随时修改
+ *
+ * 随机数使用固定种子，相同的配置与语句数得到相同的注入次数
+ */
+public class FaultPlan {
+
+    /**
+     * 单类语句的故障: 执行前等待 latency，之后按 dropRate 断开连接、按 errorRate 返回错误
+     */
+    public record Faults(LatencyDistribution latency, double errorRate, double dropRate) {
+
+        public static final Faults NONE = new Faults(LatencyDistribution.none(), 0, 0);
+
+        public static Faults latency(LatencyDistribution latency) {
+            return new Faults(latency, 0, 0);
+        }
+
+        public static Faults errors(double errorRate) {
+            return new Faults(LatencyDistribution.none(), errorRate, 0);
+        }
+
+        public static Faults drops(double dropRate) {
+            return new Faults(LatencyDistribution.none(), 0, dropRate);
+        }
+    }
+
+    enum Outcome {
+        EXECUTE, ERROR, DROP
+    }
+
+    private final long seed;
+    private Random random;
+    private final Map<QueryType, Faults> faults = new ConcurrentHashMap<>();
+    private volatile LatencyDistribution acquireLatency = LatencyDistribution.none();
+
+    private final Map<QueryType, AtomicLong> statements = new EnumMap<>(QueryType.class);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public FaultPlan(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        for (QueryType type : QueryType.values()) {
+            statements.put(type, new AtomicLong());
+        }
+    }
+
+    public FaultPlan inject(QueryType type, Faults faults) {
+        this.faults.put(type, faults);
+        return this;
+    }
+
+    /**
+     * 建立物理连接前的等待；装饰器位于连接池内层，只影响连接池新建连接 (初始化、替换断开的连接)
+     */
+    public FaultPlan acquireLatency(LatencyDistribution acquireLatency) {
+        this.acquireLatency = acquireLatency;
+        return this;
+    }
+
+    /**
+     * 清除全部故障与计数
+     */
+    public synchronized void reset() {
+        faults.clear();
+        acquireLatency = LatencyDistribution.none();
+        random = new Random(seed);
+        statements.values().forEach(counter -> counter.set(0));
+        errors.set(0);
+        drops.set(0);
+        cancelled.set(0);
+        connectionsCreated.set(0);
+    }
+
+    Faults faults(QueryType type) {
+        statements.get(type).incrementAndGet();
+        return faults.getOrDefault(type, Faults.NONE);
+    }
+
+    synchronized Duration sample(LatencyDistribution distribution) {
+        return distribution.sample(random);
+    }
+
+    synchronized Outcome roll(Faults faults) {
+        if (faults.dropRate() == 0 && faults.errorRate() == 0) {
+            return Outcome.EXECUTE;
+        }
+        double value = random.nextDouble();
+        if (value < faults.dropRate()) {
+            drops.incrementAndGet();
+            return Outcome.DROP;
+        }
+        if (value < faults.dropRate() + faults.errorRate()) {
+            errors.incrementAndGet();
+            return Outcome.ERROR;
+        }
+        return Outcome.EXECUTE;
+    }
+
+    LatencyDistribution acquireLatency() {
+        return acquireLatency;
+    }
+
+    void started() {
+        active.incrementAndGet();
+    }
+
+    void finished(boolean cancelled) {
+        active.decrementAndGet();
+        if (cancelled) {
+            this.cancelled.incrementAndGet();
+        }
+    }
+
+    void connectionCreated() {
+        connectionsCreated.incrementAndGet();
+    }
+
+    public long statements(QueryType type) {
+        return statements.get(type).get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long drops() {
+        return drops.get();
+    }
+
+    /**
+     * 执行中 (含注入的等待) 被取消的语句数
+     */
+    public long cancelled() {
+        return cancelled.get();
+    }
+
+    public long connectionsCreated() {
+        return connectionsCreated.get();
+    }
+
+    /**
+     * 当前执行中的语句数
+     */
+    public int active() {
+        return active.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%s, errors=%d, drops=%d, cancelled=%d, connectionsCreated=%d, active=%d",
+                statements, errors(), drops(), cancelled(), connectionsCreated(), active());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.webfluxdemo.support;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * 注入的延迟分布
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    Duration sample(Random random);
+
+    static LatencyDistribution none() {
+        return random -> Duration.ZERO;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        return random -> Duration.ofNanos(minNanos + (long) (random.nextDouble() * range));
+    }
+
+    /**
+     * 对数正态分布，由中位数与 p99 确定，接近真实数据库的长尾
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.326;
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * 以 slowProbability 的概率取 slow (如锁等待、检查点)，其余取 base
+     */
+    static LatencyDistribution bimodal(Duration base, Duration slow, double slowProbability) {
+        return random -> random.nextDouble() < slowProbability ? slow : base;
+    }
+}
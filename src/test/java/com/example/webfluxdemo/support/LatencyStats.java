@@ -0,0 +1,80 @@
+package com.example.webfluxdemo.support;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 性能测试用的延迟统计，记录每次调用耗时并计算吞吐量与分位数
+ */
+public class LatencyStats {
+
+    private final String name;
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public LatencyStats(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    public void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    public int getCount() {
+        return Math.min(count.get(), samples.length);
+    }
+
+    public int getErrors() {
+        return errors.get();
+    }
+
+    public double throughput() {
+        double seconds = (endNanos - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? getCount() / seconds : 0;
+    }
+
+    /**
+     * 分位数（毫秒），percentile 取值 0-100
+     */
+    public double percentileMillis(double percentile) {
+        int n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(index, n - 1))] / 1_000_000.0;
+    }
+
+    public static String header() {
+        return String.format("%-28s %8s %7s %10s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                name, getCount(), getErrors(), throughput(),
+                percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.webfluxdemo.support;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 故障注入按语句类型配置，类型由 SQL 推断
+ */
+public enum QueryType {
+
+    /**
+     * 按主键或唯一键的等值查询，如 findById、existsByUsername
+     */
+    POINT_SELECT,
+
+    /**
+     * 其余 SELECT: 分页、模糊搜索、全表读取
+     */
+    RANGE_SELECT,
+    COUNT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER;
+
+    private static final Pattern POINT = Pattern.compile(
+            "where\\s+(?:\\w+\\.)?(?:id|username|email)\\s*=\\s*(?:\\$1|:\\w+|\\?)(?:\\s+limit\\s+\\d+)?\\s*$");
+
+    public static QueryType of(String sql) {
+        String normalized = sql.strip().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("select")) {
+            if (normalized.startsWith("select count(")) {
+                return COUNT;
+            }
+            return POINT.matcher(normalized).find() ? POINT_SELECT : RANGE_SELECT;
+        }
+        if (normalized.startsWith("insert")) {
+            return INSERT;
+        }
+        if (normalized.startsWith("update")) {
+            return UPDATE;
+        }
+        if (normalized.startsWith("delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+}
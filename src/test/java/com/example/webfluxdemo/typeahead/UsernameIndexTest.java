@@ -0,0 +1,215 @@
+package com.example.webfluxdemo.typeahead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameIndexTest {
+
+    @Test
+    void complete_ShouldReturnMatchesInOrderIgnoringCase() {
+        // Given
+        UsernameIndex index = loaded(
+                1L, "john_doe", 2L, "Johnny", 3L, "jane", 4L, "JOHN", 5L, "bob_john");
+
+        // When
+        List<UsernameCompletion> result = index.complete("joh", 10);
+
+        // Then
+        assertEquals(List.of(
+                new UsernameCompletion(4L, "JOHN"),
+                new UsernameCompletion(1L, "john_doe"),
+                new UsernameCompletion(2L, "Johnny")), result);
+        assertEquals(List.of(new UsernameCompletion(4L, "JOHN")), index.complete("JOHN", 1));
+        assertTrue(index.complete("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void complete_ShouldMergeUncompactedWrites() {
+        // Given
+        UsernameIndex index = loaded(1L, "alice", 2L, "alex", 3L, "albert");
+
+        // When: 新增、改名、删除均未合并
+        index.put(4L, "alfred");
+        index.put(2L, "zed");
+        index.remove(3L);
+
+        // Then
+        assertEquals(List.of(
+                new UsernameCompletion(4L, "alfred"),
+                new UsernameCompletion(1L, "alice")), index.complete("al", 10));
+        assertEquals(List.of(new UsernameCompletion(2L, "zed")), index.complete("z", 10));
+        assertEquals(3, index.pendingWrites());
+    }
+
+    @Test
+    void put_CaseOnlyRename_ShouldKeepNewSpelling() {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "John");
+
+        // When
+        index.put(1L, "john");
+
+        // Then
+        assertEquals(List.of(new UsernameCompletion(1L, "john")), index.complete("jo", 10));
+    }
+
+    @Test
+    void compact_ShouldFoldWritesIntoArray() {
+        // Given
+        UsernameIndex index = loaded(1L, "alice", 2L, "alex", 3L, "albert");
+        index.put(4L, "alfred");
+        index.put(2L, "zed");
+        index.remove(3L);
+
+        // When
+        index.compact();
+
+        // Then
+        assertEquals(0, index.pendingWrites());
+        assertEquals(3, index.size());
+        // alfred + alice + zed 共 14 字节，4 个偏移量，3 个 ID
+        assertEquals(14 + 4 * Integer.BYTES + 3 * Long.BYTES, index.memoryBytes());
+        assertEquals(List.of(
+                new UsernameCompletion(4L, "alfred"),
+                new UsernameCompletion(1L, "alice")), index.complete("al", 10));
+        assertEquals(List.of(new UsernameCompletion(2L, "zed")), index.complete("z", 10));
+    }
+
+    @Test
+    void load_ShouldKeepWritesMadeDuringBuild() {
+        // Given: 构建期间写入，读取的快照中仍是旧值
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "renamed");
+        index.remove(2L);
+        SortedUsernames snapshot = new SortedUsernames.Builder(4)
+                .add(1L, SortedUsernames.encode("original"))
+                .add(2L, SortedUsernames.encode("deleted"))
+                .add(3L, SortedUsernames.encode("other"))
+                .build();
+
+        // When
+        index.load(snapshot);
+
+        // Then
+        assertTrue(index.complete("original", 10).isEmpty());
+        assertTrue(index.complete("deleted", 10).isEmpty());
+        assertEquals(List.of(new UsernameCompletion(1L, "renamed")), index.complete("r", 10));
+        assertEquals(List.of(new UsernameCompletion(3L, "other")), index.complete("o", 10));
+    }
+
+    @Test
+    void complete_RandomWrites_ShouldMatchReferenceModel() {
+        // Given
+        Random random = new Random(42);
+        UsernameIndex index = new UsernameIndex();
+        TreeMap<Long, String> reference = new TreeMap<>();
+
+        // When: 随机写入并穿插合并
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                reference.remove(id);
+            } else {
+                String username = randomName(random);
+                index.put(id, username);
+                reference.put(id, username);
+            }
+            if (i % 700 == 0) {
+                index.compact();
+            }
+        }
+
+        // Then
+        for (String prefix : List.of("a", "B", "ab", "c_", "ba")) {
+            List<UsernameCompletion> expected = reference.entrySet().stream()
+                    .filter(e -> e.getValue().toLowerCase().startsWith(prefix.toLowerCase()))
+                    .map(e -> new UsernameCompletion(e.getKey(), e.getValue()))
+                    .sorted((x, y) -> {
+                        int result = x.username().toLowerCase().compareTo(y.username().toLowerCase());
+                        return result != 0 ? result : Long.compare(x.id(), y.id());
+                    })
+                    .limit(20)
+                    .toList();
+            assertEquals(expected, index.complete(prefix, 20), "prefix " + prefix);
+        }
+    }
+
+    @Test
+    void compact_ConcurrentWrites_ShouldKeepWritesMadeDuringMerge() throws Exception {
+        // Given
+        UsernameIndex index = new UsernameIndex();
+        Map<Long, String> reference = new ConcurrentHashMap<>();
+        Random random = new Random(7);
+        for (long id = 0; id < 20_000; id++) {
+            String username = randomName(random);
+            index.put(id, username);
+            reference.put(id, username);
+        }
+        index.compact();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread compactor = new Thread(() -> {
+            while (writing.get()) {
+                index.compact();
+            }
+        });
+
+        // When: 写入与合并并发
+        compactor.start();
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(25_000);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                reference.remove(id);
+            } else {
+                String username = randomName(random);
+                index.put(id, username);
+                reference.put(id, username);
+            }
+        }
+        writing.set(false);
+        compactor.join();
+        index.compact();
+
+        // Then
+        assertEquals(0, index.pendingWrites());
+        assertEquals(reference.size(), index.size());
+        for (String prefix : List.of("a", "B", "ab", "c_", "ba")) {
+            Set<UsernameCompletion> expected = reference.entrySet().stream()
+                    .filter(e -> e.getValue().toLowerCase().startsWith(prefix.toLowerCase()))
+                    .map(e -> new UsernameCompletion(e.getKey(), e.getValue()))
+                    .collect(Collectors.toSet());
+            assertEquals(expected, Set.copyOf(index.complete(prefix, Integer.MAX_VALUE)), "prefix " + prefix);
+        }
+    }
+
+    private static String randomName(Random random) {
+        String alphabet = "abcAB_";
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 3 + random.nextInt(4); i++) {
+            name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return name.toString();
+    }
+
+    private static UsernameIndex loaded(Object... idsAndNames) {
+        SortedUsernames.Builder builder = new SortedUsernames.Builder(idsAndNames.length / 2);
+        for (int i = 0; i < idsAndNames.length; i += 2) {
+            builder.add((Long) idsAndNames[i], SortedUsernames.encode((String) idsAndNames[i + 1]));
+        }
+        UsernameIndex index = new UsernameIndex();
+        index.load(builder.build());
+        return index;
+    }
+}
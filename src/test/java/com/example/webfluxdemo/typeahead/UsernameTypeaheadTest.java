@@ -0,0 +1,169 @@
+package com.example.webfluxdemo.typeahead;
+
+import com.example.webfluxdemo.event.UserChangeEvent;
+import com.example.webfluxdemo.event.UserEventBus;
+import com.example.webfluxdemo.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameTypeaheadTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private UserEventBus userEventBus;
+
+    private TypeaheadProperties properties;
+    private MeterRegistry meterRegistry;
+    private UsernameTypeahead typeahead;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TypeaheadProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        typeahead = new UsernameTypeahead(databaseClient, userEventBus, properties, meterRegistry);
+    }
+
+    @Test
+    void complete_BeforeBuild_ShouldFailWithIllegalState() {
+        // When & Then
+        StepVerifier.create(typeahead.complete("jo", 10))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertFalse(typeahead.isReady());
+    }
+
+    @Test
+    void complete_AfterBuild_ShouldReturnTopK() {
+        // Given
+        build(row(1L, "john_doe"), row(2L, "johnny"), row(3L, "jane"), row(4L, "john"));
+
+        // When & Then
+        StepVerifier.create(typeahead.complete(" jo ", 2))
+                .expectNext(List.of(new UsernameCompletion(4L, "john"), new UsernameCompletion(1L, "john_doe")))
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("user.typeahead.lookup").timer().count());
+        assertEquals(4, meterRegistry.get("user.typeahead.size").gauge().value());
+        assertTrue(meterRegistry.get("user.typeahead.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void complete_InvalidArguments_ShouldFailWithIllegalArgument() {
+        // Given
+        build(row(1L, "john"));
+
+        // When & Then
+        StepVerifier.create(typeahead.complete(" ", 10)).expectError(IllegalArgumentException.class).verify();
+        StepVerifier.create(typeahead.complete("jo%", 10)).expectError(IllegalArgumentException.class).verify();
+        StepVerifier.create(typeahead.complete("jo", 0)).expectError(IllegalArgumentException.class).verify();
+        StepVerifier.create(typeahead.complete("jo", properties.getMaxLimit() + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void putAndRemove_ShouldBeVisibleImmediately() {
+        // Given
+        build(row(1L, "john"), row(2L, "jane"));
+
+        // When
+        typeahead.put(3L, "joe");
+        typeahead.put(1L, "mike");
+        typeahead.remove(2L);
+
+        // Then
+        StepVerifier.create(typeahead.complete("j", 10))
+                .expectNext(List.of(new UsernameCompletion(3L, "joe")))
+                .verifyComplete();
+    }
+
+    @Test
+    void writesDuringBuild_ShouldNotBeLost() {
+        // Given: 读取全表期间写入
+        Flux<UsernameTypeahead.IdAndUsername> rows = Flux.just(row(1L, "john"), row(2L, "jane"))
+                .doOnComplete(() -> {
+                    typeahead.put(2L, "janet");
+                    typeahead.put(3L, "jack");
+                });
+
+        // When
+        StepVerifier.create(typeahead.build(rows)).verifyComplete();
+
+        // Then
+        StepVerifier.create(typeahead.complete("ja", 10))
+                .expectNext(List.of(new UsernameCompletion(3L, "jack"), new UsernameCompletion(2L, "janet")))
+                .verifyComplete();
+    }
+
+    @Test
+    void writes_OverThreshold_ShouldCompactInBackground() {
+        // Given
+        properties.setCompactThreshold(10);
+        build(row(1L, "seed"));
+
+        // When
+        IntStream.range(0, 10).forEach(i -> typeahead.put(100L + i, "user_" + i));
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("user.typeahead.pending").gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, meterRegistry.get("user.typeahead.pending").gauge().value());
+        assertEquals(11, meterRegistry.get("user.typeahead.size").gauge().value());
+        StepVerifier.create(typeahead.complete("user_", 50))
+                .expectNextMatches(completions -> completions.size() == 10)
+                .verifyComplete();
+    }
+
+    @Test
+    void start_ShouldApplyEventsFromOtherNodes() {
+        // Given
+        Sinks.Many<UserChangeEvent> events = Sinks.many().multicast().directBestEffort();
+        given(userEventBus.subscribe()).willReturn(events.asFlux());
+        typeahead.start(Flux.just(row(1L, "john"), row(2L, "jane")));
+
+        // When
+        events.tryEmitNext(UserChangeEvent.deleted(1L));
+        events.tryEmitNext(UserChangeEvent.created(user(3L, "jack")));
+
+        // Then
+        StepVerifier.create(typeahead.complete("j", 10))
+                .expectNext(List.of(new UsernameCompletion(3L, "jack"), new UsernameCompletion(2L, "jane")))
+                .verifyComplete();
+        typeahead.stop();
+    }
+
+    private void build(UsernameTypeahead.IdAndUsername... rows) {
+        StepVerifier.create(typeahead.build(Flux.just(rows))).verifyComplete();
+        assertTrue(typeahead.isReady());
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User(username, username + "@example.com", "encoded");
+        user.setId(id);
+        return user;
+    }
+
+    private static UsernameTypeahead.IdAndUsername row(Long id, String username) {
+        return new UsernameTypeahead.IdAndUsername(id, username);
+    }
+}
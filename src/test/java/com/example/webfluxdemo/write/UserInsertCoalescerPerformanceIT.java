@@ -0,0 +1,103 @@
+package com.example.webfluxdemo.write;
+
+import com.example.webfluxdemo.model.User;
+import com.example.webfluxdemo.repository.UserRepository;
+import com.example.webfluxdemo.support.LatencyStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 新用户插入吞吐量：逐行 UserRepository.save 与合并插入在相同连接池大小下的对比
+ *
+ * 不经过 HTTP 与 BCrypt，只测量插入本身。
+ * 用法: mvn -Pembedded verify -Dit.test=UserInsertCoalescerPerformanceIT -Dperf.inserts=5000 -Dperf.concurrency=64
+ */
+@SpringBootTest(properties = {
+        // 独立的内存库，避免写入的数据影响其他集成测试的测试数据
+        "spring.r2dbc.url=r2dbc:h2:mem:///insert_perf;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "app.seed.users=0",
+        "app.insert-coalescer.enabled=true",
+        "spring.rsocket.server.port=0",
+        "logging.level.com.example.webfluxdemo=warn"
+})
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserInsertCoalescerPerformanceIT {
+
+    private static final int INSERTS = Integer.getInteger("perf.inserts", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 64);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserInsertCoalescer insertCoalescer;
+
+    @Value("${spring.r2dbc.pool.max-size}")
+    private int poolSize;
+
+    private final List<LatencyStats> results = new ArrayList<>();
+
+    @AfterAll
+    void report() {
+        System.out.printf("%n新用户插入 (rows=%d, concurrency=%d, pool max-size=%d)%n", INSERTS, CONCURRENCY, poolSize);
+        System.out.println(LatencyStats.header());
+        results.forEach(System.out::println);
+        if (results.size() == 2) {
+            System.out.printf("合并插入吞吐量为逐行插入的 %.1f 倍%n", results.get(1).throughput() / results.get(0).throughput());
+        }
+    }
+
+    @Test
+    @Order(1)
+    void singleRowSave() {
+        // 预热
+        run("warmup save", "warm_save_", 500, userRepository::save);
+        run("warmup coalesced", "warm_batch_", 500, insertCoalescer::insert);
+        results.clear();
+
+        run("save (1 row/INSERT)", "save_", INSERTS, userRepository::save);
+    }
+
+    @Test
+    @Order(2)
+    void coalescedInsert() {
+        assertTrue(insertCoalescer.isEnabled());
+        run("coalesced INSERT", "batch_", INSERTS, insertCoalescer::insert);
+    }
+
+    private void run(String name, String prefix, int rows, Function<User, Mono<User>> insert) {
+        LatencyStats stats = new LatencyStats(name, rows);
+        stats.start();
+        Long inserted = Flux.range(0, rows)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return insert.apply(new User(prefix + i, prefix + i + "@perf.test", "encoded"))
+                            .doOnNext(user -> stats.record(System.nanoTime() - start));
+                }, CONCURRENCY)
+                .filter(user -> user.getId() != null)
+                .count()
+                .block(Duration.ofMinutes(5));
+        stats.stop();
+        results.add(stats);
+        assertEquals(rows, inserted);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.webfluxdemo.write;
+
+import com.example.webfluxdemo.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserInsertCoalescerTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private InsertCoalescerProperties properties;
+    private MeterRegistry meterRegistry;
+    private UserInsertCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InsertCoalescerProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(10);
+        properties.setMaxDelay(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    void insert_ConcurrentCallsWithinWindow_ShouldShareOneStatement() {
+        // Given
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // When
+        List<User> saved = Flux.range(0, 5)
+                .flatMap(i -> coalescer.insert(user("user_" + i)))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(5, batches.get(0).size());
+        assertEquals(5, saved.size());
+        saved.forEach(user -> assertNotNull(user.getId()));
+        assertEquals(5, meterRegistry.get("user.insert.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void insert_MoreThanMaxBatchSize_ShouldSplitIntoSeveralStatements() {
+        // Given
+        properties.setMaxBatchSize(2);
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // When
+        StepVerifier.create(Flux.range(0, 5).flatMap(i -> coalescer.insert(user("user_" + i))))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // Then
+        assertEquals(3, batches.size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2));
+    }
+
+    @Test
+    void insert_WhenOneRowViolatesConstraint_ShouldOnlyFailThatCaller() {
+        // Given
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // When
+        List<Object> results = Flux.just("user_a", "dup", "user_b")
+                .flatMap(name -> coalescer.insert(user(name))
+                        .<Object>map(User::getUsername)
+                        .onErrorResume(e -> Mono.just(e)))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(3, results.size());
+        assertTrue(results.contains("user_a"));
+        assertTrue(results.contains("user_b"));
+        assertTrue(results.stream().anyMatch(result -> result instanceof DataIntegrityViolationException));
+        // 一次合并尝试 + 三次逐行重试
+        assertEquals(4, batches.size());
+        assertEquals(1, meterRegistry.get("user.insert.batch.fallbacks").counter().count());
+    }
+
+    @Test
+    void insert_WhenStatementFailsForOtherReasons_ShouldFailWholeBatchWithoutRetry() {
+        // Given
+        coalescer = new UserInsertCoalescer(users -> {
+            batches.add(users.stream().map(User::getUsername).toList());
+            return Mono.error(new IllegalStateException("连接已断开"));
+        }, properties, meterRegistry);
+
+        // When
+        Long failures = Flux.range(0, 3)
+                .flatMap(i -> coalescer.insert(user("user_" + i))
+                        .map(user -> 0L)
+                        .onErrorResume(IllegalStateException.class, e -> Mono.just(1L)))
+                .reduce(0L, Long::sum)
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(3L, failures);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void insert_WhenCallerCancelsBeforeFlush_ShouldNotWriteThatRow() {
+        // Given
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // When: 第一个调用方在凑批窗口内超时取消
+        Mono<User> cancelled = coalescer.insert(user("impatient")).timeout(Duration.ofMillis(5));
+        StepVerifier.create(cancelled)
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(coalescer.insert(user("patient")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        assertEquals(List.of(List.of("patient")), batches);
+    }
+
+    @Test
+    void insert_FromManyThreads_ShouldCompleteEveryCaller() {
+        // Given
+        properties.setMaxBatchSize(64);
+        properties.setMaxDelay(Duration.ofMillis(5));
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // When
+        Long saved = Flux.range(0, 500)
+                .parallel(4)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> coalescer.insert(user("user_" + i)))
+                .sequential()
+                .count()
+                .block(Duration.ofSeconds(10));
+
+        // Then
+        assertEquals(500L, saved);
+        assertEquals(500, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void defaults_ShouldKeepCoalescingDisabled() {
+        assertFalse(new InsertCoalescerProperties().isEnabled());
+    }
+
+    @Test
+    void insert_AfterStop_ShouldFail() {
+        // Given
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+        coalescer.stop();
+
+        // When & Then
+        StepVerifier.create(coalescer.insert(user("late")))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertFalse(coalescer.isEnabled());
+    }
+
+    @Test
+    void isEnabled_WhenDisabled_ShouldReturnFalse() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        coalescer = new UserInsertCoalescer(this::write, properties, meterRegistry);
+
+        // Then
+        assertFalse(coalescer.isEnabled());
+    }
+
+    @Test
+    void insertSql_ShouldNumberParametersAcrossRows() {
+        // When & Then
+        assertEquals("INSERT INTO users (username, email, password, is_active, bio, created_at, updated_at) "
+                        + "VALUES ($1, $2, $3, $4, $5, $6, $7), ($8, $9, $10, $11, $12, $13, $14)",
+                UserInsertCoalescer.insertSql(2, false));
+        assertTrue(UserInsertCoalescer.insertSql(1, true)
+                .startsWith("INSERT INTO users (id, username"));
+        assertTrue(UserInsertCoalescer.insertSql(1, true).endsWith("($1, $2, $3, $4, $5, $6, $7, $8)"));
+    }
+
+    /**
+     * 模拟数据库：包含用户名 dup 的语句整体因唯一约束失败
+     */
+    private Mono<List<User>> write(List<User> users) {
+        batches.add(users.stream().map(User::getUsername).toList());
+        if (users.stream().anyMatch(user -> user.getUsername().equals("dup"))) {
+            return Mono.error(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        }
+        users.forEach(user -> user.setId(ids.incrementAndGet()));
+        return Mono.just(users);
+    }
+
+    private static User user(String username) {
+        return new User(username, username + "@example.com", "encoded");
+    }
+}